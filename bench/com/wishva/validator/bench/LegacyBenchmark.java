@@ -0,0 +1,128 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.bench;
+
+import com.wishva.validator.Spark;
+import com.wishva.validator.SparkException;
+import com.wishva.validator.v2.SparkString;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the deprecated {@code Spark} class with {@code SparkString} on the
+ * same rule chains.
+ *
+ * @author vishv
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+@SuppressWarnings("deprecation")
+public class LegacyBenchmark {
+
+    private static final String REGEX = "^[A-Z]{3}-[0-9]{4}$";
+
+    String email = "john.doe+news@mail.example.com";
+    String badEmail = "john.doe@@example";
+    String code = "ABC-1234";
+    String number = "123456";
+    String notANumber = "12ab";
+
+    @Benchmark
+    public Object sparkEmailValid() throws SparkException {
+        return new Spark("Email", this.email).required().email().minLength(5).maxLength(64).endString();
+    }
+
+    @Benchmark
+    public Object sparkStringEmailValid() throws SparkException {
+        return new SparkString("Email", this.email).required().email().minLength(5).maxLength(64).toString();
+    }
+
+    @Benchmark
+    public Object sparkEmailInvalid() {
+        try {
+            return new Spark("Email", this.badEmail).required().email().endString();
+        } catch (SparkException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object sparkStringEmailInvalid() {
+        try {
+            return new SparkString("Email", this.badEmail).required().email().toString();
+        } catch (SparkException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object sparkRegex() throws SparkException {
+        return new Spark("Code", this.code).regex(REGEX).endString();
+    }
+
+    @Benchmark
+    public Object sparkStringRegex() throws SparkException {
+        return new SparkString("Code", this.code).regex(REGEX).toString();
+    }
+
+    @Benchmark
+    public int sparkToIntValid() throws SparkException {
+        return new Spark("Age", this.number).toInt().endInt();
+    }
+
+    @Benchmark
+    public int sparkStringToIntValid() throws SparkException {
+        return new SparkString("Age", this.number).toInt().toInt();
+    }
+
+    @Benchmark
+    public Object sparkToIntInvalid() {
+        try {
+            return new Spark("Age", this.notANumber).toInt();
+        } catch (SparkException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object sparkStringToIntInvalid() {
+        try {
+            return new SparkString("Age", this.notANumber).toInt();
+        } catch (SparkException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.bench;
+
+import com.wishva.validator.SparkException;
+import com.wishva.validator.v2.SparkDouble;
+import com.wishva.validator.v2.SparkDoubleSchema;
+import com.wishva.validator.v2.SparkDoubleValidator;
+import com.wishva.validator.v2.SparkInt;
+import com.wishva.validator.v2.SparkIntSchema;
+import com.wishva.validator.v2.SparkIntValidator;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the {@code min}/{@code max} rules of {@code SparkInt} and
+ * {@code SparkDouble} and of their compiled validators, on valid input and on
+ * input that fails the rule.
+ *
+ * @author vishv
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class NumberRuleBenchmark {
+
+    private static final SparkIntValidator AGE = new SparkIntSchema("Age").min(18).max(120).compile();
+    private static final SparkDoubleValidator PRICE = new SparkDoubleSchema("Price").min(0.01).max(10000).compile();
+
+    int age = 42;
+    int badAge = 12;
+    double price = 19.99;
+    double badPrice = 20000.5;
+
+    @Benchmark
+    public int intMinMaxValid() throws SparkException {
+        return new SparkInt("Age", this.age).min(18).max(120).toInt();
+    }
+
+    @Benchmark
+    public Object intMinMaxInvalid() {
+        try {
+            return new SparkInt("Age", this.badAge).min(18).max(120);
+        } catch (SparkException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public int intCompiledValid() throws SparkException {
+        return AGE.validate(this.age);
+    }
+
+    @Benchmark
+    public Object intCompiledInvalid() {
+        try {
+            return AGE.validate(this.badAge);
+        } catch (SparkException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public double doubleMinMaxValid() throws SparkException {
+        return new SparkDouble("Price", this.price).min(0.01).max(10000).toDouble();
+    }
+
+    @Benchmark
+    public Object doubleMinMaxInvalid() {
+        try {
+            return new SparkDouble("Price", this.badPrice).min(0.01).max(10000);
+        } catch (SparkException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public double doubleCompiledValid() throws SparkException {
+        return PRICE.validate(this.price);
+    }
+
+    @Benchmark
+    public Object doubleCompiledInvalid() {
+        try {
+            return PRICE.validate(this.badPrice);
+        } catch (SparkException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.bench;
+
+import com.wishva.validator.SparkException;
+import com.wishva.validator.v2.SparkString;
+import com.wishva.validator.v2.SparkStringSchema;
+import com.wishva.validator.v2.SparkStringValidator;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the {@code SparkString} rules and their compiled
+ * {@code SparkStringValidator} counterparts, on valid input and on input that
+ * fails the rule.
+ *
+ * @author vishv
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class StringRuleBenchmark {
+
+    private static final String REGEX = "^[A-Z]{3}-[0-9]{4}$";
+
+    private static final SparkStringValidator REQUIRED = new SparkStringSchema("Name").required().compile();
+    private static final SparkStringValidator EMAIL = new SparkStringSchema("Email").email().compile();
+    private static final SparkStringValidator PATTERN = new SparkStringSchema("Code").regex(REGEX).compile();
+    private static final SparkStringValidator LENGTH
+            = new SparkStringSchema("Password").minLength(8).maxLength(64).compile();
+
+    String name = "Wishva";
+    String blank = "   ";
+    String email = "john.doe+news@mail.example.com";
+    String badEmail = "john.doe@@example";
+    String code = "ABC-1234";
+    String badCode = "abc-12345";
+    String password = "correct-horse-battery";
+    String shortPassword = "secret";
+    String number = "123456";
+    String notANumber = "12ab";
+
+    // required
+    @Benchmark
+    public Object requiredValid() throws SparkException {
+        return new SparkString("Name", this.name).required();
+    }
+
+    @Benchmark
+    public Object requiredInvalid() {
+        try {
+            return new SparkString("Name", this.blank).required();
+        } catch (SparkException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object requiredCompiledValid() throws SparkException {
+        return REQUIRED.validate(this.name);
+    }
+
+    @Benchmark
+    public Object requiredCompiledInvalid() {
+        try {
+            return REQUIRED.validate(this.blank);
+        } catch (SparkException e) {
+            return e;
+        }
+    }
+
+    // email
+    @Benchmark
+    public Object emailValid() throws SparkException {
+        return new SparkString("Email", this.email).email();
+    }
+
+    @Benchmark
+    public Object emailInvalid() {
+        try {
+            return new SparkString("Email", this.badEmail).email();
+        } catch (SparkException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object emailCompiledValid() throws SparkException {
+        return EMAIL.validate(this.email);
+    }
+
+    @Benchmark
+    public Object emailCompiledInvalid() {
+        try {
+            return EMAIL.validate(this.badEmail);
+        } catch (SparkException e) {
+            return e;
+        }
+    }
+
+    // regex
+    @Benchmark
+    public Object regexValid() throws SparkException {
+        return new SparkString("Code", this.code).regex(REGEX);
+    }
+
+    @Benchmark
+    public Object regexInvalid() {
+        try {
+            return new SparkString("Code", this.badCode).regex(REGEX);
+        } catch (SparkException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object regexCompiledValid() throws SparkException {
+        return PATTERN.validate(this.code);
+    }
+
+    @Benchmark
+    public Object regexCompiledInvalid() {
+        try {
+            return PATTERN.validate(this.badCode);
+        } catch (SparkException e) {
+            return e;
+        }
+    }
+
+    // minLength / maxLength
+    @Benchmark
+    public Object lengthValid() throws SparkException {
+        return new SparkString("Password", this.password).minLength(8).maxLength(64);
+    }
+
+    @Benchmark
+    public Object lengthInvalid() {
+        try {
+            return new SparkString("Password", this.shortPassword).minLength(8).maxLength(64);
+        } catch (SparkException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object lengthCompiledValid() throws SparkException {
+        return LENGTH.validate(this.password);
+    }
+
+    @Benchmark
+    public Object lengthCompiledInvalid() {
+        try {
+            return LENGTH.validate(this.shortPassword);
+        } catch (SparkException e) {
+            return e;
+        }
+    }
+
+    // toInt
+    @Benchmark
+    public int toIntValid() throws SparkException {
+        return new SparkString("Age", this.number).toInt().toInt();
+    }
+
+    @Benchmark
+    public Object toIntInvalid() {
+        try {
+            return new SparkString("Age", this.notANumber).toInt();
+        } catch (SparkException e) {
+            return e;
+        }
+    }
+}
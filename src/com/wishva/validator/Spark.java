@@ -23,8 +23,6 @@
  */
 package com.wishva.validator;
 
-import java.util.regex.Pattern;
-
 /**
  * The {@code Spark} class provides a fluent API for validating user input.
  *
@@ -64,10 +62,6 @@ public class Spark {
     private String inputStr = null;
     private int inputInt = -9903;
 
-    private static final String EMAIL_REGEX
-            = "^[a-zA-Z0-9_+&*-]+(?:\\.[a-zA-Z0-9_+&*-]+)*@(?:[a-zA-Z0-9-]+\\.)+[a-zA-Z]{2,7}$";
-    private static final Pattern pattern = Pattern.compile(EMAIL_REGEX);
-
     /**
      * Ensures that the current input is a {@code String}.
      *
@@ -130,6 +124,11 @@ public class Spark {
         this.inputInt = input;
     }
 
+    private SparkRuleException fail(String code, String template, Object... args) {
+
+        return new SparkRuleException(code, this.displayName, template, args, SparkRuleException.isStackless());
+    }
+
     // String validation methods
     /**
      * Ensures that the {@code String} input is not empty or blank.
@@ -140,7 +139,7 @@ public class Spark {
     public Spark required() throws SparkException {
 
         if (this.inputStr.isBlank()) {
-            throw new SparkException(displayName + " cannot be empty!");
+            throw fail("required", "{0} cannot be empty!");
         }
         return this;
     }
@@ -170,8 +169,8 @@ public class Spark {
     public Spark email() throws SparkException {
         this.isString();
 
-        if (!pattern.matcher(this.inputStr).matches()) {
-            throw new SparkException("Invalid Email!");
+        if (!SparkEmail.isValid(this.inputStr)) {
+            throw fail("email", "Invalid Email!");
         }
         return this;
     }
@@ -204,7 +203,7 @@ public class Spark {
         this.isString();
 
         if (this.inputStr.length() < length) {
-            throw new SparkException(displayName + " must include more than " + length + " characters!");
+            throw fail("minLength", "{0} must include more than {1} characters!", length);
         }
         return this;
     }
@@ -237,7 +236,7 @@ public class Spark {
         this.isString();
 
         if (this.inputStr.length() > length) {
-            throw new SparkException(displayName + " must include less than " + length + " characters!");
+            throw fail("maxLength", "{0} must include less than {1} characters!", length);
         }
         return this;
     }
@@ -268,8 +267,8 @@ public class Spark {
      */
     public Spark regex(String pattern) throws SparkException {
 
-        if (!this.inputStr.matches(pattern)) {
-            throw new SparkException("Invalid " + displayName + " !");
+        if (!SparkPatternCache.shared().get(pattern).matcher(this.inputStr).matches()) {
+            throw fail("regex", "Invalid {0} !");
         }
         return this;
     }
@@ -284,7 +283,7 @@ public class Spark {
      */
     public Spark regex(String pattern, String msg) throws SparkException {
 
-        if (!this.inputStr.matches(pattern)) {
+        if (!SparkPatternCache.shared().get(pattern).matcher(this.inputStr).matches()) {
             throw new SparkException(msg);
         }
         return this;
@@ -314,12 +313,12 @@ public class Spark {
      * @throws SparkException if the input is not a valid number.
      */
     public Spark toInt() throws SparkException {
-        this.required();
-        try {
-            this.inputInt = Integer.parseInt(this.inputStr);
-        } catch (NumberFormatException e) {
-            throw new SparkException(this.displayName + " must be a number!");
+        long parsed = SparkNumbers.parseInt(this.inputStr);
+        if (SparkNumbers.status(parsed) != SparkNumbers.OK) {
+            this.required();
+            throw fail("number", "{0} must be a number!");
         }
+        this.inputInt = SparkNumbers.value(parsed);
         return this;
     }
 
@@ -334,7 +333,7 @@ public class Spark {
         this.isInt();
 
         if (this.inputInt < val) {
-            throw new SparkException(displayName + " must be greater than " + val + "!");
+            throw fail("min", "{0} must be greater than {1}!", val);
         }
         return this;
     }
@@ -367,7 +366,7 @@ public class Spark {
         this.isInt();
 
         if (this.inputInt > val) {
-            throw new SparkException(displayName + " must be less than " + val + "!");
+            throw fail("max", "{0} must be less than {1}!", val);
         }
         return this;
     }
@@ -0,0 +1,121 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator;
+
+/**
+ * A single-pass email address checker.
+ *
+ * <p>
+ * {@link #isValid(CharSequence)} accepts exactly the addresses matched by
+ * {@link #REGEX}, but reads every character once and never backtracks, so
+ * its cost is linear in the length of the input whatever the input is. It
+ * does not allocate.
+ *
+ * @author vishva
+ */
+public final class SparkEmail {
+
+    /**
+     * The regular expression describing the accepted addresses.
+     */
+    public static final String REGEX
+            = "^[a-zA-Z0-9_+&*-]+(?:\\.[a-zA-Z0-9_+&*-]+)*@(?:[a-zA-Z0-9-]+\\.)+[a-zA-Z]{2,7}$";
+
+    private SparkEmail() {
+    }
+
+    /**
+     * Checks whether the input is a valid email address.
+     *
+     * @param input the input to be checked.
+     * @return {@code true} if the whole input matches {@link #REGEX}.
+     */
+    public static boolean isValid(CharSequence input) {
+
+        if (input == null) {
+            return false;
+        }
+
+        int n = input.length();
+        int i = 0;
+
+        // Local part: atoms separated by single dots.
+        boolean afterAtom = false;
+        for (;; i++) {
+            if (i == n) {
+                return false;
+            }
+            char c = input.charAt(i);
+            if (isLocalChar(c)) {
+                afterAtom = true;
+            } else if (c == '.' && afterAtom) {
+                afterAtom = false;
+            } else if (c == '@' && afterAtom) {
+                break;
+            } else {
+                return false;
+            }
+        }
+
+        // Domain: one or more labels followed by a dot, then a 2 to 7 letter
+        // top level domain.
+        int dots = 0;
+        int labelLength = 0;
+        boolean labelLetters = true;
+        for (i++; i < n; i++) {
+            char c = input.charAt(i);
+            if (c == '.') {
+                if (labelLength == 0) {
+                    return false;
+                }
+                dots++;
+                labelLength = 0;
+                labelLetters = true;
+            } else if (isLetter(c)) {
+                labelLength++;
+            } else if (isDigit(c) || c == '-') {
+                labelLength++;
+                labelLetters = false;
+            } else {
+                return false;
+            }
+        }
+        return dots > 0 && labelLetters && labelLength >= 2 && labelLength <= 7;
+    }
+
+    private static boolean isLetter(char c) {
+
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isDigit(char c) {
+
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isLocalChar(char c) {
+
+        return isLetter(c) || isDigit(c) || c == '_' || c == '+' || c == '&' || c == '*' || c == '-';
+    }
+}
@@ -35,4 +35,8 @@ public class SparkException extends Exception {
     public SparkException(String error) {
         super(error);
     }
+
+    protected SparkException(String error, boolean writableStackTrace) {
+        super(error, null, false, writableStackTrace);
+    }
 }
@@ -0,0 +1,257 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Builds the messages of the validation rules from templates kept in a
+ * {@link ResourceBundle}.
+ *
+ * <p>
+ * Rules only record their code and arguments when they fail; the message is
+ * built when it is read. Templates are looked up by rule code in the bundle of
+ * the requested locale, parsed once and cached. The default bundle is
+ * {@code com/wishva/validator/messages.properties}; translations can be added
+ * next to it as {@code messages_<language>.properties}, or an application
+ * bundle can be used instead with {@link #setBundle(String)}.
+ *
+ * <p>
+ * In a template, {@code {0}} is replaced with the name of the field and
+ * {@code {1}}, {@code {2}}, ... with the arguments of the rule, e.g.
+ * {@code "{0} must include more than {1} characters!"}. Any other text,
+ * including quotes, is copied as it is.
+ *
+ * @author vishva
+ */
+public final class SparkMessages {
+
+    /**
+     * The base name of the bundle shipped with the library.
+     */
+    public static final String DEFAULT_BUNDLE = "com.wishva.validator.messages";
+
+    private static final Template MISSING = new Template(new String[0], new int[0]);
+
+    private static final ResourceBundle.Control CONTROL
+            = ResourceBundle.Control.getNoFallbackControl(ResourceBundle.Control.FORMAT_PROPERTIES);
+
+    private static volatile String bundle = DEFAULT_BUNDLE;
+    private static final ConcurrentMap<Locale, Templates> CACHE = new ConcurrentHashMap<>();
+
+    private SparkMessages() {
+    }
+
+    /**
+     * Uses another bundle for the rule messages.
+     *
+     * @param baseName the base name of the bundle, e.g.
+     * {@code "com.example.validation"}.
+     */
+    public static void setBundle(String baseName) {
+
+        bundle = baseName == null ? DEFAULT_BUNDLE : baseName;
+        CACHE.clear();
+    }
+
+    /**
+     * Returns the base name of the bundle used for the rule messages.
+     *
+     * @return the base name of the bundle.
+     */
+    public static String getBundle() {
+
+        return bundle;
+    }
+
+    /**
+     * Builds the message of a failed rule.
+     *
+     * @param code the code of the rule, used as the key of the template.
+     * @param template the template used when the bundle has no template for
+     * the code, may be {@code null}.
+     * @param locale the locale of the message.
+     * @param field the name of the field being validated.
+     * @param args the arguments of the rule.
+     * @return the formatted message.
+     */
+    public static String message(String code, String template, Locale locale, String field, Object... args) {
+
+        Template compiled = code == null ? MISSING : templates(locale == null ? Locale.ROOT : locale).get(code);
+        if (compiled != MISSING) {
+            return compiled.format(field, args);
+        }
+        if (template != null) {
+            return format(template, field, args);
+        }
+        return field + ": " + code;
+    }
+
+    /**
+     * Formats a message template.
+     *
+     * @param template the message template.
+     * @param field the name of the field being validated.
+     * @param args the arguments of the rule.
+     * @return the formatted message.
+     */
+    public static String format(String template, String field, Object... args) {
+
+        if (template == null) {
+            return null;
+        }
+        return Template.parse(template).format(field, args);
+    }
+
+    private static Templates templates(Locale locale) {
+
+        Templates templates = CACHE.get(locale);
+        if (templates == null) {
+            ResourceBundle resources;
+            try {
+                resources = ResourceBundle.getBundle(bundle, locale, SparkMessages.class.getClassLoader(), CONTROL);
+            } catch (MissingResourceException e) {
+                resources = null;
+            }
+            templates = new Templates(resources);
+            Templates existing = CACHE.putIfAbsent(locale, templates);
+            if (existing != null) {
+                templates = existing;
+            }
+        }
+        return templates;
+    }
+
+    /**
+     * The parsed templates of one locale.
+     */
+    private static final class Templates {
+
+        private final ResourceBundle resources;
+        private final ConcurrentMap<String, Template> parsed = new ConcurrentHashMap<>();
+
+        Templates(ResourceBundle resources) {
+
+            this.resources = resources;
+        }
+
+        Template get(String code) {
+
+            Template template = this.parsed.get(code);
+            if (template == null) {
+                template = MISSING;
+                if (this.resources != null && code != null && this.resources.containsKey(code)) {
+                    template = Template.parse(this.resources.getString(code));
+                }
+                this.parsed.putIfAbsent(code, template);
+            }
+            return template;
+        }
+    }
+
+    /**
+     * A template split into literal parts and placeholder indexes:
+     * {@code literals[i]} is followed by the value of {@code indexes[i]}, and
+     * the last literal ends the message.
+     */
+    private static final class Template {
+
+        private final String[] literals;
+        private final int[] indexes;
+
+        Template(String[] literals, int[] indexes) {
+
+            this.literals = literals;
+            this.indexes = indexes;
+        }
+
+        static Template parse(String template) {
+
+            List<String> literals = new ArrayList<>();
+            List<Integer> indexes = new ArrayList<>();
+
+            StringBuilder literal = new StringBuilder();
+            int n = template.length();
+            int i = 0;
+            while (i < n) {
+                char c = template.charAt(i);
+                int end = c == '{' ? template.indexOf('}', i) : -1;
+                int index = end > i + 1 ? parseIndex(template, i + 1, end) : -1;
+                if (index < 0) {
+                    literal.append(c);
+                    i++;
+                    continue;
+                }
+                literals.add(literal.toString());
+                indexes.add(index);
+                literal.setLength(0);
+                i = end + 1;
+            }
+            literals.add(literal.toString());
+
+            int[] idx = new int[indexes.size()];
+            for (int k = 0; k < idx.length; k++) {
+                idx[k] = indexes.get(k);
+            }
+            return new Template(literals.toArray(new String[0]), idx);
+        }
+
+        String format(String field, Object[] args) {
+
+            StringBuilder sb = new StringBuilder(64);
+            for (int i = 0; i < this.indexes.length; i++) {
+                sb.append(this.literals[i]);
+                int index = this.indexes[i];
+                if (index == 0) {
+                    sb.append(field);
+                } else if (args != null && index <= args.length) {
+                    sb.append(args[index - 1]);
+                } else {
+                    sb.append('{').append(index).append('}');
+                }
+            }
+            sb.append(this.literals[this.indexes.length]);
+            return sb.toString();
+        }
+
+        private static int parseIndex(String template, int from, int to) {
+
+            int index = 0;
+            for (int i = from; i < to; i++) {
+                char c = template.charAt(i);
+                if (c < '0' || c > '9' || index > 9) {
+                    return -1;
+                }
+                index = index * 10 + (c - '0');
+            }
+            return index;
+        }
+    }
+}
@@ -0,0 +1,324 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator;
+
+/**
+ * Parses numbers from a {@code CharSequence} without creating a
+ * {@code String} and without throwing.
+ *
+ * <p>
+ * {@link #parseInt(CharSequence)} returns a {@code long} holding both a status
+ * and the parsed value, so a bad input costs no exception and no allocation:
+ * <pre>
+ * {@code
+ * long parsed = SparkNumbers.parseIntInRange(input, 18, 120);
+ * if (SparkNumbers.status(parsed) == SparkNumbers.OK) {
+ *     int age = SparkNumbers.value(parsed);
+ * }
+ * }
+ * </pre>
+ *
+ * @author vishva
+ */
+public final class SparkNumbers {
+
+    /**
+     * The input is a valid number within the bounds.
+     */
+    public static final int OK = 0;
+
+    /**
+     * The input is {@code null} or has no characters.
+     */
+    public static final int EMPTY = 1;
+
+    /**
+     * The input is not a number.
+     */
+    public static final int INVALID = 2;
+
+    /**
+     * The input is a number outside the range of {@code int}.
+     */
+    public static final int OVERFLOW = 3;
+
+    /**
+     * The input is a number less than the minimum.
+     */
+    public static final int BELOW_MIN = 4;
+
+    /**
+     * The input is a number greater than the maximum.
+     */
+    public static final int ABOVE_MAX = 5;
+
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+        1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20,
+        1e21, 1e22
+    };
+
+    private SparkNumbers() {
+    }
+
+    /**
+     * Parses an {@code int} the way {@link Integer#parseInt(String)} does.
+     *
+     * @param s the input to be parsed, may be {@code null}.
+     * @return the status in the high 32 bits and the parsed number in the low
+     * 32 bits; read them with {@link #status(long)} and {@link #value(long)}.
+     */
+    public static long parseInt(CharSequence s) {
+
+        return s == null ? pack(EMPTY, 0) : parseInt(s, 0, s.length());
+    }
+
+    /**
+     * Parses an {@code int} and checks its bounds in the same pass.
+     *
+     * @param s the input to be parsed, may be {@code null}.
+     * @param min the minimum value.
+     * @param max the maximum value.
+     * @return the status in the high 32 bits and the parsed number in the low
+     * 32 bits. The number is kept when the status is {@link #BELOW_MIN} or
+     * {@link #ABOVE_MAX}.
+     */
+    public static long parseIntInRange(CharSequence s, int min, int max) {
+
+        return s == null ? pack(EMPTY, 0) : parseIntInRange(s, 0, s.length(), min, max);
+    }
+
+    /**
+     * Parses an {@code int} from the characters {@code [from, to)} and checks
+     * its bounds in the same pass.
+     *
+     * @param s the input to be parsed.
+     * @param from the index of the first character.
+     * @param to the index after the last character.
+     * @param min the minimum value.
+     * @param max the maximum value.
+     * @return the status and the parsed number, see
+     * {@link #parseIntInRange(CharSequence, int, int)}.
+     */
+    public static long parseIntInRange(CharSequence s, int from, int to, int min, int max) {
+
+        long parsed = parseInt(s, from, to);
+        if (status(parsed) != OK) {
+            return parsed;
+        }
+        int value = value(parsed);
+        if (value < min) {
+            return pack(BELOW_MIN, value);
+        }
+        if (value > max) {
+            return pack(ABOVE_MAX, value);
+        }
+        return parsed;
+    }
+
+    /**
+     * Parses an {@code int} from the characters {@code [from, to)} the way
+     * {@link Integer#parseInt(String)} does.
+     *
+     * @param s the input to be parsed.
+     * @param from the index of the first character.
+     * @param to the index after the last character.
+     * @return the status in the high 32 bits and the parsed number in the low
+     * 32 bits.
+     */
+    public static long parseInt(CharSequence s, int from, int to) {
+
+        if (from >= to) {
+            return pack(EMPTY, 0);
+        }
+
+        int i = from;
+        boolean negative = false;
+        char first = s.charAt(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            if (++i == to) {
+                return pack(INVALID, 0);
+            }
+        }
+
+        // Accumulate negatively, since Integer.MIN_VALUE has no positive counterpart.
+        int limit = negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+        int multmin = limit / 10;
+        int result = 0;
+        boolean overflow = false;
+        for (; i < to; i++) {
+            int digit = digit(s.charAt(i));
+            if (digit < 0) {
+                return pack(INVALID, 0);
+            }
+            if (overflow || result < multmin) {
+                overflow = true;
+                continue;
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                overflow = true;
+                continue;
+            }
+            result -= digit;
+        }
+        if (overflow) {
+            return pack(OVERFLOW, 0);
+        }
+        return pack(OK, negative ? result : -result);
+    }
+
+    /**
+     * Returns the status of a value returned by {@code parseInt}.
+     *
+     * @param parsed the value returned by {@code parseInt}.
+     * @return one of {@link #OK}, {@link #EMPTY}, {@link #INVALID},
+     * {@link #OVERFLOW}, {@link #BELOW_MIN} or {@link #ABOVE_MAX}.
+     */
+    public static int status(long parsed) {
+
+        return (int) (parsed >>> 32);
+    }
+
+    /**
+     * Returns the number of a value returned by {@code parseInt}.
+     *
+     * @param parsed the value returned by {@code parseInt}.
+     * @return the parsed number, {@code 0} if the input was not a number.
+     */
+    public static int value(long parsed) {
+
+        return (int) parsed;
+    }
+
+    /**
+     * Parses a plain decimal number such as {@code -12.5} or {@code 1e-3}.
+     * Numbers with at most 15 significant digits and a small exponent are
+     * computed exactly from a {@code long}; other numbers fall back to
+     * {@link Double#parseDouble(String)}.
+     *
+     * @param s the input to be parsed.
+     * @param from the index of the first character.
+     * @param to the index after the last character.
+     * @return the parsed number, or {@code NaN} if the input is not a plain
+     * decimal number.
+     */
+    public static double parseDouble(CharSequence s, int from, int to) {
+
+        int i = from;
+        if (i >= to) {
+            return Double.NaN;
+        }
+
+        boolean negative = false;
+        char c = s.charAt(i);
+        if (c == '-' || c == '+') {
+            negative = c == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int significant = 0;
+        int exponent = 0;
+        boolean digits = false;
+
+        for (; i < to && (c = s.charAt(i)) >= '0' && c <= '9'; i++) {
+            digits = true;
+            if (mantissa == 0 && c == '0') {
+                continue;
+            }
+            if (significant < 18) {
+                mantissa = mantissa * 10 + (c - '0');
+            } else {
+                exponent++;
+            }
+            significant++;
+        }
+        if (i < to && s.charAt(i) == '.') {
+            for (i++; i < to && (c = s.charAt(i)) >= '0' && c <= '9'; i++) {
+                digits = true;
+                if (mantissa == 0 && c == '0') {
+                    exponent--;
+                    continue;
+                }
+                if (significant < 18) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    exponent--;
+                }
+                significant++;
+            }
+        }
+        if (!digits) {
+            return Double.NaN;
+        }
+
+        if (i < to && ((c = s.charAt(i)) == 'e' || c == 'E')) {
+            if (++i == to) {
+                return Double.NaN;
+            }
+            boolean negativeExponent = false;
+            c = s.charAt(i);
+            if (c == '-' || c == '+') {
+                negativeExponent = c == '-';
+                if (++i == to) {
+                    return Double.NaN;
+                }
+            }
+            int e = 0;
+            for (; i < to && (c = s.charAt(i)) >= '0' && c <= '9'; i++) {
+                if (e < 100000) {
+                    e = e * 10 + (c - '0');
+                }
+            }
+            exponent += negativeExponent ? -e : e;
+        }
+        if (i != to) {
+            return Double.NaN;
+        }
+
+        double value;
+        if (mantissa == 0) {
+            value = 0.0;
+        } else if (significant <= 15 && exponent >= -22 && exponent <= 22) {
+            value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+        } else {
+            return Double.parseDouble(s.subSequence(from, to).toString());
+        }
+        return negative ? -value : value;
+    }
+
+    private static int digit(char c) {
+
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        return c < 128 ? -1 : Character.digit(c, 10);
+    }
+
+    private static long pack(int status, int value) {
+
+        return ((long) status << 32) | (value & 0xFFFFFFFFL);
+    }
+}
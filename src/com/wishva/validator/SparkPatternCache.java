@@ -0,0 +1,347 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * A size-bounded, thread-safe cache of compiled regular expressions.
+ *
+ * <p>
+ * {@code String.matches(String)} compiles a new {@link Pattern} on every call.
+ * The cache keeps the most recently used patterns so that a regex rule which is
+ * used again and again is only compiled once. The cache is split into
+ * segments, each one an access ordered map behind its own lock, so concurrent
+ * lookups of different patterns rarely wait for each other. The maximum size
+ * applies to the whole cache: when it is full, the least recently used
+ * pattern of any segment is evicted.
+ *
+ * <p>
+ * Example usage:
+ * <pre>
+ * {@code
+ * Pattern pattern = SparkPatternCache.shared().get("^[0-9]{10}$");
+ * }
+ * </pre>
+ *
+ * @author vishva
+ */
+public final class SparkPatternCache {
+
+    /**
+     * The default number of patterns kept by the {@link #shared()} cache.
+     */
+    public static final int DEFAULT_MAX_SIZE = 256;
+
+    private static final int SEGMENTS = 16;
+
+    private static final SparkPatternCache SHARED = new SparkPatternCache(DEFAULT_MAX_SIZE);
+
+    private final Segment<Pattern>[] segments;
+    private final Segment<SparkRegex>[] regexes;
+    private final AtomicInteger patternCount = new AtomicInteger();
+    private final AtomicInteger regexCount = new AtomicInteger();
+    private final int maxSize;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructs a new cache.
+     *
+     * @param maxSize the maximum number of {@code Pattern}s, and of
+     * {@code SparkRegex}es, kept by the cache.
+     */
+    public SparkPatternCache(int maxSize) {
+
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be greater than 0");
+        }
+
+        this.maxSize = maxSize;
+        this.segments = newSegments(Math.min(SEGMENTS, maxSize));
+        this.regexes = newSegments(Math.min(SEGMENTS, maxSize));
+    }
+
+    /**
+     * Returns the cache shared by the validators of this library.
+     *
+     * @return the shared {@code SparkPatternCache}.
+     */
+    public static SparkPatternCache shared() {
+
+        return SHARED;
+    }
+
+    /**
+     * Returns the compiled pattern for the given regular expression, compiling
+     * and caching it on the first call.
+     *
+     * @param regex the regular expression.
+     * @return the compiled {@code Pattern}.
+     * @throws java.util.regex.PatternSyntaxException if the expression is
+     * invalid.
+     */
+    public Pattern get(String regex) {
+
+        Pattern pattern = lookup(this.segments, regex);
+        if (pattern != null) {
+            return pattern;
+        }
+        return store(this.segments, this.patternCount, regex, Pattern.compile(regex));
+    }
+
+    /**
+     * Returns the {@link SparkRegex} for the given regular expression,
+     * compiling and caching it on the first call. These are kept apart from
+     * the {@code Pattern}s returned by {@link #get(String)}, and up to
+     * {@link #maxSize()} of each are kept.
+     *
+     * @param regex the regular expression.
+     * @return the compiled {@code SparkRegex}.
+     * @throws java.util.regex.PatternSyntaxException if the expression is
+     * invalid.
+     */
+    public SparkRegex regex(String regex) {
+
+        SparkRegex compiled = lookup(this.regexes, regex);
+        if (compiled != null) {
+            return compiled;
+        }
+        return store(this.regexes, this.regexCount, regex, SparkRegex.compile(regex));
+    }
+
+    /**
+     * Removes every pattern from the cache. The counters are not reset.
+     */
+    public void clear() {
+
+        for (int i = 0; i < this.segments.length; i++) {
+            synchronized (this.segments[i]) {
+                this.patternCount.addAndGet(-this.segments[i].size());
+                this.segments[i].clear();
+            }
+            synchronized (this.regexes[i]) {
+                this.regexCount.addAndGet(-this.regexes[i].size());
+                this.regexes[i].clear();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of {@code Pattern}s currently kept by the cache. It
+     * is at most {@link #maxSize()}.
+     *
+     * @return the number of cached patterns.
+     */
+    public int size() {
+
+        return size(this.segments);
+    }
+
+    /**
+     * Returns the number of {@code SparkRegex}es currently kept by the cache.
+     * It is at most {@link #maxSize()}.
+     *
+     * @return the number of cached {@code SparkRegex}es.
+     */
+    public int regexSize() {
+
+        return size(this.regexes);
+    }
+
+    /**
+     * Returns the maximum number of patterns of each kind kept by the cache.
+     *
+     * @return the maximum size.
+     */
+    public int maxSize() {
+
+        return this.maxSize;
+    }
+
+    /**
+     * Returns the number of lookups that found a compiled pattern.
+     *
+     * @return the hit count.
+     */
+    public long hitCount() {
+
+        return this.hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that had to compile the pattern.
+     *
+     * @return the miss count.
+     */
+    public long missCount() {
+
+        return this.misses.sum();
+    }
+
+    /**
+     * Returns the number of patterns evicted to keep the cache within its
+     * maximum size.
+     *
+     * @return the eviction count.
+     */
+    public long evictionCount() {
+
+        return this.evictions.sum();
+    }
+
+    @Override
+    public String toString() {
+
+        return "SparkPatternCache{size=" + size() + ", regexSize=" + regexSize() + ", maxSize=" + this.maxSize
+                + ", hits=" + hitCount() + ", misses=" + missCount()
+                + ", evictions=" + evictionCount() + "}";
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <V> Segment<V>[] newSegments(int count) {
+
+        Segment<V>[] created = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            created[i] = new Segment<>();
+        }
+        return created;
+    }
+
+    private static int size(Segment<?>[] segments) {
+
+        int size = 0;
+        for (Segment<?> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    private <V> V lookup(Segment<V>[] segments, String regex) {
+
+        Segment<V> segment = segmentFor(segments, regex);
+        synchronized (segment) {
+            Entry<V> entry = segment.get(regex);
+            if (entry == null) {
+                return null;
+            }
+            entry.used = System.nanoTime();
+            this.hits.increment();
+            return entry.value;
+        }
+    }
+
+    private <V> V store(Segment<V>[] segments, AtomicInteger count, String regex, V compiled) {
+
+        this.misses.increment();
+        Segment<V> segment = segmentFor(segments, regex);
+        Entry<V> entry;
+        int size;
+        synchronized (segment) {
+            entry = segment.putIfAbsent(regex, new Entry<>(compiled));
+            if (entry != null) {
+                return entry.value;
+            }
+            size = count.incrementAndGet();
+        }
+        if (size > this.maxSize) {
+            evict(segments, count);
+        }
+        return compiled;
+    }
+
+    /**
+     * Evicts the least recently used entries until the cache is within its
+     * maximum size. Each segment is access ordered, so the oldest entry of
+     * the cache is the oldest of the first entries of the segments.
+     */
+    private <V> void evict(Segment<V>[] segments, AtomicInteger count) {
+
+        synchronized (count) {
+            while (count.get() > this.maxSize) {
+                Segment<V> oldest = null;
+                long used = Long.MAX_VALUE;
+                for (Segment<V> segment : segments) {
+                    synchronized (segment) {
+                        if (!segment.isEmpty()) {
+                            Entry<V> first = segment.values().iterator().next();
+                            if (oldest == null || first.used - used < 0) {
+                                oldest = segment;
+                                used = first.used;
+                            }
+                        }
+                    }
+                }
+                if (oldest == null) {
+                    return;
+                }
+                synchronized (oldest) {
+                    // The entry may have been used since; then the next round picks another one.
+                    Iterator<Entry<V>> it = oldest.values().iterator();
+                    if (it.hasNext() && it.next().used == used) {
+                        it.remove();
+                        count.decrementAndGet();
+                        this.evictions.increment();
+                    }
+                }
+            }
+        }
+    }
+
+    private static <V> Segment<V> segmentFor(Segment<V>[] segments, String regex) {
+
+        int h = regex.hashCode();
+        h ^= (h >>> 16);
+        return segments[(h & 0x7fffffff) % segments.length];
+    }
+
+    private static final class Segment<V> extends LinkedHashMap<String, Entry<V>> {
+
+        private static final long serialVersionUID = 1L;
+
+        Segment() {
+
+            super(16, 0.75f, true);
+        }
+    }
+
+    private static final class Entry<V> {
+
+        final V value;
+        long used = System.nanoTime();
+
+        Entry(V value) {
+
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,1028 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * A regular expression that matches in time linear to the length of the
+ * input.
+ *
+ * <p>
+ * {@link Pattern} backtracks, so some expressions, e.g. {@code (a+)+b}, can
+ * take exponential time on a crafted input. {@code SparkRegex} compiles the
+ * common subset of the syntax to an automaton that reads every character of
+ * the input once:
+ * <ul>
+ * <li>literals, {@code .} and escapes such as {@code \.}, {@code \t} or
+ * {@code \xhh}</li>
+ * <li>{@code \d}, {@code \D}, {@code \w}, {@code \W}, {@code \s},
+ * {@code \S}</li>
+ * <li>character classes such as {@code [a-z0-9_]} and {@code [^,]}</li>
+ * <li>groups {@code (...)} and {@code (?:...)}, alternation {@code |}</li>
+ * <li>quantifiers {@code *}, {@code +}, {@code ?}, {@code {n}},
+ * {@code {n,}}, {@code {n,m}} and their reluctant forms</li>
+ * <li>{@code ^} at the start and {@code $} at the end of the expression</li>
+ * </ul>
+ * Any other feature, e.g. back references, lookaround, possessive
+ * quantifiers, embedded flags or {@code \p{...}}, is run by {@link Pattern}
+ * with a step budget: a match that reads more than {@code stepsPerChar}
+ * characters per input character is abandoned and reported as not matching.
+ * {@link #engine()} tells which engine a pattern got.
+ *
+ * <p>
+ * Like {@link java.util.regex.Matcher#matches()}, {@link #matches(CharSequence)}
+ * matches the whole input. Instances are immutable and can be shared between
+ * threads.
+ * <pre>
+ * {@code
+ * SparkRegex regex = SparkRegex.compile("^([a-z0-9]+)*$");
+ * regex.engine(); // LINEAR
+ * regex.matches(input);
+ * }
+ * </pre>
+ *
+ * @author vishva
+ */
+public final class SparkRegex {
+
+    /**
+     * The engine a pattern is matched with.
+     */
+    public enum Engine {
+
+        /**
+         * The linear-time automaton.
+         */
+        LINEAR,
+        /**
+         * {@link Pattern}, with a step budget.
+         */
+        BACKTRACKING
+    }
+
+    /**
+     * The default number of characters {@link Pattern} may read per input
+     * character before a match is abandoned.
+     */
+    public static final int DEFAULT_STEPS_PER_CHAR = 256;
+
+    private static final int MAX_NFA_STATES = 4096;
+    private static final int MAX_DFA_STATES = 4096;
+    private static final int MAX_COMPILE_WORK = 1 << 20;
+    private static final int MAX_CODE_POINT = Character.MAX_CODE_POINT;
+
+    private static final int[] DIGIT = {'0', '9'};
+    private static final int[] WORD = {'0', '9', 'A', 'Z', '_', '_', 'a', 'z'};
+    private static final int[] SPACE = {'\t', '\r', ' ', ' '};
+    private static final int[] DOT = complement(new int[]{'\n', '\n', '\r', '\r', 0x85, 0x85, 0x2028, 0x2029});
+
+    private final String regex;
+    private final Pattern pattern;
+    private final Automaton automaton;
+    private final String unsupported;
+    private final int stepsPerChar;
+    private final LongAdder aborted = new LongAdder();
+
+    private SparkRegex(String regex, Pattern pattern, Automaton automaton, String unsupported, int stepsPerChar) {
+
+        this.regex = regex;
+        this.pattern = pattern;
+        this.automaton = automaton;
+        this.unsupported = unsupported;
+        this.stepsPerChar = stepsPerChar;
+    }
+
+    /**
+     * Compiles a regular expression with the default step budget.
+     *
+     * @param regex the regular expression.
+     * @return the compiled {@code SparkRegex}.
+     * @throws java.util.regex.PatternSyntaxException if the expression is
+     * invalid.
+     */
+    public static SparkRegex compile(String regex) {
+
+        return compile(regex, DEFAULT_STEPS_PER_CHAR);
+    }
+
+    /**
+     * Compiles a regular expression.
+     *
+     * @param regex the regular expression.
+     * @param stepsPerChar the number of characters {@link Pattern} may read
+     * per input character if the expression is not supported by the linear
+     * engine.
+     * @return the compiled {@code SparkRegex}.
+     * @throws java.util.regex.PatternSyntaxException if the expression is
+     * invalid.
+     */
+    public static SparkRegex compile(String regex, int stepsPerChar) {
+
+        if (stepsPerChar < 1) {
+            throw new IllegalArgumentException("stepsPerChar must be greater than 0");
+        }
+
+        // Pattern validates the syntax, so the parser below only sees valid expressions.
+        Pattern pattern = Pattern.compile(regex);
+        try {
+            Node root = new Parser(regex).parse();
+            return new SparkRegex(regex, pattern, new Automaton(root), null, stepsPerChar);
+        } catch (Unsupported e) {
+            return new SparkRegex(regex, pattern, null, e.getMessage(), stepsPerChar);
+        }
+    }
+
+    /**
+     * Tests whether the whole input matches the expression.
+     *
+     * @param input the input to be matched.
+     * @return {@code true} if the input matches, {@code false} if it does not
+     * or if the backtracking engine ran out of steps.
+     */
+    public boolean matches(CharSequence input) {
+
+        if (this.automaton != null) {
+            return this.automaton.matches(input);
+        }
+
+        long budget = (long) this.stepsPerChar * (input.length() + 1);
+        try {
+            return this.pattern.matcher(new Budgeted(input, budget)).matches();
+        } catch (BudgetExceeded e) {
+            this.aborted.increment();
+            return false;
+        }
+    }
+
+    /**
+     * Starts matching an input that arrives in chunks, such as a request body
+     * being read. The returned matcher reports as soon as no continuation of
+     * the input read so far can match, so the caller can stop reading.
+     *
+     * @return a new {@code StreamMatcher}, or {@code null} if the expression
+     * is run by the backtracking engine, which needs the whole input.
+     */
+    public StreamMatcher streamMatcher() {
+
+        return this.automaton != null ? new StreamMatcher(this.automaton) : null;
+    }
+
+    /**
+     * Returns the engine the expression is matched with.
+     *
+     * @return {@link Engine#LINEAR} or {@link Engine#BACKTRACKING}.
+     */
+    public Engine engine() {
+
+        return this.automaton != null ? Engine.LINEAR : Engine.BACKTRACKING;
+    }
+
+    /**
+     * Returns the first feature of the expression that the linear engine does
+     * not support.
+     *
+     * @return the unsupported feature, or {@code null} if the expression is
+     * matched in linear time.
+     */
+    public String unsupportedFeature() {
+
+        return this.unsupported;
+    }
+
+    /**
+     * Returns the number of matches abandoned because they ran out of steps.
+     *
+     * @return the abort count; always {@code 0} for the linear engine.
+     */
+    public long abortCount() {
+
+        return this.aborted.sum();
+    }
+
+    /**
+     * Returns the source of the expression.
+     *
+     * @return the regular expression.
+     */
+    public String pattern() {
+
+        return this.regex;
+    }
+
+    @Override
+    public String toString() {
+
+        return this.regex + " (" + engine() + (this.unsupported != null ? ": " + this.unsupported : "") + ")";
+    }
+
+    // ---------------------------------------------------------------- parser
+
+    private static final int LITERAL = 0;
+    private static final int CONCAT = 1;
+    private static final int ALTERNATE = 2;
+    private static final int REPEAT = 3;
+
+    /**
+     * A node of the syntax tree: a set of code points, a sequence, a choice,
+     * or a repeated node with {@code max == -1} for no upper bound.
+     */
+    private static final class Node {
+
+        final int type;
+        final int[] set;
+        final Node[] children;
+        final int min;
+        final int max;
+
+        Node(int type, int[] set, Node[] children, int min, int max) {
+
+            this.type = type;
+            this.set = set;
+            this.children = children;
+            this.min = min;
+            this.max = max;
+        }
+
+        static Node literal(int[] set) {
+
+            return new Node(LITERAL, set, null, 0, 0);
+        }
+
+        static Node of(int type, List<Node> children) {
+
+            if (children.size() == 1) {
+                return children.get(0);
+            }
+            return new Node(type, null, children.toArray(new Node[0]), 0, 0);
+        }
+    }
+
+    private static final class Unsupported extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        Unsupported(String feature) {
+
+            super(feature, null, false, false);
+        }
+    }
+
+    /**
+     * A recursive descent parser for the supported subset. It only runs on
+     * expressions accepted by {@link Pattern}, and rejects anything whose
+     * meaning it is not sure about.
+     */
+    private static final class Parser {
+
+        private final String regex;
+        private int pos;
+
+        Parser(String regex) {
+
+            this.regex = regex;
+        }
+
+        Node parse() throws Unsupported {
+
+            Node node = alternation();
+            if (this.pos < this.regex.length()) {
+                throw new Unsupported("unexpected '" + this.regex.charAt(this.pos) + "'");
+            }
+            return node;
+        }
+
+        private Node alternation() throws Unsupported {
+
+            List<Node> choices = new ArrayList<>();
+            choices.add(sequence());
+            while (peek() == '|') {
+                this.pos++;
+                choices.add(sequence());
+            }
+            return Node.of(ALTERNATE, choices);
+        }
+
+        private Node sequence() throws Unsupported {
+
+            List<Node> items = new ArrayList<>();
+            int c = peek();
+            while (c != -1 && c != '|' && c != ')') {
+                Node atom = repetition();
+                if (atom != null) {
+                    items.add(atom);
+                }
+                c = peek();
+            }
+            return Node.of(CONCAT, items);
+        }
+
+        private Node repetition() throws Unsupported {
+
+            int start = this.pos;
+            Node atom = atom();
+            if (!isQuantifier(peek())) {
+                return atom;
+            }
+            if (atom == null) {
+                throw new Unsupported("quantified anchor at " + start);
+            }
+
+            int min;
+            int max;
+            int c = this.regex.charAt(this.pos++);
+            if (c == '*') {
+                min = 0;
+                max = -1;
+            } else if (c == '+') {
+                min = 1;
+                max = -1;
+            } else if (c == '?') {
+                min = 0;
+                max = 1;
+            } else {
+                min = number();
+                max = min;
+                if (peek() == ',') {
+                    this.pos++;
+                    max = peek() == '}' ? -1 : number();
+                }
+                if (peek() != '}') {
+                    throw new Unsupported("quantifier at " + start);
+                }
+                this.pos++;
+            }
+
+            if (peek() == '?') {
+                // Reluctant and greedy quantifiers match the same whole inputs.
+                this.pos++;
+            } else if (peek() == '+') {
+                throw new Unsupported("possessive quantifier at " + start);
+            }
+            if (isQuantifier(peek())) {
+                throw new Unsupported("nested quantifier at " + start);
+            }
+            return new Node(REPEAT, null, new Node[]{atom}, min, max);
+        }
+
+        private Node atom() throws Unsupported {
+
+            int c = this.regex.codePointAt(this.pos);
+            switch (c) {
+                case '(':
+                    return group();
+                case '[':
+                    return Node.literal(characterClass());
+                case '.':
+                    this.pos++;
+                    return Node.literal(DOT);
+                case '^':
+                    if (this.pos != 0) {
+                        throw new Unsupported("'^' at " + this.pos);
+                    }
+                    this.pos++;
+                    return null;
+                case '$':
+                    if (this.pos != this.regex.length() - 1) {
+                        throw new Unsupported("'$' at " + this.pos);
+                    }
+                    this.pos++;
+                    return null;
+                case '\\':
+                    return Node.literal(escape(false));
+                case '*':
+                case '+':
+                case '?':
+                case '{':
+                    throw new Unsupported("dangling '" + (char) c + "' at " + this.pos);
+                default:
+                    this.pos += Character.charCount(c);
+                    return Node.literal(new int[]{c, c});
+            }
+        }
+
+        private Node group() throws Unsupported {
+
+            int start = this.pos++;
+            if (peek() == '?') {
+                if (this.pos + 1 >= this.regex.length() || this.regex.charAt(this.pos + 1) != ':') {
+                    throw new Unsupported("special group at " + start);
+                }
+                this.pos += 2;
+            }
+            Node node = alternation();
+            if (peek() != ')') {
+                throw new Unsupported("unclosed group at " + start);
+            }
+            this.pos++;
+            return node;
+        }
+
+        private int[] characterClass() throws Unsupported {
+
+            int start = this.pos++;
+            boolean negated = false;
+            if (peek() == '^') {
+                negated = true;
+                this.pos++;
+            }
+            if (peek() == ']') {
+                throw new Unsupported("']' first in class at " + start);
+            }
+
+            int[] set = new int[0];
+            while (true) {
+                int c = peek();
+                if (c == -1 || c == '[' || (c == '&' && this.regex.startsWith("&&", this.pos))) {
+                    throw new Unsupported("nested class at " + start);
+                }
+                if (c == ']') {
+                    this.pos++;
+                    break;
+                }
+
+                int[] item = classItem();
+                if (item.length == 2 && item[0] == item[1] && peek() == '-'
+                        && this.pos + 1 < this.regex.length() && this.regex.charAt(this.pos + 1) != ']') {
+                    this.pos++;
+                    int[] upper = classItem();
+                    if (upper.length != 2 || upper[0] != upper[1] || upper[0] < item[0]) {
+                        throw new Unsupported("range in class at " + start);
+                    }
+                    item = new int[]{item[0], upper[0]};
+                }
+                set = union(set, item);
+            }
+            return negated ? complement(set) : set;
+        }
+
+        private int[] classItem() throws Unsupported {
+
+            int c = this.regex.codePointAt(this.pos);
+            if (c == '\\') {
+                return escape(true);
+            }
+            if (c == '-' && this.pos + 1 < this.regex.length() && this.regex.charAt(this.pos + 1) != ']'
+                    && this.regex.charAt(this.pos - 1) != '[' && this.regex.charAt(this.pos - 1) != '^') {
+                throw new Unsupported("'-' in class at " + this.pos);
+            }
+            this.pos += Character.charCount(c);
+            return new int[]{c, c};
+        }
+
+        private int[] escape(boolean inClass) throws Unsupported {
+
+            int start = this.pos++;
+            if (this.pos >= this.regex.length()) {
+                throw new Unsupported("trailing '\\'");
+            }
+            int c = this.regex.codePointAt(this.pos);
+            this.pos += Character.charCount(c);
+            switch (c) {
+                case 'd':
+                    return DIGIT;
+                case 'D':
+                    return complement(DIGIT);
+                case 'w':
+                    return WORD;
+                case 'W':
+                    return complement(WORD);
+                case 's':
+                    return SPACE;
+                case 'S':
+                    return complement(SPACE);
+                case 't':
+                    return new int[]{'\t', '\t'};
+                case 'n':
+                    return new int[]{'\n', '\n'};
+                case 'r':
+                    return new int[]{'\r', '\r'};
+                case 'f':
+                    return new int[]{'\f', '\f'};
+                case 'a':
+                    return new int[]{7, 7};
+                case 'e':
+                    return new int[]{27, 27};
+                case 'x':
+                    return single(hex(2, start));
+                case 'u':
+                    return single(hex(4, start));
+                default:
+                    if (c < 128 && Character.isLetterOrDigit(c)) {
+                        throw new Unsupported("'\\" + (char) c + "' at " + start);
+                    }
+                    return new int[]{c, c};
+            }
+        }
+
+        private int hex(int digits, int start) throws Unsupported {
+
+            if (this.pos + digits > this.regex.length()) {
+                throw new Unsupported("escape at " + start);
+            }
+            int value = 0;
+            for (int i = 0; i < digits; i++) {
+                int d = Character.digit(this.regex.charAt(this.pos++), 16);
+                if (d < 0) {
+                    throw new Unsupported("escape at " + start);
+                }
+                value = value * 16 + d;
+            }
+            if (Character.isSurrogate((char) value)) {
+                throw new Unsupported("surrogate escape at " + start);
+            }
+            return value;
+        }
+
+        private int number() throws Unsupported {
+
+            int from = this.pos;
+            int value = 0;
+            while (this.pos < this.regex.length() && this.pos - from < 5) {
+                char c = this.regex.charAt(this.pos);
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                value = value * 10 + (c - '0');
+                this.pos++;
+            }
+            if (this.pos == from || this.pos - from >= 5) {
+                throw new Unsupported("quantifier at " + from);
+            }
+            return value;
+        }
+
+        private int peek() {
+
+            return this.pos < this.regex.length() ? this.regex.charAt(this.pos) : -1;
+        }
+
+        private static boolean isQuantifier(int c) {
+
+            return c == '*' || c == '+' || c == '?' || c == '{';
+        }
+
+        private static int[] single(int c) {
+
+            return new int[]{c, c};
+        }
+    }
+
+    // ------------------------------------------------------------- code point sets
+
+    /**
+     * Sets are sorted, disjoint and non-adjacent ranges: {@code lo0, hi0, lo1,
+     * hi1, ...}.
+     */
+    private static int[] union(int[] a, int[] b) {
+
+        int[] all = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, all, a.length, b.length);
+
+        Integer[] order = new Integer[all.length / 2];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (x, y) -> Integer.compare(all[2 * x], all[2 * y]));
+
+        int[] merged = new int[all.length];
+        int n = 0;
+        for (int index : order) {
+            int lo = all[2 * index];
+            int hi = all[2 * index + 1];
+            if (n > 0 && lo <= merged[n - 1] + 1) {
+                merged[n - 1] = Math.max(merged[n - 1], hi);
+            } else {
+                merged[n++] = lo;
+                merged[n++] = hi;
+            }
+        }
+        return Arrays.copyOf(merged, n);
+    }
+
+    private static int[] complement(int[] set) {
+
+        int[] result = new int[set.length + 2];
+        int n = 0;
+        int next = 0;
+        for (int i = 0; i < set.length; i += 2) {
+            if (set[i] > next) {
+                result[n++] = next;
+                result[n++] = set[i] - 1;
+            }
+            next = set[i + 1] + 1;
+        }
+        if (next <= MAX_CODE_POINT) {
+            result[n++] = next;
+            result[n++] = MAX_CODE_POINT;
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    private static boolean contains(int[] set, int c) {
+
+        int lo = 0;
+        int hi = set.length / 2 - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (c < set[2 * mid]) {
+                hi = mid - 1;
+            } else if (c > set[2 * mid + 1]) {
+                lo = mid + 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ---------------------------------------------------------------- automaton
+
+    /**
+     * A Thompson NFA, turned into a DFA one state at a time while matching.
+     * DFA states and their transitions on ASCII characters are cached, so
+     * after warm-up a match is one array lookup per character; other
+     * characters are stepped through the NFA, which is still linear in the
+     * length of the input.
+     */
+    private static final class Automaton {
+
+        private static final int SET = 0;
+        private static final int SPLIT = 1;
+        private static final int MATCH = 2;
+
+        private int[] kind = new int[16];
+        private int[] out = new int[16];
+        private int[] alt = new int[16];
+        private int[][] sets = new int[16][];
+        private int count;
+        private int work;
+
+        private final State start;
+        private final ConcurrentMap<Key, State> states = new ConcurrentHashMap<>();
+
+        Automaton(Node root) throws Unsupported {
+
+            int match = add(MATCH, -1, -1, null);
+            int entry = emit(root, match);
+            this.start = state(closure(new int[]{entry}));
+        }
+
+        boolean matches(CharSequence input) {
+
+            State state = this.start;
+            int n = input.length();
+            for (int i = 0; i < n;) {
+                int c = Character.codePointAt(input, i);
+                i += Character.charCount(c);
+
+                state = next(state, c);
+                if (state.nfa.length == 0) {
+                    return false;
+                }
+            }
+            return state.accepting;
+        }
+
+        State next(State state, int c) {
+
+            State next = c < 128 ? state.next[c] : null;
+            if (next == null) {
+                next = step(state, c);
+                if (c < 128 && next.shared) {
+                    state.next[c] = next;
+                }
+            }
+            return next;
+        }
+
+        private State step(State state, int c) {
+
+            int[] targets = new int[state.nfa.length];
+            int n = 0;
+            for (int s : state.nfa) {
+                if (this.kind[s] == SET && contains(this.sets[s], c)) {
+                    targets[n++] = this.out[s];
+                }
+            }
+            return state(closure(Arrays.copyOf(targets, n)));
+        }
+
+        /**
+         * Returns the sorted SET and MATCH states reachable from the given
+         * states without reading a character.
+         */
+        private int[] closure(int[] from) {
+
+            boolean[] seen = new boolean[this.count];
+            int[] stack = new int[this.count];
+            int[] reached = new int[this.count];
+            int top = 0;
+            int n = 0;
+            for (int s : from) {
+                if (!seen[s]) {
+                    seen[s] = true;
+                    stack[top++] = s;
+                }
+            }
+            while (top > 0) {
+                int s = stack[--top];
+                if (this.kind[s] == SPLIT) {
+                    if (!seen[this.out[s]]) {
+                        seen[this.out[s]] = true;
+                        stack[top++] = this.out[s];
+                    }
+                    if (!seen[this.alt[s]]) {
+                        seen[this.alt[s]] = true;
+                        stack[top++] = this.alt[s];
+                    }
+                } else {
+                    reached[n++] = s;
+                }
+            }
+            int[] result = Arrays.copyOf(reached, n);
+            Arrays.sort(result);
+            return result;
+        }
+
+        private State state(int[] nfa) {
+
+            Key key = new Key(nfa);
+            State state = this.states.get(key);
+            if (state == null) {
+                boolean accepting = false;
+                for (int s : nfa) {
+                    accepting |= this.kind[s] == MATCH;
+                }
+                state = new State(nfa, accepting, this.states.size() < MAX_DFA_STATES);
+                if (state.shared) {
+                    State existing = this.states.putIfAbsent(key, state);
+                    if (existing != null) {
+                        state = existing;
+                    }
+                }
+            }
+            return state;
+        }
+
+        /**
+         * Emits the states of {@code node} leading to {@code next} and returns
+         * the entry state. Building backwards needs no patch lists.
+         */
+        private int emit(Node node, int next) throws Unsupported {
+
+            if (++this.work > MAX_COMPILE_WORK) {
+                throw new Unsupported("expression too large");
+            }
+            switch (node.type) {
+                case LITERAL:
+                    return add(SET, next, -1, node.set);
+                case CONCAT:
+                    for (int i = node.children.length - 1; i >= 0; i--) {
+                        next = emit(node.children[i], next);
+                    }
+                    return next;
+                case ALTERNATE: {
+                    int entry = emit(node.children[node.children.length - 1], next);
+                    for (int i = node.children.length - 2; i >= 0; i--) {
+                        entry = add(SPLIT, emit(node.children[i], next), entry, null);
+                    }
+                    return entry;
+                }
+                default: {
+                    Node child = node.children[0];
+                    int entry = next;
+                    if (node.max == -1) {
+                        int loop = add(SPLIT, -1, next, null);
+                        // emit may grow the arrays, so read this.out after it.
+                        int body = emit(child, loop);
+                        this.out[loop] = body;
+                        entry = loop;
+                    } else {
+                        for (int i = node.min; i < node.max; i++) {
+                            entry = add(SPLIT, emit(child, entry), next, null);
+                        }
+                    }
+                    for (int i = 0; i < node.min; i++) {
+                        entry = emit(child, entry);
+                    }
+                    return entry;
+                }
+            }
+        }
+
+        private int add(int type, int next, int other, int[] set) throws Unsupported {
+
+            if (this.count == MAX_NFA_STATES) {
+                throw new Unsupported("more than " + MAX_NFA_STATES + " states");
+            }
+            if (this.count == this.kind.length) {
+                int size = this.count * 2;
+                this.kind = Arrays.copyOf(this.kind, size);
+                this.out = Arrays.copyOf(this.out, size);
+                this.alt = Arrays.copyOf(this.alt, size);
+                this.sets = Arrays.copyOf(this.sets, size);
+            }
+            this.kind[this.count] = type;
+            this.out[this.count] = next;
+            this.alt[this.count] = other;
+            this.sets[this.count] = set;
+            return this.count++;
+        }
+    }
+
+    /**
+     * Matches an input fed in chunks with the linear engine. A chunk may end
+     * in the middle of a surrogate pair. Not thread-safe: use one matcher per
+     * input.
+     */
+    public static final class StreamMatcher {
+
+        private final Automaton automaton;
+        private State state;
+        private char pending;
+
+        private StreamMatcher(Automaton automaton) {
+
+            this.automaton = automaton;
+            this.state = automaton.start;
+        }
+
+        /**
+         * Reads the characters {@code [from, to)} of a chunk.
+         *
+         * @param chunk the chunk holding the next characters of the input.
+         * @param from the index of the first character to read.
+         * @param to the index after the last character to read.
+         * @return {@code false} if the input can no longer match, whatever
+         * follows; {@code true} otherwise.
+         */
+        public boolean feed(CharSequence chunk, int from, int to) {
+
+            for (int i = from; i < to && this.state.nfa.length > 0; i++) {
+                char c = chunk.charAt(i);
+                if (this.pending != 0) {
+                    char high = this.pending;
+                    this.pending = 0;
+                    if (Character.isLowSurrogate(c)) {
+                        this.state = this.automaton.next(this.state, Character.toCodePoint(high, c));
+                        continue;
+                    }
+                    this.state = this.automaton.next(this.state, high);
+                    if (this.state.nfa.length == 0) {
+                        break;
+                    }
+                }
+                if (Character.isHighSurrogate(c)) {
+                    this.pending = c;
+                } else {
+                    this.state = this.automaton.next(this.state, c);
+                }
+            }
+            return this.state.nfa.length > 0;
+        }
+
+        /**
+         * Tests whether the whole input fed so far matches the expression.
+         *
+         * @return {@code true} if the input matches.
+         */
+        public boolean matches() {
+
+            State last = this.state;
+            if (this.pending != 0 && last.nfa.length > 0) {
+                last = this.automaton.next(last, this.pending);
+            }
+            return last.accepting;
+        }
+    }
+
+    /**
+     * A DFA state: the set of NFA states it stands for, and the cached
+     * transitions on ASCII characters. Only states kept in the cache, at most
+     * {@code MAX_DFA_STATES}, are linked to. Racing threads may compute the same
+     * transition twice, which is harmless.
+     */
+    private static final class State {
+
+        final int[] nfa;
+        final boolean accepting;
+        final boolean shared;
+        final State[] next = new State[128];
+
+        State(int[] nfa, boolean accepting, boolean shared) {
+
+            this.nfa = nfa;
+            this.accepting = accepting;
+            this.shared = shared;
+        }
+    }
+
+    private static final class Key {
+
+        private final int[] nfa;
+        private final int hash;
+
+        Key(int[] nfa) {
+
+            this.nfa = nfa;
+            this.hash = Arrays.hashCode(nfa);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            return o instanceof Key && Arrays.equals(this.nfa, ((Key) o).nfa);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return this.hash;
+        }
+    }
+
+    // ---------------------------------------------------------------- step budget
+
+    private static final class BudgetExceeded extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        static final BudgetExceeded INSTANCE = new BudgetExceeded();
+
+        private BudgetExceeded() {
+
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Counts the characters read by {@link Pattern} and stops the match when
+     * the budget is spent.
+     */
+    private static final class Budgeted implements CharSequence {
+
+        private final CharSequence input;
+        private long remaining;
+
+        Budgeted(CharSequence input, long budget) {
+
+            this.input = input;
+            this.remaining = budget;
+        }
+
+        @Override
+        public int length() {
+
+            return this.input.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+
+            if (--this.remaining < 0) {
+                throw BudgetExceeded.INSTANCE;
+            }
+            return this.input.charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+
+            return this.input.subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+
+            return this.input.toString();
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator;
+
+import java.util.Locale;
+
+/**
+ * A {@link SparkException} raised by a failed validation rule.
+ *
+ * <p>
+ * The exception keeps the rule id, the field name and the arguments of the
+ * rule, and only builds its message when {@link #getMessage()} is called.
+ * The message is looked up by rule id in the {@link SparkMessages} bundle;
+ * {@link #getLocalizedMessage()} uses the default locale and
+ * {@link #getMessage(Locale)} any other one.
+ * In stackless mode the exception does not capture a stack trace, which makes
+ * rejecting an input about as cheap as accepting it.
+ *
+ * <p>
+ * Stackless mode can be enabled for every validator:
+ * <pre>
+ * {@code
+ * SparkRuleException.setStackless(true);
+ * }
+ * </pre>
+ * or for a single compiled validator with
+ * {@code SparkStringSchema.stackless()}.
+ *
+ * @author vishva
+ */
+public class SparkRuleException extends SparkException {
+
+    private static final long serialVersionUID = 1L;
+
+    private static volatile boolean stackless = false;
+
+    private final String rule;
+    private final String field;
+    private final String template;
+    private final Object[] args;
+    private final boolean fixed;
+
+    private volatile String message;
+
+    /**
+     * Constructs a new {@code SparkRuleException} with a fixed message.
+     *
+     * @param rule the id of the failed rule.
+     * @param field the name of the field being validated.
+     * @param message the error message.
+     * @param stackless {@code true} to skip capturing the stack trace.
+     */
+    public SparkRuleException(String rule, String field, String message, boolean stackless) {
+
+        super(message, !stackless);
+        this.rule = rule;
+        this.field = field;
+        this.template = null;
+        this.args = null;
+        this.fixed = true;
+        this.message = message;
+    }
+
+    /**
+     * Constructs a new {@code SparkRuleException} whose message is formatted
+     * when it is first read.
+     *
+     * @param rule the id of the failed rule, also the key of its template in
+     * the {@link SparkMessages} bundle.
+     * @param field the name of the field being validated.
+     * @param template the template used when the bundle has none for the
+     * rule, may be {@code null}.
+     * @param args the arguments of the rule.
+     * @param stackless {@code true} to skip capturing the stack trace.
+     */
+    public SparkRuleException(String rule, String field, String template, Object[] args, boolean stackless) {
+
+        super(null, !stackless);
+        this.rule = rule;
+        this.field = field;
+        this.template = template;
+        this.args = args;
+        this.fixed = false;
+    }
+
+    /**
+     * Returns whether rule failures are stackless by default.
+     *
+     * @return {@code true} if stackless mode is enabled globally.
+     */
+    public static boolean isStackless() {
+
+        return stackless;
+    }
+
+    /**
+     * Enables or disables stackless mode for every validator.
+     *
+     * @param enabled {@code true} to stop capturing stack traces on rule
+     * failures.
+     */
+    public static void setStackless(boolean enabled) {
+
+        stackless = enabled;
+    }
+
+    /**
+     * Returns the id of the failed rule, e.g. {@code "minLength"}.
+     *
+     * @return the rule id.
+     */
+    public String getRule() {
+
+        return this.rule;
+    }
+
+    /**
+     * Returns the name of the field that failed the rule.
+     *
+     * @return the field name.
+     */
+    public String getField() {
+
+        return this.field;
+    }
+
+    /**
+     * Returns the arguments of the failed rule, e.g. the minimum length.
+     *
+     * @return a copy of the rule arguments.
+     */
+    public Object[] getArgs() {
+
+        return this.args == null ? new Object[0] : this.args.clone();
+    }
+
+    @Override
+    public String getMessage() {
+
+        String msg = this.message;
+        if (msg == null) {
+            msg = SparkMessages.message(this.rule, this.template, Locale.ROOT, this.field, this.args);
+            this.message = msg;
+        }
+        return msg;
+    }
+
+    @Override
+    public String getLocalizedMessage() {
+
+        return getMessage(Locale.getDefault());
+    }
+
+    /**
+     * Returns the message of the failed rule in the given locale.
+     *
+     * @param locale the locale of the message.
+     * @return the error message.
+     */
+    public String getMessage(Locale locale) {
+
+        if (this.fixed) {
+            return this.message;
+        }
+        return SparkMessages.message(this.rule, this.template, locale, this.field, this.args);
+    }
+}
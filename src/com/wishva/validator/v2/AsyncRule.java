@@ -0,0 +1,155 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A validation rule whose outcome is only known later, e.g. a lookup in a
+ * store. Async rules are added to a {@link SparkAsyncValidator}, which runs
+ * them concurrently after the synchronous rules.
+ *
+ * <p>
+ * Like the other rules, an async rule accepts {@code null}; only
+ * {@code required} rejects it.
+ *
+ * <p>
+ * Example usage:
+ * <pre>
+ * {@code
+ * AsyncRule<CharSequence> available = AsyncRule.blocking("usernameTaken", "{0} is already taken!",
+ *         name -> !users.exists(name.toString()));
+ * }
+ * </pre>
+ *
+ * @param <T> the type of the input.
+ * @author vishv
+ */
+public abstract class AsyncRule<T> extends SparkRule {
+
+    /**
+     * Constructs a new rule.
+     *
+     * @param code the stable identifier of the rule, e.g.
+     * {@code "usernameTaken"}.
+     * @param template the message template used when the
+     * {@link com.wishva.validator.SparkMessages} bundle has none for the
+     * code.
+     * @param message the custom error message, or {@code null} to use the
+     * template.
+     * @param args the arguments of the rule used by the template.
+     */
+    protected AsyncRule(String code, String template, String message, Object... args) {
+
+        super(code, template, message, args);
+    }
+
+    /**
+     * Starts testing a non-null input.
+     *
+     * @param input the input to be tested, never {@code null}.
+     * @param executor the executor of the validator, for rules that block.
+     * @return a stage completing with {@code true} if the input passes.
+     */
+    public abstract CompletionStage<Boolean> test(T input, Executor executor);
+
+    /**
+     * Creates a rule from a function that already returns a future, e.g. a
+     * non-blocking client.
+     *
+     * @param <T> the type of the input.
+     * @param code the stable identifier of the rule.
+     * @param template the message template, e.g. {@code "{0} is not valid!"}.
+     * @param test the test of the rule.
+     * @return the new rule.
+     */
+    public static <T> AsyncRule<T> of(String code, String template,
+            final Function<? super T, ? extends CompletionStage<Boolean>> test) {
+
+        Objects.requireNonNull(test, "test");
+        return new AsyncRule<T>(code, template, null) {
+            @Override
+            public CompletionStage<Boolean> test(T input, Executor executor) {
+                return test.apply(input);
+            }
+        };
+    }
+
+    /**
+     * Creates a rule from a blocking test, run on the executor of the
+     * validator. If the rule times out, the thread running the test is
+     * interrupted.
+     *
+     * @param <T> the type of the input.
+     * @param code the stable identifier of the rule.
+     * @param template the message template, e.g. {@code "{0} is not valid!"}.
+     * @param test the blocking test of the rule.
+     * @return the new rule.
+     */
+    public static <T> AsyncRule<T> blocking(String code, String template, final Predicate<? super T> test) {
+
+        Objects.requireNonNull(test, "test");
+        return new AsyncRule<T>(code, template, null) {
+            @Override
+            public CompletionStage<Boolean> test(final T input, Executor executor) {
+                BlockingTask<T> task = new BlockingTask<>(test, input);
+                executor.execute(task.task);
+                return task;
+            }
+        };
+    }
+
+    /**
+     * The future of a blocking test. Cancelling it interrupts the test if it
+     * is running, and keeps it from starting otherwise.
+     */
+    static final class BlockingTask<T> extends CompletableFuture<Boolean> {
+
+        final FutureTask<Void> task;
+
+        BlockingTask(final Predicate<? super T> test, final T input) {
+
+            this.task = new FutureTask<>(() -> {
+                try {
+                    complete(test.test(input));
+                } catch (Throwable e) {
+                    completeExceptionally(e);
+                }
+            }, null);
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+
+            this.task.cancel(mayInterruptIfRunning);
+            return super.cancel(mayInterruptIfRunning);
+        }
+    }
+}
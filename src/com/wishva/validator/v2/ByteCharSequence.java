@@ -0,0 +1,81 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A {@code CharSequence} view of ASCII bytes, so that ASCII input from the
+ * network can be validated without decoding or copying it.
+ *
+ * @author vishv
+ */
+final class ByteCharSequence implements CharSequence {
+
+    private final ByteBuffer buffer;
+    private final int from;
+    private final int to;
+
+    ByteCharSequence(ByteBuffer buffer, int from, int to) {
+
+        this.buffer = buffer;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    public int length() {
+
+        return this.to - this.from;
+    }
+
+    @Override
+    public char charAt(int index) {
+
+        if (index < 0 || index >= this.to - this.from) {
+            throw new IndexOutOfBoundsException("index " + index + ", length " + length());
+        }
+        return (char) this.buffer.get(this.from + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+
+        if (start < 0 || end > length() || start > end) {
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length());
+        }
+        return new ByteCharSequence(this.buffer, this.from + start, this.from + end);
+    }
+
+    @Override
+    public String toString() {
+
+        byte[] bytes = new byte[length()];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = this.buffer.get(this.from + i);
+        }
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+}
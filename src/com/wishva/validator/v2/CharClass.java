@@ -0,0 +1,205 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+/**
+ * The character classes of the {@code ascii}, {@code digits},
+ * {@code alphanumeric} and {@code noControlChars} rules.
+ *
+ * <p>
+ * Each class is tested with arithmetic instead of branches: a character
+ * outside the class makes {@link #bad(char)} negative, and a block of
+ * characters is checked by OR-ing their values together. The block loop has
+ * no early exit and no calls, so the JIT can unroll it and, where it supports
+ * vectorized reductions, compile it to SIMD instructions. Inputs backed by
+ * a {@code char[]} are scanned in place; long {@code String}s are copied in
+ * chunks into a per-thread buffer first, which {@link String#getChars} does
+ * with bulk copies. The buffer is cleared after each scan, so inputs such as
+ * passwords do not stay on the thread.
+ *
+ * @author vishv
+ */
+abstract class CharClass {
+
+    static final CharClass ASCII = new CharClass() {
+        @Override
+        int bad(char c) {
+            return 0x7F - c;
+        }
+
+        @Override
+        int accumulate(char[] chars, int from, int to) {
+            int acc = 0;
+            for (int i = from; i < to; i++) {
+                char c = chars[i];
+                acc |= 0x7F - c;
+            }
+            return acc;
+        }
+    };
+
+    static final CharClass DIGITS = new CharClass() {
+        @Override
+        int bad(char c) {
+            return (c - '0') | ('9' - c);
+        }
+
+        @Override
+        int accumulate(char[] chars, int from, int to) {
+            int acc = 0;
+            for (int i = from; i < to; i++) {
+                char c = chars[i];
+                acc |= (c - '0') | ('9' - c);
+            }
+            return acc;
+        }
+    };
+
+    static final CharClass ALPHANUMERIC = new CharClass() {
+        @Override
+        int bad(char c) {
+            // Setting bit 5 maps 'A'-'Z' onto 'a'-'z' and keeps every other character out of that range.
+            return (((c | 0x20) - 'a') | ('z' - (c | 0x20))) & ((c - '0') | ('9' - c));
+        }
+
+        @Override
+        int accumulate(char[] chars, int from, int to) {
+            int acc = 0;
+            for (int i = from; i < to; i++) {
+                char c = chars[i];
+                acc |= (((c | 0x20) - 'a') | ('z' - (c | 0x20))) & ((c - '0') | ('9' - c));
+            }
+            return acc;
+        }
+    };
+
+    static final CharClass NO_CONTROL = new CharClass() {
+        @Override
+        int bad(char c) {
+            // The controls are U+0000 to U+001F and U+007F to U+009F, as in Character.isISOControl.
+            return (c - 0x20) | ~((c - 0x7F) | (0x9F - c));
+        }
+
+        @Override
+        int accumulate(char[] chars, int from, int to) {
+            int acc = 0;
+            for (int i = from; i < to; i++) {
+                char c = chars[i];
+                acc |= (c - 0x20) | ~((c - 0x7F) | (0x9F - c));
+            }
+            return acc;
+        }
+    };
+
+    private static final int BLOCK = 64;
+    private static final int SHORT = 64;
+    private static final int CHUNK = 512;
+
+    private static final ThreadLocal<char[]> BUFFER = new ThreadLocal<char[]>() {
+        @Override
+        protected char[] initialValue() {
+            return new char[CHUNK];
+        }
+    };
+
+    /**
+     * Returns a negative number if {@code c} is not in the class.
+     */
+    abstract int bad(char c);
+
+    /**
+     * Returns the OR of {@link #bad(char)} over {@code chars[from, to)}. Each
+     * class has its own copy of the loop so that {@code bad} is inlined.
+     */
+    abstract int accumulate(char[] chars, int from, int to);
+
+    /**
+     * Returns whether every character of the input is in the class. An empty
+     * input passes.
+     */
+    final boolean matches(CharSequence input) {
+
+        int length = input.length();
+        if (length < SHORT) {
+            return scan(input, 0, length);
+        }
+        if (input instanceof CharSlice) {
+            return scan(((CharSlice) input).array(), 0, length);
+        }
+        if (input instanceof CharBuffer && ((CharBuffer) input).hasArray()) {
+            CharBuffer chars = (CharBuffer) input;
+            int from = chars.arrayOffset() + chars.position();
+            return scan(chars.array(), from, from + length);
+        }
+        if (input instanceof String) {
+            String string = (String) input;
+            char[] buffer = BUFFER.get();
+            try {
+                for (int from = 0; from < length; from += CHUNK) {
+                    int to = Math.min(length, from + CHUNK);
+                    string.getChars(from, to, buffer, 0);
+                    if (!scan(buffer, 0, to - from)) {
+                        return false;
+                    }
+                }
+                return true;
+            } finally {
+                Arrays.fill(buffer, 0, Math.min(length, CHUNK), '\0');
+            }
+        }
+        return scan(input, 0, length);
+    }
+
+    /**
+     * Returns whether every character of {@code chars[from, to)} is in the
+     * class.
+     */
+    final boolean matches(char[] chars, int from, int to) {
+
+        return scan(chars, from, to);
+    }
+
+    private boolean scan(char[] chars, int from, int to) {
+
+        for (int i = from; i < to; i += BLOCK) {
+            if (accumulate(chars, i, Math.min(to, i + BLOCK)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean scan(CharSequence input, int from, int to) {
+
+        for (int i = from; i < to; i++) {
+            if (bad(input.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
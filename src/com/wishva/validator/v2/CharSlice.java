@@ -0,0 +1,121 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+import java.util.Arrays;
+
+/**
+ * A reusable, growable {@code CharSequence}, used to hand decoded text to the
+ * rules without creating a {@code String}.
+ *
+ * @author vishv
+ */
+final class CharSlice implements CharSequence {
+
+    private char[] chars = new char[64];
+    private int length = 0;
+
+    void clear() {
+
+        this.length = 0;
+    }
+
+    /**
+     * Overwrites every character ever held with {@code '\0'}. Arrays
+     * outgrown by {@code append} are overwritten when they are replaced.
+     */
+    void wipe() {
+
+        Arrays.fill(this.chars, '\0');
+        this.length = 0;
+    }
+
+    void append(char c) {
+
+        if (this.length == this.chars.length) {
+            grow(this.chars.length << 1);
+        }
+        this.chars[this.length++] = c;
+    }
+
+    /**
+     * Returns the backing array, valid up to {@link #length()}.
+     */
+    char[] array() {
+
+        return this.chars;
+    }
+
+    void append(char[] chars, int from, int to) {
+
+        int count = to - from;
+        if (this.length + count > this.chars.length) {
+            grow(Math.max(this.chars.length << 1, this.length + count));
+        }
+        System.arraycopy(chars, from, this.chars, this.length, count);
+        this.length += count;
+    }
+
+    /**
+     * Moves the characters to a larger array and clears the old one, so no
+     * copy of the text is left behind for {@link #wipe()} to miss.
+     */
+    private void grow(int capacity) {
+
+        char[] grown = new char[capacity];
+        System.arraycopy(this.chars, 0, grown, 0, this.length);
+        Arrays.fill(this.chars, 0, this.length, '\0');
+        this.chars = grown;
+    }
+
+    @Override
+    public int length() {
+
+        return this.length;
+    }
+
+    @Override
+    public char charAt(int index) {
+
+        if (index < 0 || index >= this.length) {
+            throw new IndexOutOfBoundsException("index " + index + ", length " + this.length);
+        }
+        return this.chars[index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+
+        if (start < 0 || end > this.length || start > end) {
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + this.length);
+        }
+        return new String(this.chars, start, end - start);
+    }
+
+    @Override
+    public String toString() {
+
+        return new String(this.chars, 0, this.length);
+    }
+}
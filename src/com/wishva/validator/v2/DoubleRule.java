@@ -0,0 +1,83 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+import com.wishva.validator.SparkMessages;
+
+/**
+ * An immutable check applied to a {@code double} input.
+ *
+ * <p>
+ * Rules are created once by {@link SparkDoubleSchema} and shared by every call of
+ * the compiled {@link SparkDoubleValidator}.
+ *
+ * @author vishv
+ */
+public abstract class DoubleRule extends SparkRule {
+
+    /**
+     * Constructs a new rule.
+     *
+     * @param code the stable identifier of the rule, e.g. {@code "min"}.
+     * @param template the message template used when the
+     * {@link SparkMessages} bundle has none for the code, see
+     * {@link SparkMessages#format(String, String, Object...)}.
+     * @param message the custom error message, or {@code null} to use the
+     * template.
+     * @param args the arguments of the rule used by the template.
+     */
+    protected DoubleRule(String code, String template, String message, Object... args) {
+
+        super(code, template, message, args);
+    }
+
+    /**
+     * Tests the input against the rule.
+     *
+     * @param input the input to be tested.
+     * @return {@code true} if the input passes the rule.
+     */
+    public abstract boolean test(double input);
+
+    // Built-in rules
+    static DoubleRule min(final double val, String msg) {
+
+        return new DoubleRule("min", "{0} must be greater than {1}!", msg, val) {
+            @Override
+            public boolean test(double input) {
+                return input >= val;
+            }
+        };
+    }
+
+    static DoubleRule max(final double val, String msg) {
+
+        return new DoubleRule("max", "{0} must be less than {1}!", msg, val) {
+            @Override
+            public boolean test(double input) {
+                return input <= val;
+            }
+        };
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+/**
+ * Counts extended grapheme clusters, the characters a reader sees, following
+ * the rules of Unicode Standard Annex #29.
+ *
+ * <p>
+ * The break properties are derived from {@link Character#getType(int)} and a
+ * few code point ranges rather than from the Unicode property files:
+ * combining marks extend the previous cluster, regional indicators pair up
+ * into flags, Hangul jamo join into syllables and emoji joined by
+ * {@code U+200D} form one cluster. Prepend characters are not handled and
+ * the emoji ranges are the blocks that hold them, so rare sequences may be
+ * split differently than by a full implementation.
+ *
+ * @author vishv
+ */
+final class Graphemes {
+
+    private static final int OTHER = 0;
+    private static final int CR = 1;
+    private static final int LF = 2;
+    private static final int CONTROL = 3;
+    private static final int EXTEND = 4;
+    private static final int ZWJ = 5;
+    private static final int SPACING_MARK = 6;
+    private static final int REGIONAL = 7;
+    private static final int L = 8;
+    private static final int V = 9;
+    private static final int T = 10;
+    private static final int LV = 11;
+    private static final int LVT = 12;
+    private static final int PICTOGRAPHIC = 13;
+
+    private Graphemes() {
+    }
+
+    /**
+     * Returns the number of grapheme clusters of the input.
+     */
+    static long count(CharSequence input) {
+
+        Counter counter = new Counter();
+        for (int i = 0, n = input.length(); i < n;) {
+            int cp = Character.codePointAt(input, i);
+            i += Character.charCount(cp);
+            counter.addCodePoint(cp);
+        }
+        return counter.count;
+    }
+
+    /**
+     * Counts the clusters of an input fed one character at a time. A high
+     * surrogate is held back until the next character tells whether it
+     * starts a pair.
+     */
+    static final class Counter extends SparkLength.Counter {
+
+        private int previous = -1;
+        // Whether the current cluster is an emoji followed by Extend*, and the parity of the regional indicators.
+        private boolean pictographic;
+        private boolean oddRegional;
+        private char high;
+
+        @Override
+        void add(char c) {
+
+            if (this.high != 0) {
+                char pending = this.high;
+                this.high = 0;
+                if (Character.isLowSurrogate(c)) {
+                    addCodePoint(Character.toCodePoint(pending, c));
+                    return;
+                }
+                addCodePoint(pending);
+            }
+            if (Character.isHighSurrogate(c)) {
+                this.high = c;
+            } else {
+                addCodePoint(c);
+            }
+        }
+
+        @Override
+        long finish() {
+
+            if (this.high != 0) {
+                addCodePoint(this.high);
+                this.high = 0;
+            }
+            return this.count;
+        }
+
+        void addCodePoint(int cp) {
+
+            int property = property(cp);
+            if (this.previous < 0 || breaks(this.previous, property, this.pictographic, this.oddRegional)) {
+                this.count++;
+                this.pictographic = false;
+                this.oddRegional = false;
+            }
+
+            if (property == PICTOGRAPHIC) {
+                this.pictographic = true;
+            } else if (property != EXTEND && property != ZWJ) {
+                this.pictographic = false;
+            }
+            this.oddRegional = property == REGIONAL && !this.oddRegional;
+            this.previous = property;
+        }
+    }
+
+    private static boolean breaks(int before, int after, boolean pictographic, boolean oddRegional) {
+
+        if (before == CR && after == LF) {
+            return false;
+        }
+        if (before == CR || before == LF || before == CONTROL
+                || after == CR || after == LF || after == CONTROL) {
+            return true;
+        }
+        if (before == L && (after == L || after == V || after == LV || after == LVT)) {
+            return false;
+        }
+        if ((before == LV || before == V) && (after == V || after == T)) {
+            return false;
+        }
+        if ((before == LVT || before == T) && after == T) {
+            return false;
+        }
+        if (after == EXTEND || after == ZWJ || after == SPACING_MARK) {
+            return false;
+        }
+        if (before == ZWJ && after == PICTOGRAPHIC && pictographic) {
+            return false;
+        }
+        return !(before == REGIONAL && after == REGIONAL && oddRegional);
+    }
+
+    private static int property(int cp) {
+
+        if (cp < 0x7F) {
+            return cp == '\r' ? CR : cp == '\n' ? LF : cp < 0x20 ? CONTROL : OTHER;
+        }
+        if (cp == 0x200D) {
+            return ZWJ;
+        }
+        if (cp == 0x200C || (cp >= 0x1F3FB && cp <= 0x1F3FF) || (cp >= 0xE0020 && cp <= 0xE007F)) {
+            return EXTEND;
+        }
+        if (cp >= 0x1F1E6 && cp <= 0x1F1FF) {
+            return REGIONAL;
+        }
+        if (cp >= 0x1100 && cp <= 0x11FF) {
+            return cp < 0x1160 ? L : cp < 0x11A8 ? V : T;
+        }
+        if (cp >= 0xA960 && cp <= 0xA97C) {
+            return L;
+        }
+        if (cp >= 0xD7B0 && cp <= 0xD7FB) {
+            return cp <= 0xD7C6 ? V : T;
+        }
+        if (cp >= 0xAC00 && cp <= 0xD7A3) {
+            return (cp - 0xAC00) % 28 == 0 ? LV : LVT;
+        }
+        if (isPictographic(cp)) {
+            return PICTOGRAPHIC;
+        }
+        switch (Character.getType(cp)) {
+            case Character.NON_SPACING_MARK:
+            case Character.ENCLOSING_MARK:
+                return EXTEND;
+            case Character.COMBINING_SPACING_MARK:
+                return SPACING_MARK;
+            case Character.CONTROL:
+            case Character.FORMAT:
+            case Character.LINE_SEPARATOR:
+            case Character.PARAGRAPH_SEPARATOR:
+            case Character.SURROGATE:
+                return CONTROL;
+            default:
+                return OTHER;
+        }
+    }
+
+    private static boolean isPictographic(int cp) {
+
+        if (cp >= 0x1F000) {
+            return cp <= 0x1FAFF || (cp >= 0x1FC00 && cp <= 0x1FFFD);
+        }
+        return cp == 0x00A9 || cp == 0x00AE || cp == 0x203C || cp == 0x2049 || cp == 0x2122 || cp == 0x2139
+                || (cp >= 0x2194 && cp <= 0x21AA) || (cp >= 0x231A && cp <= 0x23FF)
+                || (cp >= 0x25AA && cp <= 0x25FE) || (cp >= 0x2600 && cp <= 0x27BF)
+                || (cp >= 0x2934 && cp <= 0x2935) || (cp >= 0x2B05 && cp <= 0x2B55)
+                || cp == 0x3030 || cp == 0x303D || cp == 0x3297 || cp == 0x3299;
+    }
+}
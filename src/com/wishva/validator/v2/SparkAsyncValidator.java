@@ -0,0 +1,409 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToLongFunction;
+
+/**
+ * A compiled validator combining synchronous rules with {@link AsyncRule}s.
+ *
+ * <p>
+ * The synchronous rules of the wrapped validator run inline, on the calling
+ * thread. If they pass, every async rule is started at once, so their I/O
+ * overlaps, and the returned future completes when the last one does. An
+ * async rule that throws, completes exceptionally or does not complete within
+ * its timeout counts as failed. Results of several fields can be combined
+ * into one {@link SparkForm} with {@link #form(CompletableFuture[])}.
+ *
+ * <p>
+ * Blocking rules run on the executor of the validator. By default this is a
+ * virtual thread per task on Java 21 and later, and a shared pool of daemon
+ * threads before that. When a rule made by {@link AsyncRule#blocking} times
+ * out, its task is cancelled and its thread interrupted; the test only stops
+ * early if it responds to the interrupt. The stages returned by other rules
+ * are never cancelled, as they may be shared.
+ *
+ * <p>
+ * Example usage:
+ * <pre>
+ * {@code
+ * SparkAsyncValidator<CharSequence> USERNAME = SparkAsyncValidator
+ *         .of(new SparkStringSchema("Username").required().minLength(3).compile())
+ *         .rule(AsyncRule.blocking("usernameTaken", "{0} is already taken!",
+ *                 name -> !users.exists(name.toString())), 200, TimeUnit.MILLISECONDS)
+ *         .build();
+ *
+ * SparkAsyncValidator.form(USERNAME.check(username), COUPON.check(coupon))
+ *         .thenAccept(form -> ...);
+ * }
+ * </pre>
+ *
+ * @param <T> the type of the input.
+ * @author vishv
+ */
+public final class SparkAsyncValidator<T> {
+
+    /**
+     * The default timeout of an async rule, in milliseconds.
+     */
+    public static final long DEFAULT_TIMEOUT_MILLIS = 1000L;
+
+    private static final int MAX_RULES = 64;
+
+    private final String displayName;
+    private final ToLongFunction<? super T> sync;
+    private final SparkRule[] rules;
+    private final AsyncRule<? super T>[] async;
+    private final long[] timeouts;
+    private final int offset;
+    private final Executor executor;
+    private final SparkResult valid;
+
+    private SparkAsyncValidator(Builder<T> builder) {
+
+        this.displayName = builder.displayName;
+        this.sync = builder.sync;
+        this.offset = builder.syncRules.length;
+        this.executor = builder.executor != null ? builder.executor : DefaultExecutor.INSTANCE;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        AsyncRule<? super T>[] rules = builder.async.toArray(new AsyncRule[0]);
+        this.async = rules;
+        this.timeouts = new long[rules.length];
+        for (int i = 0; i < rules.length; i++) {
+            this.timeouts[i] = builder.timeouts.get(i);
+        }
+
+        this.rules = new SparkRule[this.offset + rules.length];
+        System.arraycopy(builder.syncRules, 0, this.rules, 0, this.offset);
+        System.arraycopy(rules, 0, this.rules, this.offset, rules.length);
+        this.valid = new SparkResult(this.displayName, this.rules, 0L);
+    }
+
+    /**
+     * Starts an async validator on top of a compiled {@code String}
+     * validator.
+     *
+     * @param validator the synchronous rules.
+     * @return a {@code Builder} for the async rules.
+     */
+    public static Builder<CharSequence> of(SparkStringValidator validator) {
+
+        return new Builder<CharSequence>(validator.displayName(), validator.rules(), validator::failures);
+    }
+
+    /**
+     * Starts an async validator on top of a compiled {@code int} validator. A
+     * {@code null} input skips the synchronous rules.
+     *
+     * @param validator the synchronous rules.
+     * @return a {@code Builder} for the async rules.
+     */
+    public static Builder<Integer> of(SparkIntValidator validator) {
+
+        return new Builder<Integer>(validator.displayName(), validator.rules(),
+                input -> input == null ? 0L : validator.failures(input));
+    }
+
+    /**
+     * Starts an async validator on top of a compiled {@code double}
+     * validator. A {@code null} input skips the synchronous rules.
+     *
+     * @param validator the synchronous rules.
+     * @return a {@code Builder} for the async rules.
+     */
+    public static Builder<Double> of(SparkDoubleValidator validator) {
+
+        return new Builder<Double>(validator.displayName(), validator.rules(),
+                input -> input == null ? 0L : validator.failures(input));
+    }
+
+    /**
+     * Combines the results of several fields into one form.
+     *
+     * @param results the pending results, e.g. of {@link #check(Object)}.
+     * @return a future completing with a {@code SparkForm} of the failed
+     * fields once every result is known.
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public static CompletableFuture<SparkForm> form(final CompletableFuture<SparkResult>... results) {
+
+        return CompletableFuture.allOf(results).thenApply(done -> {
+            SparkForm form = new SparkForm();
+            for (CompletableFuture<SparkResult> result : results) {
+                form.add(result.join());
+            }
+            return form;
+        });
+    }
+
+    /**
+     * Returns the name of the field being validated.
+     *
+     * @return the display name.
+     */
+    public String displayName() {
+
+        return this.displayName;
+    }
+
+    /**
+     * Applies every rule without throwing. The synchronous rules run on the
+     * calling thread; when one of them fails, the async rules are skipped.
+     *
+     * @param input the input to be tested.
+     * @return a future completing with the {@code SparkResult} of the input.
+     */
+    public CompletableFuture<SparkResult> check(T input) {
+
+        long failed = this.sync.applyAsLong(input);
+        if (failed != 0L) {
+            return CompletableFuture.completedFuture(new SparkResult(this.displayName, this.rules, failed));
+        }
+        if (input == null || this.async.length == 0) {
+            return CompletableFuture.completedFuture(this.valid);
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        final CompletableFuture<Boolean>[] pending = new CompletableFuture[this.async.length];
+        for (int i = 0; i < pending.length; i++) {
+            pending[i] = start(this.async[i], input, this.timeouts[i]);
+        }
+        return CompletableFuture.allOf(pending).thenApply(done -> {
+            long bits = 0L;
+            for (int i = 0; i < pending.length; i++) {
+                if (!pending[i].join()) {
+                    bits |= 1L << (this.offset + i);
+                }
+            }
+            return bits == 0L ? this.valid : new SparkResult(this.displayName, this.rules, bits);
+        });
+    }
+
+    /**
+     * Applies every rule and completes with the input, or exceptionally with
+     * the {@link com.wishva.validator.SparkRuleException} of the first failed
+     * rule.
+     *
+     * @param input the input to be validated.
+     * @return a future completing with the validated input.
+     */
+    public CompletableFuture<T> validate(final T input) {
+
+        return check(input).thenCompose(result -> {
+            CompletableFuture<T> future = new CompletableFuture<>();
+            if (result.isValid()) {
+                future.complete(input);
+            } else {
+                int first = Long.numberOfTrailingZeros(result.failures());
+                future.completeExceptionally(this.rules[first].fail(this.displayName));
+            }
+            return future;
+        });
+    }
+
+    private CompletableFuture<Boolean> start(AsyncRule<? super T> rule, T input, long timeout) {
+
+        final CompletionStage<Boolean> stage;
+        try {
+            stage = rule.test(input, this.executor);
+        } catch (RuntimeException e) {
+            return CompletableFuture.completedFuture(Boolean.FALSE);
+        }
+        if (stage == null) {
+            return CompletableFuture.completedFuture(Boolean.FALSE);
+        }
+
+        // Time out a separate future, so the stage returned by the rule is left untouched.
+        final CompletableFuture<Boolean> future = new CompletableFuture<>();
+        final ScheduledFuture<?> timer = Timer.INSTANCE.schedule(() -> {
+            if (future.complete(Boolean.FALSE) && stage instanceof AsyncRule.BlockingTask) {
+                ((AsyncRule.BlockingTask<?>) stage).cancel(true);
+            }
+        }, timeout, TimeUnit.NANOSECONDS);
+        stage.whenComplete((passed, error) -> {
+            timer.cancel(false);
+            future.complete(error == null && Boolean.TRUE.equals(passed));
+        });
+        return future;
+    }
+
+    /**
+     * Collects the async rules of a {@link SparkAsyncValidator}.
+     *
+     * @param <T> the type of the input.
+     */
+    public static final class Builder<T> {
+
+        private final String displayName;
+        private final SparkRule[] syncRules;
+        private final ToLongFunction<? super T> sync;
+        private final List<AsyncRule<? super T>> async = new ArrayList<>();
+        private final List<Long> timeouts = new ArrayList<>();
+        private long timeout = TimeUnit.MILLISECONDS.toNanos(DEFAULT_TIMEOUT_MILLIS);
+        private Executor executor;
+
+        Builder(String displayName, SparkRule[] syncRules, ToLongFunction<? super T> sync) {
+
+            this.displayName = displayName;
+            this.syncRules = syncRules;
+            this.sync = sync;
+        }
+
+        /**
+         * Adds an async rule with the default timeout.
+         *
+         * @param rule the rule to be applied.
+         * @return the current {@code Builder} instance for method chaining.
+         */
+        public Builder<T> rule(AsyncRule<? super T> rule) {
+
+            return rule(rule, this.timeout, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Adds an async rule with its own timeout.
+         *
+         * @param rule the rule to be applied.
+         * @param timeout how long to wait for the rule before it fails.
+         * @param unit the unit of the timeout.
+         * @return the current {@code Builder} instance for method chaining.
+         */
+        public Builder<T> rule(AsyncRule<? super T> rule, long timeout, TimeUnit unit) {
+
+            if (rule == null) {
+                throw new IllegalArgumentException("rule cannot be null");
+            }
+            if (timeout <= 0) {
+                throw new IllegalArgumentException("timeout must be greater than 0");
+            }
+            this.async.add(rule);
+            this.timeouts.add(unit.toNanos(timeout));
+            return this;
+        }
+
+        /**
+         * Sets the timeout of the rules added without one.
+         *
+         * @param timeout how long to wait for a rule before it fails.
+         * @param unit the unit of the timeout.
+         * @return the current {@code Builder} instance for method chaining.
+         */
+        public Builder<T> timeout(long timeout, TimeUnit unit) {
+
+            if (timeout <= 0) {
+                throw new IllegalArgumentException("timeout must be greater than 0");
+            }
+            this.timeout = unit.toNanos(timeout);
+            return this;
+        }
+
+        /**
+         * Runs the blocking rules on the given executor instead of the
+         * default one.
+         *
+         * @param executor the executor of the blocking rules.
+         * @return the current {@code Builder} instance for method chaining.
+         */
+        public Builder<T> executor(Executor executor) {
+
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Builds the immutable validator.
+         *
+         * @return the new {@code SparkAsyncValidator}.
+         * @throws IllegalStateException if there are more than 64 rules in
+         * total.
+         */
+        public SparkAsyncValidator<T> build() {
+
+            if (this.syncRules.length + this.async.size() > MAX_RULES) {
+                throw new IllegalStateException("A validator supports at most " + MAX_RULES + " rules");
+            }
+            return new SparkAsyncValidator<>(this);
+        }
+    }
+
+    /**
+     * The daemon thread completing the rules that time out.
+     */
+    private static final class Timer {
+
+        static final ScheduledThreadPoolExecutor INSTANCE = create();
+
+        private static ScheduledThreadPoolExecutor create() {
+
+            ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, task -> {
+                Thread thread = new Thread(task, "spark-async-timer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            // Rules usually finish in time; drop their timers at once.
+            timer.setRemoveOnCancelPolicy(true);
+            return timer;
+        }
+    }
+
+    /**
+     * The executor used when none is given: a virtual thread per task where
+     * the JDK has them, a cached pool of daemon threads otherwise.
+     */
+    private static final class DefaultExecutor {
+
+        static final Executor INSTANCE = create();
+
+        private static Executor create() {
+
+            try {
+                Method virtual = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (ExecutorService) virtual.invoke(null);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                final AtomicInteger count = new AtomicInteger();
+                ThreadFactory factory = task -> {
+                    Thread thread = new Thread(task, "spark-async-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                };
+                return Executors.newCachedThreadPool(factory);
+            }
+        }
+    }
+}
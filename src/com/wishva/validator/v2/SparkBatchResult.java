@@ -0,0 +1,223 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * The outcome of validating a whole column of inputs.
+ *
+ * <p>
+ * The result keeps two primitive arrays and no per-row objects: a bitset of
+ * the invalid rows, and for every row the bitset of the rules it failed, in
+ * the same layout as {@link SparkStringValidator#failures(CharSequence)}.
+ *
+ * <p>
+ * Example usage:
+ * <pre>
+ * {@code
+ * SparkBatchResult result = EMAIL.validateAll(emails);
+ * for (int row = result.nextInvalidRow(0); row >= 0; row = result.nextInvalidRow(row + 1)) {
+ *     System.out.println(row + ": " + result.errorCodes(row));
+ * }
+ * }
+ * </pre>
+ *
+ * @author vishv
+ */
+public final class SparkBatchResult {
+
+    private final String displayName;
+    private final SparkRule[] rules;
+    private final long[] rows;
+    final long[] failures;
+
+    SparkBatchResult(String displayName, SparkRule[] rules, int size) {
+
+        this.displayName = displayName;
+        this.rules = rules;
+        this.rows = new long[(size + 63) >>> 6];
+        this.failures = new long[size];
+    }
+
+    /**
+     * Sets the invalid row bits of {@code [from, to)} from the rule failures.
+     * Ranges that start on a multiple of 64 never share a word, so they can be
+     * marked by different threads.
+     */
+    void mark(int from, int to) {
+
+        long[] words = this.rows;
+        long[] failed = this.failures;
+        for (int i = from; i < to; i++) {
+            if (failed[i] != 0L) {
+                words[i >>> 6] |= 1L << i;
+            }
+        }
+    }
+
+    /**
+     * Returns the name of the validated column.
+     *
+     * @return the display name.
+     */
+    public String displayName() {
+
+        return this.displayName;
+    }
+
+    /**
+     * Returns the number of validated rows.
+     *
+     * @return the number of rows.
+     */
+    public int size() {
+
+        return this.failures.length;
+    }
+
+    /**
+     * Returns whether every row passed every rule.
+     *
+     * @return {@code true} if no row failed.
+     */
+    public boolean isValid() {
+
+        for (long word : this.rows) {
+            if (word != 0L) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of rows that failed at least one rule.
+     *
+     * @return the number of invalid rows.
+     */
+    public int invalidCount() {
+
+        int count = 0;
+        for (long word : this.rows) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Returns whether the row passed every rule.
+     *
+     * @param row the index of the row.
+     * @return {@code true} if the row is valid.
+     */
+    public boolean isValid(int row) {
+
+        return this.failures[row] == 0L;
+    }
+
+    /**
+     * Returns the bitset of the rules failed by the row.
+     *
+     * @param row the index of the row.
+     * @return the failed rules, bit {@code i} for the {@code i}-th declared
+     * rule.
+     */
+    public long failures(int row) {
+
+        return this.failures[row];
+    }
+
+    /**
+     * Returns the index of the first invalid row at or after {@code from}.
+     *
+     * @param from the index to start searching from.
+     * @return the index of the invalid row, or {@code -1} if there is none.
+     */
+    public int nextInvalidRow(int from) {
+
+        if (from < 0) {
+            from = 0;
+        }
+        int w = from >>> 6;
+        if (w >= this.rows.length) {
+            return -1;
+        }
+
+        long word = this.rows[w] & (-1L << from);
+        while (true) {
+            if (word != 0L) {
+                return (w << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++w == this.rows.length) {
+                return -1;
+            }
+            word = this.rows[w];
+        }
+    }
+
+    /**
+     * Returns a copy of the invalid rows as {@code long} words, row {@code i}
+     * being bit {@code i % 64} of word {@code i / 64}.
+     *
+     * @return the invalid row mask.
+     */
+    public long[] invalidRows() {
+
+        return this.rows.clone();
+    }
+
+    /**
+     * Returns the invalid rows as a {@code BitSet}.
+     *
+     * @return the invalid rows.
+     */
+    public BitSet toBitSet() {
+
+        return BitSet.valueOf(this.rows);
+    }
+
+    /**
+     * Returns the codes of the rules failed by the row.
+     *
+     * @param row the index of the row.
+     * @return the error codes in declaration order.
+     */
+    public List<String> errorCodes(int row) {
+
+        return result(row).errorCodes();
+    }
+
+    /**
+     * Returns the result of a single row, to build its messages.
+     *
+     * @param row the index of the row.
+     * @return the {@code SparkResult} of the row.
+     */
+    public SparkResult result(int row) {
+
+        return new SparkResult(this.displayName, this.rules, this.failures[row]);
+    }
+}
@@ -0,0 +1,353 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * An immutable set of words searched for inside an input, for the
+ * {@code containsNone} and {@code containsAny} rules.
+ *
+ * <p>
+ * The words are compiled into an Aho-Corasick automaton: a trie of the words
+ * whose nodes also link to the longest suffix that is a prefix of another
+ * word. One pass over the input finds an occurrence of any word, in time
+ * linear to the length of the input whatever the number of words. The
+ * automaton is stored in a few primitive arrays, the edges of each node
+ * sorted by character, so 50,000 words take a few megabytes.
+ *
+ * <p>
+ * With case folding, words and input are compared by
+ * {@code Character.toLowerCase(Character.toUpperCase(c))}, one
+ * {@code char} at a time.
+ *
+ * <p>
+ * Example usage:
+ * <pre>
+ * {@code
+ * private static final SparkDictionary BANNED = SparkDictionary.of(loadBannedWords(), true);
+ *
+ * new SparkString("Comment", comment).containsNone(BANNED);
+ * }
+ * </pre>
+ *
+ * @author vishv
+ */
+public final class SparkDictionary {
+
+    private static final int ROOT = 0;
+
+    private final boolean ignoreCase;
+    private final int size;
+
+    // The edges of node n are [edgeStart[n], edgeStart[n + 1]), sorted by character.
+    private final int[] edgeStart;
+    private final char[] edgeChar;
+    private final int[] edgeTarget;
+    private final int[] fail;
+    private final boolean[] match;
+    private final int[] rootAscii = new int[128];
+
+    private SparkDictionary(String[] words, boolean ignoreCase) {
+
+        this.ignoreCase = ignoreCase;
+
+        // The trie is first built with sibling lists, then laid out breadth first.
+        Builder trie = new Builder();
+        int count = 0;
+        for (String word : words) {
+            if (word == null) {
+                throw new IllegalArgumentException("words cannot contain null");
+            }
+            count += trie.insert(word, ignoreCase) ? 1 : 0;
+        }
+        this.size = count;
+
+        int nodes = trie.nodes;
+        int[] order = new int[nodes];
+        int[] index = new int[nodes];
+        this.edgeStart = new int[nodes + 1];
+        this.edgeChar = new char[nodes - 1];
+        this.edgeTarget = new int[nodes - 1];
+        this.match = new boolean[nodes];
+
+        int tail = 1;
+        int edges = 0;
+        for (int head = 0; head < nodes; head++) {
+            int node = order[head];
+            this.edgeStart[head] = edges;
+            this.match[head] = trie.terminal[node];
+            int first = edges;
+            for (int child = trie.firstChild[node]; child >= 0; child = trie.nextSibling[child]) {
+                index[child] = tail;
+                order[tail++] = child;
+                this.edgeChar[edges] = trie.label[child];
+                this.edgeTarget[edges++] = index[child];
+            }
+            sortEdges(first, edges);
+        }
+        this.edgeStart[nodes] = edges;
+
+        this.fail = new int[nodes];
+        for (int node = 0; node < nodes; node++) {
+            for (int e = this.edgeStart[node]; e < this.edgeStart[node + 1]; e++) {
+                int child = this.edgeTarget[e];
+                if (node == ROOT) {
+                    this.fail[child] = ROOT;
+                } else {
+                    int state = this.fail[node];
+                    int next;
+                    while ((next = edge(state, this.edgeChar[e])) < 0 && state != ROOT) {
+                        state = this.fail[state];
+                    }
+                    this.fail[child] = next < 0 ? ROOT : next;
+                }
+                // Nodes are numbered breadth first, so the fail target is already final.
+                this.match[child] |= this.match[this.fail[child]];
+            }
+        }
+
+        Arrays.fill(this.rootAscii, ROOT);
+        for (int e = this.edgeStart[ROOT]; e < this.edgeStart[ROOT + 1]; e++) {
+            if (this.edgeChar[e] < 128) {
+                this.rootAscii[this.edgeChar[e]] = this.edgeTarget[e];
+            }
+        }
+    }
+
+    /**
+     * Creates a case-sensitive dictionary of the given words.
+     *
+     * @param words the words of the dictionary, without {@code null}s.
+     * @return the immutable dictionary.
+     */
+    public static SparkDictionary of(String... words) {
+
+        if (words == null) {
+            throw new IllegalArgumentException("words cannot be null");
+        }
+        return new SparkDictionary(words, false);
+    }
+
+    /**
+     * Creates a dictionary of the given words.
+     *
+     * @param words the words of the dictionary, without {@code null}s.
+     * @param ignoreCase whether words match regardless of case.
+     * @return the immutable dictionary.
+     */
+    public static SparkDictionary of(Collection<String> words, boolean ignoreCase) {
+
+        if (words == null) {
+            throw new IllegalArgumentException("words cannot be null");
+        }
+        return new SparkDictionary(words.toArray(new String[0]), ignoreCase);
+    }
+
+    /**
+     * Returns whether the input contains at least one word of the
+     * dictionary.
+     *
+     * @param input the input to be searched.
+     * @return {@code true} if a word occurs in the input.
+     */
+    public boolean containsAny(CharSequence input) {
+
+        if (this.match[ROOT]) {
+            return true;
+        }
+        int state = ROOT;
+        for (int i = 0, n = input.length(); i < n; i++) {
+            state = next(state, input.charAt(i));
+            if (this.match[state]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of distinct words of the dictionary.
+     *
+     * @return the number of words.
+     */
+    public int size() {
+
+        return this.size;
+    }
+
+    /**
+     * Returns whether words match regardless of case.
+     *
+     * @return {@code true} if case is ignored.
+     */
+    public boolean ignoresCase() {
+
+        return this.ignoreCase;
+    }
+
+    @Override
+    public String toString() {
+
+        return "SparkDictionary{words=" + this.size + ", nodes=" + this.fail.length
+                + ", ignoreCase=" + this.ignoreCase + "}";
+    }
+
+    /**
+     * Returns the state after reading {@code c} in {@code state}. State
+     * {@code 0} is the start state.
+     */
+    int next(int state, char c) {
+
+        if (this.ignoreCase) {
+            c = fold(c);
+        }
+        while (true) {
+            if (state == ROOT) {
+                if (c < 128) {
+                    return this.rootAscii[c];
+                }
+                int next = edge(ROOT, c);
+                return next < 0 ? ROOT : next;
+            }
+            int next = edge(state, c);
+            if (next >= 0) {
+                return next;
+            }
+            state = this.fail[state];
+        }
+    }
+
+    /**
+     * Returns whether a word ends at the given state.
+     */
+    boolean matched(int state) {
+
+        return this.match[state];
+    }
+
+    private int edge(int node, char c) {
+
+        int low = this.edgeStart[node];
+        int high = this.edgeStart[node + 1] - 1;
+        if (high - low < 8) {
+            for (int e = low; e <= high; e++) {
+                if (this.edgeChar[e] == c) {
+                    return this.edgeTarget[e];
+                }
+            }
+            return -1;
+        }
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char m = this.edgeChar[mid];
+            if (m < c) {
+                low = mid + 1;
+            } else if (m > c) {
+                high = mid - 1;
+            } else {
+                return this.edgeTarget[mid];
+            }
+        }
+        return -1;
+    }
+
+    private void sortEdges(int from, int to) {
+
+        // Insertion sort: most nodes have one or two edges.
+        for (int i = from + 1; i < to; i++) {
+            char c = this.edgeChar[i];
+            int target = this.edgeTarget[i];
+            int j = i - 1;
+            while (j >= from && this.edgeChar[j] > c) {
+                this.edgeChar[j + 1] = this.edgeChar[j];
+                this.edgeTarget[j + 1] = this.edgeTarget[j];
+                j--;
+            }
+            this.edgeChar[j + 1] = c;
+            this.edgeTarget[j + 1] = target;
+        }
+    }
+
+    private static char fold(char c) {
+
+        if (c < 128) {
+            return c >= 'A' && c <= 'Z' ? (char) (c + 32) : c;
+        }
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    /**
+     * A trie with sibling lists, used while building the dictionary.
+     */
+    private static final class Builder {
+
+        int nodes = 1;
+        int[] firstChild = {-1};
+        int[] nextSibling = {-1};
+        char[] label = {0};
+        boolean[] terminal = {false};
+
+        /**
+         * Adds a word and returns whether it was new.
+         */
+        boolean insert(String word, boolean ignoreCase) {
+
+            int node = ROOT;
+            for (int i = 0; i < word.length(); i++) {
+                char c = ignoreCase ? fold(word.charAt(i)) : word.charAt(i);
+                int child = this.firstChild[node];
+                while (child >= 0 && this.label[child] != c) {
+                    child = this.nextSibling[child];
+                }
+                if (child < 0) {
+                    child = add(c);
+                    this.nextSibling[child] = this.firstChild[node];
+                    this.firstChild[node] = child;
+                }
+                node = child;
+            }
+            boolean added = !this.terminal[node];
+            this.terminal[node] = true;
+            return added;
+        }
+
+        private int add(char c) {
+
+            if (this.nodes == this.label.length) {
+                int capacity = this.nodes << 1;
+                this.firstChild = Arrays.copyOf(this.firstChild, capacity);
+                this.nextSibling = Arrays.copyOf(this.nextSibling, capacity);
+                this.label = Arrays.copyOf(this.label, capacity);
+                this.terminal = Arrays.copyOf(this.terminal, capacity);
+            }
+            int node = this.nodes++;
+            this.firstChild[node] = -1;
+            this.nextSibling[node] = -1;
+            this.label[node] = c;
+            return node;
+        }
+    }
+}
@@ -55,10 +55,7 @@ public class SparkDouble {
      */
     public SparkDouble min(double val) throws SparkException {
 
-        if (this.num < val) {
-            throw new SparkException(displayName + " must be greater than " + val + "!");
-        }
-        return this;
+        return min(val, null);
     }
 
     /**
@@ -71,8 +68,8 @@ public class SparkDouble {
      */
     public SparkDouble min(double val, String msg) throws SparkException {
 
-        if (this.num < val) {
-            throw new SparkException(msg);
+        if (SparkMetrics.enabled || !(this.num >= val)) {
+            return check(DoubleRule.min(val, msg));
         }
         return this;
     }
@@ -85,11 +82,8 @@ public class SparkDouble {
      * @throws SparkException if the input exceeds the specified maximum value.
      */
     public SparkDouble max(double val) throws SparkException {
-        
-        if (this.num > val) {
-            throw new SparkException(displayName + " must be less than " + val + "!");
-        }
-        return this;
+
+        return max(val, null);
     }
 
     /**
@@ -102,8 +96,8 @@ public class SparkDouble {
      */
     public SparkDouble max(double val, String msg) throws SparkException {
 
-        if (this.num > val) {
-            throw new SparkException(msg);
+        if (SparkMetrics.enabled || !(this.num <= val)) {
+            return check(DoubleRule.max(val, msg));
         }
         return this;
     }
@@ -117,4 +111,18 @@ public class SparkDouble {
         
         return this.num;
     }
+
+    /**
+     * Runs a rule that the input failed, or any rule while the metrics are
+     * enabled. The rule methods test their condition inline first, so a
+     * passing input creates no rule.
+     */
+    private SparkDouble check(DoubleRule rule) throws SparkException {
+
+        boolean passed = SparkMetrics.enabled ? SparkMetrics.test(rule, this.displayName, this.num) : rule.test(this.num);
+        if (!passed) {
+            throw rule.fail(this.displayName);
+        }
+        return this;
+    }
 }
@@ -0,0 +1,150 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Declares a chain of rules for a {@code double} field once, so it can be
+ * compiled into a reusable {@link SparkDoubleValidator}.
+ *
+ * <p>
+ * Example usage:
+ * <pre>
+ * {@code
+ * private static final SparkDoubleValidator PRICE = new SparkDoubleSchema("Price")
+ *         .min(0.01)
+ *         .max(10000)
+ *         .compile();
+ * }
+ * </pre>
+ *
+ * @author vishv
+ */
+public class SparkDoubleSchema {
+
+    private final String displayName;
+    private final List<DoubleRule> rules = new ArrayList<>();
+    private boolean stackless = false;
+
+    /**
+     * Constructs a new schema for a {@code double} field.
+     *
+     * @param displayName the name of the field being validated.
+     */
+    public SparkDoubleSchema(String displayName) {
+
+        this.displayName = displayName;
+    }
+
+    /**
+     * Ensures that the {@code double} input meets a minimum value requirement.
+     *
+     * @param val the minimum value.
+     * @return the current {@code SparkDoubleSchema} instance for method chaining.
+     */
+    public SparkDoubleSchema min(double val) {
+
+        return rule(DoubleRule.min(val, null));
+    }
+
+    /**
+     * Ensures that the {@code double} input meets a minimum value requirement,
+     * with a custom error message.
+     *
+     * @param val the minimum value.
+     * @param msg the custom error message.
+     * @return the current {@code SparkDoubleSchema} instance for method chaining.
+     */
+    public SparkDoubleSchema min(double val, String msg) {
+
+        return rule(DoubleRule.min(val, msg));
+    }
+
+    /**
+     * Ensures that the {@code double} input does not exceed a maximum value.
+     *
+     * @param val the maximum value.
+     * @return the current {@code SparkDoubleSchema} instance for method chaining.
+     */
+    public SparkDoubleSchema max(double val) {
+
+        return rule(DoubleRule.max(val, null));
+    }
+
+    /**
+     * Ensures that the {@code double} input does not exceed a maximum value, with
+     * a custom error message.
+     *
+     * @param val the maximum value.
+     * @param msg the custom error message.
+     * @return the current {@code SparkDoubleSchema} instance for method chaining.
+     */
+    public SparkDoubleSchema max(double val, String msg) {
+
+        return rule(DoubleRule.max(val, msg));
+    }
+
+    /**
+     * Adds a custom rule to the chain.
+     *
+     * @param rule the rule to be applied.
+     * @return the current {@code SparkDoubleSchema} instance for method chaining.
+     */
+    public SparkDoubleSchema rule(DoubleRule rule) {
+
+        if (rule == null) {
+            throw new IllegalArgumentException("rule cannot be null");
+        }
+        this.rules.add(rule);
+        return this;
+    }
+
+    /**
+     * Makes the compiled validator throw stackless exceptions, regardless of
+     * {@link com.wishva.validator.SparkRuleException#isStackless()}.
+     *
+     * @return the current {@code SparkDoubleSchema} instance for method chaining.
+     */
+    public SparkDoubleSchema stackless() {
+
+        this.stackless = true;
+        return this;
+    }
+
+    /**
+     * Compiles the declared rules into an immutable, thread-safe validator. A
+     * schema can have at most 64 rules.
+     *
+     * @return the compiled {@code SparkDoubleValidator}.
+     */
+    public SparkDoubleValidator compile() {
+
+        if (this.rules.size() > 64) {
+            throw new IllegalStateException("A schema cannot have more than 64 rules");
+        }
+        return new SparkDoubleValidator(this.displayName, this.rules.toArray(new DoubleRule[0]), this.stackless);
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+import com.wishva.validator.SparkException;
+import com.wishva.validator.SparkRuleException;
+
+/**
+ * A compiled, immutable chain of {@link DoubleRule}s.
+ *
+ * <p>
+ * Instances are created by {@link SparkDoubleSchema#compile()} and can be shared
+ * between threads. Validating an input that passes every rule does not
+ * allocate. A validator compiled in stackless mode does not allocate when the
+ * input fails either; it throws a shared {@link SparkRuleException} that must
+ * not be modified by the caller.
+ *
+ * @author vishv
+ */
+public final class SparkDoubleValidator {
+
+    private final String displayName;
+    private final DoubleRule[] rules;
+    private final SparkRuleException[] failures;
+    private final SparkResult valid;
+
+    SparkDoubleValidator(String displayName, DoubleRule[] rules, boolean stackless) {
+
+        this.displayName = displayName;
+        this.rules = rules;
+        this.valid = new SparkResult(displayName, rules, 0L);
+
+        // Stackless failures carry no per-call state, so one instance per rule is thrown every time.
+        this.failures = stackless ? new SparkRuleException[rules.length] : null;
+        if (stackless) {
+            for (int i = 0; i < rules.length; i++) {
+                this.failures[i] = rules[i].fail(displayName, true);
+            }
+        }
+    }
+
+    /**
+     * Returns the name of the field being validated.
+     *
+     * @return the display name.
+     */
+    public String displayName() {
+
+        return this.displayName;
+    }
+
+    /**
+     * Applies every rule in declaration order and stops at the first failure.
+     *
+     * @param input the input {@code double} to be validated.
+     * @return the validated {@code double}.
+     * @throws SparkException if the input fails a rule.
+     */
+    public double validate(double input) throws SparkException {
+
+        for (int i = 0; i < this.rules.length; i++) {
+            if (!test(this.rules[i], input)) {
+                throw this.failures != null ? this.failures[i] : this.rules[i].fail(this.displayName);
+            }
+        }
+        return input;
+    }
+
+    /**
+     * Tests the input against every rule without throwing.
+     *
+     * @param input the input to be tested.
+     * @return {@code true} if the input passes every rule.
+     */
+    public boolean isValid(double input) {
+
+        for (DoubleRule rule : this.rules) {
+            if (!test(rule, input)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Applies every rule and records each failure, without throwing.
+     *
+     * @param input the input to be tested.
+     * @return the bitset of the failed rules, bit {@code i} for the
+     * {@code i}-th declared rule; {@code 0} if the input is valid.
+     */
+    public long failures(double input) {
+
+        long failed = 0L;
+        for (int i = 0; i < this.rules.length; i++) {
+            if (!test(this.rules[i], input)) {
+                failed |= 1L << i;
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Applies every rule and returns a result, without throwing. A valid input
+     * returns a shared result and does not allocate.
+     *
+     * @param input the input to be tested.
+     * @return the {@code SparkResult} of the input.
+     */
+    public SparkResult check(double input) {
+
+        return result(failures(input));
+    }
+
+    SparkRule[] rules() {
+
+        return this.rules;
+    }
+
+    SparkResult result(long failed) {
+
+        return failed == 0L ? this.valid : new SparkResult(this.displayName, this.rules, failed);
+    }
+
+    /**
+     * Validates a whole column of inputs without throwing.
+     *
+     * @param column the inputs to be validated.
+     * @return the {@code SparkBatchResult} of the column.
+     */
+    public SparkBatchResult validateAll(double[] column) {
+
+        SparkBatchResult result = newBatchResult(column.length);
+        validateRange(column, 0, column.length, result);
+        return result;
+    }
+
+    SparkBatchResult newBatchResult(int size) {
+
+        return new SparkBatchResult(this.displayName, this.rules, size);
+    }
+
+    /**
+     * Validates the rows {@code [from, to)} into {@code result}. Each rule runs
+     * over the whole range before the next one, which keeps the inner loop
+     * free of calls to other rules.
+     */
+    void validateRange(double[] column, int from, int to, SparkBatchResult result) {
+
+        long[] failed = result.failures;
+        boolean measured = SparkMetrics.enabled;
+        for (int r = 0; r < this.rules.length; r++) {
+            DoubleRule rule = this.rules[r];
+            long bit = 1L << r;
+            long start = measured ? System.nanoTime() : 0L;
+            int rejected = 0;
+            for (int i = from; i < to; i++) {
+                if (!rule.test(column[i])) {
+                    failed[i] |= bit;
+                    rejected++;
+                }
+            }
+            if (measured) {
+                SparkMetrics.recordBatch(rule, this.displayName, to - from - rejected, rejected, System.nanoTime() - start);
+            }
+        }
+        result.mark(from, to);
+    }
+
+    private boolean test(DoubleRule rule, double input) {
+
+        return SparkMetrics.enabled ? SparkMetrics.test(rule, this.displayName, input) : rule.test(input);
+    }
+}
@@ -0,0 +1,470 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+import com.wishva.validator.SparkNumbers;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Validates a delimited UTF-8 file, such as a CSV or TSV file, straight from a
+ * memory-mapped {@link FileChannel}.
+ *
+ * <p>
+ * The file is mapped one window at a time and every checked cell is decoded
+ * into a reused buffer, so no {@code String} is created for the lines or the
+ * cells and memory use does not depend on the size of the file. Rejected rows
+ * are reported to a {@link Listener} as they are found.
+ *
+ * <p>
+ * Example usage:
+ * <pre>
+ * {@code
+ * SparkFileValidator csv = new SparkFileValidator(',')
+ *         .skipHeader()
+ *         .column(0, EMAIL)
+ *         .column(2, AGE);
+ *
+ * long rejected = csv.validate(path, (row, column, result) ->
+ *         System.out.println(row + ": " + result.messages()));
+ * }
+ * </pre>
+ *
+ * <p>
+ * Rows are numbered from 1 and the header counts as a row, so for files
+ * without quoted line breaks the row number is the line number. Empty lines
+ * are skipped. Cells may be quoted with {@code "}, a quote inside a quoted cell
+ * being written {@code ""}. Use {@code '\n'} as the delimiter to validate
+ * whole lines.
+ *
+ * <p>
+ * A row longer than {@link #maxRowLength(int)}, 1 MiB by default, stops the
+ * validation with an {@code IOException}. This also catches a quote that is
+ * never closed, which would otherwise make the rest of the file one row.
+ *
+ * <p>
+ * Note: A configured validator can be used by several threads at once.
+ *
+ * @author vishv
+ */
+public class SparkFileValidator {
+
+    /**
+     * Receives the cells rejected by {@link SparkFileValidator}.
+     */
+    public interface Listener {
+
+        /**
+         * Called for every cell that fails its rules.
+         *
+         * @param row the number of the row, starting at 1.
+         * @param column the index of the column, starting at 0.
+         * @param result the failed rules of the cell.
+         */
+        void rejected(long row, int column, SparkResult result);
+    }
+
+    private static final int DEFAULT_WINDOW = 64 << 20;
+    private static final int DEFAULT_MAX_ROW = 1 << 20;
+    private static final int MAX_WINDOW = Integer.MAX_VALUE - 8;
+    private static final int TOO_LONG = -2;
+
+    private final byte delimiter;
+    private boolean quotes;
+    private boolean header = false;
+    private int window = DEFAULT_WINDOW;
+    private int maxRow = DEFAULT_MAX_ROW;
+    private Column[] columns = new Column[0];
+
+    /**
+     * Constructs a new validator for files using the given delimiter.
+     *
+     * @param delimiter the ASCII character between two cells, e.g. {@code ','}
+     * or {@code '\t'}.
+     */
+    public SparkFileValidator(char delimiter) {
+
+        if (delimiter > 127 || delimiter == '"' || delimiter == '\r') {
+            throw new IllegalArgumentException("Unsupported delimiter");
+        }
+        this.delimiter = (byte) delimiter;
+        this.quotes = delimiter != '\n';
+    }
+
+    /**
+     * Skips the first row of the file.
+     *
+     * @return the current {@code SparkFileValidator} instance for method
+     * chaining.
+     */
+    public SparkFileValidator skipHeader() {
+
+        this.header = true;
+        return this;
+    }
+
+    /**
+     * Treats {@code "} as an ordinary character.
+     *
+     * @return the current {@code SparkFileValidator} instance for method
+     * chaining.
+     */
+    public SparkFileValidator unquoted() {
+
+        this.quotes = false;
+        return this;
+    }
+
+    /**
+     * Sets the number of bytes mapped at once. A window grows by itself when a
+     * single row does not fit in it, up to {@link #maxRowLength(int)}.
+     *
+     * @param bytes the size of the mapped window.
+     * @return the current {@code SparkFileValidator} instance for method
+     * chaining.
+     */
+    public SparkFileValidator window(int bytes) {
+
+        if (bytes < 1) {
+            throw new IllegalArgumentException("window must be greater than 0");
+        }
+        this.window = bytes;
+        return this;
+    }
+
+    /**
+     * Sets the length in bytes of the longest accepted row, not counting the
+     * line break that ends it. A longer row stops the validation as soon as it
+     * is found. The default is 1 MiB.
+     *
+     * @param bytes the maximum length of a row.
+     * @return the current {@code SparkFileValidator} instance for method
+     * chaining.
+     */
+    public SparkFileValidator maxRowLength(int bytes) {
+
+        if (bytes < 1 || bytes > MAX_WINDOW - 2) {
+            throw new IllegalArgumentException("maxRowLength must be between 1 and " + (MAX_WINDOW - 2));
+        }
+        this.maxRow = bytes;
+        return this;
+    }
+
+    /**
+     * Validates a column with {@code String} rules.
+     *
+     * @param index the index of the column, starting at 0.
+     * @param validator the compiled validator of the column.
+     * @return the current {@code SparkFileValidator} instance for method
+     * chaining.
+     */
+    public SparkFileValidator column(int index, final SparkStringValidator validator) {
+
+        return column(index, new Column() {
+            @Override
+            SparkResult check(CharSlice cell) {
+                long failed = validator.failures(cell);
+                return failed == 0L ? null : validator.result(failed);
+            }
+        });
+    }
+
+    /**
+     * Validates a column with {@code int} rules. Cells that are not an
+     * {@code int} are rejected.
+     *
+     * @param index the index of the column, starting at 0.
+     * @param validator the compiled validator of the column.
+     * @return the current {@code SparkFileValidator} instance for method
+     * chaining.
+     */
+    public SparkFileValidator column(int index, final SparkIntValidator validator) {
+
+        return column(index, new Column() {
+            @Override
+            SparkResult check(CharSlice cell) {
+                long parsed = SparkNumbers.parseInt(cell, 0, cell.length());
+                if (SparkNumbers.status(parsed) != SparkNumbers.OK) {
+                    return notANumber(validator.displayName(), StringRule.INTEGER);
+                }
+                long failed = validator.failures(SparkNumbers.value(parsed));
+                return failed == 0L ? null : validator.result(failed);
+            }
+        });
+    }
+
+    /**
+     * Validates a column with {@code double} rules. Cells that are not a plain
+     * decimal number are rejected.
+     *
+     * @param index the index of the column, starting at 0.
+     * @param validator the compiled validator of the column.
+     * @return the current {@code SparkFileValidator} instance for method
+     * chaining.
+     */
+    public SparkFileValidator column(int index, final SparkDoubleValidator validator) {
+
+        return column(index, new Column() {
+            @Override
+            SparkResult check(CharSlice cell) {
+                double parsed = SparkNumbers.parseDouble(cell, 0, cell.length());
+                if (Double.isNaN(parsed)) {
+                    return notANumber(validator.displayName(), StringRule.DECIMAL);
+                }
+                long failed = validator.failures(parsed);
+                return failed == 0L ? null : validator.result(failed);
+            }
+        });
+    }
+
+    /**
+     * Validates a file.
+     *
+     * @param file the file to be validated.
+     * @param listener receives the rejected cells.
+     * @return the number of rejected rows.
+     * @throws IOException if the file cannot be read, or has a row longer
+     * than {@link #maxRowLength(int)}.
+     */
+    public long validate(Path file, Listener listener) throws IOException {
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return validate(channel, listener);
+        }
+    }
+
+    /**
+     * Validates a file from its current size, starting at the first byte.
+     *
+     * @param channel the channel of the file to be validated.
+     * @param listener receives the rejected cells.
+     * @return the number of rejected rows.
+     * @throws IOException if the file cannot be read, or has a row longer
+     * than {@link #maxRowLength(int)}.
+     */
+    public long validate(FileChannel channel, Listener listener) throws IOException {
+
+        Column[] cols = this.columns;
+        CharSlice cell = new CharSlice();
+        long size = channel.size();
+        long position = 0;
+        long row = 0;
+        long rejected = 0;
+        int length = this.window;
+
+        while (position < size) {
+            int limit = (int) Math.min(length, size - position);
+            boolean last = position + limit == size;
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, limit);
+
+            int start = 0;
+            while (start < limit) {
+                int end = recordEnd(buffer, start, limit);
+                if (end == TOO_LONG) {
+                    throw tooLong(row + 1);
+                }
+                if (end < 0) {
+                    if (!last) {
+                        break;
+                    }
+                    end = limit;
+                    if (!fits(buffer, start, end)) {
+                        throw tooLong(row + 1);
+                    }
+                }
+                row++;
+                if (!(this.header && row == 1) && validateRecord(cols, buffer, start, end, row, cell, listener)) {
+                    rejected++;
+                }
+                start = end + 1;
+            }
+
+            if (start == 0) {
+                // A single row does not fit in the window, which is still shorter than maxRowLength.
+                length = (int) Math.min((long) length << 1, this.maxRow + 2);
+                continue;
+            }
+            position += Math.min(start, limit);
+        }
+        return rejected;
+    }
+
+    private SparkFileValidator column(int index, Column column) {
+
+        if (index < 0) {
+            throw new IllegalArgumentException("index cannot be negative");
+        }
+        if (index >= this.columns.length) {
+            Column[] grown = new Column[index + 1];
+            System.arraycopy(this.columns, 0, grown, 0, this.columns.length);
+            this.columns = grown;
+        }
+        this.columns[index] = column;
+        return this;
+    }
+
+    private IOException tooLong(long row) {
+
+        return new IOException("Row " + row + " is longer than " + this.maxRow + " bytes");
+    }
+
+    /**
+     * Returns the index of the line break ending the row that starts at
+     * {@code start}, {@code -1} if it is not in the window, or
+     * {@link #TOO_LONG} if the row is longer than {@link #maxRow}. At most
+     * {@code maxRow + 2} bytes are read, the row and a {@code "\r\n"}.
+     */
+    private int recordEnd(ByteBuffer buffer, int start, int limit) {
+
+        int stop = (int) Math.min(limit, (long) start + this.maxRow + 2);
+        boolean quoted = false;
+        for (int i = start; i < stop; i++) {
+            byte b = buffer.get(i);
+            if (b == '\n' && !quoted) {
+                return fits(buffer, start, i) ? i : TOO_LONG;
+            }
+            if (b == '"' && this.quotes) {
+                quoted = !quoted;
+            }
+        }
+        return stop - start > this.maxRow + 1 ? TOO_LONG : -1;
+    }
+
+    /**
+     * Tells whether the row {@code [start, end)}, without a final
+     * {@code '\r'}, is not longer than {@link #maxRow}.
+     */
+    private boolean fits(ByteBuffer buffer, int start, int end) {
+
+        int length = end - start;
+        if (length > 0 && buffer.get(end - 1) == '\r') {
+            length--;
+        }
+        return length <= this.maxRow;
+    }
+
+    private boolean validateRecord(Column[] cols, ByteBuffer buffer, int start, int end, long row,
+            CharSlice cell, Listener listener) {
+
+        if (end > start && buffer.get(end - 1) == '\r') {
+            end--;
+        }
+        if (start == end) {
+            return false;
+        }
+
+        boolean rejected = false;
+        int index = 0;
+        int pos = start;
+        while (true) {
+            Column column = index < cols.length ? cols[index] : null;
+            cell.clear();
+            pos = readCell(buffer, pos, end, column != null ? cell : null);
+            rejected |= check(column, cell, row, index, listener);
+            index++;
+            if (pos >= end) {
+                break;
+            }
+            pos++;
+        }
+
+        // Columns missing from the row are checked as empty cells.
+        for (; index < cols.length; index++) {
+            cell.clear();
+            rejected |= check(cols[index], cell, row, index, listener);
+        }
+        return rejected;
+    }
+
+    private static boolean check(Column column, CharSlice cell, long row, int index, Listener listener) {
+
+        if (column == null) {
+            return false;
+        }
+        SparkResult result = column.check(cell);
+        if (result == null) {
+            return false;
+        }
+        listener.rejected(row, index, result);
+        return true;
+    }
+
+    /**
+     * Reads the cell starting at {@code pos}, decoding it into {@code out}
+     * unless it is {@code null}, and returns the index of the delimiter ending
+     * it, or {@code end}.
+     */
+    private int readCell(ByteBuffer buffer, int pos, int end, CharSlice out) {
+
+        boolean quoted = false;
+        if (this.quotes && pos < end && buffer.get(pos) == '"') {
+            quoted = true;
+            pos++;
+        }
+
+        while (pos < end) {
+            byte b = buffer.get(pos);
+            if (quoted) {
+                if (b == '"') {
+                    if (pos + 1 < end && buffer.get(pos + 1) == '"') {
+                        pos++;
+                    } else {
+                        quoted = false;
+                        pos++;
+                        continue;
+                    }
+                }
+            } else if (b == this.delimiter) {
+                return pos;
+            }
+
+            if (b >= 0) {
+                if (out != null) {
+                    out.append((char) b);
+                }
+                pos++;
+            } else {
+                pos = Utf8.decode(buffer, pos, end, out);
+            }
+        }
+        return end;
+    }
+
+    private static SparkResult notANumber(String displayName, StringRule rule) {
+
+        return new SparkResult(displayName, new SparkRule[]{rule}, 1L);
+    }
+
+    private abstract static class Column {
+
+        /**
+         * Returns the failed rules of the cell, or {@code null} if it is
+         * valid.
+         */
+        abstract SparkResult check(CharSlice cell);
+    }
+}
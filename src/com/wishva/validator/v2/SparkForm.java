@@ -0,0 +1,169 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Collects the results of every field of a form in one pass, without
+ * throwing.
+ *
+ * <p>
+ * Every field is checked against all of its rules, so one submission reports
+ * every error. Only failed fields are kept.
+ *
+ * <p>
+ * Example usage:
+ * <pre>
+ * {@code
+ * SparkForm form = new SparkForm()
+ *         .check(EMAIL, email)
+ *         .check(PASSWORD, password)
+ *         .check(AGE, age);
+ *
+ * if (!form.isValid()) {
+ *     Map<String, List<String>> errors = form.messages();
+ * }
+ * }
+ * </pre>
+ *
+ * <p>
+ * Note: A form is not thread-safe; create one per submission.
+ *
+ * @author vishv
+ */
+public class SparkForm {
+
+    private List<SparkResult> errors = null;
+
+    /**
+     * Checks a {@code String} field.
+     *
+     * @param validator the compiled validator of the field.
+     * @param input the input to be validated.
+     * @return the current {@code SparkForm} instance for method chaining.
+     */
+    public SparkForm check(SparkStringValidator validator, CharSequence input) {
+
+        return add(validator.check(input));
+    }
+
+    /**
+     * Checks an {@code int} field.
+     *
+     * @param validator the compiled validator of the field.
+     * @param input the input to be validated.
+     * @return the current {@code SparkForm} instance for method chaining.
+     */
+    public SparkForm check(SparkIntValidator validator, int input) {
+
+        return add(validator.check(input));
+    }
+
+    /**
+     * Checks a {@code double} field.
+     *
+     * @param validator the compiled validator of the field.
+     * @param input the input to be validated.
+     * @return the current {@code SparkForm} instance for method chaining.
+     */
+    public SparkForm check(SparkDoubleValidator validator, double input) {
+
+        return add(validator.check(input));
+    }
+
+    /**
+     * Adds the result of a field checked elsewhere.
+     *
+     * @param result the result of the field.
+     * @return the current {@code SparkForm} instance for method chaining.
+     */
+    public SparkForm add(SparkResult result) {
+
+        if (!result.isValid()) {
+            if (this.errors == null) {
+                this.errors = new ArrayList<>();
+            }
+            this.errors.add(result);
+        }
+        return this;
+    }
+
+    /**
+     * Returns whether every checked field was valid.
+     *
+     * @return {@code true} if no field failed.
+     */
+    public boolean isValid() {
+
+        return this.errors == null;
+    }
+
+    /**
+     * Returns the results of the failed fields, in the order they were checked.
+     *
+     * @return the failed results.
+     */
+    public List<SparkResult> errors() {
+
+        return this.errors == null ? Collections.<SparkResult>emptyList() : Collections.unmodifiableList(this.errors);
+    }
+
+    /**
+     * Builds the error messages of every failed field.
+     *
+     * @return the error messages keyed by field name.
+     */
+    public Map<String, List<String>> messages() {
+
+        return messages(Locale.ROOT);
+    }
+
+    /**
+     * Builds the error messages of every failed field in the given locale.
+     *
+     * @param locale the locale of the messages.
+     * @return the error messages keyed by field name.
+     */
+    public Map<String, List<String>> messages(Locale locale) {
+
+        Map<String, List<String>> messages = new LinkedHashMap<>();
+        for (SparkResult result : errors()) {
+            List<String> list = messages.get(result.displayName());
+            if (list == null) {
+                messages.put(result.displayName(), result.messages(locale));
+            } else {
+                list = new ArrayList<>(list);
+                list.addAll(result.messages(locale));
+                messages.put(result.displayName(), list);
+            }
+        }
+        return messages;
+    }
+}
@@ -55,10 +55,7 @@ public class SparkInt {
      */
     public SparkInt min(int val) throws SparkException {
 
-        if (this.num < val) {
-            throw new SparkException(displayName + " must be greater than " + val + "!");
-        }
-        return this;
+        return min(val, null);
     }
 
     /**
@@ -71,8 +68,8 @@ public class SparkInt {
      */
     public SparkInt min(int val, String msg) throws SparkException {
 
-        if (this.num < val) {
-            throw new SparkException(msg);
+        if (SparkMetrics.enabled || this.num < val) {
+            return check(IntRule.min(val, msg));
         }
         return this;
     }
@@ -85,11 +82,8 @@ public class SparkInt {
      * @throws SparkException if the input exceeds the specified maximum value.
      */
     public SparkInt max(int val) throws SparkException {
-        
-        if (this.num > val) {
-            throw new SparkException(displayName + " must be less than " + val + "!");
-        }
-        return this;
+
+        return max(val, null);
     }
 
     /**
@@ -102,8 +96,66 @@ public class SparkInt {
      */
     public SparkInt max(int val, String msg) throws SparkException {
 
-        if (this.num > val) {
-            throw new SparkException(msg);
+        if (SparkMetrics.enabled || this.num > val) {
+            return check(IntRule.max(val, msg));
+        }
+        return this;
+    }
+
+    /**
+     * Ensures that the {@code int} input is one of the values of a set.
+     *
+     * @param values the set of allowed values.
+     * @return the current {@code SparkInt} instance for method chaining.
+     * @throws SparkException if the input is not in the set.
+     */
+    public SparkInt oneOf(SparkIntSet values) throws SparkException {
+
+        return oneOf(values, null);
+    }
+
+    /**
+     * Ensures that the {@code int} input is one of the values of a set, with a
+     * custom error message.
+     *
+     * @param values the set of allowed values.
+     * @param msg the custom error message.
+     * @return the current {@code SparkInt} instance for method chaining.
+     * @throws SparkException if the input is not in the set.
+     */
+    public SparkInt oneOf(SparkIntSet values, String msg) throws SparkException {
+
+        if (SparkMetrics.enabled || values == null || !values.contains(this.num)) {
+            return check(IntRule.oneOf(values, msg));
+        }
+        return this;
+    }
+
+    /**
+     * Ensures that the {@code int} input is none of the values of a set.
+     *
+     * @param values the set of rejected values.
+     * @return the current {@code SparkInt} instance for method chaining.
+     * @throws SparkException if the input is in the set.
+     */
+    public SparkInt noneOf(SparkIntSet values) throws SparkException {
+
+        return noneOf(values, null);
+    }
+
+    /**
+     * Ensures that the {@code int} input is none of the values of a set, with a
+     * custom error message.
+     *
+     * @param values the set of rejected values.
+     * @param msg the custom error message.
+     * @return the current {@code SparkInt} instance for method chaining.
+     * @throws SparkException if the input is in the set.
+     */
+    public SparkInt noneOf(SparkIntSet values, String msg) throws SparkException {
+
+        if (SparkMetrics.enabled || values == null || values.contains(this.num)) {
+            return check(IntRule.noneOf(values, msg));
         }
         return this;
     }
@@ -117,4 +169,18 @@ public class SparkInt {
         
         return this.num;
     }
+
+    /**
+     * Runs a rule that the input failed, or any rule while the metrics are
+     * enabled. The rule methods test their condition inline first, so a
+     * passing input creates no rule.
+     */
+    private SparkInt check(IntRule rule) throws SparkException {
+
+        boolean passed = SparkMetrics.enabled ? SparkMetrics.test(rule, this.displayName, this.num) : rule.test(this.num);
+        if (!passed) {
+            throw rule.fail(this.displayName);
+        }
+        return this;
+    }
 }
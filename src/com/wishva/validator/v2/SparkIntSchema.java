@@ -0,0 +1,198 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Declares a chain of rules for an {@code int} field once, so it can be
+ * compiled into a reusable {@link SparkIntValidator}.
+ *
+ * <p>
+ * Example usage:
+ * <pre>
+ * {@code
+ * private static final SparkIntValidator AGE = new SparkIntSchema("Age")
+ *         .min(18)
+ *         .max(120)
+ *         .compile();
+ * }
+ * </pre>
+ *
+ * @author vishv
+ */
+public class SparkIntSchema {
+
+    private final String displayName;
+    private final List<IntRule> rules = new ArrayList<>();
+    private boolean stackless = false;
+
+    /**
+     * Constructs a new schema for an {@code int} field.
+     *
+     * @param displayName the name of the field being validated.
+     */
+    public SparkIntSchema(String displayName) {
+
+        this.displayName = displayName;
+    }
+
+    /**
+     * Ensures that the {@code int} input meets a minimum value requirement.
+     *
+     * @param val the minimum value.
+     * @return the current {@code SparkIntSchema} instance for method chaining.
+     */
+    public SparkIntSchema min(int val) {
+
+        return rule(IntRule.min(val, null));
+    }
+
+    /**
+     * Ensures that the {@code int} input meets a minimum value requirement,
+     * with a custom error message.
+     *
+     * @param val the minimum value.
+     * @param msg the custom error message.
+     * @return the current {@code SparkIntSchema} instance for method chaining.
+     */
+    public SparkIntSchema min(int val, String msg) {
+
+        return rule(IntRule.min(val, msg));
+    }
+
+    /**
+     * Ensures that the {@code int} input does not exceed a maximum value.
+     *
+     * @param val the maximum value.
+     * @return the current {@code SparkIntSchema} instance for method chaining.
+     */
+    public SparkIntSchema max(int val) {
+
+        return rule(IntRule.max(val, null));
+    }
+
+    /**
+     * Ensures that the {@code int} input does not exceed a maximum value, with
+     * a custom error message.
+     *
+     * @param val the maximum value.
+     * @param msg the custom error message.
+     * @return the current {@code SparkIntSchema} instance for method chaining.
+     */
+    public SparkIntSchema max(int val, String msg) {
+
+        return rule(IntRule.max(val, msg));
+    }
+
+    /**
+     * Ensures that the {@code int} input is one of the values of a set.
+     *
+     * @param values the set of allowed values.
+     * @return the current {@code SparkIntSchema} instance for method chaining.
+     */
+    public SparkIntSchema oneOf(SparkIntSet values) {
+
+        return rule(IntRule.oneOf(values, null));
+    }
+
+    /**
+     * Ensures that the {@code int} input is one of the values of a set, with a
+     * custom error message.
+     *
+     * @param values the set of allowed values.
+     * @param msg the custom error message.
+     * @return the current {@code SparkIntSchema} instance for method chaining.
+     */
+    public SparkIntSchema oneOf(SparkIntSet values, String msg) {
+
+        return rule(IntRule.oneOf(values, msg));
+    }
+
+    /**
+     * Ensures that the {@code int} input is none of the values of a set.
+     *
+     * @param values the set of rejected values.
+     * @return the current {@code SparkIntSchema} instance for method chaining.
+     */
+    public SparkIntSchema noneOf(SparkIntSet values) {
+
+        return rule(IntRule.noneOf(values, null));
+    }
+
+    /**
+     * Ensures that the {@code int} input is none of the values of a set, with a
+     * custom error message.
+     *
+     * @param values the set of rejected values.
+     * @param msg the custom error message.
+     * @return the current {@code SparkIntSchema} instance for method chaining.
+     */
+    public SparkIntSchema noneOf(SparkIntSet values, String msg) {
+
+        return rule(IntRule.noneOf(values, msg));
+    }
+
+    /**
+     * Adds a custom rule to the chain.
+     *
+     * @param rule the rule to be applied.
+     * @return the current {@code SparkIntSchema} instance for method chaining.
+     */
+    public SparkIntSchema rule(IntRule rule) {
+
+        if (rule == null) {
+            throw new IllegalArgumentException("rule cannot be null");
+        }
+        this.rules.add(rule);
+        return this;
+    }
+
+    /**
+     * Makes the compiled validator throw stackless exceptions, regardless of
+     * {@link com.wishva.validator.SparkRuleException#isStackless()}.
+     *
+     * @return the current {@code SparkIntSchema} instance for method chaining.
+     */
+    public SparkIntSchema stackless() {
+
+        this.stackless = true;
+        return this;
+    }
+
+    /**
+     * Compiles the declared rules into an immutable, thread-safe validator. A
+     * schema can have at most 64 rules.
+     *
+     * @return the compiled {@code SparkIntValidator}.
+     */
+    public SparkIntValidator compile() {
+
+        if (this.rules.size() > 64) {
+            throw new IllegalStateException("A schema cannot have more than 64 rules");
+        }
+        return new SparkIntValidator(this.displayName, this.rules.toArray(new IntRule[0]), this.stackless);
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+import java.util.Arrays;
+
+/**
+ * An immutable set of {@code int}s for the {@code oneOf} and {@code noneOf}
+ * rules, stored without boxing.
+ *
+ * <p>
+ * Values that lie close together, such as status codes, are kept in a bitmap
+ * indexed by {@code value - min}, so a lookup is one shift and one mask.
+ * Sparse values are kept in an open-addressing table of {@code int}s.
+ *
+ * <p>
+ * Example usage:
+ * <pre>
+ * {@code
+ * private static final SparkIntSet PORTS = SparkIntSet.of(80, 443, 8080);
+ *
+ * new SparkInt("Port", port).oneOf(PORTS);
+ * }
+ * </pre>
+ *
+ * @author vishv
+ */
+public final class SparkIntSet {
+
+    private final int size;
+    private final int min;
+    private final long[] bits;
+    private final int[] table;
+    private final int mask;
+    private final boolean hasZero;
+
+    private SparkIntSet(int[] values) {
+
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int count = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[count++] = sorted[i];
+            }
+        }
+        this.size = count;
+        this.min = count == 0 ? 0 : sorted[0];
+        long range = count == 0 ? 0L : (long) sorted[count - 1] - sorted[0] + 1;
+
+        // A bitmap is used while it takes no more memory than the table would.
+        if (range <= 64L * SparkStringSet.tableSize(count)) {
+            this.bits = new long[(int) ((range + 63) >>> 6)];
+            for (int i = 0; i < count; i++) {
+                int offset = sorted[i] - this.min;
+                this.bits[offset >>> 6] |= 1L << offset;
+            }
+            this.table = null;
+            this.mask = 0;
+            this.hasZero = false;
+            return;
+        }
+
+        // 0 marks an empty slot, so the value 0 is kept aside.
+        boolean zero = false;
+        this.table = new int[SparkStringSet.tableSize(count)];
+        this.mask = this.table.length - 1;
+        for (int i = 0; i < count; i++) {
+            int value = sorted[i];
+            if (value == 0) {
+                zero = true;
+                continue;
+            }
+            int slot = mix(value) & this.mask;
+            while (this.table[slot] != 0) {
+                slot = (slot + 1) & this.mask;
+            }
+            this.table[slot] = value;
+        }
+        this.bits = null;
+        this.hasZero = zero;
+    }
+
+    /**
+     * Creates a set of the given values.
+     *
+     * @param values the values of the set.
+     * @return the immutable set.
+     */
+    public static SparkIntSet of(int... values) {
+
+        if (values == null) {
+            throw new IllegalArgumentException("values cannot be null");
+        }
+        return new SparkIntSet(values);
+    }
+
+    /**
+     * Returns whether the set holds the value.
+     *
+     * @param value the value to look up.
+     * @return {@code true} if the value is in the set.
+     */
+    public boolean contains(int value) {
+
+        if (this.bits != null) {
+            // The subtraction wraps for values far from min; the unsigned compare rejects them.
+            int offset = value - this.min;
+            return (offset >>> 6) < this.bits.length && (this.bits[offset >>> 6] & (1L << offset)) != 0L;
+        }
+        if (value == 0) {
+            return this.hasZero;
+        }
+        int slot = mix(value) & this.mask;
+        int entry;
+        while ((entry = this.table[slot]) != 0) {
+            if (entry == value) {
+                return true;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of distinct values in the set.
+     *
+     * @return the size of the set.
+     */
+    public int size() {
+
+        return this.size;
+    }
+
+    @Override
+    public String toString() {
+
+        StringBuilder builder = new StringBuilder("[");
+        boolean first = true;
+        if (this.bits != null) {
+            for (int i = 0; i < this.bits.length * 64; i++) {
+                if ((this.bits[i >>> 6] & (1L << i)) != 0L) {
+                    builder.append(first ? "" : ", ").append(this.min + i);
+                    first = false;
+                }
+            }
+        } else {
+            int[] values = new int[this.size];
+            int count = 0;
+            if (this.hasZero) {
+                values[count++] = 0;
+            }
+            for (int value : this.table) {
+                if (value != 0) {
+                    values[count++] = value;
+                }
+            }
+            Arrays.sort(values);
+            for (int value : values) {
+                builder.append(first ? "" : ", ").append(value);
+                first = false;
+            }
+        }
+        return builder.append(']').toString();
+    }
+
+    private static int mix(int value) {
+
+        int h = value * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
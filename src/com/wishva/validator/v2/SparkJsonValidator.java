@@ -0,0 +1,886 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+import com.wishva.validator.SparkNumbers;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Validates the fields of a UTF-8 JSON document while tokenizing it, before
+ * it is bound to objects.
+ *
+ * <p>
+ * Each checked field is named by its path, e.g. {@code "user.email"}, and
+ * gets a compiled {@code String}, {@code int} or {@code double} validator.
+ * {@code []} stands for every element of an array, e.g.
+ * {@code "items[].price"}. The document is read once: no tree is built and
+ * every checked value is decoded into a reused buffer, so no {@code String}
+ * is created for keys or values. Fields that are not configured are only
+ * checked for syntax.
+ *
+ * <p>
+ * Example usage:
+ * <pre>
+ * {@code
+ * SparkJsonValidator order = new SparkJsonValidator()
+ *         .field("customer.email", EMAIL)
+ *         .field("items[].sku", SKU)
+ *         .field("items[].quantity", QUANTITY)
+ *         .failFast();
+ *
+ * SparkForm form = order.validate(body);
+ * if (!form.isValid()) {
+ *     return badRequest(form.messages());
+ * }
+ * }
+ * </pre>
+ *
+ * <p>
+ * Values must have the JSON type of their validator: a string for a
+ * {@code String} field and a number for an {@code int} or {@code double}
+ * field. A missing or {@code null} {@code String} field is checked as
+ * {@code null}, so it only fails {@code required}; a missing or {@code null}
+ * number is not checked. An object or array of the wrong type, such as
+ * {@code "customer": "x"}, fails with a type error and its fields are
+ * checked as missing. A document that is not valid JSON, or nests deeper
+ * than {@link #maxDepth(int)}, stops the validation with an error for the
+ * field {@code "$"}.
+ *
+ * <p>
+ * Note: A configured validator can be used by several threads at once.
+ *
+ * @author vishv
+ */
+public class SparkJsonValidator {
+
+    private static final int DEFAULT_MAX_DEPTH = 64;
+    private static final int DEFAULT_MAX_BYTES = 1 << 20;
+    // Some VMs reserve header words in an array.
+    private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+    private static final StringRule TYPE = rule("jsonType", "{0} has the wrong type!");
+
+    private final Node root = new Node("$");
+    private boolean failFast = false;
+    private int maxDepth = DEFAULT_MAX_DEPTH;
+    private int maxBytes = DEFAULT_MAX_BYTES;
+
+    /**
+     * Validates a {@code String} field.
+     *
+     * @param path the path of the field, e.g. {@code "user.email"} or
+     * {@code "tags[]"}.
+     * @param validator the compiled validator of the field.
+     * @return the current {@code SparkJsonValidator} instance for method
+     * chaining.
+     */
+    public SparkJsonValidator field(String path, final SparkStringValidator validator) {
+
+        return field(path, new Field() {
+            @Override
+            SparkResult check(CharSlice value) {
+                long failed = validator.failures(value);
+                return failed == 0L ? null : validator.result(failed);
+            }
+
+            @Override
+            SparkResult missing() {
+                long failed = validator.failures(null);
+                return failed == 0L ? null : validator.result(failed);
+            }
+
+            @Override
+            SparkResult wrongType() {
+                return failure(validator.displayName(), TYPE);
+            }
+        }, STRING);
+    }
+
+    /**
+     * Validates an {@code int} field. Numbers that are not an {@code int},
+     * such as {@code 1.5}, are rejected.
+     *
+     * @param path the path of the field, e.g. {@code "user.age"}.
+     * @param validator the compiled validator of the field.
+     * @return the current {@code SparkJsonValidator} instance for method
+     * chaining.
+     */
+    public SparkJsonValidator field(String path, final SparkIntValidator validator) {
+
+        return field(path, new Field() {
+            @Override
+            SparkResult check(CharSlice value) {
+                long parsed = SparkNumbers.parseInt(value, 0, value.length());
+                if (SparkNumbers.status(parsed) != SparkNumbers.OK) {
+                    return wrongType();
+                }
+                long failed = validator.failures(SparkNumbers.value(parsed));
+                return failed == 0L ? null : validator.result(failed);
+            }
+
+            @Override
+            SparkResult wrongType() {
+                return failure(validator.displayName(), StringRule.INTEGER);
+            }
+        }, NUMBER);
+    }
+
+    /**
+     * Validates a {@code double} field.
+     *
+     * @param path the path of the field, e.g. {@code "items[].price"}.
+     * @param validator the compiled validator of the field.
+     * @return the current {@code SparkJsonValidator} instance for method
+     * chaining.
+     */
+    public SparkJsonValidator field(String path, final SparkDoubleValidator validator) {
+
+        return field(path, new Field() {
+            @Override
+            SparkResult check(CharSlice value) {
+                double parsed = SparkNumbers.parseDouble(value, 0, value.length());
+                if (Double.isNaN(parsed)) {
+                    return wrongType();
+                }
+                long failed = validator.failures(parsed);
+                return failed == 0L ? null : validator.result(failed);
+            }
+
+            @Override
+            SparkResult wrongType() {
+                return failure(validator.displayName(), StringRule.DECIMAL);
+            }
+        }, NUMBER);
+    }
+
+    /**
+     * Stops at the first failed field, so an invalid document is not read
+     * further.
+     *
+     * @return the current {@code SparkJsonValidator} instance for method
+     * chaining.
+     */
+    public SparkJsonValidator failFast() {
+
+        this.failFast = true;
+        return this;
+    }
+
+    /**
+     * Sets how deeply objects and arrays may be nested. The default is 64.
+     *
+     * @param depth the maximum depth.
+     * @return the current {@code SparkJsonValidator} instance for method
+     * chaining.
+     */
+    public SparkJsonValidator maxDepth(int depth) {
+
+        if (depth < 1) {
+            throw new IllegalArgumentException("depth must be greater than 0");
+        }
+        this.maxDepth = depth;
+        return this;
+    }
+
+    /**
+     * Sets the largest document read by {@link #validate(InputStream)}. The
+     * default is 1 MiB. The document is read into one array, so a limit above
+     * the largest array length is lowered to it.
+     *
+     * @param bytes the maximum size of a document.
+     * @return the current {@code SparkJsonValidator} instance for method
+     * chaining.
+     */
+    public SparkJsonValidator maxBytes(int bytes) {
+
+        if (bytes < 1) {
+            throw new IllegalArgumentException("bytes must be greater than 0");
+        }
+        this.maxBytes = bytes;
+        return this;
+    }
+
+    /**
+     * Validates a JSON document.
+     *
+     * @param utf8 the UTF-8 encoded document.
+     * @return the {@code SparkForm} holding the failed fields.
+     */
+    public SparkForm validate(byte[] utf8) {
+
+        return validate(ByteBuffer.wrap(utf8));
+    }
+
+    /**
+     * Validates the remaining bytes of a buffer as a JSON document. The
+     * position of the buffer is not changed.
+     *
+     * @param utf8 the UTF-8 encoded document.
+     * @return the {@code SparkForm} holding the failed fields.
+     */
+    public SparkForm validate(ByteBuffer utf8) {
+
+        SparkForm form = new SparkForm();
+        new Parser(utf8, form).run();
+        return form;
+    }
+
+    /**
+     * Reads and validates a JSON document. A document longer than
+     * {@link #maxBytes(int)} is rejected as soon as the limit is passed,
+     * without being read further. The stream is not closed.
+     *
+     * @param in the UTF-8 encoded document.
+     * @return the {@code SparkForm} holding the failed fields.
+     * @throws IOException if the document cannot be read.
+     */
+    public SparkForm validate(InputStream in) throws IOException {
+
+        // One byte past the limit shows that the document is too long.
+        int limit = Math.min(this.maxBytes, MAX_ARRAY_LENGTH - 1);
+        byte[] bytes = new byte[Math.min(limit + 1, 8192)];
+        int length = 0;
+        int read;
+        while ((read = in.read(bytes, length, bytes.length - length)) >= 0) {
+            length += read;
+            if (length > limit) {
+                return new SparkForm().add(failure("$", rule("tooLong", "Input is too long.")));
+            }
+            if (length == bytes.length) {
+                bytes = Arrays.copyOf(bytes, (int) Math.min(limit + 1L, (long) bytes.length << 1));
+            }
+        }
+        return validate(ByteBuffer.wrap(bytes, 0, length));
+    }
+
+    private SparkJsonValidator field(String path, Field field, int kind) {
+
+        if (path == null || path.isEmpty()) {
+            throw new IllegalArgumentException("path cannot be empty");
+        }
+
+        Node node = this.root;
+        int start = 0;
+        while (start < path.length()) {
+            if (path.startsWith("[]", start)) {
+                node = node.element(path.substring(0, start + 2));
+                start += 2;
+            } else {
+                int end = start;
+                while (end < path.length() && path.charAt(end) != '.' && path.charAt(end) != '[') {
+                    end++;
+                }
+                if (end == start) {
+                    throw new IllegalArgumentException("Invalid path: " + path);
+                }
+                node = node.child(path.substring(start, end), path.substring(0, end));
+                start = end;
+            }
+            if (start < path.length() && path.charAt(start) == '.') {
+                if (++start == path.length()) {
+                    throw new IllegalArgumentException("Invalid path: " + path);
+                }
+            }
+        }
+
+        if (node.field != null || node.names.length > 0 || node.element != null) {
+            throw new IllegalArgumentException("Path is already configured or has children: " + path);
+        }
+        node.field = field;
+        node.kind = kind;
+        return this;
+    }
+
+    /**
+     * Creates a rule that only reports a failure found by the parser.
+     */
+    private static StringRule rule(String code, String template, Object... args) {
+
+        return new StringRule(code, template, null, args) {
+            @Override
+            public boolean test(CharSequence input) {
+                return false;
+            }
+        };
+    }
+
+    private static SparkResult failure(String displayName, StringRule rule) {
+
+        return new SparkResult(displayName, new SparkRule[]{rule}, 1L);
+    }
+
+    // ---------------------------------------------------------------- paths
+
+    private static final int OBJECT = 0;
+    private static final int ARRAY = 1;
+    private static final int STRING = 2;
+    private static final int NUMBER = 3;
+
+    /**
+     * Checks the value of one path.
+     */
+    private abstract static class Field {
+
+        /**
+         * Returns the failed rules of the value, or {@code null} if it is
+         * valid.
+         */
+        abstract SparkResult check(CharSlice value);
+
+        /**
+         * Returns the failed rules of a missing or {@code null} value.
+         */
+        SparkResult missing() {
+
+            return null;
+        }
+
+        /**
+         * Returns the failure of a value of the wrong JSON type.
+         */
+        abstract SparkResult wrongType();
+    }
+
+    /**
+     * A node of the tree of configured paths: an object with named children,
+     * an array with one element node, or a field.
+     */
+    private static final class Node {
+
+        final String path;
+        String[] names = new String[0];
+        Node[] children = new Node[0];
+        Node element;
+        Field field;
+        int kind = -1;
+
+        Node(String path) {
+
+            this.path = path;
+        }
+
+        Node child(String name, String path) {
+
+            if (this.field != null || this.element != null) {
+                throw new IllegalArgumentException("Path is already configured: " + path);
+            }
+            for (int i = 0; i < this.names.length; i++) {
+                if (this.names[i].equals(name)) {
+                    return this.children[i];
+                }
+            }
+            if (this.names.length == 64) {
+                throw new IllegalArgumentException("An object cannot have more than 64 checked fields: " + path);
+            }
+            Node child = new Node(path);
+            this.names = Arrays.copyOf(this.names, this.names.length + 1);
+            this.children = Arrays.copyOf(this.children, this.children.length + 1);
+            this.names[this.names.length - 1] = name;
+            this.children[this.children.length - 1] = child;
+            this.kind = OBJECT;
+            return child;
+        }
+
+        Node element(String path) {
+
+            if (this.field != null || this.names.length > 0) {
+                throw new IllegalArgumentException("Path is already configured: " + path);
+            }
+            if (this.element == null) {
+                this.element = new Node(path);
+                this.kind = ARRAY;
+            }
+            return this.element;
+        }
+
+        /**
+         * Returns the index of the child named by the key, or {@code -1}.
+         */
+        int find(CharSlice key) {
+
+            for (int i = 0; i < this.names.length; i++) {
+                String name = this.names[i];
+                if (name.length() == key.length() && contentEquals(name, key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private static boolean contentEquals(String name, CharSlice key) {
+
+            for (int i = 0; i < name.length(); i++) {
+                if (name.charAt(i) != key.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    // ---------------------------------------------------------------- parser
+
+    /**
+     * Thrown to stop at the first failure or at a syntax error.
+     */
+    private static final class Stop extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        Stop() {
+
+            super(null, null, false, false);
+        }
+    }
+
+    private static final Stop STOP = new Stop();
+
+    /**
+     * Reads one document. The open objects and arrays are kept on explicit
+     * stacks, so a deeply nested document cannot overflow the call stack.
+     */
+    private final class Parser {
+
+        private final byte[] bytes;
+        private final ByteBuffer buffer;
+        private final int start;
+        private final int end;
+        private final SparkForm form;
+        private final CharSlice text = new CharSlice();
+        private int pos;
+
+        private final Node[] nodes;
+        private final boolean[] arrays;
+        private final long[] seen;
+
+        Parser(ByteBuffer buffer, SparkForm form) {
+
+            if (buffer.hasArray()) {
+                this.bytes = buffer.array();
+                this.start = buffer.arrayOffset() + buffer.position();
+            } else {
+                this.bytes = new byte[buffer.remaining()];
+                this.start = 0;
+                buffer.duplicate().get(this.bytes);
+            }
+            this.buffer = ByteBuffer.wrap(this.bytes);
+            this.pos = this.start;
+            this.end = this.start + buffer.remaining();
+            this.form = form;
+            this.nodes = new Node[maxDepth];
+            this.arrays = new boolean[maxDepth];
+            this.seen = new long[maxDepth];
+        }
+
+        void run() {
+
+            try {
+                parse();
+            } catch (Stop e) {
+                // The failure is already in the form.
+            }
+        }
+
+        private void parse() {
+
+            int depth = 0;
+            Node node = root.kind < 0 ? null : root;
+            while (true) {
+                // A value is expected.
+                int c = skipWhitespace();
+                if (c == '{' || c == '[') {
+                    if (depth == maxDepth) {
+                        malformed();
+                    }
+                    this.pos++;
+                    boolean array = c == '[';
+                    if (node != null && node.kind != (array ? ARRAY : OBJECT)) {
+                        wrongType(node);
+                        node = null;
+                    }
+                    this.nodes[depth] = node;
+                    this.arrays[depth] = array;
+                    this.seen[depth] = 0L;
+                    depth++;
+
+                    c = skipWhitespace();
+                    if (c == (array ? ']' : '}')) {
+                        this.pos++;
+                        depth = close(depth);
+                    } else {
+                        node = array ? element(node) : key(depth);
+                        continue;
+                    }
+                } else {
+                    scalar(node);
+                }
+
+                // A value has been read: the enclosing container decides what follows.
+                while (true) {
+                    if (depth == 0) {
+                        if (skipWhitespace() != -1) {
+                            malformed();
+                        }
+                        return;
+                    }
+                    c = skipWhitespace();
+                    boolean array = this.arrays[depth - 1];
+                    if (c == ',') {
+                        this.pos++;
+                        node = array ? element(this.nodes[depth - 1]) : key(depth);
+                        break;
+                    }
+                    if (c != (array ? ']' : '}')) {
+                        malformed();
+                    }
+                    this.pos++;
+                    depth = close(depth);
+                }
+            }
+        }
+
+        /**
+         * Closes the innermost object or array and returns the new depth.
+         * Fields an object did not have are checked as missing.
+         */
+        private int close(int depth) {
+
+            Node node = this.nodes[depth - 1];
+            if (node != null && !this.arrays[depth - 1]) {
+                for (int i = 0; i < node.children.length; i++) {
+                    if ((this.seen[depth - 1] & (1L << i)) == 0L) {
+                        missing(node.children[i]);
+                    }
+                }
+            }
+            return depth - 1;
+        }
+
+        private Node element(Node array) {
+
+            return array == null ? null : array.element;
+        }
+
+        /**
+         * Reads a key and its colon, and returns the node of its value.
+         */
+        private Node key(int depth) {
+
+            if (skipWhitespace() != '"') {
+                malformed();
+            }
+            Node object = this.nodes[depth - 1];
+            Node child = null;
+            if (object == null) {
+                string(false);
+            } else {
+                string(true);
+                int index = object.find(this.text);
+                if (index >= 0) {
+                    this.seen[depth - 1] |= 1L << index;
+                    child = object.children[index];
+                }
+            }
+            if (skipWhitespace() != ':') {
+                malformed();
+            }
+            this.pos++;
+            return child;
+        }
+
+        private void scalar(Node node) {
+
+            int c = peek();
+            boolean checked = node != null && node.field != null;
+            if (c == '"') {
+                boolean text = checked && node.kind == STRING;
+                string(text);
+                if (text) {
+                    report(node.field.check(this.text));
+                } else if (node != null) {
+                    wrongType(node);
+                }
+            } else if (c == '-' || (c >= '0' && c <= '9')) {
+                boolean number = checked && node.kind == NUMBER;
+                number(number);
+                if (number) {
+                    report(node.field.check(this.text));
+                } else if (node != null) {
+                    wrongType(node);
+                }
+            } else if (literal("null")) {
+                if (node != null) {
+                    missing(node);
+                }
+            } else if (literal("true") || literal("false")) {
+                if (node != null) {
+                    wrongType(node);
+                }
+            } else {
+                malformed();
+            }
+        }
+
+        /**
+         * Checks every field under a node that has no value.
+         */
+        private void missing(Node node) {
+
+            if (node.field != null) {
+                report(node.field.missing());
+            }
+            for (Node child : node.children) {
+                missing(child);
+            }
+        }
+
+        /**
+         * Reports a value of the wrong JSON type. The fields under an object
+         * node have no value then, so they are checked as missing, as for
+         * {@code null}.
+         */
+        private void wrongType(Node node) {
+
+            report(node.field != null ? node.field.wrongType() : failure(node.path, TYPE));
+            for (Node child : node.children) {
+                missing(child);
+            }
+        }
+
+        private void report(SparkResult result) {
+
+            if (result != null && !result.isValid()) {
+                this.form.add(result);
+                if (failFast) {
+                    throw STOP;
+                }
+            }
+        }
+
+        private void malformed() {
+
+            int offset = this.pos - this.start;
+            this.form.add(failure("$", rule("json", "Invalid JSON at byte {1}!", offset)));
+            throw STOP;
+        }
+
+        // ------------------------------------------------------------ tokens
+
+        private int peek() {
+
+            return this.pos < this.end ? this.bytes[this.pos] & 0xFF : -1;
+        }
+
+        private int skipWhitespace() {
+
+            while (this.pos < this.end) {
+                byte b = this.bytes[this.pos];
+                if (b != ' ' && b != '\t' && b != '\n' && b != '\r') {
+                    return b & 0xFF;
+                }
+                this.pos++;
+            }
+            return -1;
+        }
+
+        private boolean literal(String word) {
+
+            if (this.end - this.pos < word.length()) {
+                return false;
+            }
+            for (int i = 0; i < word.length(); i++) {
+                if (this.bytes[this.pos + i] != word.charAt(i)) {
+                    return false;
+                }
+            }
+            this.pos += word.length();
+            return true;
+        }
+
+        /**
+         * Reads a string, decoding it into {@link #text} if {@code keep} is
+         * set.
+         */
+        private void string(boolean keep) {
+
+            this.text.clear();
+            this.pos++;
+            if (!keep) {
+                skipString();
+                return;
+            }
+            while (true) {
+                if (this.pos >= this.end) {
+                    malformed();
+                }
+                byte b = this.bytes[this.pos];
+                if (b == '"') {
+                    this.pos++;
+                    return;
+                }
+                if (b >= 0 && b < 0x20) {
+                    malformed();
+                }
+                if (b == '\\') {
+                    escape(keep);
+                } else if (b >= 0) {
+                    if (keep) {
+                        this.text.append((char) b);
+                    }
+                    this.pos++;
+                } else {
+                    this.pos = Utf8.decode(this.buffer, this.pos, this.end, this.text);
+                }
+            }
+        }
+
+        /**
+         * Skips a string that is not checked. Its characters are not decoded,
+         * only its escapes and control characters are validated.
+         */
+        private void skipString() {
+
+            byte[] bytes = this.bytes;
+            int end = this.end;
+            int i = this.pos;
+            while (true) {
+                while (i < end && (bytes[i] & 0xFF) >= 0x20 && bytes[i] != '"' && bytes[i] != '\\') {
+                    i++;
+                }
+                this.pos = i;
+                if (i >= end || bytes[i] != '"' && bytes[i] != '\\') {
+                    malformed();
+                }
+                if (bytes[i] == '"') {
+                    this.pos = i + 1;
+                    return;
+                }
+                escape(false);
+                i = this.pos;
+            }
+        }
+
+        private void escape(boolean keep) {
+
+            if (this.pos + 1 >= this.end) {
+                malformed();
+            }
+            int c = this.bytes[this.pos + 1];
+            char decoded;
+            switch (c) {
+                case '"':
+                case '\\':
+                case '/':
+                    decoded = (char) c;
+                    break;
+                case 'b':
+                    decoded = '\b';
+                    break;
+                case 'f':
+                    decoded = '\f';
+                    break;
+                case 'n':
+                    decoded = '\n';
+                    break;
+                case 'r':
+                    decoded = '\r';
+                    break;
+                case 't':
+                    decoded = '\t';
+                    break;
+                case 'u':
+                    decoded = 0;
+                    if (this.pos + 6 > this.end) {
+                        malformed();
+                    }
+                    for (int i = 2; i < 6; i++) {
+                        int digit = Character.digit(this.bytes[this.pos + i], 16);
+                        if (digit < 0) {
+                            malformed();
+                        }
+                        decoded = (char) (decoded << 4 | digit);
+                    }
+                    this.pos += 4;
+                    break;
+                default:
+                    malformed();
+                    return;
+            }
+            if (keep) {
+                this.text.append(decoded);
+            }
+            this.pos += 2;
+        }
+
+        /**
+         * Reads a number, keeping its text in {@link #text} if {@code keep}
+         * is set.
+         */
+        private void number(boolean keep) {
+
+            int start = this.pos;
+            if (peek() == '-') {
+                this.pos++;
+            }
+            if (peek() == '0') {
+                this.pos++;
+            } else if (!digits()) {
+                malformed();
+            }
+            if (peek() == '.') {
+                this.pos++;
+                if (!digits()) {
+                    malformed();
+                }
+            }
+            if (peek() == 'e' || peek() == 'E') {
+                this.pos++;
+                if (peek() == '+' || peek() == '-') {
+                    this.pos++;
+                }
+                if (!digits()) {
+                    malformed();
+                }
+            }
+            if (keep) {
+                this.text.clear();
+                for (int i = start; i < this.pos; i++) {
+                    this.text.append((char) this.bytes[i]);
+                }
+            }
+        }
+
+        private boolean digits() {
+
+            int start = this.pos;
+            while (peek() >= '0' && peek() <= '9') {
+                this.pos++;
+            }
+            return this.pos > start;
+        }
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+/**
+ * How the {@code minLength} and {@code maxLength} rules count the length of
+ * an input.
+ *
+ * <p>
+ * {@code String.length()} counts UTF-16 units, so an emoji counts as 2 and an
+ * accented letter written with a combining mark as 2 as well. The other modes
+ * count what a user or a database sees. Counting is only done when it can
+ * change the outcome: the number of UTF-16 units bounds every other count,
+ * e.g. a string of 10 units has at most 10 code points and at least 10 UTF-8
+ * bytes, and an input that is all ASCII, the common case, is checked with one
+ * block scan instead of being decoded.
+ *
+ * <p>
+ * Example usage:
+ * <pre>
+ * {@code
+ * new SparkString("Bio", bio).maxLength(160, SparkLength.GRAPHEMES, null);
+ * new SparkString("Name", name).maxLength(255, SparkLength.UTF8_BYTES, "Name is too long");
+ * }
+ * </pre>
+ *
+ * @author vishv
+ */
+public enum SparkLength {
+
+    /**
+     * Counts UTF-16 units, like {@code String.length()}.
+     */
+    UTF16 {
+        @Override
+        long count(CharSequence input) {
+            return input.length();
+        }
+
+        @Override
+        Counter counter() {
+            return new Counter() {
+                @Override
+                void add(char c) {
+                    this.count++;
+                }
+
+                @Override
+                void add(char[] chars, int from, int to) {
+                    this.count += to - from;
+                }
+            };
+        }
+    },
+    /**
+     * Counts Unicode code points: an emoji such as U+1F600 counts as 1.
+     */
+    CODE_POINTS {
+        @Override
+        long count(CharSequence input) {
+            return Character.codePointCount(input, 0, input.length());
+        }
+
+        @Override
+        Counter counter() {
+            return new Counter() {
+                private char previous;
+
+                @Override
+                void add(char c) {
+                    if (!Character.isLowSurrogate(c) || !Character.isHighSurrogate(this.previous)) {
+                        this.count++;
+                    }
+                    this.previous = c;
+                }
+            };
+        }
+
+        @Override
+        long min(int length) {
+            return (length + 1) / 2;
+        }
+    },
+    /**
+     * Counts extended grapheme clusters, the characters a reader sees: a
+     * letter with combining marks, a flag or a family emoji count as 1. See
+     * Unicode Standard Annex #29.
+     */
+    GRAPHEMES {
+        @Override
+        long count(CharSequence input) {
+            return Graphemes.count(input);
+        }
+
+        @Override
+        long asciiCount(CharSequence input) {
+            // "\r\n" is the only ASCII sequence that forms one cluster.
+            int n = input.length();
+            long count = n;
+            if (input instanceof String) {
+                String string = (String) input;
+                for (int i = string.indexOf('\r'); i >= 0 && i < n - 1; i = string.indexOf('\r', i + 1)) {
+                    if (string.charAt(i + 1) == '\n') {
+                        count--;
+                    }
+                }
+                return count;
+            }
+            for (int i = 1; i < n; i++) {
+                if (input.charAt(i) == '\n' && input.charAt(i - 1) == '\r') {
+                    count--;
+                }
+            }
+            return count;
+        }
+
+        @Override
+        Counter counter() {
+            return new Graphemes.Counter();
+        }
+
+        @Override
+        long min(int length) {
+            return length > 0 ? 1 : 0;
+        }
+    },
+    /**
+     * Counts the bytes of the UTF-8 encoding, e.g. for database columns
+     * limited in bytes. An unpaired surrogate counts as 3 bytes.
+     */
+    UTF8_BYTES {
+        @Override
+        long count(CharSequence input) {
+            Counter counter = counter();
+            for (int i = 0, n = input.length(); i < n; i++) {
+                counter.add(input.charAt(i));
+            }
+            return counter.finish();
+        }
+
+        @Override
+        Counter counter() {
+            return new Counter() {
+                private char previous;
+
+                @Override
+                void add(char c) {
+                    if (c < 0x80) {
+                        this.count++;
+                    } else if (c < 0x800) {
+                        this.count += 2;
+                    } else {
+                        // A pair takes 4 bytes: 3 are counted for the high surrogate and 1 for the low one.
+                        this.count += Character.isLowSurrogate(c) && Character.isHighSurrogate(this.previous) ? 1 : 3;
+                    }
+                    this.previous = c;
+                }
+            };
+        }
+
+        @Override
+        long max(int length) {
+            return 3L * length;
+        }
+    };
+
+    /**
+     * Returns the length of the input in this mode.
+     *
+     * @param input the input to be measured.
+     * @return the length of the input.
+     */
+    public final long length(CharSequence input) {
+
+        return CharClass.ASCII.matches(input) ? asciiCount(input) : count(input);
+    }
+
+    /**
+     * Counts the input, which may contain any character.
+     */
+    abstract long count(CharSequence input);
+
+    /**
+     * Counts an input that is all ASCII.
+     */
+    long asciiCount(CharSequence input) {
+
+        return input.length();
+    }
+
+    /**
+     * Returns a new counter of this mode, for inputs read in chunks.
+     */
+    abstract Counter counter();
+
+    /**
+     * Returns the smallest length an input of {@code length} UTF-16 units can
+     * have in this mode.
+     */
+    long min(int length) {
+
+        return length;
+    }
+
+    /**
+     * Returns the largest length an input of {@code length} UTF-16 units can
+     * have in this mode.
+     */
+    long max(int length) {
+
+        return length;
+    }
+
+    /**
+     * Returns whether the length of the input is at least {@code limit}.
+     */
+    final boolean atLeast(CharSequence input, int limit) {
+
+        int units = input.length();
+        if (min(units) >= limit) {
+            return true;
+        }
+        return max(units) >= limit && length(input) >= limit;
+    }
+
+    /**
+     * Returns whether the length of the input is at most {@code limit}.
+     */
+    final boolean atMost(CharSequence input, int limit) {
+
+        int units = input.length();
+        if (max(units) <= limit) {
+            return true;
+        }
+        return min(units) <= limit && length(input) <= limit;
+    }
+
+    /**
+     * Counts the length of an input fed one character at a time. While the
+     * input is fed, {@code count} may lag behind by the last unit, never run
+     * ahead; {@link #finish()} returns the exact length.
+     */
+    abstract static class Counter {
+
+        long count;
+
+        /**
+         * Adds the next character of the input.
+         */
+        abstract void add(char c);
+
+        /**
+         * Adds the characters {@code chars[from, to)}.
+         */
+        void add(char[] chars, int from, int to) {
+
+            for (int i = from; i < to; i++) {
+                add(chars[i]);
+            }
+        }
+
+        /**
+         * Ends the input and returns its length.
+         */
+        long finish() {
+
+            return this.count;
+        }
+    }
+}
@@ -0,0 +1,503 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Optional counters and latency histograms for the v2 rules.
+ *
+ * <p>
+ * When enabled, every rule run by {@link SparkString}, {@link SparkInt},
+ * {@link SparkDouble} and the compiled validators is counted as passed or
+ * failed, per rule and per field, and one call in {@link #getSampleRate()} is
+ * timed into a histogram. Regular expression rules are reported one pattern
+ * per entry, e.g. {@code "regex:[a-z]+"}, so slow patterns stand out.
+ *
+ * <p>
+ * Metrics are disabled by default and then cost one read of a flag per rule.
+ * The counters are {@link LongAdder}s, so threads validating at the same time
+ * do not contend on them.
+ * <pre>
+ * {@code
+ * SparkMetrics.setEnabled(true);
+ * ...
+ * for (SparkMetrics.Stats stats : SparkMetrics.snapshot().rules().values()) {
+ *     System.out.println(stats);
+ * }
+ * }
+ * </pre>
+ *
+ * @author vishv
+ */
+public final class SparkMetrics {
+
+    /**
+     * The default sample rate: one call in 16 is timed.
+     */
+    public static final int DEFAULT_SAMPLE_RATE = 16;
+
+    private static final int BUCKETS = 65;
+
+    static volatile boolean enabled = false;
+    private static volatile int sampleMask = DEFAULT_SAMPLE_RATE - 1;
+
+    private static final ConcurrentMap<String, Recorder> RULES = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, Recorder> FIELDS = new ConcurrentHashMap<>();
+
+    private SparkMetrics() {
+    }
+
+    /**
+     * Enables or disables the metrics of every rule.
+     *
+     * @param enable {@code true} to start counting.
+     */
+    public static void setEnabled(boolean enable) {
+
+        enabled = enable;
+    }
+
+    /**
+     * Returns whether the metrics are enabled.
+     *
+     * @return {@code true} if the rules are counted.
+     */
+    public static boolean isEnabled() {
+
+        return enabled;
+    }
+
+    /**
+     * Sets how often the latency of a rule is measured.
+     *
+     * @param rate time one call in {@code rate}, rounded up to a power of two;
+     * {@code 1} times every call.
+     */
+    public static void setSampleRate(int rate) {
+
+        if (rate < 1 || rate > (1 << 30)) {
+            throw new IllegalArgumentException("Sample rate must be between 1 and 2^30: " + rate);
+        }
+        sampleMask = rate == 1 ? 0 : Integer.highestOneBit(rate - 1) * 2 - 1;
+    }
+
+    /**
+     * Returns how often the latency of a rule is measured.
+     *
+     * @return the number of calls per timed call.
+     */
+    public static int getSampleRate() {
+
+        return sampleMask + 1;
+    }
+
+    /**
+     * Clears every counter and histogram.
+     */
+    public static void reset() {
+
+        for (Recorder recorder : RULES.values()) {
+            recorder.reset();
+        }
+        for (Recorder recorder : FIELDS.values()) {
+            recorder.reset();
+        }
+    }
+
+    /**
+     * Takes a copy of the current counters. Counts updated while the snapshot
+     * is taken may or may not be included.
+     *
+     * @return the {@code Snapshot} of the metrics.
+     */
+    public static Snapshot snapshot() {
+
+        return new Snapshot(copy(RULES), copy(FIELDS));
+    }
+
+    private static Map<String, Stats> copy(ConcurrentMap<String, Recorder> recorders) {
+
+        List<String> names = new ArrayList<>(recorders.keySet());
+        Collections.sort(names);
+        Map<String, Stats> stats = new LinkedHashMap<>();
+        for (String name : names) {
+            stats.put(name, recorders.get(name).snapshot(name));
+        }
+        return Collections.unmodifiableMap(stats);
+    }
+
+    static boolean test(StringRule rule, String field, CharSequence input) {
+
+        if (!sample()) {
+            return record(rule, field, rule.test(input), -1L);
+        }
+        long start = System.nanoTime();
+        boolean passed = rule.test(input);
+        return record(rule, field, passed, System.nanoTime() - start);
+    }
+
+    static boolean test(IntRule rule, String field, int input) {
+
+        if (!sample()) {
+            return record(rule, field, rule.test(input), -1L);
+        }
+        long start = System.nanoTime();
+        boolean passed = rule.test(input);
+        return record(rule, field, passed, System.nanoTime() - start);
+    }
+
+    static boolean test(DoubleRule rule, String field, double input) {
+
+        if (!sample()) {
+            return record(rule, field, rule.test(input), -1L);
+        }
+        long start = System.nanoTime();
+        boolean passed = rule.test(input);
+        return record(rule, field, passed, System.nanoTime() - start);
+    }
+
+    /**
+     * Records a rule run over a whole column, timed as one sample of the mean
+     * time per row.
+     */
+    static void recordBatch(SparkRule rule, String field, int passed, int failed, long nanos) {
+
+        Recorder ruleRecorder = recorder(rule);
+        Recorder fieldRecorder = recorder(field);
+        ruleRecorder.count(passed, failed);
+        fieldRecorder.count(passed, failed);
+        if (passed + failed > 0) {
+            ruleRecorder.time(nanos / (passed + failed));
+            fieldRecorder.time(nanos / (passed + failed));
+        }
+    }
+
+    private static boolean sample() {
+
+        int mask = sampleMask;
+        return mask == 0 || (ThreadLocalRandom.current().nextInt() & mask) == 0;
+    }
+
+    private static boolean record(SparkRule rule, String field, boolean passed, long nanos) {
+
+        Recorder ruleRecorder = recorder(rule);
+        Recorder fieldRecorder = recorder(field);
+        ruleRecorder.count(passed);
+        fieldRecorder.count(passed);
+        if (nanos >= 0L) {
+            ruleRecorder.time(nanos);
+            fieldRecorder.time(nanos);
+        }
+        return passed;
+    }
+
+    private static Recorder recorder(SparkRule rule) {
+
+        // Rules cache their recorder; rules with the same name share one.
+        Recorder recorder = rule.recorder;
+        if (recorder == null) {
+            recorder = recorder(RULES, rule.metricName());
+            rule.recorder = recorder;
+        }
+        return recorder;
+    }
+
+    private static Recorder recorder(String field) {
+
+        return recorder(FIELDS, String.valueOf(field));
+    }
+
+    private static Recorder recorder(ConcurrentMap<String, Recorder> recorders, String name) {
+
+        Recorder recorder = recorders.get(name);
+        if (recorder == null) {
+            recorder = new Recorder();
+            Recorder existing = recorders.putIfAbsent(name, recorder);
+            if (existing != null) {
+                recorder = existing;
+            }
+        }
+        return recorder;
+    }
+
+    private static int bucket(long nanos) {
+
+        return 64 - Long.numberOfLeadingZeros(nanos);
+    }
+
+    /**
+     * The live counters of one rule or field. Latencies are kept in
+     * power-of-two buckets: bucket {@code b} holds the samples in
+     * {@code [2^(b-1), 2^b)} nanoseconds.
+     */
+    static final class Recorder {
+
+        private final LongAdder passed = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+        private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+        Recorder() {
+
+            for (int i = 0; i < BUCKETS; i++) {
+                this.buckets[i] = new LongAdder();
+            }
+        }
+
+        void count(boolean pass) {
+
+            (pass ? this.passed : this.failed).increment();
+        }
+
+        void count(int pass, int fail) {
+
+            this.passed.add(pass);
+            this.failed.add(fail);
+        }
+
+        void time(long nanos) {
+
+            this.buckets[bucket(nanos)].increment();
+            this.total.add(nanos);
+            this.max.accumulate(nanos);
+        }
+
+        void reset() {
+
+            this.passed.reset();
+            this.failed.reset();
+            this.total.reset();
+            this.max.reset();
+            for (LongAdder bucket : this.buckets) {
+                bucket.reset();
+            }
+        }
+
+        Stats snapshot(String name) {
+
+            long[] counts = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = this.buckets[i].sum();
+            }
+            return new Stats(name, this.passed.sum(), this.failed.sum(), this.total.sum(), this.max.get(), counts);
+        }
+    }
+
+    /**
+     * A copy of the metrics of every rule and field.
+     */
+    public static final class Snapshot {
+
+        private final Map<String, Stats> rules;
+        private final Map<String, Stats> fields;
+
+        Snapshot(Map<String, Stats> rules, Map<String, Stats> fields) {
+
+            this.rules = rules;
+            this.fields = fields;
+        }
+
+        /**
+         * Returns the metrics of every rule, keyed by rule name.
+         *
+         * @return the rule metrics sorted by name.
+         */
+        public Map<String, Stats> rules() {
+
+            return this.rules;
+        }
+
+        /**
+         * Returns the metrics of every field, keyed by display name.
+         *
+         * @return the field metrics sorted by name.
+         */
+        public Map<String, Stats> fields() {
+
+            return this.fields;
+        }
+
+        @Override
+        public String toString() {
+
+            StringBuilder sb = new StringBuilder();
+            for (Stats stats : this.rules.values()) {
+                sb.append("rule ").append(stats).append('\n');
+            }
+            for (Stats stats : this.fields.values()) {
+                sb.append("field ").append(stats).append('\n');
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * The counters and latency histogram of one rule or field.
+     */
+    public static final class Stats {
+
+        private final String name;
+        private final long passed;
+        private final long failed;
+        private final long totalNanos;
+        private final long maxNanos;
+        private final long[] buckets;
+        private final long samples;
+
+        Stats(String name, long passed, long failed, long totalNanos, long maxNanos, long[] buckets) {
+
+            this.name = name;
+            this.passed = passed;
+            this.failed = failed;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+            this.buckets = buckets;
+
+            long n = 0L;
+            for (long count : buckets) {
+                n += count;
+            }
+            this.samples = n;
+        }
+
+        /**
+         * Returns the name of the rule or field.
+         *
+         * @return the name.
+         */
+        public String name() {
+
+            return this.name;
+        }
+
+        /**
+         * Returns the number of inputs that passed.
+         *
+         * @return the pass count.
+         */
+        public long passed() {
+
+            return this.passed;
+        }
+
+        /**
+         * Returns the number of inputs that failed.
+         *
+         * @return the fail count.
+         */
+        public long failed() {
+
+            return this.failed;
+        }
+
+        /**
+         * Returns the number of timed calls.
+         *
+         * @return the number of latency samples.
+         */
+        public long samples() {
+
+            return this.samples;
+        }
+
+        /**
+         * Returns the mean latency of the timed calls.
+         *
+         * @return the mean in nanoseconds, or {@code 0} without samples.
+         */
+        public double meanNanos() {
+
+            return this.samples == 0L ? 0.0 : (double) this.totalNanos / this.samples;
+        }
+
+        /**
+         * Returns the slowest timed call.
+         *
+         * @return the maximum in nanoseconds.
+         */
+        public long maxNanos() {
+
+            return this.maxNanos;
+        }
+
+        /**
+         * Returns an upper bound of a latency percentile, accurate to a power
+         * of two.
+         *
+         * @param percentile the percentile, between {@code 0} and
+         * {@code 100}.
+         * @return the latency in nanoseconds, or {@code 0} without samples.
+         */
+        public long percentileNanos(double percentile) {
+
+            if (percentile < 0.0 || percentile > 100.0) {
+                throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+            }
+            if (this.samples == 0L) {
+                return 0L;
+            }
+            long rank = (long) Math.ceil(this.samples * percentile / 100.0);
+            long seen = 0L;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += this.buckets[i];
+                if (seen >= rank && seen > 0L) {
+                    long upper = i == 0 ? 0L : i == 64 ? Long.MAX_VALUE : (1L << i) - 1;
+                    return Math.min(upper, this.maxNanos);
+                }
+            }
+            return this.maxNanos;
+        }
+
+        /**
+         * Returns the number of timed calls per power-of-two bucket: bucket
+         * {@code b} counts the calls that took {@code [2^(b-1), 2^b)}
+         * nanoseconds.
+         *
+         * @return a copy of the histogram.
+         */
+        public long[] histogram() {
+
+            return this.buckets.clone();
+        }
+
+        @Override
+        public String toString() {
+
+            return this.name + ": passed=" + this.passed + ", failed=" + this.failed
+                    + ", samples=" + this.samples + ", mean=" + Math.round(meanNanos()) + "ns"
+                    + ", p99=" + percentileNanos(99) + "ns, max=" + this.maxNanos + "ns";
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Validates very large columns on a {@link ForkJoinPool}.
+ *
+ * <p>
+ * The column is split into chunks whose first row is a multiple of 64, so
+ * every chunk writes its own words of the {@link SparkBatchResult} bitsets and
+ * the chunks are merged without locks. The compiled validators are immutable
+ * and are shared by every worker.
+ *
+ * <p>
+ * Example usage:
+ * <pre>
+ * {@code
+ * SparkParallel parallel = new SparkParallel(new ForkJoinPool(32));
+ * SparkBatchResult result = parallel.validateAll(EMAIL, emails);
+ * }
+ * </pre>
+ *
+ * @author vishv
+ */
+public final class SparkParallel {
+
+    /**
+     * The default number of rows validated by one task.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 16384;
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    /**
+     * Constructs a new engine running on the common pool.
+     */
+    public SparkParallel() {
+
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructs a new engine running on the given pool.
+     *
+     * @param pool the pool running the validation tasks.
+     */
+    public SparkParallel(ForkJoinPool pool) {
+
+        this(pool, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructs a new engine running on the given pool.
+     *
+     * @param pool the pool running the validation tasks.
+     * @param chunkSize the number of rows validated by one task, rounded up to
+     * a multiple of 64. Sizes above {@code 2^31 - 64} are lowered to it.
+     */
+    public SparkParallel(ForkJoinPool pool, int chunkSize) {
+
+        if (pool == null) {
+            throw new IllegalArgumentException("pool cannot be null");
+        }
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be greater than 0");
+        }
+        this.pool = pool;
+        this.chunkSize = (int) Math.min((chunkSize + 63L) & ~63L, Integer.MAX_VALUE & ~63);
+    }
+
+    /**
+     * Validates a column of {@code String} inputs in parallel.
+     *
+     * @param validator the compiled validator of the column.
+     * @param column the inputs to be validated.
+     * @return the {@code SparkBatchResult} of the column.
+     */
+    public SparkBatchResult validateAll(final SparkStringValidator validator, final CharSequence[] column) {
+
+        final SparkBatchResult result = validator.newBatchResult(column.length);
+        run(column.length, new Leaf() {
+            @Override
+            public void run(int from, int to) {
+                validator.validateRange(column, from, to, result);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Validates a column of {@code int} inputs in parallel.
+     *
+     * @param validator the compiled validator of the column.
+     * @param column the inputs to be validated.
+     * @return the {@code SparkBatchResult} of the column.
+     */
+    public SparkBatchResult validateAll(final SparkIntValidator validator, final int[] column) {
+
+        final SparkBatchResult result = validator.newBatchResult(column.length);
+        run(column.length, new Leaf() {
+            @Override
+            public void run(int from, int to) {
+                validator.validateRange(column, from, to, result);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Validates a column of {@code double} inputs in parallel.
+     *
+     * @param validator the compiled validator of the column.
+     * @param column the inputs to be validated.
+     * @return the {@code SparkBatchResult} of the column.
+     */
+    public SparkBatchResult validateAll(final SparkDoubleValidator validator, final double[] column) {
+
+        final SparkBatchResult result = validator.newBatchResult(column.length);
+        run(column.length, new Leaf() {
+            @Override
+            public void run(int from, int to) {
+                validator.validateRange(column, from, to, result);
+            }
+        });
+        return result;
+    }
+
+    private void run(int size, Leaf leaf) {
+
+        if (size <= this.chunkSize) {
+            leaf.run(0, size);
+            return;
+        }
+        this.pool.invoke(new Chunk(leaf, 0, size, this.chunkSize));
+    }
+
+    private interface Leaf {
+
+        void run(int from, int to);
+    }
+
+    private static final class Chunk extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient Leaf leaf;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+
+        Chunk(Leaf leaf, int from, int to, int chunkSize) {
+
+            this.leaf = leaf;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected void compute() {
+
+            if (this.to - this.from <= this.chunkSize) {
+                this.leaf.run(this.from, this.to);
+                return;
+            }
+
+            // Split on a chunk boundary so both halves start on a multiple of 64.
+            int chunks = (this.to - this.from - 1) / this.chunkSize + 1;
+            int mid = this.from + (chunks >>> 1) * this.chunkSize;
+            invokeAll(new Chunk(this.leaf, this.from, mid, this.chunkSize),
+                    new Chunk(this.leaf, mid, this.to, this.chunkSize));
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The outcome of validating one input without throwing.
+ *
+ * <p>
+ * A result only stores a bitset of the failed rules: bit {@code i} is set when
+ * the {@code i}-th declared rule failed. Error codes and messages are built
+ * from the rules when they are asked for, so a valid input, or an invalid one
+ * whose messages are never read, costs no string building.
+ *
+ * @author vishv
+ */
+public final class SparkResult {
+
+    private final String displayName;
+    private final SparkRule[] rules;
+    private final long failures;
+
+    SparkResult(String displayName, SparkRule[] rules, long failures) {
+
+        this.displayName = displayName;
+        this.rules = rules;
+        this.failures = failures;
+    }
+
+    /**
+     * Returns the name of the validated field.
+     *
+     * @return the display name.
+     */
+    public String displayName() {
+
+        return this.displayName;
+    }
+
+    /**
+     * Returns whether the input passed every rule.
+     *
+     * @return {@code true} if no rule failed.
+     */
+    public boolean isValid() {
+
+        return this.failures == 0L;
+    }
+
+    /**
+     * Returns the bitset of the failed rules, in declaration order.
+     *
+     * @return the failed rules, bit {@code i} for the {@code i}-th rule.
+     */
+    public long failures() {
+
+        return this.failures;
+    }
+
+    /**
+     * Returns whether the rule at the given position failed.
+     *
+     * @param index the position of the rule in declaration order.
+     * @return {@code true} if the rule failed.
+     */
+    public boolean failed(int index) {
+
+        return index >= 0 && index < 64 && (this.failures & (1L << index)) != 0L;
+    }
+
+    /**
+     * Returns the codes of the failed rules, e.g. {@code "minLength"}.
+     *
+     * @return the error codes in declaration order.
+     */
+    public List<String> errorCodes() {
+
+        if (this.failures == 0L) {
+            return Collections.emptyList();
+        }
+
+        List<String> codes = new ArrayList<>(Long.bitCount(this.failures));
+        for (long bits = this.failures; bits != 0L; bits &= bits - 1) {
+            codes.add(this.rules[Long.numberOfTrailingZeros(bits)].code());
+        }
+        return codes;
+    }
+
+    /**
+     * Builds the error messages of the failed rules.
+     *
+     * @return the error messages in declaration order.
+     */
+    public List<String> messages() {
+
+        return messages(Locale.ROOT);
+    }
+
+    /**
+     * Builds the error messages of the failed rules in the given locale.
+     *
+     * @param locale the locale of the messages.
+     * @return the error messages in declaration order.
+     */
+    public List<String> messages(Locale locale) {
+
+        if (this.failures == 0L) {
+            return Collections.emptyList();
+        }
+
+        List<String> messages = new ArrayList<>(Long.bitCount(this.failures));
+        for (long bits = this.failures; bits != 0L; bits &= bits - 1) {
+            messages.add(this.rules[Long.numberOfTrailingZeros(bits)].message(this.displayName, locale));
+        }
+        return messages;
+    }
+
+    /**
+     * Builds the error message of the first failed rule.
+     *
+     * @return the error message, or {@code null} if the input is valid.
+     */
+    public String firstMessage() {
+
+        return firstMessage(Locale.ROOT);
+    }
+
+    /**
+     * Builds the error message of the first failed rule in the given locale.
+     *
+     * @param locale the locale of the message.
+     * @return the error message, or {@code null} if the input is valid.
+     */
+    public String firstMessage(Locale locale) {
+
+        if (this.failures == 0L) {
+            return null;
+        }
+        return this.rules[Long.numberOfTrailingZeros(this.failures)].message(this.displayName, locale);
+    }
+
+    @Override
+    public String toString() {
+
+        return isValid() ? this.displayName + ": valid" : this.displayName + ": " + errorCodes();
+    }
+}
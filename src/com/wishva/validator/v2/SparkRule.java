@@ -0,0 +1,113 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+import com.wishva.validator.SparkException;
+import com.wishva.validator.SparkMessages;
+import com.wishva.validator.SparkRuleException;
+import java.util.Locale;
+
+/**
+ * The common part of {@link StringRule}, {@link IntRule} and
+ * {@link DoubleRule}: the rule code, its message template and its arguments.
+ *
+ * @author vishv
+ */
+public abstract class SparkRule {
+
+    private final String code;
+    private final String template;
+    private final String message;
+    private final Object[] args;
+
+    // Set by SparkMetrics on first use; a racy but harmless cache.
+    SparkMetrics.Recorder recorder;
+
+    SparkRule(String code, String template, String message, Object[] args) {
+
+        this.code = code;
+        this.template = template;
+        this.message = message;
+        this.args = args;
+    }
+
+    /**
+     * Returns the stable identifier of the rule.
+     *
+     * @return the rule code.
+     */
+    public final String code() {
+
+        return this.code;
+    }
+
+    /**
+     * Returns the error message of the rule for the given field.
+     *
+     * @param displayName the name of the field being validated.
+     * @return the custom error message, or the formatted template.
+     */
+    public final String message(String displayName) {
+
+        return message(displayName, Locale.ROOT);
+    }
+
+    /**
+     * Returns the error message of the rule for the given field in the given
+     * locale. The template is looked up by {@link #code()} in the
+     * {@link SparkMessages} bundle.
+     *
+     * @param displayName the name of the field being validated.
+     * @param locale the locale of the message.
+     * @return the custom error message, or the formatted template.
+     */
+    public final String message(String displayName, Locale locale) {
+
+        if (this.message != null) {
+            return this.message;
+        }
+        return SparkMessages.message(this.code, this.template, locale, displayName, this.args);
+    }
+
+    /**
+     * Returns the name the rule is reported under by {@link SparkMetrics}.
+     */
+    String metricName() {
+
+        return this.code;
+    }
+
+    SparkException fail(String displayName) {
+
+        return fail(displayName, SparkRuleException.isStackless());
+    }
+
+    SparkRuleException fail(String displayName, boolean stackless) {
+
+        if (this.message != null) {
+            return new SparkRuleException(this.code, displayName, this.message, stackless);
+        }
+        return new SparkRuleException(this.code, displayName, this.template, this.args, stackless);
+    }
+}
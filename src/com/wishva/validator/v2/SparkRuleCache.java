@@ -0,0 +1,551 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A size-bounded, thread-safe cache of rule outcomes for inputs seen before.
+ *
+ * <p>
+ * Attached to a compiled validator with {@link SparkStringSchema#cache}, the
+ * cache keeps, for each input, which of the expensive rules of the validator
+ * failed: {@code email}, {@code regex} and custom rules. Cheap rules such as
+ * {@code required} or {@code minLength} always run. An input seen again costs
+ * one hash lookup, however many expensive rules the validator has.
+ *
+ * <p>
+ * The cache is split into segments, each one behind its own lock, so threads
+ * looking up different inputs rarely wait for each other. Two eviction
+ * policies are available:
+ * <ul>
+ * <li>{@link Policy#LRU} evicts the least recently used input.</li>
+ * <li>{@link Policy#TINY_LFU}, the default, is W-TinyLFU: new inputs enter a
+ * small LRU window and are only admitted into the main area if they were seen
+ * more often than the input they would replace. It keeps the frequent values
+ * when traffic also holds many one-off ones.</li>
+ * </ul>
+ * Entries can also expire a fixed time after they were written.
+ *
+ * <p>
+ * Only {@code String} inputs of at most {@value #MAX_KEY_LENGTH} characters
+ * are cached. Other inputs, such as passwords held in a {@code char[]} or a
+ * {@code CharBuffer}, and longer strings always run the rules, so they are
+ * never copied into the cache.
+ *
+ * <p>
+ * Example usage:
+ * <pre>
+ * {@code
+ * SparkStringValidator EMAIL = new SparkStringSchema("Email")
+ *         .required()
+ *         .email()
+ *         .cache(new SparkRuleCache(10_000))
+ *         .compile();
+ * }
+ * </pre>
+ *
+ * <p>
+ * Note: A cache can only be shared by validators with the same rules, such as
+ * the validators compiled from one schema.
+ *
+ * @author vishv
+ */
+public final class SparkRuleCache {
+
+    /**
+     * The eviction policy of a {@link SparkRuleCache}.
+     */
+    public enum Policy {
+
+        /**
+         * Evicts the least recently used input.
+         */
+        LRU,
+        /**
+         * Admits new inputs by frequency, see W-TinyLFU.
+         */
+        TINY_LFU
+    }
+
+    /**
+     * The length of the longest input kept by the cache.
+     */
+    public static final int MAX_KEY_LENGTH = 512;
+
+    private final Segment[] segments;
+    private final int maxSize;
+    private final Policy policy;
+    private final long ttlNanos;
+    private final AtomicReference<StringRule[]> owner = new AtomicReference<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructs a new W-TinyLFU cache whose entries do not expire.
+     *
+     * @param maxSize the maximum number of inputs kept by the cache.
+     */
+    public SparkRuleCache(int maxSize) {
+
+        this(maxSize, Policy.TINY_LFU, 0L, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Constructs a new cache.
+     *
+     * @param maxSize the maximum number of inputs kept by the cache.
+     * @param policy the eviction policy.
+     * @param ttl how long an entry is kept after it was written, or {@code 0}
+     * to keep it until it is evicted.
+     * @param unit the unit of {@code ttl}.
+     */
+    public SparkRuleCache(int maxSize, Policy policy, long ttl, TimeUnit unit) {
+
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be greater than 0");
+        }
+        if (policy == null) {
+            throw new IllegalArgumentException("policy cannot be null");
+        }
+        if (ttl < 0) {
+            throw new IllegalArgumentException("ttl cannot be negative");
+        }
+
+        int count = Math.min(Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4 - 1) * 2, 64);
+        count = Math.max(1, Math.min(count, Integer.highestOneBit(maxSize)));
+
+        this.maxSize = maxSize;
+        this.policy = policy;
+        this.ttlNanos = unit.toNanos(ttl);
+        this.segments = new Segment[count];
+        // The capacities add up to maxSize exactly; the first segments take the remainder.
+        for (int i = 0; i < count; i++) {
+            this.segments[i] = new Segment(maxSize / count + (i < maxSize % count ? 1 : 0), policy);
+        }
+    }
+
+    /**
+     * Returns whether an input is looked up in the cache.
+     */
+    static boolean accepts(CharSequence input) {
+
+        return input instanceof String && input.length() <= MAX_KEY_LENGTH;
+    }
+
+    /**
+     * Returns the failures of the cached rules for an input, computing and
+     * storing them on a miss.
+     */
+    long failures(String key, SparkStringValidator validator) {
+
+        int hash = spread(key.hashCode());
+        Segment segment = this.segments[(hash >>> 16) & (this.segments.length - 1)];
+        long now = this.ttlNanos > 0 ? System.nanoTime() : 0L;
+
+        synchronized (segment) {
+            Node node = segment.get(key, hash, now);
+            if (node != null) {
+                this.hits.increment();
+                return node.failed;
+            }
+        }
+
+        this.misses.increment();
+        long failed = validator.cachedFailures(key);
+
+        synchronized (segment) {
+            this.evictions.add(segment.put(key, hash, failed, this.ttlNanos > 0 ? now + this.ttlNanos : 0L));
+        }
+        return failed;
+    }
+
+    /**
+     * Attaches the cache to a validator. The cached failures are bitsets of
+     * rule indexes, so they are only shared by validators with the same rules.
+     */
+    void claim(StringRule[] rules) {
+
+        StringRule[] claimed = rules.clone();
+        if (!this.owner.compareAndSet(null, claimed) && !Arrays.equals(this.owner.get(), claimed)) {
+            throw new IllegalStateException("A SparkRuleCache can only be shared by validators with the same rules");
+        }
+    }
+
+    /**
+     * Removes every entry from the cache. The counters are not reset.
+     */
+    public void clear() {
+
+        for (Segment segment : this.segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of inputs currently kept by the cache.
+     *
+     * @return the number of cached inputs.
+     */
+    public int size() {
+
+        int size = 0;
+        for (Segment segment : this.segments) {
+            synchronized (segment) {
+                size += segment.map.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns the maximum number of inputs kept by the cache.
+     *
+     * @return the maximum size.
+     */
+    public int maxSize() {
+
+        return this.maxSize;
+    }
+
+    /**
+     * Returns the eviction policy of the cache.
+     *
+     * @return the policy.
+     */
+    public Policy policy() {
+
+        return this.policy;
+    }
+
+    /**
+     * Returns the number of lookups that found the input.
+     *
+     * @return the hit count.
+     */
+    public long hitCount() {
+
+        return this.hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that had to run the rules.
+     *
+     * @return the miss count.
+     */
+    public long missCount() {
+
+        return this.misses.sum();
+    }
+
+    /**
+     * Returns the number of inputs evicted or rejected to keep the cache
+     * within its maximum size.
+     *
+     * @return the eviction count.
+     */
+    public long evictionCount() {
+
+        return this.evictions.sum();
+    }
+
+    /**
+     * Returns the share of lookups that found the input.
+     *
+     * @return the hit rate, between {@code 0} and {@code 1}.
+     */
+    public double hitRate() {
+
+        long hit = hitCount();
+        long total = hit + missCount();
+        return total == 0 ? 0.0 : (double) hit / total;
+    }
+
+    @Override
+    public String toString() {
+
+        return "SparkRuleCache{policy=" + this.policy + ", size=" + size() + ", maxSize=" + this.maxSize
+                + ", hits=" + hitCount() + ", misses=" + missCount()
+                + ", evictions=" + evictionCount() + "}";
+    }
+
+    private static int spread(int h) {
+
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 15);
+    }
+
+    // ---------------------------------------------------------------- segments
+
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+
+    private static final class Node {
+
+        final String key;
+        final int hash;
+        long failed;
+        long expiresAt;
+        int queue;
+        Node prev;
+        Node next;
+
+        Node(String key, int hash) {
+
+            this.key = key;
+            this.hash = hash;
+        }
+    }
+
+    /**
+     * A doubly linked list, least recently used first.
+     */
+    private static final class Queue {
+
+        Node head;
+        Node tail;
+        int size;
+
+        void addLast(Node node) {
+
+            node.prev = this.tail;
+            node.next = null;
+            if (this.tail == null) {
+                this.head = node;
+            } else {
+                this.tail.next = node;
+            }
+            this.tail = node;
+            this.size++;
+        }
+
+        void remove(Node node) {
+
+            if (node.prev == null) {
+                this.head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                this.tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            this.size--;
+        }
+    }
+
+    /**
+     * One segment of the cache, guarded by its own monitor. With the LRU
+     * policy only the window is used, sized to the whole segment. With
+     * W-TinyLFU the window holds 1% of the segment and the main area is split
+     * into probation (20%) and protected (80%) lists.
+     */
+    private static final class Segment {
+
+        final HashMap<String, Node> map = new HashMap<>();
+        final Queue[] queues = {new Queue(), new Queue(), new Queue()};
+        final int windowMax;
+        final int mainMax;
+        final int protectedMax;
+        final FrequencySketch sketch;
+
+        Segment(int capacity, Policy policy) {
+
+            if (policy == Policy.LRU) {
+                this.windowMax = capacity;
+                this.mainMax = 0;
+                this.protectedMax = 0;
+                this.sketch = null;
+            } else {
+                this.windowMax = Math.max(1, capacity / 100);
+                this.mainMax = capacity - this.windowMax;
+                this.protectedMax = this.mainMax * 4 / 5;
+                this.sketch = new FrequencySketch(capacity);
+            }
+        }
+
+        Node get(String key, int hash, long now) {
+
+            if (this.sketch != null) {
+                this.sketch.increment(hash);
+            }
+            Node node = this.map.get(key);
+            if (node == null) {
+                return null;
+            }
+            if (node.expiresAt != 0L && now - node.expiresAt >= 0L) {
+                remove(node);
+                return null;
+            }
+            touch(node);
+            return node;
+        }
+
+        /**
+         * Stores an entry and returns the number of entries evicted.
+         */
+        int put(String key, int hash, long failed, long expiresAt) {
+
+            Node node = this.map.get(key);
+            if (node != null) {
+                node.failed = failed;
+                node.expiresAt = expiresAt;
+                touch(node);
+                return 0;
+            }
+
+            node = new Node(key, hash);
+            node.failed = failed;
+            node.expiresAt = expiresAt;
+            node.queue = WINDOW;
+            this.map.put(key, node);
+            this.queues[WINDOW].addLast(node);
+
+            if (this.queues[WINDOW].size <= this.windowMax) {
+                return 0;
+            }
+
+            // The window is full: its oldest entry becomes a candidate for the main area.
+            Node candidate = this.queues[WINDOW].head;
+            this.queues[WINDOW].remove(candidate);
+            if (this.queues[PROBATION].size + this.queues[PROTECTED].size < this.mainMax) {
+                candidate.queue = PROBATION;
+                this.queues[PROBATION].addLast(candidate);
+                return 0;
+            }
+
+            Node victim = this.queues[PROBATION].head != null
+                    ? this.queues[PROBATION].head
+                    : this.queues[PROTECTED].head;
+            if (victim != null && this.sketch.frequency(candidate.hash) > this.sketch.frequency(victim.hash)) {
+                remove(victim);
+                candidate.queue = PROBATION;
+                this.queues[PROBATION].addLast(candidate);
+            } else {
+                this.map.remove(candidate.key);
+            }
+            return 1;
+        }
+
+        private void touch(Node node) {
+
+            Queue queue = this.queues[node.queue];
+            queue.remove(node);
+            if (node.queue == PROBATION) {
+                node.queue = PROTECTED;
+                this.queues[PROTECTED].addLast(node);
+                if (this.queues[PROTECTED].size > this.protectedMax) {
+                    Node demoted = this.queues[PROTECTED].head;
+                    this.queues[PROTECTED].remove(demoted);
+                    demoted.queue = PROBATION;
+                    this.queues[PROBATION].addLast(demoted);
+                }
+            } else {
+                queue.addLast(node);
+            }
+        }
+
+        private void remove(Node node) {
+
+            this.queues[node.queue].remove(node);
+            this.map.remove(node.key);
+        }
+
+        void clear() {
+
+            this.map.clear();
+            for (Queue queue : this.queues) {
+                queue.head = null;
+                queue.tail = null;
+                queue.size = 0;
+            }
+        }
+    }
+
+    /**
+     * A count-min sketch of 4-bit counters estimating how often a hash was
+     * seen. All counters are halved after {@code 10 * capacity} increments so
+     * that old popularity fades.
+     */
+    private static final class FrequencySketch {
+
+        private final byte[] table;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int capacity) {
+
+            int size = Math.max(64, Integer.highestOneBit(Math.max(1, capacity) * 4 - 1) << 1);
+            this.table = new byte[size];
+            this.mask = size - 1;
+            this.sampleSize = Math.max(10, 10 * capacity);
+        }
+
+        void increment(int hash) {
+
+            boolean added = false;
+            for (int i = 0; i < 4; i++) {
+                int index = index(hash, i);
+                if (this.table[index] < 15) {
+                    this.table[index]++;
+                    added = true;
+                }
+            }
+            if (added && ++this.additions >= this.sampleSize) {
+                for (int i = 0; i < this.table.length; i++) {
+                    this.table[i] >>= 1;
+                }
+                this.additions /= 2;
+            }
+        }
+
+        int frequency(int hash) {
+
+            int min = 15;
+            for (int i = 0; i < 4; i++) {
+                min = Math.min(min, this.table[index(hash, i)]);
+            }
+            return min;
+        }
+
+        private int index(int hash, int i) {
+
+            int h = (hash + i) * (0x9E3779B9 + (i << 1));
+            return (h ^ (h >>> 16)) & this.mask;
+        }
+    }
+}
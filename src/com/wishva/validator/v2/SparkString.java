@@ -24,6 +24,14 @@
 package com.wishva.validator.v2;
 
 import com.wishva.validator.SparkException;
+import com.wishva.validator.SparkNumbers;
+import com.wishva.validator.SparkPatternCache;
+import com.wishva.validator.SparkRegex;
+import com.wishva.validator.SparkRuleException;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.util.Arrays;
 import java.util.regex.Pattern;
 
@@ -33,44 +41,175 @@ import java.util.regex.Pattern;
  */
 public class SparkString {
 
-    private String str = null;
-    private String displayName = null;
+    private static final int MAX_LENGTH = 1000;
 
-    private static final String EMAIL_REGEX
-            = "^[a-zA-Z0-9_+&*-]+(?:\\.[a-zA-Z0-9_+&*-]+)*@(?:[a-zA-Z0-9-]+\\.)+[a-zA-Z]{2,7}$";
+    private CharSequence str = null;
+    private String displayName = null;
+    private ByteBuffer source = null;
 
     /**
-     * Constructs a new {@code Spark} validator for a {@code char[]} input.
+     * Constructs a new {@code Spark} validator for a {@code String} input.
      *
      * @param displayName the name of the field being validated.
      * @param input the input {@code String} to be validated.
-     * @throws com.wishva.validator.SparkException
+     * @throws com.wishva.validator.SparkException if the input is longer than
+     * 1000 characters.
      */
     public SparkString(String displayName, String input) throws SparkException {
 
-        if (this.str.length() > 1000) {
-            throw new SparkException("Input is too long.");
-        }
+        this(displayName, (CharSequence) input);
+    }
+
+    /**
+     * Constructs a new {@code Spark} validator for a {@code CharSequence}
+     * input, such as a {@code StringBuilder} or a {@code CharBuffer}. The
+     * input is validated in place, without being copied.
+     *
+     * @param displayName the name of the field being validated.
+     * @param input the input {@code CharSequence} to be validated.
+     * @throws com.wishva.validator.SparkException if the input is longer than
+     * 1000 characters.
+     */
+    public SparkString(String displayName, CharSequence input) throws SparkException {
+
+        checkLength(displayName, input == null ? 0 : input.length());
 
         this.displayName = displayName;
         this.str = input;
     }
 
     /**
-     * Constructs a new {@code Spark} validator for a {@code char[]} input.
+     * Constructs a new {@code Spark} validator for a {@code char[]} input,
+     * such as a password. The array is validated in place, without being
+     * copied, and can be cleared with {@link #wipe()}.
      *
      * @param displayName the name of the field being validated.
-     * @param input the input {@code String} to be validated.
-     * @throws com.wishva.validator.SparkException
+     * @param input the input {@code char[]} to be validated.
+     * @throws com.wishva.validator.SparkException if the input is longer than
+     * 1000 characters.
      */
     public SparkString(String displayName, char[] input) throws SparkException {
 
-        if (this.str.length() > 1000) {
-            throw new SparkException("Input is too long.");
+        this(displayName, input == null ? null : CharBuffer.wrap(input));
+    }
+
+    /**
+     * Constructs a new {@code Spark} validator for a part of a {@code char[]}.
+     * The array is validated in place, without being copied, and can be
+     * cleared with {@link #wipe()}.
+     *
+     * @param displayName the name of the field being validated.
+     * @param input the array holding the input.
+     * @param offset the index of the first character of the input.
+     * @param length the number of characters of the input.
+     * @throws com.wishva.validator.SparkException if the input is longer than
+     * 1000 characters.
+     */
+    public SparkString(String displayName, char[] input, int offset, int length) throws SparkException {
+
+        this(displayName, input == null ? null : CharBuffer.wrap(input, offset, length));
+    }
+
+    /**
+     * Constructs a new {@code Spark} validator for UTF-8 encoded bytes, e.g.
+     * read from the network. ASCII input is validated in place; other input is
+     * decoded once into a private buffer, never into a {@code String}. Both
+     * can be cleared with {@link #wipe()}.
+     *
+     * @param displayName the name of the field being validated.
+     * @param utf8 the array holding the input.
+     * @param offset the index of the first byte of the input.
+     * @param length the number of bytes of the input.
+     * @throws com.wishva.validator.SparkException if the input is longer than
+     * 1000 characters.
+     */
+    public SparkString(String displayName, byte[] utf8, int offset, int length) throws SparkException {
+
+        this(displayName, utf8 == null ? null : ByteBuffer.wrap(utf8, offset, length));
+    }
+
+    /**
+     * Constructs a new {@code Spark} validator for the remaining UTF-8 encoded
+     * bytes of a {@code ByteBuffer}. The position of the buffer is not
+     * changed. ASCII input is validated in place; other input is decoded once
+     * into a private buffer, never into a {@code String}. Both can be cleared
+     * with {@link #wipe()}.
+     *
+     * @param displayName the name of the field being validated.
+     * @param utf8 the buffer holding the input.
+     * @throws com.wishva.validator.SparkException if the input is longer than
+     * 1000 characters.
+     */
+    public SparkString(String displayName, ByteBuffer utf8) throws SparkException {
+
+        this.displayName = displayName;
+        if (utf8 == null) {
+            return;
         }
 
+        int from = utf8.position();
+        int to = utf8.limit();
+
+        // A char never takes more than 3 bytes, so longer inputs are rejected before decoding.
+        if (to - from > MAX_LENGTH * 3) {
+            checkLength(displayName, to - from);
+        }
+
+        if (Utf8.isAscii(utf8, from, to)) {
+            checkLength(displayName, to - from);
+            this.str = new ByteCharSequence(utf8, from, to);
+        } else {
+            CharSlice decoded = new CharSlice();
+            Utf8.decodeAll(utf8, from, to, decoded);
+            this.str = decoded;
+            checkLength(displayName, decoded.length());
+        }
+        this.source = utf8;
+    }
+
+    /**
+     * Constructs a new {@code Spark} validator for the text of a
+     * {@code Reader}, such as a request body. At most 1001 characters are
+     * read, so an oversized input is rejected without being read in full.
+     * The text is kept in a private buffer, never in a {@code String}, and
+     * can be cleared with {@link #wipe()}. The reader is not closed.
+     *
+     * @param displayName the name of the field being validated.
+     * @param reader the reader of the input.
+     * @throws com.wishva.validator.SparkException if the input is longer than
+     * 1000 characters.
+     * @throws IOException if the input cannot be read.
+     */
+    public SparkString(String displayName, Reader reader) throws SparkException, IOException {
+
         this.displayName = displayName;
-        this.str = Arrays.toString(input);
+        if (reader == null) {
+            return;
+        }
+
+        CharSlice text = new CharSlice();
+        char[] chunk = new char[256];
+        try {
+            int read;
+            while ((read = reader.read(chunk, 0, Math.min(chunk.length, MAX_LENGTH + 1 - text.length()))) > 0) {
+                text.append(chunk, 0, read);
+                if (text.length() > MAX_LENGTH) {
+                    text.wipe();
+                    checkLength(displayName, MAX_LENGTH + 1);
+                }
+            }
+        } finally {
+            Arrays.fill(chunk, '\0');
+        }
+        this.str = text;
+    }
+
+    private static void checkLength(String displayName, int length) throws SparkException {
+
+        if (length > MAX_LENGTH) {
+            throw new SparkRuleException("tooLong", displayName, "Input is too long.", null,
+                    SparkRuleException.isStackless());
+        }
     }
 
     /**
@@ -81,10 +220,7 @@ public class SparkString {
      */
     public SparkString required() throws SparkException {
 
-        if (this.str == null || this.str.trim().isBlank()) {
-            throw new SparkException(displayName + " cannot be empty!");
-        }
-        return this;
+        return check(StringRule.REQUIRED);
     }
 
     /**
@@ -97,8 +233,8 @@ public class SparkString {
      */
     public SparkString required(String errorMessage) throws SparkException {
 
-        if (this.str.isBlank()) {
-            throw new SparkException(errorMessage);
+        if (SparkMetrics.enabled || this.str == null || StringRule.isBlank(this.str)) {
+            return check(StringRule.required(errorMessage));
         }
         return this;
     }
@@ -111,10 +247,7 @@ public class SparkString {
      */
     public SparkString email() throws SparkException {
 
-        if (!Pattern.compile(EMAIL_REGEX).matcher(this.str).matches()) {
-            throw new SparkException("Invalid Email!");
-        }
-        return this;
+        return check(StringRule.EMAIL);
     }
 
     /**
@@ -129,8 +262,8 @@ public class SparkString {
      */
     public SparkString equals(String otherString, String msg) throws SparkException {
 
-        if (!this.str.equals(otherString)) {
-            throw new SparkException(msg);
+        if (SparkMetrics.enabled || this.str != null && (otherString == null || !otherString.contentEquals(this.str))) {
+            return check(StringRule.equalTo(otherString, msg));
         }
         return this;
     }
@@ -144,10 +277,7 @@ public class SparkString {
      */
     public SparkString minLength(int length) throws SparkException {
 
-        if (this.str.length() < length) {
-            throw new SparkException(displayName + " must include more than " + length + " characters!");
-        }
-        return this;
+        return minLength(length, null);
     }
 
     /**
@@ -161,8 +291,25 @@ public class SparkString {
      */
     public SparkString minLength(int length, String msg) throws SparkException {
 
-        if (this.str.length() < length) {
-            throw new SparkException(msg);
+        return minLength(length, SparkLength.UTF16, msg);
+    }
+
+    /**
+     * Ensures that the {@code String} input meets a minimum length requirement,
+     * counted in the given mode, with a custom error message.
+     *
+     * @param length the minimum length.
+     * @param mode how the length is counted.
+     * @param msg the custom error message, or {@code null} for the default
+     * one.
+     * @return the current {@code SparkString} instance for method chaining.
+     * @throws SparkException if the input is shorter than the specified length.
+     */
+    public SparkString minLength(int length, SparkLength mode, String msg) throws SparkException {
+
+        if (SparkMetrics.enabled || mode == null || this.str != null
+                && (mode == SparkLength.UTF16 ? this.str.length() < length : !mode.atLeast(this.str, length))) {
+            return check(StringRule.minLength(length, mode, msg));
         }
         return this;
     }
@@ -176,10 +323,7 @@ public class SparkString {
      */
     public SparkString maxLength(int length) throws SparkException {
 
-        if (this.str.length() > length) {
-            throw new SparkException(displayName + " must include less than " + length + " characters!");
-        }
-        return this;
+        return maxLength(length, null);
     }
 
     /**
@@ -193,15 +337,267 @@ public class SparkString {
      */
     public SparkString maxLength(int length, String msg) throws SparkException {
 
-        if (this.str.length() > length) {
-            throw new SparkException(msg);
+        return maxLength(length, SparkLength.UTF16, msg);
+    }
+
+    /**
+     * Ensures that the {@code String} input does not exceed a maximum length,
+     * counted in the given mode, with a custom error message.
+     *
+     * @param length the maximum length.
+     * @param mode how the length is counted.
+     * @param msg the custom error message, or {@code null} for the default
+     * one.
+     * @return the current {@code SparkString} instance for method chaining.
+     * @throws SparkException if the input exceeds the specified length.
+     */
+    public SparkString maxLength(int length, SparkLength mode, String msg) throws SparkException {
+
+        if (SparkMetrics.enabled || mode == null || this.str != null
+                && (mode == SparkLength.UTF16 ? this.str.length() > length : !mode.atMost(this.str, length))) {
+            return check(StringRule.maxLength(length, mode, msg));
+        }
+        return this;
+    }
+
+    /**
+     * Ensures that every character of the {@code String} input is ASCII,
+     * {@code U+0000} to {@code U+007F}.
+     *
+     * @return the current {@code SparkString} instance for method chaining.
+     * @throws SparkException if the input is not ASCII.
+     */
+    public SparkString ascii() throws SparkException {
+
+        return ascii(null);
+    }
+
+    /**
+     * Ensures that every character of the {@code String} input is ASCII,
+     * {@code U+0000} to {@code U+007F}, with a custom error message.
+     *
+     * @param msg the custom error message.
+     * @return the current {@code SparkString} instance for method chaining.
+     * @throws SparkException if the input is not ASCII.
+     */
+    public SparkString ascii(String msg) throws SparkException {
+
+        if (SparkMetrics.enabled || this.str != null && !CharClass.ASCII.matches(this.str)) {
+            return check(StringRule.ascii(msg));
+        }
+        return this;
+    }
+
+    /**
+     * Ensures that the {@code String} input contains only the ASCII digits
+     * {@code 0} to {@code 9}.
+     *
+     * @return the current {@code SparkString} instance for method chaining.
+     * @throws SparkException if the input contains anything else.
+     */
+    public SparkString digits() throws SparkException {
+
+        return digits(null);
+    }
+
+    /**
+     * Ensures that the {@code String} input contains only the ASCII digits
+     * {@code 0} to {@code 9}, with a custom error message.
+     *
+     * @param msg the custom error message.
+     * @return the current {@code SparkString} instance for method chaining.
+     * @throws SparkException if the input contains anything else.
+     */
+    public SparkString digits(String msg) throws SparkException {
+
+        if (SparkMetrics.enabled || this.str != null && !CharClass.DIGITS.matches(this.str)) {
+            return check(StringRule.digits(msg));
+        }
+        return this;
+    }
+
+    /**
+     * Ensures that the {@code String} input contains only the ASCII letters
+     * and digits.
+     *
+     * @return the current {@code SparkString} instance for method chaining.
+     * @throws SparkException if the input contains anything else.
+     */
+    public SparkString alphanumeric() throws SparkException {
+
+        return alphanumeric(null);
+    }
+
+    /**
+     * Ensures that the {@code String} input contains only the ASCII letters
+     * and digits, with a custom error message.
+     *
+     * @param msg the custom error message.
+     * @return the current {@code SparkString} instance for method chaining.
+     * @throws SparkException if the input contains anything else.
+     */
+    public SparkString alphanumeric(String msg) throws SparkException {
+
+        if (SparkMetrics.enabled || this.str != null && !CharClass.ALPHANUMERIC.matches(this.str)) {
+            return check(StringRule.alphanumeric(msg));
+        }
+        return this;
+    }
+
+    /**
+     * Ensures that the {@code String} input contains no control character,
+     * as defined by {@link Character#isISOControl(char)}. Tabs and line breaks
+     * are control characters too.
+     *
+     * @return the current {@code SparkString} instance for method chaining.
+     * @throws SparkException if the input contains a control character.
+     */
+    public SparkString noControlChars() throws SparkException {
+
+        return noControlChars(null);
+    }
+
+    /**
+     * Ensures that the {@code String} input contains no control character,
+     * as defined by {@link Character#isISOControl(char)}. Tabs and line breaks
+     * are control characters too. Uses a custom error message.
+     *
+     * @param msg the custom error message.
+     * @return the current {@code SparkString} instance for method chaining.
+     * @throws SparkException if the input contains a control character.
+     */
+    public SparkString noControlChars(String msg) throws SparkException {
+
+        if (SparkMetrics.enabled || this.str != null && !CharClass.NO_CONTROL.matches(this.str)) {
+            return check(StringRule.noControlChars(msg));
+        }
+        return this;
+    }
+
+    /**
+     * Ensures that the {@code String} input is one of the values of a set.
+     *
+     * @param values the set of allowed values.
+     * @return the current {@code SparkString} instance for method chaining.
+     * @throws SparkException if the input is not in the set.
+     */
+    public SparkString oneOf(SparkStringSet values) throws SparkException {
+
+        return oneOf(values, null);
+    }
+
+    /**
+     * Ensures that the {@code String} input is one of the values of a set, with
+     * a custom error message.
+     *
+     * @param values the set of allowed values.
+     * @param msg the custom error message.
+     * @return the current {@code SparkString} instance for method chaining.
+     * @throws SparkException if the input is not in the set.
+     */
+    public SparkString oneOf(SparkStringSet values, String msg) throws SparkException {
+
+        if (SparkMetrics.enabled || values == null || this.str != null && !values.contains(this.str)) {
+            return check(StringRule.oneOf(values, msg));
+        }
+        return this;
+    }
+
+    /**
+     * Ensures that the {@code String} input is none of the values of a set.
+     *
+     * @param values the set of rejected values.
+     * @return the current {@code SparkString} instance for method chaining.
+     * @throws SparkException if the input is in the set.
+     */
+    public SparkString noneOf(SparkStringSet values) throws SparkException {
+
+        return noneOf(values, null);
+    }
+
+    /**
+     * Ensures that the {@code String} input is none of the values of a set,
+     * with a custom error message.
+     *
+     * @param values the set of rejected values.
+     * @param msg the custom error message.
+     * @return the current {@code SparkString} instance for method chaining.
+     * @throws SparkException if the input is in the set.
+     */
+    public SparkString noneOf(SparkStringSet values, String msg) throws SparkException {
+
+        if (SparkMetrics.enabled || values == null || this.str != null && values.contains(this.str)) {
+            return check(StringRule.noneOf(values, msg));
+        }
+        return this;
+    }
+
+    /**
+     * Ensures that the {@code String} input contains none of the words of a
+     * dictionary. The input is scanned once, however many words the dictionary
+     * holds.
+     *
+     * @param words the dictionary.
+     * @return the current {@code SparkString} instance for method chaining.
+     * @throws SparkException if the input contains a word of the dictionary.
+     */
+    public SparkString containsNone(SparkDictionary words) throws SparkException {
+
+        return containsNone(words, null);
+    }
+
+    /**
+     * Ensures that the {@code String} input contains none of the words of a
+     * dictionary, with a custom error message.
+     *
+     * @param words the dictionary.
+     * @param msg the custom error message.
+     * @return the current {@code SparkString} instance for method chaining.
+     * @throws SparkException if the input contains a word of the dictionary.
+     */
+    public SparkString containsNone(SparkDictionary words, String msg) throws SparkException {
+
+        if (SparkMetrics.enabled || words == null || this.str != null && words.containsAny(this.str)) {
+            return check(StringRule.containsNone(words, msg));
+        }
+        return this;
+    }
+
+    /**
+     * Ensures that the {@code String} input contains at least one of the words
+     * of a dictionary. The input is scanned once, however many words the
+     * dictionary holds.
+     *
+     * @param words the dictionary.
+     * @return the current {@code SparkString} instance for method chaining.
+     * @throws SparkException if the input contains no word of the dictionary.
+     */
+    public SparkString containsAny(SparkDictionary words) throws SparkException {
+
+        return containsAny(words, null);
+    }
+
+    /**
+     * Ensures that the {@code String} input contains at least one of the words
+     * of a dictionary, with a custom error message.
+     *
+     * @param words the dictionary.
+     * @param msg the custom error message.
+     * @return the current {@code SparkString} instance for method chaining.
+     * @throws SparkException if the input contains no word of the dictionary.
+     */
+    public SparkString containsAny(SparkDictionary words, String msg) throws SparkException {
+
+        if (SparkMetrics.enabled || words == null || this.str != null && !words.containsAny(this.str)) {
+            return check(StringRule.containsAny(words, msg));
         }
         return this;
     }
 
     /**
      * Validates the {@code String} input against a custom regular expression
-     * pattern.
+     * pattern. The compiled pattern is kept in the shared
+     * {@link SparkPatternCache}.
      *
      * @param pattern the regular expression pattern.
      * @return the current {@code SparkString} instance for method chaining.
@@ -209,15 +605,13 @@ public class SparkString {
      */
     public SparkString regex(String pattern) throws SparkException {
 
-        if (!this.str.matches(pattern)) {
-            throw new SparkException("Invalid " + displayName + " !");
-        }
-        return this;
+        return regex(SparkPatternCache.shared().get(pattern));
     }
 
     /**
      * Validates the {@code String} input against a custom regular expression
-     * pattern, with a custom error message.
+     * pattern, with a custom error message. The compiled pattern is kept in
+     * the shared {@link SparkPatternCache}.
      *
      * @param pattern the regular expression pattern.
      * @param msg the custom error message.
@@ -226,8 +620,94 @@ public class SparkString {
      */
     public SparkString regex(String pattern, String msg) throws SparkException {
 
-        if (!this.str.matches(pattern)) {
-            throw new SparkException(msg);
+        return regex(SparkPatternCache.shared().get(pattern), msg);
+    }
+
+    /**
+     * Validates the {@code String} input against a compiled regular expression
+     * pattern.
+     *
+     * @param pattern the compiled regular expression pattern.
+     * @return the current {@code SparkString} instance for method chaining.
+     * @throws SparkException if the input does not match the specified pattern.
+     */
+    public SparkString regex(Pattern pattern) throws SparkException {
+
+        return regex(pattern, (String) null);
+    }
+
+    /**
+     * Validates the {@code String} input against a compiled regular expression
+     * pattern, with a custom error message.
+     *
+     * @param pattern the compiled regular expression pattern.
+     * @param msg the custom error message.
+     * @return the current {@code SparkString} instance for method chaining.
+     * @throws SparkException if the input does not match the specified pattern.
+     */
+    public SparkString regex(Pattern pattern, String msg) throws SparkException {
+
+        if (SparkMetrics.enabled || this.str != null && !pattern.matcher(this.str).matches()) {
+            return check(StringRule.regex(pattern, msg));
+        }
+        return this;
+    }
+
+    /**
+     * Validates the {@code String} input against a regular expression with
+     * the linear-time {@link SparkRegex} engine. Use it for patterns that
+     * come from configuration or from other teams: an expression outside the
+     * supported subset is run with a step budget instead, see
+     * {@link SparkRegex#engine()}.
+     *
+     * @param pattern the regular expression pattern.
+     * @return the current {@code SparkString} instance for method chaining.
+     * @throws SparkException if the input does not match the specified pattern.
+     */
+    public SparkString safeRegex(String pattern) throws SparkException {
+
+        return safeRegex(pattern, null);
+    }
+
+    /**
+     * Validates the {@code String} input against a regular expression with
+     * the linear-time {@link SparkRegex} engine, with a custom error message.
+     *
+     * @param pattern the regular expression pattern.
+     * @param msg the custom error message.
+     * @return the current {@code SparkString} instance for method chaining.
+     * @throws SparkException if the input does not match the specified pattern.
+     */
+    public SparkString safeRegex(String pattern, String msg) throws SparkException {
+
+        return regex(SparkPatternCache.shared().regex(pattern), msg);
+    }
+
+    /**
+     * Validates the {@code String} input against a compiled {@link SparkRegex}.
+     *
+     * @param regex the compiled regular expression.
+     * @return the current {@code SparkString} instance for method chaining.
+     * @throws SparkException if the input does not match the specified pattern.
+     */
+    public SparkString regex(SparkRegex regex) throws SparkException {
+
+        return regex(regex, (String) null);
+    }
+
+    /**
+     * Validates the {@code String} input against a compiled
+     * {@link SparkRegex}, with a custom error message.
+     *
+     * @param regex the compiled regular expression.
+     * @param msg the custom error message.
+     * @return the current {@code SparkString} instance for method chaining.
+     * @throws SparkException if the input does not match the specified pattern.
+     */
+    public SparkString regex(SparkRegex regex, String msg) throws SparkException {
+
+        if (SparkMetrics.enabled || this.str != null && !regex.matches(this.str)) {
+            return check(StringRule.regex(regex, msg));
         }
         return this;
     }
@@ -241,7 +721,33 @@ public class SparkString {
     @Override
     public String toString() {
 
-        return this.str;
+        return this.str == null ? null : this.str.toString();
+    }
+
+    /**
+     * Overwrites the input with zeros, for inputs given as a {@code char[]},
+     * a {@code byte[]} or a writable {@code ByteBuffer}. {@code String} inputs
+     * cannot be cleared. The validator must not be used afterwards.
+     */
+    public void wipe() {
+
+        if (this.str instanceof CharBuffer) {
+            CharBuffer chars = (CharBuffer) this.str;
+            if (chars.hasArray() && !chars.isReadOnly()) {
+                int from = chars.arrayOffset() + chars.position();
+                Arrays.fill(chars.array(), from, from + chars.remaining(), '\0');
+            }
+        } else if (this.str instanceof CharSlice) {
+            ((CharSlice) this.str).wipe();
+        }
+
+        if (this.source != null && !this.source.isReadOnly()) {
+            for (int i = this.source.position(); i < this.source.limit(); i++) {
+                this.source.put(i, (byte) 0);
+            }
+        }
+        this.str = null;
+        this.source = null;
     }
     
     /**
@@ -251,12 +757,27 @@ public class SparkString {
      * @throws SparkException if the input is not a valid number.
      */
     public SparkInt toInt() throws SparkException {
-        this.required();
-        try {
-            
-            return new SparkInt(this.displayName, Integer.parseInt(this.str));
-        } catch (NumberFormatException e) {
-            throw new SparkException(this.displayName + " must be a number!");
+
+        long parsed = SparkNumbers.parseInt(this.str);
+        if (SparkNumbers.status(parsed) != SparkNumbers.OK) {
+            // A blank input keeps failing with the message of required().
+            check(StringRule.REQUIRED);
+            throw StringRule.INTEGER.fail(this.displayName);
         }
+        return new SparkInt(this.displayName, SparkNumbers.value(parsed));
+    }
+
+    /**
+     * Runs a rule that the input failed, or any rule while the metrics are
+     * enabled. The rule methods test their condition inline first, so a
+     * passing input creates no rule.
+     */
+    private SparkString check(StringRule rule) throws SparkException {
+
+        boolean passed = SparkMetrics.enabled ? SparkMetrics.test(rule, this.displayName, this.str) : rule.test(this.str);
+        if (!passed) {
+            throw rule.fail(this.displayName);
+        }
+        return this;
     }
 }
@@ -0,0 +1,629 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+import com.wishva.validator.SparkRegex;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Declares a chain of rules for a {@code String} field once, so it can be
+ * compiled into a reusable {@link SparkStringValidator}.
+ *
+ * <p>
+ * Example usage:
+ * <pre>
+ * {@code
+ * private static final SparkStringValidator PASSWORD = new SparkStringSchema("Password")
+ *         .required()
+ *         .minLength(8)
+ *         .maxLength(64)
+ *         .compile();
+ *
+ * String password = PASSWORD.validate(input);
+ * }
+ * </pre>
+ *
+ * <p>
+ * Note: A schema is not thread-safe and is meant to be used only while
+ * building the validator. The compiled validator is immutable.
+ *
+ * @author vishv
+ */
+public class SparkStringSchema {
+
+    private final String displayName;
+    private final List<StringRule> rules = new ArrayList<>();
+    private boolean stackless = false;
+    private SparkRuleCache cache;
+    private boolean adaptive = false;
+
+    /**
+     * Constructs a new schema for a {@code String} field.
+     *
+     * @param displayName the name of the field being validated.
+     */
+    public SparkStringSchema(String displayName) {
+
+        this.displayName = displayName;
+    }
+
+    /**
+     * Ensures that the {@code String} input is not empty or blank.
+     *
+     * @return the current {@code SparkStringSchema} instance for method
+     * chaining.
+     */
+    public SparkStringSchema required() {
+
+        return rule(StringRule.required(null));
+    }
+
+    /**
+     * Ensures that the {@code String} input is not empty or blank, with a
+     * custom error message.
+     *
+     * @param errorMessage the custom error message.
+     * @return the current {@code SparkStringSchema} instance for method
+     * chaining.
+     */
+    public SparkStringSchema required(String errorMessage) {
+
+        return rule(StringRule.required(errorMessage));
+    }
+
+    /**
+     * Validates that the {@code String} input is a valid email address.
+     *
+     * @return the current {@code SparkStringSchema} instance for method
+     * chaining.
+     */
+    public SparkStringSchema email() {
+
+        return rule(StringRule.email(null));
+    }
+
+    /**
+     * Validates that the {@code String} input is a valid email address, with
+     * a custom error message.
+     *
+     * @param msg the custom error message.
+     * @return the current {@code SparkStringSchema} instance for method
+     * chaining.
+     */
+    public SparkStringSchema email(String msg) {
+
+        return rule(StringRule.email(msg));
+    }
+
+    /**
+     * Validates that the {@code String} input is equal to another
+     * {@code String}.
+     *
+     * @param otherString the {@code String} to compare with.
+     * @param msg the custom error message if the strings are not equal.
+     * @return the current {@code SparkStringSchema} instance for method
+     * chaining.
+     */
+    public SparkStringSchema equals(String otherString, String msg) {
+
+        return rule(StringRule.equalTo(otherString, msg));
+    }
+
+    /**
+     * Ensures that the {@code String} input meets a minimum length requirement.
+     *
+     * @param length the minimum number of characters.
+     * @return the current {@code SparkStringSchema} instance for method
+     * chaining.
+     */
+    public SparkStringSchema minLength(int length) {
+
+        return rule(StringRule.minLength(length, null));
+    }
+
+    /**
+     * Ensures that the {@code String} input meets a minimum length requirement,
+     * with a custom error message.
+     *
+     * @param length the minimum number of characters.
+     * @param msg the custom error message.
+     * @return the current {@code SparkStringSchema} instance for method
+     * chaining.
+     */
+    public SparkStringSchema minLength(int length, String msg) {
+
+        return rule(StringRule.minLength(length, msg));
+    }
+
+    /**
+     * Ensures that the {@code String} input meets a minimum length requirement,
+     * counted in the given mode, with a custom error message.
+     *
+     * @param length the minimum length.
+     * @param mode how the length is counted.
+     * @param msg the custom error message, or {@code null} for the default
+     * one.
+     * @return the current {@code SparkStringSchema} instance for method
+     * chaining.
+     */
+    public SparkStringSchema minLength(int length, SparkLength mode, String msg) {
+
+        return rule(StringRule.minLength(length, mode, msg));
+    }
+
+    /**
+     * Ensures that the {@code String} input does not exceed a maximum length.
+     *
+     * @param length the maximum number of characters.
+     * @return the current {@code SparkStringSchema} instance for method
+     * chaining.
+     */
+    public SparkStringSchema maxLength(int length) {
+
+        return rule(StringRule.maxLength(length, null));
+    }
+
+    /**
+     * Ensures that the {@code String} input does not exceed a maximum length,
+     * with a custom error message.
+     *
+     * @param length the maximum number of characters.
+     * @param msg the custom error message.
+     * @return the current {@code SparkStringSchema} instance for method
+     * chaining.
+     */
+    public SparkStringSchema maxLength(int length, String msg) {
+
+        return rule(StringRule.maxLength(length, msg));
+    }
+
+    /**
+     * Ensures that the {@code String} input does not exceed a maximum length,
+     * counted in the given mode, with a custom error message.
+     *
+     * @param length the maximum length.
+     * @param mode how the length is counted.
+     * @param msg the custom error message, or {@code null} for the default
+     * one.
+     * @return the current {@code SparkStringSchema} instance for method
+     * chaining.
+     */
+    public SparkStringSchema maxLength(int length, SparkLength mode, String msg) {
+
+        return rule(StringRule.maxLength(length, mode, msg));
+    }
+
+    /**
+     * Ensures that every character of the {@code String} input is ASCII,
+     * {@code U+0000} to {@code U+007F}.
+     *
+     * @return the current {@code SparkStringSchema} instance for method
+     * chaining.
+     */
+    public SparkStringSchema ascii() {
+
+        return rule(StringRule.ascii(null));
+    }
+
+    /**
+     * Ensures that every character of the {@code String} input is ASCII,
+     * {@code U+0000} to {@code U+007F}, with a custom error message.
+     *
+     * @param msg the custom error message.
+     * @return the current {@code SparkStringSchema} instance for method
+     * chaining.
+     */
+    public SparkStringSchema ascii(String msg) {
+
+        return rule(StringRule.ascii(msg));
+    }
+
+    /**
+     * Ensures that the {@code String} input contains only the ASCII digits
+     * {@code 0} to {@code 9}.
+     *
+     * @return the current {@code SparkStringSchema} instance for method
+     * chaining.
+     */
+    public SparkStringSchema digits() {
+
+        return rule(StringRule.digits(null));
+    }
+
+    /**
+     * Ensures that the {@code String} input contains only the ASCII digits
+     * {@code 0} to {@code 9}, with a custom error message.
+     *
+     * @param msg the custom error message.
+     * @return the current {@code SparkStringSchema} instance for method
+     * chaining.
+     */
+    public SparkStringSchema digits(String msg) {
+
+        return rule(StringRule.digits(msg));
+    }
+
+    /**
+     * Ensures that the {@code String} input contains only the ASCII letters
+     * and digits.
+     *
+     * @return the current {@code SparkStringSchema} instance for method
+     * chaining.
+     */
+    public SparkStringSchema alphanumeric() {
+
+        return rule(StringRule.alphanumeric(null));
+    }
+
+    /**
+     * Ensures that the {@code String} input contains only the ASCII letters
+     * and digits, with a custom error message.
+     *
+     * @param msg the custom error message.
+     * @return the current {@code SparkStringSchema} instance for method
+     * chaining.
+     */
+    public SparkStringSchema alphanumeric(String msg) {
+
+        return rule(StringRule.alphanumeric(msg));
+    }
+
+    /**
+     * Ensures that the {@code String} input contains no control character,
+     * as defined by {@link Character#isISOControl(char)}. Tabs and line breaks
+     * are control characters too.
+     *
+     * @return the current {@code SparkStringSchema} instance for method
+     * chaining.
+     */
+    public SparkStringSchema noControlChars() {
+
+        return rule(StringRule.noControlChars(null));
+    }
+
+    /**
+     * Ensures that the {@code String} input contains no control character,
+     * as defined by {@link Character#isISOControl(char)}. Tabs and line breaks
+     * are control characters too. Uses a custom error message.
+     *
+     * @param msg the custom error message.
+     * @return the current {@code SparkStringSchema} instance for method
+     * chaining.
+     */
+    public SparkStringSchema noControlChars(String msg) {
+
+        return rule(StringRule.noControlChars(msg));
+    }
+
+    /**
+     * Ensures that the {@code String} input is one of the values of a set.
+     *
+     * @param values the set of allowed values.
+     * @return the current {@code SparkStringSchema} instance for method
+     * chaining.
+     */
+    public SparkStringSchema oneOf(SparkStringSet values) {
+
+        return rule(StringRule.oneOf(values, null));
+    }
+
+    /**
+     * Ensures that the {@code String} input is one of the values of a set, with
+     * a custom error message.
+     *
+     * @param values the set of allowed values.
+     * @param msg the custom error message.
+     * @return the current {@code SparkStringSchema} instance for method
+     * chaining.
+     */
+    public SparkStringSchema oneOf(SparkStringSet values, String msg) {
+
+        return rule(StringRule.oneOf(values, msg));
+    }
+
+    /**
+     * Ensures that the {@code String} input is none of the values of a set.
+     *
+     * @param values the set of rejected values.
+     * @return the current {@code SparkStringSchema} instance for method
+     * chaining.
+     */
+    public SparkStringSchema noneOf(SparkStringSet values) {
+
+        return rule(StringRule.noneOf(values, null));
+    }
+
+    /**
+     * Ensures that the {@code String} input is none of the values of a set,
+     * with a custom error message.
+     *
+     * @param values the set of rejected values.
+     * @param msg the custom error message.
+     * @return the current {@code SparkStringSchema} instance for method
+     * chaining.
+     */
+    public SparkStringSchema noneOf(SparkStringSet values, String msg) {
+
+        return rule(StringRule.noneOf(values, msg));
+    }
+
+    /**
+     * Ensures that the {@code String} input contains none of the words of a
+     * dictionary. The input is scanned once, however many words the dictionary
+     * holds.
+     *
+     * @param words the dictionary.
+     * @return the current {@code SparkStringSchema} instance for method
+     * chaining.
+     */
+    public SparkStringSchema containsNone(SparkDictionary words) {
+
+        return rule(StringRule.containsNone(words, null));
+    }
+
+    /**
+     * Ensures that the {@code String} input contains none of the words of a
+     * dictionary, with a custom error message.
+     *
+     * @param words the dictionary.
+     * @param msg the custom error message.
+     * @return the current {@code SparkStringSchema} instance for method
+     * chaining.
+     */
+    public SparkStringSchema containsNone(SparkDictionary words, String msg) {
+
+        return rule(StringRule.containsNone(words, msg));
+    }
+
+    /**
+     * Ensures that the {@code String} input contains at least one of the words
+     * of a dictionary. The input is scanned once, however many words the
+     * dictionary holds.
+     *
+     * @param words the dictionary.
+     * @return the current {@code SparkStringSchema} instance for method
+     * chaining.
+     */
+    public SparkStringSchema containsAny(SparkDictionary words) {
+
+        return rule(StringRule.containsAny(words, null));
+    }
+
+    /**
+     * Ensures that the {@code String} input contains at least one of the words
+     * of a dictionary, with a custom error message.
+     *
+     * @param words the dictionary.
+     * @param msg the custom error message.
+     * @return the current {@code SparkStringSchema} instance for method
+     * chaining.
+     */
+    public SparkStringSchema containsAny(SparkDictionary words, String msg) {
+
+        return rule(StringRule.containsAny(words, msg));
+    }
+
+    /**
+     * Validates the {@code String} input against a custom regular expression
+     * pattern. The compiled pattern is kept in the shared
+     * {@link com.wishva.validator.SparkPatternCache}.
+     *
+     * @param pattern the regular expression pattern.
+     * @return the current {@code SparkStringSchema} instance for method
+     * chaining.
+     */
+    public SparkStringSchema regex(String pattern) {
+
+        return rule(StringRule.regex(pattern, null));
+    }
+
+    /**
+     * Validates the {@code String} input against a custom regular expression
+     * pattern, with a custom error message. The compiled pattern is kept in
+     * the shared {@link com.wishva.validator.SparkPatternCache}.
+     *
+     * @param pattern the regular expression pattern.
+     * @param msg the custom error message.
+     * @return the current {@code SparkStringSchema} instance for method
+     * chaining.
+     */
+    public SparkStringSchema regex(String pattern, String msg) {
+
+        return rule(StringRule.regex(pattern, msg));
+    }
+
+    /**
+     * Validates the {@code String} input against a compiled regular expression
+     * pattern.
+     *
+     * @param pattern the compiled regular expression pattern.
+     * @return the current {@code SparkStringSchema} instance for method
+     * chaining.
+     */
+    public SparkStringSchema regex(Pattern pattern) {
+
+        return rule(StringRule.regex(pattern, null));
+    }
+
+    /**
+     * Validates the {@code String} input against a compiled regular expression
+     * pattern, with a custom error message.
+     *
+     * @param pattern the compiled regular expression pattern.
+     * @param msg the custom error message.
+     * @return the current {@code SparkStringSchema} instance for method
+     * chaining.
+     */
+    public SparkStringSchema regex(Pattern pattern, String msg) {
+
+        return rule(StringRule.regex(pattern, msg));
+    }
+
+    /**
+     * Validates the {@code String} input against a regular expression with
+     * the linear-time {@link com.wishva.validator.SparkRegex} engine. Use it
+     * for patterns that come from configuration or from other teams: an
+     * expression outside the supported subset is run with a step budget
+     * instead, see {@link com.wishva.validator.SparkRegex#engine()}.
+     *
+     * @param pattern the regular expression pattern.
+     * @return the current {@code SparkStringSchema} instance for method
+     * chaining.
+     */
+    public SparkStringSchema safeRegex(String pattern) {
+
+        return rule(StringRule.safeRegex(pattern, null));
+    }
+
+    /**
+     * Validates the {@code String} input against a regular expression with
+     * the linear-time {@link com.wishva.validator.SparkRegex} engine, with a
+     * custom error message.
+     *
+     * @param pattern the regular expression pattern.
+     * @param msg the custom error message.
+     * @return the current {@code SparkStringSchema} instance for method
+     * chaining.
+     */
+    public SparkStringSchema safeRegex(String pattern, String msg) {
+
+        return rule(StringRule.safeRegex(pattern, msg));
+    }
+
+    /**
+     * Validates the {@code String} input against a compiled
+     * {@link com.wishva.validator.SparkRegex}.
+     *
+     * @param regex the compiled regular expression.
+     * @return the current {@code SparkStringSchema} instance for method
+     * chaining.
+     */
+    public SparkStringSchema regex(SparkRegex regex) {
+
+        return rule(StringRule.regex(regex, null));
+    }
+
+    /**
+     * Validates the {@code String} input against a compiled
+     * {@link com.wishva.validator.SparkRegex}, with a custom error message.
+     *
+     * @param regex the compiled regular expression.
+     * @param msg the custom error message.
+     * @return the current {@code SparkStringSchema} instance for method
+     * chaining.
+     */
+    public SparkStringSchema regex(SparkRegex regex, String msg) {
+
+        return rule(StringRule.regex(regex, msg));
+    }
+
+    /**
+     * Adds a custom rule to the chain.
+     *
+     * @param rule the rule to be applied.
+     * @return the current {@code SparkStringSchema} instance for method
+     * chaining.
+     */
+    public SparkStringSchema rule(StringRule rule) {
+
+        if (rule == null) {
+            throw new IllegalArgumentException("rule cannot be null");
+        }
+        this.rules.add(rule);
+        return this;
+    }
+
+    /**
+     * Makes the compiled validator throw stackless exceptions, regardless of
+     * {@link com.wishva.validator.SparkRuleException#isStackless()}.
+     *
+     * @return the current {@code SparkStringSchema} instance for method
+     * chaining.
+     */
+    public SparkStringSchema stackless() {
+
+        this.stackless = true;
+        return this;
+    }
+
+    /**
+     * Caches the outcome of the expensive rules, such as {@code email},
+     * {@code regex} and custom rules, for inputs the compiled validator has
+     * seen before. Use it for fields whose values repeat, like country codes
+     * or user agents.
+     *
+     * @param cache the cache, only shared with validators compiled from this
+     * schema.
+     * @return the current {@code SparkStringSchema} instance for method
+     * chaining.
+     */
+    public SparkStringSchema cache(SparkRuleCache cache) {
+
+        if (cache == null) {
+            throw new IllegalArgumentException("cache cannot be null");
+        }
+        this.cache = cache;
+        return this;
+    }
+
+    /**
+     * Lets the compiled validator reorder its rules at runtime. It samples the
+     * cost and the rejection rate of every rule and runs the cheap rules that
+     * reject often first, which lowers the average cost of rejecting an input.
+     *
+     * <p>
+     * Only use it when the rules are independent of their order:
+     * {@link SparkStringValidator#validate(CharSequence)} no longer applies
+     * the rules in declaration order, so when an input fails several rules it
+     * may throw the exception of any of them, and the same input can fail
+     * with a different rule after the order is re-ranked. {@code isValid}
+     * gives the same answer in any order, and {@code failures} and
+     * {@code check} still apply every rule.
+     *
+     * @return the current {@code SparkStringSchema} instance for method
+     * chaining.
+     */
+    public SparkStringSchema adaptive() {
+
+        this.adaptive = true;
+        return this;
+    }
+
+    /**
+     * Compiles the declared rules into an immutable, thread-safe validator. A
+     * schema can have at most 64 rules.
+     *
+     * @return the compiled {@code SparkStringValidator}.
+     */
+    public SparkStringValidator compile() {
+
+        if (this.rules.size() > 64) {
+            throw new IllegalStateException("A schema cannot have more than 64 rules");
+        }
+        return new SparkStringValidator(this.displayName, this.rules.toArray(new StringRule[0]), this.stackless,
+                this.cache, this.adaptive);
+    }
+}
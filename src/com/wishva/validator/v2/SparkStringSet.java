@@ -0,0 +1,214 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+import java.util.Collection;
+
+/**
+ * An immutable set of {@code String}s for the {@code oneOf} and
+ * {@code noneOf} rules.
+ *
+ * <p>
+ * The values are packed into one {@code char[]} and indexed by an
+ * open-addressing table of {@code int}s, so a set of thousands of values takes
+ * a few arrays instead of one object per value. Lookups take any
+ * {@code CharSequence}, such as a {@code CharBuffer}, and compare it in place
+ * without creating a {@code String}.
+ *
+ * <p>
+ * Example usage:
+ * <pre>
+ * {@code
+ * private static final SparkStringSet COUNTRIES = SparkStringSet.of("LK", "IN", "US", ...);
+ *
+ * new SparkString("Country", input).required().oneOf(COUNTRIES);
+ * }
+ * </pre>
+ *
+ * @author vishv
+ */
+public final class SparkStringSet {
+
+    private final char[] chars;
+    private final int[] offsets;
+    private final int[] hashes;
+    private final int[] slots;
+    private final int mask;
+
+    private SparkStringSet(String[] values) {
+
+        // Duplicates are dropped first so that the table only holds distinct values.
+        String[] distinct = new String[values.length];
+        int count = 0;
+        int[] table = new int[tableSize(values.length)];
+        int tableMask = table.length - 1;
+        for (String value : values) {
+            if (value == null) {
+                throw new IllegalArgumentException("values cannot contain null");
+            }
+            int hash = hash(value);
+            int slot = hash & tableMask;
+            boolean seen = false;
+            while (table[slot] != 0) {
+                if (distinct[table[slot] - 1].equals(value)) {
+                    seen = true;
+                    break;
+                }
+                slot = (slot + 1) & tableMask;
+            }
+            if (!seen) {
+                distinct[count] = value;
+                table[slot] = ++count;
+            }
+        }
+
+        int total = 0;
+        for (int i = 0; i < count; i++) {
+            total += distinct[i].length();
+        }
+        this.chars = new char[total];
+        this.offsets = new int[count + 1];
+        this.hashes = new int[count];
+        for (int i = 0; i < count; i++) {
+            String value = distinct[i];
+            value.getChars(0, value.length(), this.chars, this.offsets[i]);
+            this.offsets[i + 1] = this.offsets[i] + value.length();
+            this.hashes[i] = hash(value);
+        }
+        this.slots = table;
+        this.mask = tableMask;
+    }
+
+    /**
+     * Creates a set of the given values.
+     *
+     * @param values the values of the set, without {@code null}s.
+     * @return the immutable set.
+     */
+    public static SparkStringSet of(String... values) {
+
+        if (values == null) {
+            throw new IllegalArgumentException("values cannot be null");
+        }
+        return new SparkStringSet(values);
+    }
+
+    /**
+     * Creates a set of the given values.
+     *
+     * @param values the values of the set, without {@code null}s.
+     * @return the immutable set.
+     */
+    public static SparkStringSet of(Collection<String> values) {
+
+        if (values == null) {
+            throw new IllegalArgumentException("values cannot be null");
+        }
+        return new SparkStringSet(values.toArray(new String[0]));
+    }
+
+    /**
+     * Returns whether the set holds a value with the same characters as the
+     * input.
+     *
+     * @param input the value to look up.
+     * @return {@code true} if the input is in the set.
+     */
+    public boolean contains(CharSequence input) {
+
+        int hash = hash(input);
+        int slot = hash & this.mask;
+        int entry;
+        while ((entry = this.slots[slot]) != 0) {
+            if (this.hashes[entry - 1] == hash && matches(entry - 1, input)) {
+                return true;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of distinct values in the set.
+     *
+     * @return the size of the set.
+     */
+    public int size() {
+
+        return this.hashes.length;
+    }
+
+    @Override
+    public String toString() {
+
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < size(); i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(this.chars, this.offsets[i], this.offsets[i + 1] - this.offsets[i]);
+        }
+        return builder.append(']').toString();
+    }
+
+    private boolean matches(int entry, CharSequence input) {
+
+        int from = this.offsets[entry];
+        int length = this.offsets[entry + 1] - from;
+        if (input.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (this.chars[from + i] != input.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(CharSequence input) {
+
+        // The same polynomial as String.hashCode(), so a String's cached hash is reused.
+        int h = 0;
+        if (input instanceof String) {
+            h = input.hashCode();
+        } else {
+            for (int i = 0, n = input.length(); i < n; i++) {
+                h = 31 * h + input.charAt(i);
+            }
+        }
+        // The polynomial hash clusters short keys, so its bits are mixed before masking.
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Returns a power of two at least twice the number of values, so that the
+     * table is at most half full.
+     */
+    static int tableSize(int count) {
+
+        return Math.max(2, Integer.highestOneBit(Math.max(1, count) * 2 - 1) << 1);
+    }
+}
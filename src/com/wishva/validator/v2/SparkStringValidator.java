@@ -0,0 +1,476 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+import com.wishva.validator.SparkException;
+import com.wishva.validator.SparkRuleException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A compiled, immutable chain of {@link StringRule}s.
+ *
+ * <p>
+ * Instances are created by {@link SparkStringSchema#compile()} and can be
+ * shared between threads. Validating an input that passes every rule does not
+ * allocate. A validator compiled in stackless mode does not allocate when the
+ * input fails either; it throws a shared {@link SparkRuleException} that must
+ * not be modified by the caller.
+ *
+ * <p>
+ * A validator compiled with a {@link SparkRuleCache} looks up the outcome of
+ * its expensive rules once per input instead of running them, see
+ * {@link SparkStringSchema#cache(SparkRuleCache)}.
+ *
+ * <p>
+ * Large or untrusted inputs, such as request bodies, can be validated straight
+ * from a {@link Reader} or an {@link InputStream} with
+ * {@link #check(Reader)} and {@link #validate(Reader)}. The input is read in
+ * chunks of 2048 characters and reading stops as soon as a rule fails.
+ *
+ * <p>
+ * An adaptive validator, see {@link SparkStringSchema#adaptive()}, learns
+ * which rules are cheap and reject often and runs them first in
+ * {@link #validate(CharSequence)} and {@link #isValid(CharSequence)}.
+ *
+ * @author vishv
+ */
+public final class SparkStringValidator {
+
+    private final String displayName;
+    private final StringRule[] rules;
+    private final SparkRuleException[] failures;
+    private final SparkResult valid;
+    private final SparkRuleCache cache;
+    private final long cached;
+    private final boolean bounded;
+    private final AdaptiveOrder adaptive;
+
+    private static final int CHUNK = 2048;
+
+    SparkStringValidator(String displayName, StringRule[] rules, boolean stackless, SparkRuleCache cache,
+            boolean adaptive) {
+
+        this.displayName = displayName;
+        this.rules = rules;
+        this.valid = new SparkResult(displayName, rules, 0L);
+
+        long cacheable = 0L;
+        for (int i = 0; cache != null && i < rules.length; i++) {
+            if (rules[i].cacheable()) {
+                cacheable |= 1L << i;
+            }
+        }
+        // Without an expensive rule there is nothing worth a lookup.
+        this.cached = cacheable;
+        this.cache = cacheable != 0L ? cache : null;
+        if (cache != null) {
+            cache.claim(rules);
+        }
+
+        boolean limit = false;
+        for (StringRule rule : rules) {
+            limit |= rule.boundsLength();
+        }
+        this.bounded = limit;
+        this.adaptive = adaptive && rules.length > 1 ? new AdaptiveOrder(rules.length) : null;
+
+        // Stackless failures carry no per-call state, so one instance per rule is thrown every time.
+        this.failures = stackless ? new SparkRuleException[rules.length] : null;
+        if (stackless) {
+            for (int i = 0; i < rules.length; i++) {
+                this.failures[i] = rules[i].fail(displayName, true);
+            }
+        }
+    }
+
+    /**
+     * Returns the name of the field being validated.
+     *
+     * @return the display name.
+     */
+    public String displayName() {
+
+        return this.displayName;
+    }
+
+    /**
+     * Applies the rules in declaration order and stops at the first failure.
+     *
+     * <p>
+     * With {@link SparkStringSchema#adaptive()} the rules run in the order
+     * learnt at runtime instead, so when an input fails several rules, the
+     * exception of any of them may be thrown, and it can change as the order
+     * is re-ranked.
+     *
+     * @param <T> the type of the input, e.g. {@code String} or
+     * {@code CharBuffer}.
+     * @param input the input to be validated in place.
+     * @return the validated input.
+     * @throws SparkException if the input fails a rule.
+     */
+    public <T extends CharSequence> T validate(T input) throws SparkException {
+
+        if (this.adaptive != null || this.cache != null) {
+            int i = firstFailure(input);
+            if (i >= 0) {
+                throw this.failures != null ? this.failures[i] : this.rules[i].fail(this.displayName);
+            }
+            return input;
+        }
+        for (int i = 0; i < this.rules.length; i++) {
+            if (!test(this.rules[i], input)) {
+                throw this.failures != null ? this.failures[i] : this.rules[i].fail(this.displayName);
+            }
+        }
+        return input;
+    }
+
+    /**
+     * Tests the input against every rule without throwing. With
+     * {@link SparkStringSchema#adaptive()} the rules run in the learnt order;
+     * the outcome does not depend on it.
+     *
+     * @param input the input to be tested.
+     * @return {@code true} if the input passes every rule.
+     */
+    public boolean isValid(CharSequence input) {
+
+        if (this.adaptive != null || this.cache != null) {
+            return firstFailure(input) < 0;
+        }
+        for (StringRule rule : this.rules) {
+            if (!test(rule, input)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Applies every rule and records each failure, without throwing.
+     *
+     * @param input the input to be tested.
+     * @return the bitset of the failed rules, bit {@code i} for the
+     * {@code i}-th declared rule; {@code 0} if the input is valid.
+     */
+    public long failures(CharSequence input) {
+
+        long failed = 0L;
+        long cached = 0L;
+        if (this.cache != null && SparkRuleCache.accepts(input)) {
+            failed = this.cache.failures((String) input, this);
+            cached = this.cached;
+        }
+        for (int i = 0; i < this.rules.length; i++) {
+            if ((cached & (1L << i)) == 0L && !test(this.rules[i], input)) {
+                failed |= 1L << i;
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Applies every rule and returns a result, without throwing. A valid input
+     * returns a shared result and does not allocate.
+     *
+     * @param input the input to be tested.
+     * @return the {@code SparkResult} of the input.
+     */
+    public SparkResult check(CharSequence input) {
+
+        return result(failures(input));
+    }
+
+    /**
+     * Returns the index of the first failed rule, or {@code -1}, evaluating
+     * the rules in the learnt order of an adaptive validator. The cached rules
+     * are only looked up once a cheap rule before them has passed.
+     */
+    private int firstFailure(CharSequence input) {
+
+        int[] order = null;
+        if (this.adaptive != null) {
+            if (this.adaptive.sample()) {
+                return measure(input);
+            }
+            order = this.adaptive.order();
+        }
+
+        boolean lookup = this.cache != null && SparkRuleCache.accepts(input);
+        long failed = 0L;
+        boolean looked = false;
+        for (int k = 0; k < this.rules.length; k++) {
+            int i = order != null ? order[k] : k;
+            if (!lookup || (this.cached & (1L << i)) == 0L) {
+                if (!test(this.rules[i], input)) {
+                    return i;
+                }
+                continue;
+            }
+            if (!looked) {
+                failed = this.cache.failures((String) input, this);
+                looked = true;
+            }
+            if ((failed & (1L << i)) != 0L) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Runs and times every rule for the {@link AdaptiveOrder}, then returns
+     * the first failed rule in the current order.
+     */
+    private int measure(CharSequence input) {
+
+        long failed = 0L;
+        for (int i = 0; i < this.rules.length; i++) {
+            long start = System.nanoTime();
+            boolean passed = test(this.rules[i], input);
+            this.adaptive.record(i, System.nanoTime() - start, !passed);
+            if (!passed) {
+                failed |= 1L << i;
+            }
+        }
+        this.adaptive.endSample();
+
+        for (int i : this.adaptive.order()) {
+            if ((failed & (1L << i)) != 0L) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Runs the cacheable rules, called by the {@link SparkRuleCache} on a
+     * miss.
+     */
+    long cachedFailures(CharSequence input) {
+
+        long failed = 0L;
+        for (int i = 0; i < this.rules.length; i++) {
+            if ((this.cached & (1L << i)) != 0L && !test(this.rules[i], input)) {
+                failed |= 1L << i;
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Reads the input in chunks and applies the rules as it arrives, without
+     * throwing. Length, {@code required}, character-class and linear
+     * {@code safeRegex} rules are updated with every chunk; the other rules
+     * are applied once the input is read. Reading stops as soon as a rule
+     * fails, e.g. once the input is longer than {@code maxLength}, so the
+     * result only holds the rules that failed until then. The reader is not
+     * closed.
+     *
+     * @param reader the input to be read.
+     * @return the {@code SparkResult} of the input.
+     * @throws IOException if the input cannot be read.
+     * @throws IllegalStateException if the validator has no {@code maxLength}
+     * rule to bound the input.
+     */
+    public SparkResult check(Reader reader) throws IOException {
+
+        return result(stream(reader, null));
+    }
+
+    /**
+     * Reads UTF-8 encoded bytes in chunks and applies the rules as they
+     * arrive, see {@link #check(Reader)}. The stream is not closed.
+     *
+     * @param in the input to be read.
+     * @return the {@code SparkResult} of the input.
+     * @throws IOException if the input cannot be read.
+     * @throws IllegalStateException if the validator has no {@code maxLength}
+     * rule to bound the input.
+     */
+    public SparkResult check(InputStream in) throws IOException {
+
+        return check(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads the input in chunks, applies the rules as it arrives and returns
+     * the validated text. Reading stops at the first failed rule, see
+     * {@link #check(Reader)}. The reader is not closed.
+     *
+     * @param reader the input to be read.
+     * @return the validated input.
+     * @throws SparkException if the input fails a rule.
+     * @throws IOException if the input cannot be read.
+     * @throws IllegalStateException if the validator has no {@code maxLength}
+     * rule to bound the input.
+     */
+    public String validate(Reader reader) throws SparkException, IOException {
+
+        CharSlice text = new CharSlice();
+        try {
+            long failed = stream(reader, text);
+            if (failed != 0L) {
+                int i = Long.numberOfTrailingZeros(failed);
+                throw this.failures != null ? this.failures[i] : this.rules[i].fail(this.displayName);
+            }
+            return text.toString();
+        } finally {
+            text.wipe();
+        }
+    }
+
+    /**
+     * Reads UTF-8 encoded bytes in chunks, applies the rules as they arrive
+     * and returns the validated text, see {@link #validate(Reader)}. The
+     * stream is not closed.
+     *
+     * @param in the input to be read.
+     * @return the validated input.
+     * @throws SparkException if the input fails a rule.
+     * @throws IOException if the input cannot be read.
+     * @throws IllegalStateException if the validator has no {@code maxLength}
+     * rule to bound the input.
+     */
+    public String validate(InputStream in) throws SparkException, IOException {
+
+        return validate(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads the input and returns the bitset of the failed rules. The text is
+     * kept in {@code text} if it is given or if a rule needs the whole input.
+     * The buffers of this method are wiped before it returns; {@code text} is
+     * left to the caller.
+     */
+    private long stream(Reader reader, CharSlice text) throws IOException {
+
+        if (!this.bounded) {
+            throw new IllegalStateException("A maxLength rule not counted in GRAPHEMES is needed to validate a stream");
+        }
+
+        StringRule.Chunked[] chunked = new StringRule.Chunked[this.rules.length];
+        CharSlice whole = text;
+        for (int i = 0; i < this.rules.length; i++) {
+            chunked[i] = this.rules[i].chunked();
+            if (chunked[i] == null && whole == null) {
+                whole = new CharSlice();
+            }
+        }
+
+        char[] chunk = new char[CHUNK];
+        try {
+            int read;
+            while ((read = reader.read(chunk, 0, CHUNK)) >= 0) {
+                for (int i = 0; i < chunked.length; i++) {
+                    if (chunked[i] != null && !chunked[i].feed(chunk, 0, read)) {
+                        return 1L << i;
+                    }
+                }
+                if (whole != null) {
+                    whole.append(chunk, 0, read);
+                }
+            }
+
+            long failed = 0L;
+            for (int i = 0; i < this.rules.length; i++) {
+                boolean passed = chunked[i] != null ? chunked[i].finish() : test(this.rules[i], whole);
+                if (!passed) {
+                    failed |= 1L << i;
+                }
+            }
+            return failed;
+        } finally {
+            Arrays.fill(chunk, '\0');
+            if (whole != null && whole != text) {
+                whole.wipe();
+            }
+        }
+    }
+
+    SparkRule[] rules() {
+
+        return this.rules;
+    }
+
+    SparkResult result(long failed) {
+
+        return failed == 0L ? this.valid : new SparkResult(this.displayName, this.rules, failed);
+    }
+
+    /**
+     * Validates a whole column of inputs without throwing.
+     *
+     * @param column the inputs to be validated.
+     * @return the {@code SparkBatchResult} of the column.
+     */
+    public SparkBatchResult validateAll(CharSequence[] column) {
+
+        SparkBatchResult result = newBatchResult(column.length);
+        validateRange(column, 0, column.length, result);
+        return result;
+    }
+
+    SparkBatchResult newBatchResult(int size) {
+
+        return new SparkBatchResult(this.displayName, this.rules, size);
+    }
+
+    /**
+     * Validates the rows {@code [from, to)} into {@code result}. Each rule runs
+     * over the whole range before the next one, which keeps the inner loop
+     * free of calls to other rules.
+     */
+    void validateRange(CharSequence[] column, int from, int to, SparkBatchResult result) {
+
+        long[] failed = result.failures;
+        boolean measured = SparkMetrics.enabled;
+        for (int r = 0; r < this.rules.length; r++) {
+            StringRule rule = this.rules[r];
+            long bit = 1L << r;
+            long start = measured ? System.nanoTime() : 0L;
+            int rejected = 0;
+            for (int i = from; i < to; i++) {
+                if (!rule.test(column[i])) {
+                    failed[i] |= bit;
+                    rejected++;
+                }
+            }
+            if (measured) {
+                SparkMetrics.recordBatch(rule, this.displayName, to - from - rejected, rejected, System.nanoTime() - start);
+            }
+        }
+        result.mark(from, to);
+    }
+
+    private boolean test(StringRule rule, CharSequence input) {
+
+        return SparkMetrics.enabled ? SparkMetrics.test(rule, this.displayName, input) : rule.test(input);
+    }
+}
@@ -0,0 +1,558 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+import com.wishva.validator.SparkEmail;
+import com.wishva.validator.SparkMessages;
+import com.wishva.validator.SparkNumbers;
+import com.wishva.validator.SparkPatternCache;
+import com.wishva.validator.SparkRegex;
+import java.nio.CharBuffer;
+import java.util.regex.Pattern;
+
+/**
+ * An immutable check applied to a {@code String} input.
+ *
+ * <p>
+ * Rules are created once by {@link SparkStringSchema} and shared by every call
+ * of the compiled {@link SparkStringValidator}, so a rule must never keep state
+ * about the input it is testing. A {@code null} input only fails the
+ * {@code required} rule; every other rule accepts it.
+ *
+ * @author vishv
+ */
+public abstract class StringRule extends SparkRule {
+
+    static final StringRule REQUIRED = required(null);
+    static final StringRule EMAIL = email(null);
+    static final StringRule INTEGER = integer(null);
+    static final StringRule DECIMAL = decimal(null);
+
+    /**
+     * Constructs a new rule.
+     *
+     * @param code the stable identifier of the rule, e.g. {@code "minLength"}.
+     * @param template the message template used when the
+     * {@link SparkMessages} bundle has none for the code, see
+     * {@link SparkMessages#format(String, String, Object...)}.
+     * @param message the custom error message, or {@code null} to use the
+     * template.
+     * @param args the arguments of the rule used by the template.
+     */
+    protected StringRule(String code, String template, String message, Object... args) {
+
+        super(code, template, message, args);
+    }
+
+    /**
+     * Tests the input against the rule.
+     *
+     * @param input the input to be tested, may be {@code null}.
+     * @return {@code true} if the input passes the rule.
+     */
+    public abstract boolean test(CharSequence input);
+
+    /**
+     * Returns whether the outcome of the rule is worth keeping in a
+     * {@link SparkRuleCache}. The built-in length, equality and number checks
+     * are cheaper than a cache lookup.
+     */
+    boolean cacheable() {
+
+        switch (code()) {
+            case "required":
+            case "equals":
+            case "minLength":
+            case "maxLength":
+            case "number":
+            case "ascii":
+            case "digits":
+            case "alphanumeric":
+            case "noControlChars":
+            case "oneOf":
+            case "noneOf":
+                return false;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Starts checking an input that is read in chunks, see
+     * {@link SparkStringValidator#check(java.io.Reader)}.
+     *
+     * @return the state of the check for one input, or {@code null} if the
+     * rule needs the whole input.
+     */
+    Chunked chunked() {
+
+        return null;
+    }
+
+    /**
+     * The state of a rule checked on an input that is read in chunks.
+     */
+    interface Chunked {
+
+        /**
+         * Reads the next characters of the input.
+         *
+         * @return {@code false} if the input already fails the rule, whatever
+         * follows.
+         */
+        boolean feed(char[] chunk, int from, int to);
+
+        /**
+         * Returns whether the whole input read so far passes the rule.
+         */
+        boolean finish();
+    }
+
+    /**
+     * Returns whether the rule rejects every input longer than some number
+     * of characters, which bounds the memory needed to read a stream.
+     */
+    boolean boundsLength() {
+
+        return false;
+    }
+
+    /**
+     * Counts the length of an input read in chunks for the
+     * {@code minLength} and {@code maxLength} rules.
+     */
+    private static final class LengthCounter implements Chunked {
+
+        private final SparkLength.Counter counter;
+        private final int limit;
+        private final boolean max;
+
+        LengthCounter(SparkLength mode, int limit, boolean max) {
+
+            this.counter = mode.counter();
+            this.limit = limit;
+            this.max = max;
+        }
+
+        @Override
+        public boolean feed(char[] chunk, int from, int to) {
+
+            this.counter.add(chunk, from, to);
+            return !this.max || this.counter.count <= this.limit;
+        }
+
+        @Override
+        public boolean finish() {
+
+            long count = this.counter.finish();
+            return this.max ? count <= this.limit : count >= this.limit;
+        }
+    }
+
+    static boolean isBlank(CharSequence input) {
+
+        for (int i = 0, n = input.length(); i < n; i++) {
+            char c = input.charAt(i);
+            if (c > ' ' && !Character.isWhitespace(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Built-in rules
+    static StringRule required(String msg) {
+
+        return new StringRule("required", "{0} cannot be empty!", msg) {
+            @Override
+            public boolean test(CharSequence input) {
+                return input != null && !isBlank(input);
+            }
+
+            @Override
+            Chunked chunked() {
+                return new Chunked() {
+                    private boolean blank = true;
+
+                    @Override
+                    public boolean feed(char[] chunk, int from, int to) {
+                        if (this.blank) {
+                            this.blank = isBlank(CharBuffer.wrap(chunk, from, to - from));
+                        }
+                        return true;
+                    }
+
+                    @Override
+                    public boolean finish() {
+                        return !this.blank;
+                    }
+                };
+            }
+        };
+    }
+
+    static StringRule email(String msg) {
+
+        return new StringRule("email", "Invalid Email!", msg) {
+            @Override
+            public boolean test(CharSequence input) {
+                return input == null || SparkEmail.isValid(input);
+            }
+        };
+    }
+
+    static StringRule equalTo(final String otherString, String msg) {
+
+        return new StringRule("equals", "{0} does not match!", msg) {
+            @Override
+            public boolean test(CharSequence input) {
+                return input == null || otherString != null && otherString.contentEquals(input);
+            }
+        };
+    }
+
+    static StringRule minLength(int length, String msg) {
+
+        return minLength(length, SparkLength.UTF16, msg);
+    }
+
+    static StringRule minLength(final int length, final SparkLength mode, String msg) {
+
+        if (mode == null) {
+            throw new IllegalArgumentException("mode cannot be null");
+        }
+        return new StringRule("minLength", "{0} must include more than {1} characters!", msg, length) {
+            @Override
+            public boolean test(CharSequence input) {
+                return input == null || (mode == SparkLength.UTF16 ? input.length() >= length : mode.atLeast(input, length));
+            }
+
+            @Override
+            Chunked chunked() {
+                return new LengthCounter(mode, length, false);
+            }
+        };
+    }
+
+    static StringRule maxLength(int length, String msg) {
+
+        return maxLength(length, SparkLength.UTF16, msg);
+    }
+
+    static StringRule maxLength(final int length, final SparkLength mode, String msg) {
+
+        if (mode == null) {
+            throw new IllegalArgumentException("mode cannot be null");
+        }
+        return new StringRule("maxLength", "{0} must include less than {1} characters!", msg, length) {
+            @Override
+            public boolean test(CharSequence input) {
+                return input == null || (mode == SparkLength.UTF16 ? input.length() <= length : mode.atMost(input, length));
+            }
+
+            @Override
+            Chunked chunked() {
+                return new LengthCounter(mode, length, true);
+            }
+
+            @Override
+            boolean boundsLength() {
+                // A single grapheme cluster can hold any number of characters.
+                return mode != SparkLength.GRAPHEMES;
+            }
+        };
+    }
+
+    static StringRule integer(String msg) {
+
+        return new StringRule("number", "{0} must be a number!", msg) {
+            @Override
+            public boolean test(CharSequence input) {
+                return input == null || SparkNumbers.status(SparkNumbers.parseInt(input)) == SparkNumbers.OK;
+            }
+        };
+    }
+
+    static StringRule decimal(String msg) {
+
+        return new StringRule("number", "{0} must be a number!", msg) {
+            @Override
+            public boolean test(CharSequence input) {
+                return input == null || !Double.isNaN(SparkNumbers.parseDouble(input, 0, input.length()));
+            }
+        };
+    }
+
+    static StringRule charClass(String code, final CharClass chars, String template, String msg) {
+
+        return new StringRule(code, template, msg) {
+            @Override
+            public boolean test(CharSequence input) {
+                return input == null || chars.matches(input);
+            }
+
+            @Override
+            Chunked chunked() {
+                return new Chunked() {
+                    private boolean passed = true;
+
+                    @Override
+                    public boolean feed(char[] chunk, int from, int to) {
+                        return this.passed = this.passed && chars.matches(chunk, from, to);
+                    }
+
+                    @Override
+                    public boolean finish() {
+                        return this.passed;
+                    }
+                };
+            }
+        };
+    }
+
+    static StringRule ascii(String msg) {
+
+        return charClass("ascii", CharClass.ASCII, "{0} must contain only ASCII characters!", msg);
+    }
+
+    static StringRule digits(String msg) {
+
+        return charClass("digits", CharClass.DIGITS, "{0} must contain only digits!", msg);
+    }
+
+    static StringRule alphanumeric(String msg) {
+
+        return charClass("alphanumeric", CharClass.ALPHANUMERIC, "{0} must contain only letters and digits!", msg);
+    }
+
+    static StringRule noControlChars(String msg) {
+
+        return charClass("noControlChars", CharClass.NO_CONTROL, "{0} cannot contain control characters!", msg);
+    }
+
+    static StringRule oneOf(final SparkStringSet values, String msg) {
+
+        if (values == null) {
+            throw new IllegalArgumentException("values cannot be null");
+        }
+        return new StringRule("oneOf", "{0} is not an allowed value!", msg) {
+            @Override
+            public boolean test(CharSequence input) {
+                return input == null || values.contains(input);
+            }
+        };
+    }
+
+    static StringRule noneOf(final SparkStringSet values, String msg) {
+
+        if (values == null) {
+            throw new IllegalArgumentException("values cannot be null");
+        }
+        return new StringRule("noneOf", "{0} is a reserved value!", msg) {
+            @Override
+            public boolean test(CharSequence input) {
+                return input == null || !values.contains(input);
+            }
+        };
+    }
+
+    static StringRule containsNone(final SparkDictionary words, String msg) {
+
+        if (words == null) {
+            throw new IllegalArgumentException("words cannot be null");
+        }
+        return new StringRule("containsNone", "{0} contains a blocked word!", msg) {
+            @Override
+            public boolean test(CharSequence input) {
+                return input == null || !words.containsAny(input);
+            }
+
+            @Override
+            Chunked chunked() {
+                return new DictionaryScan(words) {
+                    @Override
+                    public boolean feed(char[] chunk, int from, int to) {
+                        return !scan(chunk, from, to);
+                    }
+
+                    @Override
+                    public boolean finish() {
+                        return !this.found;
+                    }
+                };
+            }
+        };
+    }
+
+    static StringRule containsAny(final SparkDictionary words, String msg) {
+
+        if (words == null) {
+            throw new IllegalArgumentException("words cannot be null");
+        }
+        return new StringRule("containsAny", "{0} must contain one of the required words!", msg) {
+            @Override
+            public boolean test(CharSequence input) {
+                return input == null || words.containsAny(input);
+            }
+
+            @Override
+            Chunked chunked() {
+                return new DictionaryScan(words) {
+                    @Override
+                    public boolean feed(char[] chunk, int from, int to) {
+                        scan(chunk, from, to);
+                        return true;
+                    }
+
+                    @Override
+                    public boolean finish() {
+                        return this.found;
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Runs a {@link SparkDictionary} over an input read in chunks.
+     */
+    private abstract static class DictionaryScan implements Chunked {
+
+        private final SparkDictionary words;
+        private int state;
+        boolean found;
+
+        DictionaryScan(SparkDictionary words) {
+
+            this.words = words;
+            this.found = words.matched(0);
+        }
+
+        /**
+         * Reads a chunk and returns whether a word has been found so far.
+         */
+        boolean scan(char[] chunk, int from, int to) {
+
+            for (int i = from; i < to && !this.found; i++) {
+                this.state = this.words.next(this.state, chunk[i]);
+                this.found = this.words.matched(this.state);
+            }
+            return this.found;
+        }
+    }
+
+    static StringRule regex(String pattern, String msg) {
+
+        return regex(SparkPatternCache.shared().get(pattern), msg);
+    }
+
+    static StringRule safeRegex(String pattern, String msg) {
+
+        return regex(SparkPatternCache.shared().regex(pattern), msg);
+    }
+
+    static StringRule regex(SparkRegex regex, String msg) {
+
+        return new RegexRule("regex", regex, "Invalid {0} !", msg);
+    }
+
+    static StringRule regex(Pattern pattern, String msg) {
+
+        return new PatternRule("regex", pattern, "Invalid {0} !", msg);
+    }
+
+    /**
+     * Matches the whole input against a pattern compiled when the rule was
+     * created.
+     */
+    static class PatternRule extends StringRule {
+
+        private final Pattern pattern;
+
+        PatternRule(String code, Pattern pattern, String template, String msg) {
+
+            super(code, template, msg);
+            this.pattern = pattern;
+        }
+
+        @Override
+        public boolean test(CharSequence input) {
+
+            return input == null || this.pattern.matcher(input).matches();
+        }
+
+        @Override
+        String metricName() {
+
+            return code() + ":" + this.pattern.pattern();
+        }
+    }
+
+    /**
+     * Matches the whole input against a {@link SparkRegex}, in linear time
+     * when the expression allows it.
+     */
+    static class RegexRule extends StringRule {
+
+        private final SparkRegex regex;
+
+        RegexRule(String code, SparkRegex regex, String template, String msg) {
+
+            super(code, template, msg);
+            this.regex = regex;
+        }
+
+        @Override
+        public boolean test(CharSequence input) {
+
+            return input == null || this.regex.matches(input);
+        }
+
+        @Override
+        Chunked chunked() {
+
+            final SparkRegex.StreamMatcher matcher = this.regex.streamMatcher();
+            if (matcher == null) {
+                return null;
+            }
+            return new Chunked() {
+                @Override
+                public boolean feed(char[] chunk, int from, int to) {
+                    return matcher.feed(CharBuffer.wrap(chunk), from, to);
+                }
+
+                @Override
+                public boolean finish() {
+                    return matcher.matches();
+                }
+            };
+        }
+
+        @Override
+        String metricName() {
+
+            return code() + ":" + this.regex.pattern();
+        }
+    }
+}
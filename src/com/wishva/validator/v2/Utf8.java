@@ -0,0 +1,129 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Decodes UTF-8 bytes into a {@link CharSlice} without creating a
+ * {@code String}.
+ *
+ * @author vishv
+ */
+final class Utf8 {
+
+    private Utf8() {
+    }
+
+    /**
+     * Returns whether the bytes {@code [from, to)} are all ASCII, in which case
+     * every byte is one {@code char}.
+     */
+    static boolean isAscii(ByteBuffer buffer, int from, int to) {
+
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decodes the bytes {@code [from, to)} into {@code out}.
+     */
+    static void decodeAll(ByteBuffer buffer, int from, int to, CharSlice out) {
+
+        int pos = from;
+        while (pos < to) {
+            byte b = buffer.get(pos);
+            if (b >= 0) {
+                out.append((char) b);
+                pos++;
+            } else {
+                pos = decode(buffer, pos, to, out);
+            }
+        }
+    }
+
+    /**
+     * Decodes the multi-byte UTF-8 sequence at {@code pos}. Malformed
+     * sequences become {@code U+FFFD}.
+     */
+    static int decode(ByteBuffer buffer, int pos, int end, CharSlice out) {
+
+        int b = buffer.get(pos) & 0xFF;
+        int count;
+        int cp;
+        int min;
+        if (b >= 0xC2 && b <= 0xDF) {
+            count = 1;
+            cp = b & 0x1F;
+            min = 0x80;
+        } else if (b >= 0xE0 && b <= 0xEF) {
+            count = 2;
+            cp = b & 0x0F;
+            min = 0x800;
+        } else if (b >= 0xF0 && b <= 0xF4) {
+            count = 3;
+            cp = b & 0x07;
+            min = 0x10000;
+        } else {
+            return replacement(pos, out);
+        }
+
+        if (pos + count >= end) {
+            return replacement(pos, out);
+        }
+        for (int i = 1; i <= count; i++) {
+            int c = buffer.get(pos + i) & 0xFF;
+            if ((c & 0xC0) != 0x80) {
+                return replacement(pos, out);
+            }
+            cp = (cp << 6) | (c & 0x3F);
+        }
+        if (cp < min || cp > Character.MAX_CODE_POINT
+                || (cp >= Character.MIN_SURROGATE && cp <= Character.MAX_SURROGATE)) {
+            return replacement(pos, out);
+        }
+
+        if (out != null) {
+            if (cp >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                out.append(Character.highSurrogate(cp));
+                out.append(Character.lowSurrogate(cp));
+            } else {
+                out.append((char) cp);
+            }
+        }
+        return pos + count + 1;
+    }
+
+    private static int replacement(int pos, CharSlice out) {
+
+        if (out != null) {
+            out.append('\uFFFD');
+        }
+        return pos + 1;
+    }
+}
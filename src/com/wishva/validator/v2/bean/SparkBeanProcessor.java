@@ -0,0 +1,596 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2.bean;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+/**
+ * Generates a validator class at compile time for every class with fields
+ * annotated with {@link Required}, {@link Email}, {@link Length},
+ * {@link Range} or {@link Pattern}.
+ *
+ * <p>
+ * For a class {@code SignUp} the processor writes {@code SignUpSparkValidator}
+ * in the same package, with the same rules as {@link SparkBeanValidator} but
+ * without reflection: every field is compiled once into a
+ * {@code static final} validator, and read directly, or through its getter
+ * when it is private.
+ * <pre>
+ * {@code
+ * SparkForm form = SignUpSparkValidator.check(signUp);
+ * SignUpSparkValidator.validate(signUp); // throws on the first failure
+ * }
+ * </pre>
+ *
+ * <p>
+ * The generated code calls the compiled validators instead of emitting each
+ * rule as inline code. What it removes is the per-call cost of the
+ * reflective path: field lookups, method handle calls and the boxing of
+ * primitive fields. The rule checks stay in one place, so the messages,
+ * error codes, metrics and stackless settings of a generated validator are
+ * always those of {@link SparkBeanValidator}, and a fix to a rule needs no
+ * recompiling of the beans. A {@code null} bean is rejected with an
+ * {@code IllegalArgumentException}, as by {@link SparkBeanValidator}.
+ *
+ * <p>
+ * The processor is registered in {@code META-INF/services}, so it runs
+ * whenever this library is on the class path of {@code javac}.
+ *
+ * @author vishv
+ */
+public class SparkBeanProcessor extends AbstractProcessor {
+
+    private static final List<Class<?>> ANNOTATIONS = Arrays.<Class<?>>asList(
+            Required.class, Email.class, Length.class, Range.class, Pattern.class);
+
+    private static final String SUFFIX = "SparkValidator";
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+
+        Set<String> names = new HashSet<>();
+        for (Class<?> annotation : ANNOTATIONS) {
+            names.add(annotation.getCanonicalName());
+        }
+        return names;
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+
+        Set<TypeElement> types = new LinkedHashSet<>();
+        for (TypeElement annotation : annotations) {
+            for (Element element : round.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() == ElementKind.FIELD
+                        && !element.getModifiers().contains(Modifier.STATIC)
+                        && element.getEnclosingElement() instanceof TypeElement) {
+                    types.add((TypeElement) element.getEnclosingElement());
+                }
+            }
+        }
+
+        for (TypeElement type : types) {
+            try {
+                generate(type);
+            } catch (IllegalArgumentException e) {
+                error(type, e.getMessage());
+            } catch (IOException e) {
+                error(type, "Cannot write the validator of " + type.getQualifiedName() + ": " + e.getMessage());
+            }
+        }
+        return false;
+    }
+
+    private void error(Element element, String message) {
+
+        this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    // ---------------------------------------------------------------- model
+
+    private enum Kind {
+        STRING, INT, DOUBLE, REFERENCE
+    }
+
+    /**
+     * One annotated field: how to read it, and the schemas of its validators.
+     */
+    private static final class Property {
+
+        String constant;
+        String variable;
+        String access;
+        String valueType;
+        Kind kind;
+        String schema;
+        String nullCheck;
+        String numberConversion;
+    }
+
+    private void generate(TypeElement type) throws IOException {
+
+        PackageElement pkg = this.processingEnv.getElementUtils().getPackageOf(type);
+        String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+        String beanType = beanType(type);
+
+        StringBuilder simple = new StringBuilder();
+        for (Element e = type; e instanceof TypeElement; e = e.getEnclosingElement()) {
+            simple.insert(0, simple.length() == 0 ? e.getSimpleName() : e.getSimpleName() + "_");
+        }
+        String className = simple + SUFFIX;
+
+        List<TypeElement> hierarchy = new ArrayList<>();
+        for (TypeElement t = type; t != null; t = superclass(t)) {
+            hierarchy.add(0, t);
+        }
+
+        List<Property> properties = new ArrayList<>();
+        Set<String> constants = new HashSet<>();
+        Set<String> variables = new HashSet<>(Arrays.asList("bean", "form"));
+        for (TypeElement t : hierarchy) {
+            for (VariableElement field : ElementFilter.fieldsIn(t.getEnclosedElements())) {
+                if (!field.getModifiers().contains(Modifier.STATIC)) {
+                    Property property = property(type, packageName, field);
+                    if (property != null) {
+                        property.constant = constant(field.getSimpleName().toString(), constants);
+                        property.variable = unique(field.getSimpleName().toString(), variables);
+                        properties.add(property);
+                    }
+                }
+            }
+        }
+
+        String qualified = packageName.isEmpty() ? className : packageName + "." + className;
+        try (Writer out = this.processingEnv.getFiler().createSourceFile(qualified, type).openWriter()) {
+            out.write(source(packageName, className, beanType, type.getQualifiedName().toString(), properties));
+        }
+    }
+
+    private TypeElement superclass(TypeElement type) {
+
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement element = (TypeElement) ((DeclaredType) superclass).asElement();
+        return element.getQualifiedName().contentEquals("java.lang.Object") ? null : element;
+    }
+
+    private static String beanType(TypeElement type) {
+
+        String name = type.getQualifiedName().toString();
+        if (type.getTypeParameters().isEmpty()) {
+            return name;
+        }
+        StringBuilder sb = new StringBuilder(name).append('<');
+        for (int i = 0; i < type.getTypeParameters().size(); i++) {
+            sb.append(i == 0 ? "?" : ", ?");
+        }
+        return sb.append('>').toString();
+    }
+
+    private Property property(TypeElement bean, String packageName, VariableElement field) {
+
+        Required required = field.getAnnotation(Required.class);
+        Email email = field.getAnnotation(Email.class);
+        Length length = field.getAnnotation(Length.class);
+        Pattern pattern = field.getAnnotation(Pattern.class);
+        Range range = field.getAnnotation(Range.class);
+        if (required == null && email == null && length == null && pattern == null && range == null) {
+            return null;
+        }
+
+        DisplayName displayName = field.getAnnotation(DisplayName.class);
+        String name = literal(displayName != null ? displayName.value() : field.getSimpleName().toString());
+        TypeMirror type = field.asType();
+
+        Property property = new Property();
+        property.access = access(bean, packageName, field);
+
+        TypeMirror charSequence = this.processingEnv.getElementUtils()
+                .getTypeElement("java.lang.CharSequence").asType();
+        if (this.processingEnv.getTypeUtils().isAssignable(type, charSequence)) {
+            unsupported(field, range, "@Range");
+            StringBuilder schema = new StringBuilder("new SparkStringSchema(").append(name).append(')');
+            if (required != null) {
+                schema.append(".required(").append(message(required.message())).append(')');
+            }
+            if (length != null) {
+                if (length.min() > 0) {
+                    schema.append(".minLength(").append(length.min()).append(", ")
+                            .append(message(length.message())).append(')');
+                }
+                if (length.max() < Integer.MAX_VALUE) {
+                    schema.append(".maxLength(").append(length.max()).append(", ")
+                            .append(message(length.message())).append(')');
+                }
+            }
+            if (email != null) {
+                schema.append(".email(").append(message(email.message())).append(')');
+            }
+            if (pattern != null) {
+                schema.append(pattern.safe() ? ".safeRegex(" : ".regex(").append(literal(pattern.value()))
+                        .append(", ").append(message(pattern.message())).append(')');
+            }
+            property.kind = Kind.STRING;
+            property.valueType = "CharSequence";
+            property.schema = schema.append(".compile()").toString();
+            return property;
+        }
+
+        unsupported(field, email, "@Email");
+        unsupported(field, length, "@Length");
+        unsupported(field, pattern, "@Pattern");
+
+        TypeKind kind = type.getKind();
+        String boxed = kind == TypeKind.DECLARED
+                ? ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString()
+                : "";
+        boolean integral = kind == TypeKind.INT || kind == TypeKind.SHORT || kind == TypeKind.BYTE
+                || boxed.equals("java.lang.Integer") || boxed.equals("java.lang.Short")
+                || boxed.equals("java.lang.Byte");
+        boolean decimal = kind == TypeKind.DOUBLE || kind == TypeKind.FLOAT
+                || boxed.equals("java.lang.Double") || boxed.equals("java.lang.Float");
+        unsupported(field, integral || decimal ? null : range, "@Range");
+
+        if (kind.isPrimitive()) {
+            if (integral) {
+                property.kind = Kind.INT;
+                property.valueType = "int";
+                property.schema = ints(name, range);
+                return property;
+            }
+            if (decimal) {
+                property.kind = Kind.DOUBLE;
+                property.valueType = "double";
+                property.schema = doubles(name, range);
+                return property;
+            }
+            // @Required alone on any other primitive always passes.
+            return null;
+        }
+
+        property.kind = Kind.REFERENCE;
+        property.valueType = "Object";
+        if (required != null) {
+            property.nullCheck = "new SparkStringSchema(" + name + ").required("
+                    + message(required.message()) + ").compile()";
+        }
+        if (integral) {
+            property.valueType = "Number";
+            property.schema = ints(name, range);
+            property.numberConversion = "intValue()";
+        } else if (decimal) {
+            property.valueType = "Number";
+            property.schema = doubles(name, range);
+            property.numberConversion = "doubleValue()";
+        }
+        if (property.nullCheck == null && property.schema == null) {
+            return null;
+        }
+        return property;
+    }
+
+    private static String ints(String name, Range range) {
+
+        StringBuilder schema = new StringBuilder("new SparkIntSchema(").append(name).append(')');
+        if (range != null) {
+            if (range.min() > Integer.MIN_VALUE) {
+                schema.append(".min(").append((int) Math.min(Math.ceil(range.min()), Integer.MAX_VALUE))
+                        .append(", ").append(message(range.message())).append(')');
+            }
+            if (range.max() < Integer.MAX_VALUE) {
+                schema.append(".max(").append((int) Math.max(Math.floor(range.max()), Integer.MIN_VALUE))
+                        .append(", ").append(message(range.message())).append(')');
+            }
+        }
+        return schema.append(".compile()").toString();
+    }
+
+    private static String doubles(String name, Range range) {
+
+        StringBuilder schema = new StringBuilder("new SparkDoubleSchema(").append(name).append(')');
+        if (range != null) {
+            if (range.min() != Double.NEGATIVE_INFINITY) {
+                schema.append(".min(").append(range.min()).append(", ")
+                        .append(message(range.message())).append(')');
+            }
+            if (range.max() != Double.POSITIVE_INFINITY) {
+                schema.append(".max(").append(range.max()).append(", ")
+                        .append(message(range.message())).append(')');
+            }
+        }
+        return schema.append(".compile()").toString();
+    }
+
+    /**
+     * Returns the expression reading the field from {@code bean}: the field
+     * itself when the generated class can see it, its getter otherwise.
+     */
+    private String access(TypeElement bean, String packageName, VariableElement field) {
+
+        if (visible(field, packageName)) {
+            return "bean." + field.getSimpleName();
+        }
+
+        String name = field.getSimpleName().toString();
+        String capitalized = name.substring(0, 1).toUpperCase(Locale.ROOT) + name.substring(1);
+        TypeElement owner = (TypeElement) field.getEnclosingElement();
+        for (ExecutableElement method : ElementFilter.methodsIn(owner.getEnclosedElements())) {
+            String methodName = method.getSimpleName().toString();
+            if (method.getParameters().isEmpty() && !method.getModifiers().contains(Modifier.STATIC)
+                    && visible(method, packageName)
+                    && this.processingEnv.getTypeUtils().isSameType(method.getReturnType(), field.asType())
+                    && (methodName.equals("get" + capitalized) || methodName.equals("is" + capitalized))) {
+                return "bean." + methodName + "()";
+            }
+        }
+        throw new IllegalArgumentException(owner.getQualifiedName() + "." + name
+                + " is not visible to " + bean.getSimpleName() + SUFFIX + " and has no getter");
+    }
+
+    private boolean visible(Element member, String packageName) {
+
+        Set<Modifier> modifiers = member.getModifiers();
+        if (modifiers.contains(Modifier.PRIVATE)) {
+            return false;
+        }
+        if (modifiers.contains(Modifier.PUBLIC)) {
+            return true;
+        }
+        PackageElement pkg = this.processingEnv.getElementUtils().getPackageOf(member);
+        return pkg.getQualifiedName().contentEquals(packageName);
+    }
+
+    private static void unsupported(VariableElement field, Object annotation, String name) {
+
+        if (annotation != null) {
+            throw new IllegalArgumentException(name + " is not supported on "
+                    + field.getEnclosingElement().getSimpleName() + "." + field.getSimpleName()
+                    + " of type " + field.asType());
+        }
+    }
+
+    private static String constant(String field, Set<String> used) {
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (Character.isUpperCase(c) && i > 0 && !Character.isUpperCase(field.charAt(i - 1))) {
+                sb.append('_');
+            }
+            sb.append(Character.toUpperCase(c));
+        }
+        return unique(sb.toString(), used);
+    }
+
+    private static String unique(String name, Set<String> used) {
+
+        String unique = name;
+        for (int i = 2; !used.add(unique); i++) {
+            unique = name + "_" + i;
+        }
+        return unique;
+    }
+
+    private static String message(String message) {
+
+        return message.isEmpty() ? "null" : literal(message);
+    }
+
+    private static String literal(String value) {
+
+        StringBuilder sb = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < ' ' || c > '~') {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    // ---------------------------------------------------------------- source
+
+    private static String source(String packageName, String className, String beanType, String beanName,
+            List<Property> properties) {
+
+        StringBuilder src = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            src.append("package ").append(packageName).append(";\n\n");
+        }
+        src.append("import com.wishva.validator.SparkException;\n");
+        src.append("import com.wishva.validator.v2.SparkDoubleSchema;\n");
+        src.append("import com.wishva.validator.v2.SparkDoubleValidator;\n");
+        src.append("import com.wishva.validator.v2.SparkForm;\n");
+        src.append("import com.wishva.validator.v2.SparkIntSchema;\n");
+        src.append("import com.wishva.validator.v2.SparkIntValidator;\n");
+        src.append("import com.wishva.validator.v2.SparkStringSchema;\n");
+        src.append("import com.wishva.validator.v2.SparkStringValidator;\n\n");
+        src.append("/**\n * Validates {@link ").append(beanName.replace('$', '.')).append("}.\n");
+        src.append(" * Generated by {@code ").append(SparkBeanProcessor.class.getName()).append("}; do not edit.\n */\n");
+        src.append("public final class ").append(className).append(" {\n\n");
+
+        for (Property p : properties) {
+            if (p.schema != null) {
+                src.append("    private static final ").append(validatorType(p)).append(' ').append(p.constant)
+                        .append(" = ").append(p.schema).append(";\n");
+            }
+            if (p.nullCheck != null) {
+                src.append("    private static final SparkStringValidator ").append(p.constant)
+                        .append("_REQUIRED = ").append(p.nullCheck).append(";\n");
+            }
+        }
+
+        src.append("\n    private ").append(className).append("() {\n    }\n\n");
+
+        src.append("    private static void requireBean(Object bean) {\n\n");
+        src.append("        if (bean == null) {\n");
+        src.append("            throw new IllegalArgumentException(\"bean cannot be null\");\n");
+        src.append("        }\n    }\n\n");
+
+        src.append("    public static <T extends ").append(beanType).append("> T validate(T bean) throws SparkException {\n\n");
+        src.append("        requireBean(bean);\n");
+        for (Property p : properties) {
+            read(src, p);
+            if (p.kind != Kind.REFERENCE) {
+                src.append("        ").append(p.constant).append(".validate(").append(var(p)).append(");\n");
+            } else {
+                if (p.nullCheck != null) {
+                    src.append("        if (").append(var(p)).append(" == null) {\n");
+                    src.append("            ").append(p.constant).append("_REQUIRED.validate((CharSequence) null);\n");
+                    src.append("        }\n");
+                }
+                if (p.schema != null) {
+                    src.append("        if (").append(var(p)).append(" != null) {\n");
+                    src.append("            ").append(p.constant).append(".validate(").append(number(p)).append(");\n");
+                    src.append("        }\n");
+                }
+            }
+        }
+        src.append("        return bean;\n    }\n\n");
+
+        src.append("    public static boolean isValid(").append(beanType).append(" bean) {\n\n");
+        src.append("        requireBean(bean);\n");
+        for (Property p : properties) {
+            read(src, p);
+            if (p.kind != Kind.REFERENCE) {
+                src.append("        if (!").append(p.constant).append(".isValid(").append(var(p)).append(")) {\n");
+                src.append("            return false;\n        }\n");
+            } else {
+                if (p.nullCheck != null) {
+                    src.append("        if (").append(var(p)).append(" == null) {\n");
+                    src.append("            return false;\n        }\n");
+                }
+                if (p.schema != null) {
+                    src.append("        if (").append(var(p)).append(" != null && !").append(p.constant)
+                            .append(".isValid(").append(number(p)).append(")) {\n");
+                    src.append("            return false;\n        }\n");
+                }
+            }
+        }
+        src.append("        return true;\n    }\n\n");
+
+        src.append("    public static SparkForm check(").append(beanType).append(" bean) {\n\n");
+        src.append("        return check(bean, new SparkForm());\n    }\n\n");
+
+        src.append("    public static SparkForm check(").append(beanType).append(" bean, SparkForm form) {\n\n");
+        src.append("        requireBean(bean);\n");
+        for (Property p : properties) {
+            read(src, p);
+            if (p.kind != Kind.REFERENCE) {
+                src.append("        form.check(").append(p.constant).append(", ").append(var(p)).append(");\n");
+            } else {
+                if (p.nullCheck != null) {
+                    src.append("        if (").append(var(p)).append(" == null) {\n");
+                    src.append("            form.check(").append(p.constant).append("_REQUIRED, null);\n");
+                    src.append("        }\n");
+                }
+                if (p.schema != null) {
+                    src.append("        if (").append(var(p)).append(" != null) {\n");
+                    src.append("            form.check(").append(p.constant).append(", ").append(number(p)).append(");\n");
+                    src.append("        }\n");
+                }
+            }
+        }
+        src.append("        return form;\n    }\n}\n");
+        return src.toString();
+    }
+
+    private static String validatorType(Property p) {
+
+        if (p.kind == Kind.STRING) {
+            return "SparkStringValidator";
+        }
+        if (p.kind == Kind.INT || "intValue()".equals(p.numberConversion)) {
+            return "SparkIntValidator";
+        }
+        return "SparkDoubleValidator";
+    }
+
+    private static void read(StringBuilder src, Property p) {
+
+        src.append("        ").append(p.valueType).append(' ').append(var(p)).append(" = ")
+                .append(p.access).append(";\n");
+    }
+
+    private static String var(Property p) {
+
+        return p.variable;
+    }
+
+    private static String number(Property p) {
+
+        return var(p) + "." + p.numberConversion;
+    }
+}
@@ -0,0 +1,546 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2.bean;
+
+import com.wishva.validator.SparkException;
+import com.wishva.validator.v2.SparkDoubleSchema;
+import com.wishva.validator.v2.SparkDoubleValidator;
+import com.wishva.validator.v2.SparkForm;
+import com.wishva.validator.v2.SparkIntSchema;
+import com.wishva.validator.v2.SparkIntValidator;
+import com.wishva.validator.v2.SparkStringSchema;
+import com.wishva.validator.v2.SparkStringValidator;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Validates objects whose fields are annotated with {@link Required},
+ * {@link Email}, {@link Length}, {@link Range} and {@link Pattern}.
+ *
+ * <p>
+ * The fields of a class are inspected once, the first time
+ * {@link #of(Class)} is called for it. Every annotated field is compiled to a
+ * {@link SparkStringValidator}, {@link SparkIntValidator} or
+ * {@link SparkDoubleValidator} and read through a {@link MethodHandle}, so
+ * validating an object afterwards uses no reflection. Fields are checked in
+ * declaration order, superclass fields first.
+ *
+ * <p>
+ * Example usage:
+ * <pre>
+ * {@code
+ * public class SignUp {
+ *
+ *     &#64;Required
+ *     &#64;Email
+ *     private String email;
+ *
+ *     &#64;Required
+ *     &#64;Length(min = 8, max = 64)
+ *     private String password;
+ *
+ *     &#64;DisplayName("Age")
+ *     &#64;Range(min = 18)
+ *     private int age;
+ * }
+ *
+ * SparkForm form = SparkBeanValidator.of(SignUp.class).check(signUp);
+ * }
+ * </pre>
+ *
+ * @param <T> the type of the validated objects.
+ * @author vishv
+ */
+public final class SparkBeanValidator<T> {
+
+    private static final ClassValue<SparkBeanValidator<?>> CACHE = new ClassValue<SparkBeanValidator<?>>() {
+        @Override
+        protected SparkBeanValidator<?> computeValue(Class<?> type) {
+            return new SparkBeanValidator<>(type);
+        }
+    };
+
+    private final Class<T> type;
+    private final Property[] properties;
+
+    private SparkBeanValidator(Class<T> type) {
+
+        this.type = type;
+
+        List<Class<?>> hierarchy = new ArrayList<>();
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            hierarchy.add(0, c);
+        }
+
+        List<Property> found = new ArrayList<>();
+        for (Class<?> c : hierarchy) {
+            for (Field field : c.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    Property property = property(field);
+                    if (property != null) {
+                        found.add(property);
+                    }
+                }
+            }
+        }
+        this.properties = found.toArray(new Property[0]);
+    }
+
+    /**
+     * Returns the validator of a class, building it on the first call.
+     *
+     * @param <T> the type of the validated objects.
+     * @param type the class whose annotated fields are validated.
+     * @return the cached {@code SparkBeanValidator} of the class.
+     * @throws IllegalArgumentException if an annotation is used on a field of
+     * a type it does not support.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> SparkBeanValidator<T> of(Class<T> type) {
+
+        return (SparkBeanValidator<T>) CACHE.get(type);
+    }
+
+    /**
+     * Returns the class validated by this validator.
+     *
+     * @return the validated class.
+     */
+    public Class<T> type() {
+
+        return this.type;
+    }
+
+    /**
+     * Applies the rules of every field and stops at the first failure.
+     *
+     * @param bean the object to be validated.
+     * @return the validated object.
+     * @throws SparkException if a field fails a rule.
+     */
+    public T validate(T bean) throws SparkException {
+
+        requireBean(bean);
+        for (Property property : this.properties) {
+            property.validate(bean);
+        }
+        return bean;
+    }
+
+    /**
+     * Tests every field without throwing.
+     *
+     * @param bean the object to be tested.
+     * @return {@code true} if every field passes its rules.
+     */
+    public boolean isValid(T bean) {
+
+        requireBean(bean);
+        for (Property property : this.properties) {
+            if (!property.isValid(bean)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks every field against all of its rules, without throwing.
+     *
+     * @param bean the object to be tested.
+     * @return a {@code SparkForm} holding the failed fields.
+     */
+    public SparkForm check(T bean) {
+
+        return check(bean, new SparkForm());
+    }
+
+    /**
+     * Checks every field against all of its rules into an existing form.
+     *
+     * @param bean the object to be tested.
+     * @param form the form collecting the failed fields.
+     * @return the given form.
+     */
+    public SparkForm check(T bean, SparkForm form) {
+
+        requireBean(bean);
+        for (Property property : this.properties) {
+            property.check(bean, form);
+        }
+        return form;
+    }
+
+    private static void requireBean(Object bean) {
+
+        if (bean == null) {
+            throw new IllegalArgumentException("bean cannot be null");
+        }
+    }
+
+    // ------------------------------------------------------------------ building
+
+    private static Property property(Field field) {
+
+        Required required = field.getAnnotation(Required.class);
+        Email email = field.getAnnotation(Email.class);
+        Length length = field.getAnnotation(Length.class);
+        Pattern pattern = field.getAnnotation(Pattern.class);
+        Range range = field.getAnnotation(Range.class);
+        if (required == null && email == null && length == null && pattern == null && range == null) {
+            return null;
+        }
+
+        DisplayName displayName = field.getAnnotation(DisplayName.class);
+        String name = displayName != null ? displayName.value() : field.getName();
+        Class<?> type = field.getType();
+
+        if (CharSequence.class.isAssignableFrom(type)) {
+            unsupported(field, range, "@Range");
+            SparkStringSchema schema = new SparkStringSchema(name);
+            if (required != null) {
+                schema.required(message(required.message()));
+            }
+            if (length != null) {
+                if (length.min() > 0) {
+                    schema.minLength(length.min(), message(length.message()));
+                }
+                if (length.max() < Integer.MAX_VALUE) {
+                    schema.maxLength(length.max(), message(length.message()));
+                }
+            }
+            if (email != null) {
+                schema.email(message(email.message()));
+            }
+            if (pattern != null) {
+                if (pattern.safe()) {
+                    schema.safeRegex(pattern.value(), message(pattern.message()));
+                } else {
+                    schema.regex(pattern.value(), message(pattern.message()));
+                }
+            }
+            return new StringProperty(getter(field, Object.class), schema.compile());
+        }
+
+        unsupported(field, email, "@Email");
+        unsupported(field, length, "@Length");
+        unsupported(field, pattern, "@Pattern");
+
+        boolean integral = type == int.class || type == short.class || type == byte.class
+                || type == Integer.class || type == Short.class || type == Byte.class;
+        boolean decimal = type == double.class || type == float.class
+                || type == Double.class || type == Float.class;
+
+        if (type.isPrimitive()) {
+            unsupported(field, integral || decimal ? null : range, "@Range");
+            if (integral) {
+                return new IntProperty(getter(field, int.class), ints(name, range));
+            }
+            if (decimal) {
+                return new DoubleProperty(getter(field, double.class), doubles(name, range));
+            }
+            // @Required alone on any other primitive always passes.
+            return null;
+        }
+
+        unsupported(field, integral || decimal ? null : range, "@Range");
+        SparkStringValidator nullCheck = required != null
+                ? new SparkStringSchema(name).required(message(required.message())).compile()
+                : null;
+        return new ReferenceProperty(getter(field, Object.class), nullCheck,
+                integral ? ints(name, range) : null,
+                decimal ? doubles(name, range) : null);
+    }
+
+    private static SparkIntValidator ints(String name, Range range) {
+
+        SparkIntSchema schema = new SparkIntSchema(name);
+        if (range != null) {
+            if (range.min() > Integer.MIN_VALUE) {
+                schema.min((int) Math.min(Math.ceil(range.min()), Integer.MAX_VALUE), message(range.message()));
+            }
+            if (range.max() < Integer.MAX_VALUE) {
+                schema.max((int) Math.max(Math.floor(range.max()), Integer.MIN_VALUE), message(range.message()));
+            }
+        }
+        return schema.compile();
+    }
+
+    private static SparkDoubleValidator doubles(String name, Range range) {
+
+        SparkDoubleSchema schema = new SparkDoubleSchema(name);
+        if (range != null) {
+            if (range.min() != Double.NEGATIVE_INFINITY) {
+                schema.min(range.min(), message(range.message()));
+            }
+            if (range.max() != Double.POSITIVE_INFINITY) {
+                schema.max(range.max(), message(range.message()));
+            }
+        }
+        return schema.compile();
+    }
+
+    private static String message(String message) {
+
+        return message.isEmpty() ? null : message;
+    }
+
+    private static void unsupported(Field field, Object annotation, String name) {
+
+        if (annotation != null) {
+            throw new IllegalArgumentException(name + " is not supported on " + field.getDeclaringClass().getName()
+                    + "." + field.getName() + " of type " + field.getType().getName());
+        }
+    }
+
+    /**
+     * Returns a getter of type {@code (Object) -> returnType}, widening or
+     * boxing the value of the field.
+     */
+    private static MethodHandle getter(Field field, Class<?> returnType) {
+
+        try {
+            field.setAccessible(true);
+            return MethodHandles.lookup().unreflectGetter(field)
+                    .asType(MethodType.methodType(returnType, Object.class));
+        } catch (IllegalAccessException | RuntimeException e) {
+            throw new IllegalArgumentException("Cannot read " + field.getDeclaringClass().getName()
+                    + "." + field.getName(), e);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable e) {
+
+        if (e instanceof Error) {
+            throw (Error) e;
+        }
+        return e instanceof RuntimeException ? (RuntimeException) e : new IllegalStateException(e);
+    }
+
+    // ---------------------------------------------------------------- properties
+
+    private abstract static class Property {
+
+        abstract void validate(Object bean) throws SparkException;
+
+        abstract boolean isValid(Object bean);
+
+        abstract void check(Object bean, SparkForm form);
+    }
+
+    private static final class StringProperty extends Property {
+
+        private final MethodHandle getter;
+        private final SparkStringValidator validator;
+
+        StringProperty(MethodHandle getter, SparkStringValidator validator) {
+
+            this.getter = getter;
+            this.validator = validator;
+        }
+
+        private CharSequence get(Object bean) {
+
+            try {
+                return (CharSequence) (Object) this.getter.invokeExact(bean);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        }
+
+        @Override
+        void validate(Object bean) throws SparkException {
+
+            this.validator.validate(get(bean));
+        }
+
+        @Override
+        boolean isValid(Object bean) {
+
+            return this.validator.isValid(get(bean));
+        }
+
+        @Override
+        void check(Object bean, SparkForm form) {
+
+            form.check(this.validator, get(bean));
+        }
+    }
+
+    private static final class IntProperty extends Property {
+
+        private final MethodHandle getter;
+        private final SparkIntValidator validator;
+
+        IntProperty(MethodHandle getter, SparkIntValidator validator) {
+
+            this.getter = getter;
+            this.validator = validator;
+        }
+
+        private int get(Object bean) {
+
+            try {
+                return (int) this.getter.invokeExact(bean);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        }
+
+        @Override
+        void validate(Object bean) throws SparkException {
+
+            this.validator.validate(get(bean));
+        }
+
+        @Override
+        boolean isValid(Object bean) {
+
+            return this.validator.isValid(get(bean));
+        }
+
+        @Override
+        void check(Object bean, SparkForm form) {
+
+            form.check(this.validator, get(bean));
+        }
+    }
+
+    private static final class DoubleProperty extends Property {
+
+        private final MethodHandle getter;
+        private final SparkDoubleValidator validator;
+
+        DoubleProperty(MethodHandle getter, SparkDoubleValidator validator) {
+
+            this.getter = getter;
+            this.validator = validator;
+        }
+
+        private double get(Object bean) {
+
+            try {
+                return (double) this.getter.invokeExact(bean);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        }
+
+        @Override
+        void validate(Object bean) throws SparkException {
+
+            this.validator.validate(get(bean));
+        }
+
+        @Override
+        boolean isValid(Object bean) {
+
+            return this.validator.isValid(get(bean));
+        }
+
+        @Override
+        void check(Object bean, SparkForm form) {
+
+            form.check(this.validator, get(bean));
+        }
+    }
+
+    /**
+     * A field holding an object, e.g. an {@code Integer}: {@code null} is
+     * checked by {@code nullCheck}, other values by the number validator.
+     */
+    private static final class ReferenceProperty extends Property {
+
+        private final MethodHandle getter;
+        private final SparkStringValidator nullCheck;
+        private final SparkIntValidator ints;
+        private final SparkDoubleValidator doubles;
+
+        ReferenceProperty(MethodHandle getter, SparkStringValidator nullCheck,
+                SparkIntValidator ints, SparkDoubleValidator doubles) {
+
+            this.getter = getter;
+            this.nullCheck = nullCheck;
+            this.ints = ints;
+            this.doubles = doubles;
+        }
+
+        private Object get(Object bean) {
+
+            try {
+                return (Object) this.getter.invokeExact(bean);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        }
+
+        @Override
+        void validate(Object bean) throws SparkException {
+
+            Object value = get(bean);
+            if (value == null) {
+                if (this.nullCheck != null) {
+                    this.nullCheck.validate((CharSequence) null);
+                }
+            } else if (this.ints != null) {
+                this.ints.validate(((Number) value).intValue());
+            } else if (this.doubles != null) {
+                this.doubles.validate(((Number) value).doubleValue());
+            }
+        }
+
+        @Override
+        boolean isValid(Object bean) {
+
+            Object value = get(bean);
+            if (value == null) {
+                return this.nullCheck == null;
+            }
+            if (this.ints != null) {
+                return this.ints.isValid(((Number) value).intValue());
+            }
+            return this.doubles == null || this.doubles.isValid(((Number) value).doubleValue());
+        }
+
+        @Override
+        void check(Object bean, SparkForm form) {
+
+            Object value = get(bean);
+            if (value == null) {
+                if (this.nullCheck != null) {
+                    form.check(this.nullCheck, null);
+                }
+            } else if (this.ints != null) {
+                form.check(this.ints, ((Number) value).intValue());
+            } else if (this.doubles != null) {
+                form.check(this.doubles, ((Number) value).doubleValue());
+            }
+        }
+    }
+}
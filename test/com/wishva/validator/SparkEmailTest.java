@@ -0,0 +1,140 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author vishva
+ */
+public class SparkEmailTest {
+
+    /**
+     * The expression used before {@link SparkEmail}, kept here as the
+     * reference the checker must agree with.
+     */
+    private static final Pattern EMAIL_REGEX
+            = Pattern.compile("^[a-zA-Z0-9_+&*-]+(?:\\.[a-zA-Z0-9_+&*-]+)*@(?:[a-zA-Z0-9-]+\\.)+[a-zA-Z]{2,7}$");
+
+    private static final String ALPHABET = "aZ09_+&*-.@@..xyzAB-é \n#";
+
+    private static final String[] SEEDS = {
+        "john.doe@example.com",
+        "a@b.co",
+        "first+tag&x*y@sub-domain.example.museum",
+        "UPPER_CASE@EXAMPLE.ORG",
+        "x-y@1-2.3com.abcdefg"
+    };
+
+    @Test
+    public void regexIsUnchanged() {
+
+        assertEquals(EMAIL_REGEX.pattern(), SparkEmail.REGEX);
+    }
+
+    @Test
+    public void knownAddresses() {
+
+        for (String seed : SEEDS) {
+            assertTrue(seed, SparkEmail.isValid(seed));
+        }
+        assertFalse(SparkEmail.isValid(null));
+        assertFalse(SparkEmail.isValid(""));
+        assertFalse(SparkEmail.isValid("john..doe@example.com"));
+        assertFalse(SparkEmail.isValid(".john@example.com"));
+        assertFalse(SparkEmail.isValid("john@example.c"));
+        assertFalse(SparkEmail.isValid("john@example.abcdefgh"));
+        assertFalse(SparkEmail.isValid("john@example.c0m"));
+        assertFalse(SparkEmail.isValid("john@.example.com"));
+        assertFalse(SparkEmail.isValid("john@example..com"));
+        assertFalse(SparkEmail.isValid("john@example.com\n"));
+        assertFalse(SparkEmail.isValid("jöhn@example.com"));
+    }
+
+    @Test
+    public void agreesWithTheRegexOnRandomInputs() {
+
+        Random random = new Random(5);
+        for (int i = 0; i < 200_000; i++) {
+            StringBuilder input = new StringBuilder();
+            int length = random.nextInt(24);
+            for (int j = 0; j < length; j++) {
+                input.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+            }
+            assertAgrees(input.toString());
+        }
+    }
+
+    @Test
+    public void agreesWithTheRegexOnMutatedAddresses() {
+
+        Random random = new Random(7);
+        for (int i = 0; i < 200_000; i++) {
+            StringBuilder input = new StringBuilder(SEEDS[random.nextInt(SEEDS.length)]);
+            int edits = 1 + random.nextInt(3);
+            for (int j = 0; j < edits; j++) {
+                int at = random.nextInt(input.length() + 1);
+                char c = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+                switch (random.nextInt(3)) {
+                    case 0:
+                        input.insert(at, c);
+                        break;
+                    case 1:
+                        if (at < input.length()) {
+                            input.deleteCharAt(at);
+                        }
+                        break;
+                    default:
+                        if (at < input.length()) {
+                            input.setCharAt(at, c);
+                        }
+                        break;
+                }
+            }
+            assertAgrees(input.toString());
+        }
+    }
+
+    @Test
+    public void agreesWithTheRegexOnTopLevelDomainLengths() {
+
+        StringBuilder tld = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            assertAgrees("john@example." + tld);
+            assertAgrees("john@example." + tld + "1");
+            tld.append('a');
+        }
+    }
+
+    private static void assertAgrees(String input) {
+
+        assertEquals(input, EMAIL_REGEX.matcher(input).matches(), SparkEmail.isValid(input));
+    }
+}
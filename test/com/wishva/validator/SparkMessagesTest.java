@@ -0,0 +1,108 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator;
+
+import com.wishva.validator.v2.SparkStringSchema;
+import com.wishva.validator.v2.SparkStringValidator;
+import java.util.Arrays;
+import java.util.Locale;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ *
+ * @author vishva
+ */
+public class SparkMessagesTest {
+
+    private static final SparkStringValidator NAME = new SparkStringSchema("Name")
+            .required()
+            .minLength(3)
+            .maxLength(5)
+            .compile();
+
+    @After
+    public void restoreBundle() {
+
+        SparkMessages.setBundle(null);
+    }
+
+    @Test
+    public void formatsPlaceholders() {
+
+        assertEquals("Name must include more than 3 characters!",
+                SparkMessages.format("{0} must include more than {1} characters!", "Name", 3));
+        assertEquals("a null {3}", SparkMessages.format("{1} {2} {3}", "Name", "a", null));
+        assertEquals("{x} 'Name' {}", SparkMessages.format("{x} '{0}' {}", "Name"));
+        assertEquals(null, SparkMessages.format(null, "Name"));
+        assertEquals("Name{", SparkMessages.format("{0}{", "Name"));
+    }
+
+    @Test
+    public void usesTheDefaultBundle() {
+
+        assertEquals(SparkMessages.DEFAULT_BUNDLE, SparkMessages.getBundle());
+        assertEquals("Name cannot be empty!", SparkMessages.message("required", null, Locale.ROOT, "Name"));
+        assertEquals("Name: unknown", SparkMessages.message("unknown", null, Locale.ROOT, "Name"));
+        assertEquals("Name is odd", SparkMessages.message("unknown", "{0} is odd", Locale.ROOT, "Name"));
+    }
+
+    @Test
+    public void applicationBundlesReplaceTheTemplates() {
+
+        SparkMessages.setBundle("com.wishva.validator.test_messages");
+
+        assertEquals(Arrays.asList("Name is required", "Name needs at least 3 characters"),
+                NAME.check("").messages());
+        // Codes missing from the bundle fall back to the template of the rule.
+        assertEquals("Name must include less than 5 characters!", NAME.check("abcdef").firstMessage());
+    }
+
+    @Test
+    public void messagesAreLocalized() {
+
+        SparkMessages.setBundle("com.wishva.validator.test_messages");
+
+        assertEquals("Name est obligatoire", NAME.check((String) null).firstMessage(Locale.FRENCH));
+        assertEquals("Name est obligatoire", NAME.check((String) null).firstMessage(Locale.CANADA_FRENCH));
+        // No fallback to the default locale of the JVM.
+        assertEquals("Name is required", NAME.check((String) null).firstMessage(Locale.GERMAN));
+    }
+
+    @Test
+    public void exceptionsAreLocalizedWhenRead() {
+
+        SparkMessages.setBundle("com.wishva.validator.test_messages");
+        try {
+            NAME.validate("");
+            fail("An empty name passed");
+        } catch (SparkException e) {
+            SparkRuleException rule = (SparkRuleException) e;
+            assertEquals("Name is required", rule.getMessage());
+            assertEquals("Name est obligatoire", rule.getMessage(Locale.FRENCH));
+        }
+    }
+}
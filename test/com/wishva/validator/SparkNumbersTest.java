@@ -0,0 +1,145 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator;
+
+import com.wishva.validator.v2.SparkString;
+import java.util.Random;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ *
+ * @author vishva
+ */
+public class SparkNumbersTest {
+
+    @Test
+    public void parsesIntegers() {
+
+        assertParsed(0, "0");
+        assertParsed(-42, "-42");
+        assertParsed(42, "+42");
+        assertParsed(Integer.MAX_VALUE, "2147483647");
+        assertParsed(Integer.MIN_VALUE, "-2147483648");
+        assertParsed(7, "007");
+        assertParsed(123, "١٢٣");
+    }
+
+    @Test
+    public void reportsWhyAnIntegerIsRejected() {
+
+        assertEquals(SparkNumbers.EMPTY, SparkNumbers.status(SparkNumbers.parseInt(null)));
+        assertEquals(SparkNumbers.EMPTY, SparkNumbers.status(SparkNumbers.parseInt("")));
+        assertEquals(SparkNumbers.INVALID, SparkNumbers.status(SparkNumbers.parseInt("-")));
+        assertEquals(SparkNumbers.INVALID, SparkNumbers.status(SparkNumbers.parseInt("12a")));
+        assertEquals(SparkNumbers.INVALID, SparkNumbers.status(SparkNumbers.parseInt(" 12")));
+        assertEquals(SparkNumbers.OVERFLOW, SparkNumbers.status(SparkNumbers.parseInt("2147483648")));
+        assertEquals(SparkNumbers.OVERFLOW, SparkNumbers.status(SparkNumbers.parseInt("-99999999999999999999")));
+        assertEquals(0, SparkNumbers.value(SparkNumbers.parseInt("12a")));
+    }
+
+    @Test
+    public void checksBoundsInTheSamePass() {
+
+        long parsed = SparkNumbers.parseIntInRange("17", 18, 120);
+        assertEquals(SparkNumbers.BELOW_MIN, SparkNumbers.status(parsed));
+        assertEquals(17, SparkNumbers.value(parsed));
+        assertEquals(SparkNumbers.ABOVE_MAX, SparkNumbers.status(SparkNumbers.parseIntInRange("121", 18, 120)));
+        assertEquals(SparkNumbers.OK, SparkNumbers.status(SparkNumbers.parseIntInRange("age=30", 4, 6, 18, 120)));
+    }
+
+    @Test
+    public void agreesWithIntegerParseInt() {
+
+        Random random = new Random(3);
+        String alphabet = "0123456789-+x";
+        for (int i = 0; i < 200_000; i++) {
+            StringBuilder input = new StringBuilder();
+            int length = random.nextInt(13);
+            for (int j = 0; j < length; j++) {
+                input.append(alphabet.charAt(random.nextInt(j == 0 ? alphabet.length() : 10)));
+            }
+            String s = input.toString();
+            long parsed = SparkNumbers.parseInt(s);
+            try {
+                int expected = Integer.parseInt(s);
+                assertEquals(s, SparkNumbers.OK, SparkNumbers.status(parsed));
+                assertEquals(s, expected, SparkNumbers.value(parsed));
+            } catch (NumberFormatException e) {
+                assertNotEquals(s, SparkNumbers.OK, SparkNumbers.status(parsed));
+            }
+        }
+    }
+
+    @Test
+    public void agreesWithDoubleParseDouble() {
+
+        Random random = new Random(4);
+        String alphabet = "0123456789.-+eE";
+        for (int i = 0; i < 200_000; i++) {
+            StringBuilder input = new StringBuilder();
+            int length = random.nextInt(25);
+            for (int j = 0; j < length; j++) {
+                input.append(alphabet.charAt(random.nextInt(random.nextBoolean() ? 10 : alphabet.length())));
+            }
+            String s = input.toString();
+            double parsed = SparkNumbers.parseDouble(s, 0, s.length());
+            double expected;
+            try {
+                expected = Double.parseDouble(s);
+            } catch (NumberFormatException e) {
+                expected = Double.NaN;
+            }
+            assertEquals(s, Double.doubleToLongBits(expected), Double.doubleToLongBits(parsed));
+        }
+    }
+
+    @Test
+    public void toIntKeepsItsMessages() throws SparkException {
+
+        assertEquals(30, new SparkString("Age", "30").toInt().toInt());
+        assertToIntFails("Age cannot be empty!", " ");
+        assertToIntFails("Age must be a number!", "thirty");
+        assertToIntFails("Age must be a number!", "99999999999");
+    }
+
+    private static void assertParsed(int expected, String input) {
+
+        long parsed = SparkNumbers.parseInt(input);
+        assertEquals(SparkNumbers.OK, SparkNumbers.status(parsed));
+        assertEquals(expected, SparkNumbers.value(parsed));
+    }
+
+    private static void assertToIntFails(String message, String input) {
+
+        try {
+            new SparkString("Age", input).toInt();
+            fail();
+        } catch (SparkException e) {
+            assertEquals(message, e.getMessage());
+        }
+    }
+}
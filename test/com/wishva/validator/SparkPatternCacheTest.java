@@ -0,0 +1,153 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author vishva
+ */
+public class SparkPatternCacheTest {
+
+    @Test
+    public void compilesEachPatternOnce() {
+
+        SparkPatternCache cache = new SparkPatternCache(8);
+        Pattern first = cache.get("[0-9]+");
+
+        assertSame(first, cache.get("[0-9]+"));
+        assertEquals(1, cache.missCount());
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void maxSizeBoundsTheWholeCache() {
+
+        SparkPatternCache cache = new SparkPatternCache(17);
+        for (int i = 0; i < 100; i++) {
+            cache.get("a{" + i + "}");
+            assertTrue(cache.size() <= 17);
+        }
+        assertEquals(17, cache.size());
+        assertEquals(83, cache.evictionCount());
+    }
+
+    @Test
+    public void evictsTheLeastRecentlyUsedPattern() {
+
+        SparkPatternCache cache = new SparkPatternCache(4);
+        Pattern hot = cache.get("hot");
+        for (int i = 0; i < 50; i++) {
+            cache.get("cold" + i);
+            assertSame(hot, cache.get("hot"));
+        }
+        assertEquals(4, cache.size());
+    }
+
+    @Test
+    public void regexesAreBoundedSeparately() {
+
+        SparkPatternCache cache = new SparkPatternCache(2);
+        cache.get("a");
+        cache.get("b");
+        cache.regex("a");
+        cache.regex("b");
+        cache.regex("c");
+
+        assertEquals(2, cache.size());
+        assertEquals(2, cache.regexSize());
+        assertEquals(1, cache.evictionCount());
+        assertTrue(cache.toString().contains("size=2, regexSize=2, maxSize=2"));
+    }
+
+    @Test
+    public void clearEmptiesTheCache() {
+
+        SparkPatternCache cache = new SparkPatternCache(4);
+        Pattern first = cache.get("x+");
+        cache.regex("x+");
+        cache.clear();
+
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.regexSize());
+        assertNotSame(first, cache.get("x+"));
+        for (int i = 0; i < 10; i++) {
+            cache.get("y" + i);
+        }
+        assertEquals(4, cache.size());
+    }
+
+    @Test(expected = PatternSyntaxException.class)
+    public void invalidPatternsAreNotCached() {
+
+        new SparkPatternCache(4).get("(unclosed");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsAnEmptyCache() {
+
+        new SparkPatternCache(0);
+    }
+
+    @Test
+    public void staysBoundedUnderConcurrentUse() throws Exception {
+
+        final SparkPatternCache cache = new SparkPatternCache(32);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                final int seed = t;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 2000; i++) {
+                        String regex = "p" + ((i * 31 + seed) % 100);
+                        assertTrue(cache.get(regex).matcher(regex).matches());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        assertEquals(32, cache.size());
+        assertTrue(cache.evictionCount() <= cache.missCount() - 32);
+    }
+}
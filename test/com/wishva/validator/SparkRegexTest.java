@@ -0,0 +1,185 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Matches {@link SparkRegex} against {@link Pattern} on generated expressions
+ * and inputs.
+ *
+ * @author vishva
+ */
+public class SparkRegexTest {
+
+    private static final String ALPHABET = "abc-.@1 ";
+
+    @Test
+    public void matchesLikePatternOnGeneratedExpressions() {
+
+        Random random = new Random(14);
+        int linear = 0;
+        for (int p = 0; p < 3000; p++) {
+            String regex = expression(random, 3);
+            SparkRegex spark = SparkRegex.compile(regex);
+            Pattern pattern = Pattern.compile(regex);
+            if (spark.engine() == SparkRegex.Engine.LINEAR) {
+                linear++;
+            }
+            for (int i = 0; i < 40; i++) {
+                String input = input(random, random.nextInt(12));
+                assertEquals(regex + " on \"" + input + "\"",
+                        pattern.matcher(input).matches(), spark.matches(input));
+            }
+        }
+        assertTrue(linear > 2900);
+    }
+
+    @Test
+    public void streamMatcherAgreesWithMatches() {
+
+        Random random = new Random(140);
+        for (int p = 0; p < 500; p++) {
+            String regex = expression(random, 3);
+            SparkRegex spark = SparkRegex.compile(regex);
+            for (int i = 0; i < 20; i++) {
+                String input = input(random, random.nextInt(16));
+                SparkRegex.StreamMatcher matcher = spark.streamMatcher();
+                boolean alive = true;
+                int from = 0;
+                while (from < input.length()) {
+                    int to = Math.min(input.length(), from + 1 + random.nextInt(4));
+                    alive &= matcher.feed(input, from, to);
+                    from = to;
+                }
+                boolean expected = spark.matches(input);
+                assertEquals(regex + " on \"" + input + "\"", expected, matcher.matches());
+                assertTrue(regex + " on \"" + input + "\"", alive || !expected);
+            }
+        }
+    }
+
+    @Test
+    public void longLoopBodiesCompile() {
+
+        // Loops whose body grows the state arrays of the automaton.
+        SparkRegex star = SparkRegex.compile("(?:abcdefghijklmnop)*");
+        assertEquals(SparkRegex.Engine.LINEAR, star.engine());
+        assertTrue(star.matches(""));
+        assertTrue(star.matches("abcdefghijklmnopabcdefghijklmnop"));
+        assertFalse(star.matches("abcdefghijklmno"));
+
+        SparkRegex email = SparkRegex.compile("[a-z]+@(?:[a-z0-9-]+\\.)+[a-z]{2,7}");
+        assertEquals(SparkRegex.Engine.LINEAR, email.engine());
+        assertTrue(email.matches("ab@c.com"));
+        assertTrue(email.matches("ab@mail.c-d.museum"));
+        assertFalse(email.matches("ab@com"));
+        assertFalse(email.matches("ab@c.commerces"));
+    }
+
+    @Test
+    public void catastrophicPatternsStayLinear() {
+
+        SparkRegex regex = SparkRegex.compile("^([a-z0-9]+)*$");
+        assertEquals(SparkRegex.Engine.LINEAR, regex.engine());
+        assertNull(regex.unsupportedFeature());
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            input.append('a');
+        }
+        input.append('!');
+        assertFalse(regex.matches(input));
+    }
+
+    @Test
+    public void unsupportedFeaturesFallBackToABudget() {
+
+        SparkRegex backReference = SparkRegex.compile("(a+)\\1");
+        assertEquals(SparkRegex.Engine.BACKTRACKING, backReference.engine());
+        assertNotNull(backReference.unsupportedFeature());
+        assertNull(backReference.streamMatcher());
+        assertTrue(backReference.matches("aaaa"));
+        assertFalse(backReference.matches("aaa"));
+
+        SparkRegex slow = SparkRegex.compile("(a+)+\\1b", 4);
+        assertFalse(slow.matches("aaaaaaaaaaaaaaaaaaaaaaaaaaaaaa"));
+        assertEquals(1L, slow.abortCount());
+    }
+
+    @Test
+    public void surrogatePairsAreOneCharacter() {
+
+        SparkRegex regex = SparkRegex.compile("a.b");
+        String input = "a😀b";
+        assertTrue(regex.matches(input));
+        SparkRegex.StreamMatcher matcher = regex.streamMatcher();
+        matcher.feed(input, 0, 2);
+        matcher.feed(input, 2, 4);
+        assertTrue(matcher.matches());
+    }
+
+    private static String expression(Random random, int depth) {
+
+        int pick = depth == 0 ? random.nextInt(4) : random.nextInt(10);
+        switch (pick) {
+            case 0:
+                return String.valueOf(ALPHABET.charAt(random.nextInt(3)));
+            case 1:
+                return random.nextBoolean() ? "." : "\\.";
+            case 2:
+                return random.nextBoolean() ? "[a-b]" : "[^a-]";
+            case 3:
+                return random.nextBoolean() ? "\\w" : "\\d";
+            case 4:
+            case 5:
+                return expression(random, depth - 1) + expression(random, depth - 1);
+            case 6:
+                return "(" + expression(random, depth - 1) + "|" + expression(random, depth - 1) + ")";
+            case 7:
+                return "(?:" + expression(random, depth - 1) + ")" + "*+?".charAt(random.nextInt(3));
+            case 8:
+                int min = random.nextInt(3);
+                return "(" + expression(random, depth - 1) + "){" + min + "," + (min + random.nextInt(3)) + "}";
+            default:
+                return "(?:" + expression(random, depth - 1) + "){" + random.nextInt(3) + ",}"
+                        + (random.nextBoolean() ? "?" : "");
+        }
+    }
+
+    private static String input(Random random, int length) {
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            sb.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator;
+
+import com.wishva.validator.v2.SparkString;
+import java.util.Locale;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ *
+ * @author vishva
+ */
+public class SparkRuleExceptionTest {
+
+    @After
+    public void restoreStackTraces() {
+
+        SparkRuleException.setStackless(false);
+    }
+
+    @Test
+    public void formatsTheTemplateOnFirstUse() {
+
+        SparkRuleException e = new SparkRuleException("minLength", "Password",
+                "{0} must include more than {1} characters!", new Object[]{8}, true);
+
+        assertEquals("minLength", e.getRule());
+        assertEquals("Password", e.getField());
+        assertArrayEquals(new Object[]{8}, e.getArgs());
+        assertEquals("Password must include more than 8 characters!", e.getMessage());
+        assertEquals(e.getMessage(), e.getMessage(Locale.ROOT));
+    }
+
+    @Test
+    public void fixedMessagesAreKept() {
+
+        SparkRuleException e = new SparkRuleException("required", "Name", "Tell us your name", false);
+
+        assertEquals("Tell us your name", e.getMessage());
+        assertEquals("Tell us your name", e.getMessage(Locale.FRENCH));
+        assertEquals(0, e.getArgs().length);
+    }
+
+    @Test
+    public void stacklessExceptionsHaveNoStackTrace() {
+
+        assertEquals(0, new SparkRuleException("required", "Name", "x", true).getStackTrace().length);
+        assertTrue(new SparkRuleException("required", "Name", "x", false).getStackTrace().length > 0);
+    }
+
+    @Test
+    public void globalSwitchAppliesToTheFluentApi() throws SparkException {
+
+        SparkRuleException.setStackless(true);
+        try {
+            new SparkString("Name", "").required();
+            fail();
+        } catch (SparkRuleException e) {
+            assertEquals(0, e.getStackTrace().length);
+            assertEquals("Name cannot be empty!", e.getMessage());
+        }
+
+        SparkRuleException.setStackless(false);
+        try {
+            new SparkString("Name", "").required();
+            fail();
+        } catch (SparkRuleException e) {
+            assertTrue(e.getStackTrace().length > 0);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+import java.util.Arrays;
+import java.util.Random;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+/**
+ *
+ * @author vishv
+ */
+public class AdaptiveOrderTest {
+
+    /**
+     * Records one sample where rule 0 is slow and passes, and rule 1 is
+     * cheap and fails when {@code firstFails} is false, and the other way
+     * round otherwise.
+     */
+    private static void sample(AdaptiveOrder order, boolean firstFails) {
+
+        order.record(0, firstFails ? 10L : 1000L, firstFails);
+        order.record(1, firstFails ? 1000L : 10L, !firstFails);
+        order.endSample();
+    }
+
+    @Test
+    public void startsInDeclarationOrder() {
+
+        assertArrayEquals(new int[]{0, 1, 2}, new AdaptiveOrder(3).order());
+    }
+
+    @Test
+    public void ranksAfter128SamplesAndThenEvery64() {
+
+        AdaptiveOrder order = new AdaptiveOrder(2);
+        for (int i = 0; i < 127; i++) {
+            sample(order, false);
+        }
+        assertArrayEquals(new int[]{0, 1}, order.order());
+        sample(order, false);
+        assertArrayEquals(new int[]{1, 0}, order.order());
+
+        // The traffic changes: the halved history needs 64 new samples to be re-ranked.
+        for (int i = 0; i < 63; i++) {
+            sample(order, true);
+        }
+        assertArrayEquals(new int[]{1, 0}, order.order());
+        sample(order, true);
+        assertArrayEquals(new int[]{0, 1}, order.order());
+    }
+
+    @Test
+    public void rulesThatNeverRejectGoLast() {
+
+        AdaptiveOrder order = new AdaptiveOrder(3);
+        for (int i = 0; i < 128; i++) {
+            order.record(0, 100L, false);
+            order.record(1, 10L, false);
+            order.record(2, 1000L, true);
+            order.endSample();
+        }
+        assertArrayEquals(new int[]{2, 1, 0}, order.order());
+    }
+
+    @Test
+    public void oneCallIn256IsSampled() {
+
+        AdaptiveOrder order = new AdaptiveOrder(2);
+        int sampled = 0;
+        for (int i = 0; i < 256 * 10; i++) {
+            if (order.sample()) {
+                sampled++;
+            }
+        }
+        assertEquals(10, sampled);
+    }
+
+    @Test
+    public void adaptiveValidatorsAcceptTheSameInputs() {
+
+        SparkStringSchema schema = new SparkStringSchema("Code")
+                .required()
+                .regex("[a-z]*[0-9]")
+                .maxLength(6)
+                .ascii();
+        SparkStringValidator declared = schema.compile();
+        SparkStringValidator adaptive = schema.adaptive().compile();
+
+        Random random = new Random(22);
+        for (int n = 0; n < 200_000; n++) {
+            char[] chars = new char[random.nextInt(9)];
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = "ab1é".charAt(random.nextInt(4));
+            }
+            String input = new String(chars);
+            assertEquals(input, declared.isValid(input), adaptive.isValid(input));
+            assertEquals(input, declared.failures(input), adaptive.failures(input));
+        }
+        assertEquals(Arrays.asList("regex", "maxLength"), adaptive.check("abcdefgh").errorCodes());
+    }
+}
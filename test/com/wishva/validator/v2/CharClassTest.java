@@ -0,0 +1,135 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+import java.lang.reflect.Field;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author vishv
+ */
+public class CharClassTest {
+
+    private static boolean expected(CharClass charClass, char c) {
+
+        if (charClass == CharClass.ASCII) {
+            return c < 0x80;
+        }
+        if (charClass == CharClass.DIGITS) {
+            return c >= '0' && c <= '9';
+        }
+        if (charClass == CharClass.ALPHANUMERIC) {
+            return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+        }
+        return !Character.isISOControl(c);
+    }
+
+    private static final CharClass[] CLASSES = {
+        CharClass.ASCII, CharClass.DIGITS, CharClass.ALPHANUMERIC, CharClass.NO_CONTROL
+    };
+
+    @Test
+    public void everyCharacterIsClassified() {
+
+        char[] one = new char[1];
+        for (CharClass charClass : CLASSES) {
+            for (int c = 0; c <= Character.MAX_VALUE; c++) {
+                one[0] = (char) c;
+                boolean in = expected(charClass, (char) c);
+                assertEquals(Integer.toHexString(c), in, charClass.bad((char) c) >= 0);
+                assertEquals(Integer.toHexString(c), in, charClass.matches(one, 0, 1));
+            }
+        }
+    }
+
+    @Test
+    public void everyInputTypeFindsTheBadCharacter() {
+
+        // A digit every class accepts, and one character each class rejects.
+        char[] bad = {'é', 'a', 'é', '\u0085'};
+        for (int k = 0; k < CLASSES.length; k++) {
+            CharClass charClass = CLASSES[k];
+            for (int length : new int[]{0, 1, 63, 64, 65, 511, 512, 513, 1500}) {
+                char[] chars = new char[length];
+                Arrays.fill(chars, '7');
+                for (CharSequence input : views(chars)) {
+                    assertTrue(charClass.matches(input));
+                }
+                for (int at : new int[]{0, length / 2, length - 1}) {
+                    if (at < 0 || at >= length) {
+                        continue;
+                    }
+                    chars[at] = bad[k];
+                    for (CharSequence input : views(chars)) {
+                        assertFalse(input.getClass() + " " + length + " " + at, charClass.matches(input));
+                    }
+                    chars[at] = '7';
+                }
+            }
+        }
+    }
+
+    @Test
+    public void longStringsDoNotStayInTheBuffer() throws ReflectiveOperationException {
+
+        StringBuilder password = new StringBuilder();
+        for (int i = 0; i < 700; i++) {
+            password.append((char) ('a' + i % 26));
+        }
+        assertTrue(CharClass.ASCII.matches(password.toString()));
+        assertFalse(CharClass.ALPHANUMERIC.matches(password.append('!').toString()));
+
+        Field field = CharClass.class.getDeclaredField("BUFFER");
+        field.setAccessible(true);
+        char[] buffer = (char[]) ((ThreadLocal<?>) field.get(null)).get();
+        for (char c : buffer) {
+            assertEquals(0, c);
+        }
+    }
+
+    private static List<CharSequence> views(char[] chars) {
+
+        List<CharSequence> views = new ArrayList<>();
+        views.add(new String(chars));
+        views.add(new StringBuilder(new String(chars)));
+
+        char[] padded = new char[chars.length + 6];
+        System.arraycopy(chars, 0, padded, 3, chars.length);
+        views.add(CharBuffer.wrap(padded, 3, chars.length).slice());
+        views.add(CharBuffer.wrap(padded, 3, chars.length).asReadOnlyBuffer());
+
+        CharSlice slice = new CharSlice();
+        slice.append(chars, 0, chars.length);
+        views.add(slice);
+        return views;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import org.junit.Test;
+
+/**
+ *
+ * @author vishv
+ */
+public class CharSliceTest {
+
+    @Test
+    public void appendsAndReads() {
+
+        CharSlice slice = new CharSlice();
+        slice.append('a');
+        slice.append("xbcx".toCharArray(), 1, 3);
+
+        assertEquals(3, slice.length());
+        assertEquals("abc", slice.toString());
+        assertEquals("bc", slice.subSequence(1, 3));
+        slice.clear();
+        assertEquals("", slice.toString());
+    }
+
+    @Test
+    public void growingClearsTheOldArray() {
+
+        CharSlice slice = new CharSlice();
+        for (int i = 0; i < 64; i++) {
+            slice.append('s');
+        }
+        char[] first = slice.array();
+        slice.append('s');
+        assertNotSame(first, slice.array());
+        assertZeros(first);
+
+        char[] second = slice.array();
+        slice.append(new char[500], 0, 500);
+        assertNotSame(second, slice.array());
+        assertZeros(second);
+        assertEquals(565, slice.length());
+    }
+
+    @Test
+    public void wipeClearsTheText() {
+
+        CharSlice slice = new CharSlice();
+        slice.append("secret".toCharArray(), 0, 6);
+        slice.wipe();
+
+        assertEquals(0, slice.length());
+        assertZeros(slice.array());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void readsOnlyTheText() {
+
+        CharSlice slice = new CharSlice();
+        slice.append('a');
+        slice.charAt(1);
+    }
+
+    private static void assertZeros(char[] chars) {
+
+        for (char c : chars) {
+            assertEquals('\0', c);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+import com.wishva.validator.SparkRuleException;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ *
+ * @author vishv
+ */
+public class SparkAsyncValidatorTest {
+
+    private static final SparkStringValidator USERNAME_RULES = new SparkStringSchema("Username")
+            .required()
+            .minLength(3)
+            .compile();
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @After
+    public void shutdown() {
+
+        this.executor.shutdownNow();
+    }
+
+    private SparkAsyncValidator<CharSequence> username(AsyncRule<CharSequence> rule) {
+
+        return SparkAsyncValidator.of(USERNAME_RULES).rule(rule).executor(this.executor).build();
+    }
+
+    @Test
+    public void asyncRulesRunAfterTheSyncRules() throws Exception {
+
+        AtomicInteger calls = new AtomicInteger();
+        SparkAsyncValidator<CharSequence> validator = username(AsyncRule.blocking("usernameTaken",
+                "{0} is already taken!", name -> calls.incrementAndGet() > 0 && !name.toString().equals("admin")));
+
+        assertTrue(validator.check("john").get().isValid());
+        SparkResult taken = validator.check("admin").get();
+        assertEquals(Arrays.asList("usernameTaken"), taken.errorCodes());
+        assertEquals("Username is already taken!", taken.firstMessage());
+        assertEquals(0b100L, taken.failures());
+        assertEquals(2, calls.get());
+
+        // A failed sync rule skips the async ones.
+        assertEquals(Arrays.asList("minLength"), validator.check("jo").get().errorCodes());
+        assertEquals(Arrays.asList("required"), validator.check(null).get().errorCodes());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void brokenRulesFail() throws Exception {
+
+        SparkAsyncValidator<CharSequence> validator = SparkAsyncValidator.of(USERNAME_RULES)
+                .rule(AsyncRule.of("throws", "{0} threw", name -> {
+                    throw new IllegalStateException();
+                }))
+                .rule(AsyncRule.of("exceptional", "{0} failed", name -> {
+                    CompletableFuture<Boolean> future = new CompletableFuture<>();
+                    future.completeExceptionally(new IllegalStateException());
+                    return future;
+                }))
+                .rule(AsyncRule.of("nullStage", "{0} is null", name -> null))
+                .rule(AsyncRule.of("nullResult", "{0} is null", name -> CompletableFuture.completedFuture(null)))
+                .rule(AsyncRule.blocking("blockingThrows", "{0} threw", name -> {
+                    throw new IllegalStateException();
+                }))
+                .executor(this.executor)
+                .build();
+
+        assertEquals(Arrays.asList("throws", "exceptional", "nullStage", "nullResult", "blockingThrows"),
+                validator.check("john").get().errorCodes());
+    }
+
+    @Test
+    public void blockingRulesAreInterruptedOnTimeout() throws Exception {
+
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        SparkAsyncValidator<CharSequence> validator = SparkAsyncValidator.of(USERNAME_RULES)
+                .rule(AsyncRule.blocking("slow", "{0} took too long", name -> {
+                    try {
+                        Thread.sleep(60_000L);
+                        return true;
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                        return true;
+                    }
+                }), 50, TimeUnit.MILLISECONDS)
+                .executor(this.executor)
+                .build();
+
+        assertEquals(Arrays.asList("slow"), validator.check("john").get(10, TimeUnit.SECONDS).errorCodes());
+        assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void otherStagesAreLeftUntouchedOnTimeout() throws Exception {
+
+        final CompletableFuture<Boolean> shared = new CompletableFuture<>();
+        SparkAsyncValidator<CharSequence> validator = SparkAsyncValidator.of(USERNAME_RULES)
+                .timeout(20, TimeUnit.MILLISECONDS)
+                .rule(AsyncRule.of("pending", "{0} is pending", name -> shared))
+                .build();
+
+        assertEquals(Arrays.asList("pending"), validator.check("john").get(10, TimeUnit.SECONDS).errorCodes());
+        assertFalse(shared.isDone());
+        shared.complete(Boolean.TRUE);
+        assertTrue(validator.check("john").get().isValid());
+    }
+
+    @Test
+    public void validateCompletesWithTheFirstFailedRule() throws Exception {
+
+        SparkAsyncValidator<CharSequence> validator = username(AsyncRule.of("usernameTaken",
+                "{0} is already taken!", name -> CompletableFuture.completedFuture(Boolean.FALSE)));
+
+        try {
+            validator.validate("john").get();
+            fail("A taken username passed");
+        } catch (ExecutionException e) {
+            SparkRuleException cause = (SparkRuleException) e.getCause();
+            assertEquals("usernameTaken", cause.getRule());
+            assertEquals("Username is already taken!", cause.getMessage());
+        }
+    }
+
+    @Test
+    public void numbersAndForms() throws Exception {
+
+        SparkAsyncValidator<Integer> age = SparkAsyncValidator.of(new SparkIntSchema("Age").min(18).compile())
+                .rule(AsyncRule.of("even", "{0} must be even!",
+                        (Integer n) -> CompletableFuture.completedFuture(n % 2 == 0)))
+                .build();
+        SparkAsyncValidator<Double> score = SparkAsyncValidator.of(new SparkDoubleSchema("Score").max(1.0).compile())
+                .build();
+
+        assertEquals(Arrays.asList("even"), age.check(21).get().errorCodes());
+        assertTrue(age.check(null).get().isValid());
+        assertSame(age.check(20).get(), age.check(22).get());
+
+        SparkForm form = SparkAsyncValidator.form(age.check(12), age.check(19), score.check(2.0)).get();
+        assertEquals(3, form.errors().size());
+        assertTrue(SparkAsyncValidator.form(age.check(30), score.check(0.5)).get().isValid());
+    }
+
+    @Test
+    public void builderChecksItsArguments() {
+
+        SparkAsyncValidator.Builder<CharSequence> builder = SparkAsyncValidator.of(USERNAME_RULES);
+        try {
+            builder.rule(null);
+            fail("A null rule was accepted");
+        } catch (IllegalArgumentException e) {
+        }
+        try {
+            builder.timeout(0, TimeUnit.SECONDS);
+            fail("A timeout of 0 was accepted");
+        } catch (IllegalArgumentException e) {
+        }
+        for (int i = 0; i < 63; i++) {
+            builder.rule(AsyncRule.of("rule" + i, "{0}", name -> CompletableFuture.completedFuture(Boolean.TRUE)));
+        }
+        try {
+            builder.build();
+            fail("65 rules were accepted");
+        } catch (IllegalStateException e) {
+        }
+    }
+}
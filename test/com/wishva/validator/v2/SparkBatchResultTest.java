@@ -0,0 +1,104 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author vishv
+ */
+public class SparkBatchResultTest {
+
+    private static final SparkStringValidator CODE = new SparkStringSchema("Code")
+            .required()
+            .maxLength(4)
+            .compile();
+    private static final SparkIntValidator AGE = new SparkIntSchema("Age").min(0).max(150).compile();
+    private static final SparkDoubleValidator RATE = new SparkDoubleSchema("Rate").min(0.0).max(1.0).compile();
+
+    @Test
+    public void matchesValidatingEachRow() {
+
+        CharSequence[] column = new CharSequence[200];
+        for (int i = 0; i < column.length; i++) {
+            column[i] = i % 7 == 0 ? "" : i % 11 == 0 ? "toolong" : i % 13 == 0 ? null : "ok";
+        }
+
+        SparkBatchResult result = CODE.validateAll(column);
+        assertEquals("Code", result.displayName());
+        assertEquals(column.length, result.size());
+
+        int invalid = 0;
+        for (int i = 0; i < column.length; i++) {
+            assertEquals(CODE.failures(column[i]), result.failures(i));
+            assertEquals(CODE.isValid(column[i]), result.isValid(i));
+            assertEquals(CODE.check(column[i]).errorCodes(), result.errorCodes(i));
+            invalid += CODE.isValid(column[i]) ? 0 : 1;
+        }
+        assertEquals(invalid, result.invalidCount());
+        assertFalse(result.isValid());
+    }
+
+    @Test
+    public void iteratesOverInvalidRows() {
+
+        int[] ages = new int[300];
+        ages[3] = -1;
+        ages[64] = 151;
+        ages[299] = -5;
+
+        SparkBatchResult result = AGE.validateAll(ages);
+        int[] rows = new int[3];
+        int n = 0;
+        for (int row = result.nextInvalidRow(0); row >= 0; row = result.nextInvalidRow(row + 1)) {
+            rows[n++] = row;
+        }
+        assertEquals(3, n);
+        assertTrue(Arrays.equals(new int[]{3, 64, 299}, rows));
+        assertEquals(-1, result.nextInvalidRow(300));
+
+        BitSet bits = result.toBitSet();
+        assertEquals(3, bits.cardinality());
+        assertTrue(bits.get(64));
+        assertEquals(0b10L, result.failures(64));
+        assertEquals(Arrays.asList("max"), result.result(64).errorCodes());
+    }
+
+    @Test
+    public void validColumns() {
+
+        SparkBatchResult result = RATE.validateAll(new double[]{0.0, 0.5, 1.0});
+        assertTrue(result.isValid());
+        assertEquals(0, result.invalidCount());
+        assertEquals(-1, result.nextInvalidRow(0));
+
+        assertTrue(CODE.validateAll(new CharSequence[0]).isValid());
+    }
+}
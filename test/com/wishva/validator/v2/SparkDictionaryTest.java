@@ -0,0 +1,174 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+import com.wishva.validator.SparkException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ *
+ * @author vishv
+ */
+public class SparkDictionaryTest {
+
+    // More than 8 first characters, so the root also takes the binary search.
+    private static final String ALPHABET = "abcdefghijAÉéßſKk";
+
+    @Test
+    public void matchesANaiveSearch() {
+
+        Random random = new Random(24);
+        for (int n = 0; n < 400; n++) {
+            boolean ignoreCase = random.nextBoolean();
+            List<String> words = new ArrayList<>();
+            for (int i = random.nextInt(40); i > 0; i--) {
+                words.add(text(random, 1 + random.nextInt(4)));
+            }
+            SparkDictionary dictionary = SparkDictionary.of(words, ignoreCase);
+            for (int i = 0; i < 200; i++) {
+                String input = text(random, random.nextInt(30));
+                assertEquals(words + " in " + input + " " + ignoreCase,
+                        naive(words, input, ignoreCase), dictionary.containsAny(input));
+            }
+        }
+    }
+
+    @Test
+    public void findsWordsInsideOtherWords() {
+
+        SparkDictionary dictionary = SparkDictionary.of("he", "she", "his", "hers");
+        assertEquals(4, dictionary.size());
+        assertTrue(dictionary.containsAny("ushers"));
+        assertTrue(dictionary.containsAny("ahishers"));
+        assertFalse(dictionary.containsAny("hi s"));
+        assertFalse(dictionary.containsAny(""));
+        assertFalse(dictionary.ignoresCase());
+        assertFalse(dictionary.containsAny("HE"));
+
+        assertEquals(1, SparkDictionary.of("a", "a").size());
+        assertTrue(SparkDictionary.of("").containsAny(""));
+        assertFalse(SparkDictionary.of().containsAny("anything"));
+    }
+
+    @Test
+    public void foldsCase() {
+
+        SparkDictionary dictionary = SparkDictionary.of(Arrays.asList("spam", "ÉTÉ"), true);
+        assertTrue(dictionary.ignoresCase());
+        assertTrue(dictionary.containsAny("No SPAM here"));
+        assertTrue(dictionary.containsAny("un été"));
+        assertFalse(dictionary.containsAny("ete"));
+    }
+
+    @Test
+    public void rulesSearchEveryChunk() throws SparkException, IOException {
+
+        SparkDictionary banned = SparkDictionary.of(Arrays.asList("badword"), true);
+        SparkStringValidator comment = new SparkStringSchema("Comment")
+                .maxLength(10_000)
+                .containsNone(banned)
+                .compile();
+        SparkStringValidator tagged = new SparkStringSchema("Tags")
+                .maxLength(10_000)
+                .containsAny(SparkDictionary.of("#java"), "Needs a tag")
+                .compile();
+
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() < 2045) {
+            sb.append('x');
+        }
+        // The word spans the first two chunks of 2048 characters.
+        String spanning = sb + "BadWord" + sb;
+        assertFalse(comment.isValid(spanning));
+        assertFalse(comment.check(new StringReader(spanning)).isValid());
+        assertTrue(comment.check(new StringReader(sb.toString())).isValid());
+        assertEquals("Comment contains a blocked word!", comment.check("a BADWORD").firstMessage());
+
+        assertTrue(tagged.check(new StringReader(sb + "#java")).isValid());
+        assertEquals("Needs a tag", tagged.check(new StringReader(sb.toString())).firstMessage());
+
+        new SparkString("Comment", "fine").containsNone(banned);
+        try {
+            new SparkString("Comment", "so badword").containsNone(banned, "Blocked");
+            fail("A banned word passed");
+        } catch (SparkException e) {
+            assertEquals("Blocked", e.getMessage());
+        }
+    }
+
+    @Test
+    public void nullWordsAreRejected() {
+
+        try {
+            SparkDictionary.of("a", null);
+            fail("A null word was accepted");
+        } catch (IllegalArgumentException e) {
+        }
+        try {
+            SparkDictionary.of((String[]) null);
+            fail("A null array was accepted");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    private static boolean naive(List<String> words, String input, boolean ignoreCase) {
+
+        String folded = ignoreCase ? fold(input) : input;
+        for (String word : words) {
+            if (folded.contains(ignoreCase ? fold(word) : word)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String fold(String value) {
+
+        char[] chars = value.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+        return new String(chars);
+    }
+
+    private static String text(Random random, int length) {
+
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            // Mostly a few letters, so words occur often.
+            chars[i] = ALPHABET.charAt(random.nextInt(random.nextInt(4) == 0 ? ALPHABET.length() : 3));
+        }
+        return new String(chars);
+    }
+}
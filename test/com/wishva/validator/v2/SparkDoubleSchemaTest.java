@@ -0,0 +1,86 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+import com.wishva.validator.SparkException;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ *
+ * @author vishv
+ */
+public class SparkDoubleSchemaTest {
+
+    private static final SparkDoubleValidator PRICE = new SparkDoubleSchema("Price")
+            .min(0.0)
+            .max(1000.0, "Price is too high")
+            .compile();
+
+    @Test
+    public void boundsAreInclusive() throws SparkException {
+
+        assertEquals(0.0, PRICE.validate(0.0), 0.0);
+        assertEquals(1000.0, PRICE.validate(1000.0), 0.0);
+        assertFalse(PRICE.isValid(-0.01));
+        assertFalse(PRICE.isValid(1000.01));
+    }
+
+    @Test
+    public void failuresRecordEachRule() {
+
+        assertEquals(0b01L, PRICE.failures(-1.0));
+        assertEquals(0b10L, PRICE.failures(Double.POSITIVE_INFINITY));
+        assertEquals(0L, PRICE.failures(9.99));
+    }
+
+    @Test
+    public void customMessageIsUsed() {
+
+        try {
+            PRICE.validate(5000.0);
+            fail();
+        } catch (SparkException e) {
+            assertEquals("Price is too high", e.getMessage());
+        }
+    }
+
+    @Test
+    public void customRules() {
+
+        SparkDoubleValidator finite = new SparkDoubleSchema("Ratio")
+                .rule(new DoubleRule("finite", "{0} must be finite!", null) {
+                    @Override
+                    public boolean test(double input) {
+                        return !Double.isNaN(input) && !Double.isInfinite(input);
+                    }
+                })
+                .compile();
+        assertTrue(finite.isValid(0.5));
+        assertFalse(finite.isValid(Double.NaN));
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ *
+ * @author vishv
+ */
+public class SparkFileValidatorTest {
+
+    private static final SparkStringValidator EMAIL = new SparkStringSchema("Email").required().email().compile();
+    private static final SparkStringValidator NAME = new SparkStringSchema("Name").required().maxLength(6).compile();
+    private static final SparkIntValidator AGE = new SparkIntSchema("Age").min(18).compile();
+    private static final SparkDoubleValidator SCORE = new SparkDoubleSchema("Score").max(10.0).compile();
+
+    private static final String CSV = "email,name,age,score\n"
+            + "john@example.com,John,30,9.5\n"
+            + "not-an-email,\"Smith, J\",12,1\r\n"
+            + "\n"
+            + "jane@example.com,\"Jo \"\"J\"\"\",forty,11.5\n"
+            + "zoë@example.com,Zoë,44,x\n"
+            + "ann@example.com,Ann\n"
+            + "bob@example.com,Bob,20,2";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void reportsEveryRejectedCell() throws IOException {
+
+        for (int window : new int[]{1 << 20, 64, 7}) {
+            List<String> rejected = new ArrayList<>();
+            long rows = validator().window(window).validate(write(CSV),
+                    (row, column, result) -> rejected.add(row + ":" + column + ":" + result.errorCodes()));
+
+            assertEquals("window " + window, 4, rows);
+            assertEquals("window " + window, Arrays.asList(
+                    "3:0:[email]", "3:1:[maxLength]", "3:2:[min]",
+                    "5:2:[number]", "5:3:[max]",
+                    "6:0:[email]", "6:3:[number]",
+                    "7:2:[number]", "7:3:[number]"), rejected);
+        }
+    }
+
+    @Test
+    public void quotedCellsAreDecoded() throws IOException {
+
+        List<String> cells = new ArrayList<>();
+        SparkStringValidator any = new SparkStringSchema("Cell").rule(new StringRule("record", "", null) {
+            @Override
+            public boolean test(CharSequence input) {
+                cells.add(input.toString());
+                return true;
+            }
+        }).compile();
+
+        new SparkFileValidator(',').column(1, any)
+                .validate(write("a,\"x, \"\"y\"\"\nz\",b\na,é€😀\n"), (row, column, result) -> fail());
+        assertEquals(Arrays.asList("x, \"y\"\nz", "é€😀"), cells);
+    }
+
+    @Test
+    public void unclosedQuoteFailsFast() throws IOException {
+
+        StringBuilder csv = new StringBuilder("john@example.com,\"John,30,1\n");
+        for (int i = 0; i < 2000; i++) {
+            csv.append("john@example.com,John,30,1\n");
+        }
+        try {
+            validator().maxRowLength(1000).validate(write(csv.toString()), (row, column, result) -> {
+            });
+            fail();
+        } catch (IOException e) {
+            assertEquals("Row 1 is longer than 1000 bytes", e.getMessage());
+        }
+    }
+
+    @Test
+    public void maxRowLengthIsExact() throws IOException {
+
+        char[] cell = new char[100];
+        Arrays.fill(cell, 'a');
+        String row = new String(cell);
+        for (int window : new int[]{1 << 20, 16}) {
+            assertEquals(0, new SparkFileValidator('\n').window(window).maxRowLength(100)
+                    .validate(write(row + "\n" + row + "\r\n" + row), (r, c, result) -> fail()));
+            try {
+                new SparkFileValidator('\n').window(window).maxRowLength(99)
+                        .validate(write("a\n" + row), (r, c, result) -> fail());
+                fail();
+            } catch (IOException e) {
+                assertTrue(e.getMessage().startsWith("Row 2 "));
+            }
+        }
+    }
+
+    @Test
+    public void wholeLinesWithNewlineDelimiter() throws IOException {
+
+        List<Long> rows = new ArrayList<>();
+        long rejected = new SparkFileValidator('\n').column(0, EMAIL)
+                .validate(write("a@b.com\n\"quoted\"@b.com\nbad\n"), (row, column, result) -> rows.add(row));
+        assertEquals(2, rejected);
+        assertEquals(Arrays.asList(2L, 3L), rows);
+    }
+
+    private static SparkFileValidator validator() {
+
+        return new SparkFileValidator(',')
+                .skipHeader()
+                .column(0, EMAIL)
+                .column(1, NAME)
+                .column(2, AGE)
+                .column(3, SCORE);
+    }
+
+    private Path write(String content) throws IOException {
+
+        Path file = this.folder.newFile().toPath();
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author vishv
+ */
+public class SparkFormTest {
+
+    private static final SparkStringValidator EMAIL = new SparkStringSchema("Email").required().email().compile();
+    private static final SparkStringValidator PASSWORD = new SparkStringSchema("Password")
+            .required()
+            .minLength(8)
+            .regex(".*[0-9].*")
+            .compile();
+    private static final SparkIntValidator AGE = new SparkIntSchema("Age").min(18).compile();
+    private static final SparkDoubleValidator SCORE = new SparkDoubleSchema("Score").max(10.0).compile();
+
+    @Test
+    public void validInputsShareOneResult() {
+
+        SparkResult first = EMAIL.check("john@example.com");
+        assertTrue(first.isValid());
+        assertSame(first, EMAIL.check("jane@example.com"));
+        assertEquals(Collections.emptyList(), first.errorCodes());
+        assertNull(first.firstMessage());
+        assertEquals("Email: valid", first.toString());
+    }
+
+    @Test
+    public void resultReportsEveryFailedRule() {
+
+        SparkResult result = PASSWORD.check("abc");
+
+        assertFalse(result.isValid());
+        assertEquals("Password", result.displayName());
+        assertEquals(0b110L, result.failures());
+        assertFalse(result.failed(0));
+        assertTrue(result.failed(1));
+        assertTrue(result.failed(2));
+        assertFalse(result.failed(64));
+        assertEquals(Arrays.asList("minLength", "regex"), result.errorCodes());
+        assertEquals("Password must include more than 8 characters!", result.firstMessage());
+        assertEquals(2, result.messages().size());
+    }
+
+    @Test
+    public void formKeepsOnlyFailedFields() {
+
+        SparkForm form = new SparkForm()
+                .check(EMAIL, "john@example.com")
+                .check(PASSWORD, "abc")
+                .check(AGE, 12)
+                .check(SCORE, 5.0);
+
+        assertFalse(form.isValid());
+        assertEquals(2, form.errors().size());
+
+        Map<String, List<String>> messages = form.messages();
+        assertEquals(Arrays.asList("Password", "Age"), Arrays.asList(messages.keySet().toArray()));
+        assertEquals(Collections.singletonList("Age must be greater than 18!"), messages.get("Age"));
+    }
+
+    @Test
+    public void validFormHasNoErrors() {
+
+        SparkForm form = new SparkForm()
+                .check(EMAIL, "john@example.com")
+                .check(AGE, 30)
+                .add(SCORE.check(1.0));
+
+        assertTrue(form.isValid());
+        assertTrue(form.errors().isEmpty());
+        assertTrue(form.messages().isEmpty());
+    }
+
+    @Test
+    public void messagesOfTheSameFieldAreMerged() {
+
+        SparkForm form = new SparkForm()
+                .check(PASSWORD, "abc")
+                .check(PASSWORD, "");
+
+        assertEquals(5, form.messages().get("Password").size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void errorsAreReadOnly() {
+
+        new SparkForm().check(AGE, 1).errors().clear();
+    }
+}
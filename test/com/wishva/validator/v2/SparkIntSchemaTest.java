@@ -0,0 +1,97 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+import com.wishva.validator.SparkException;
+import com.wishva.validator.SparkRuleException;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ *
+ * @author vishv
+ */
+public class SparkIntSchemaTest {
+
+    private static final SparkIntValidator AGE = new SparkIntSchema("Age").min(18).max(120).compile();
+
+    @Test
+    public void boundsAreInclusive() throws SparkException {
+
+        assertEquals(18, AGE.validate(18));
+        assertEquals(120, AGE.validate(120));
+        assertFalse(AGE.isValid(17));
+        assertFalse(AGE.isValid(121));
+    }
+
+    @Test
+    public void failuresRecordEachRule() {
+
+        assertEquals(0b01L, AGE.failures(Integer.MIN_VALUE));
+        assertEquals(0b10L, AGE.failures(Integer.MAX_VALUE));
+        assertEquals(0L, AGE.failures(30));
+    }
+
+    @Test
+    public void validateThrowsTheFailedRule() {
+
+        try {
+            AGE.validate(5);
+            fail();
+        } catch (SparkException e) {
+            assertEquals("min", ((SparkRuleException) e).getRule());
+            assertEquals("Age must be greater than 18!", e.getMessage());
+        }
+    }
+
+    @Test
+    public void parsesTextInput() throws SparkException {
+
+        assertEquals(42, AGE.validate("42"));
+        try {
+            AGE.validate("forty-two");
+            fail();
+        } catch (SparkException e) {
+            assertEquals("Age must be a number!", e.getMessage());
+        }
+    }
+
+    @Test
+    public void customRules() {
+
+        SparkIntValidator even = new SparkIntSchema("Count")
+                .rule(new IntRule("even", "{0} must be even!", null) {
+                    @Override
+                    public boolean test(int input) {
+                        return input % 2 == 0;
+                    }
+                })
+                .compile();
+        assertTrue(even.isValid(4));
+        assertFalse(even.isValid(3));
+    }
+}
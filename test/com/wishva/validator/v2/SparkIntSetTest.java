@@ -0,0 +1,112 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+import com.wishva.validator.SparkException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ *
+ * @author vishv
+ */
+public class SparkIntSetTest {
+
+    @Test
+    public void matchesAHashSet() {
+
+        Random random = new Random(20);
+        // Dense sets use the bitmap, sparse ones the table.
+        int[] spreads = {1, 64, 1000, 1 << 20, Integer.MAX_VALUE};
+        for (int spread : spreads) {
+            for (int size : new int[]{0, 1, 2, 10, 500}) {
+                int[] values = new int[size];
+                Set<Integer> expected = new HashSet<>();
+                for (int i = 0; i < size; i++) {
+                    values[i] = random.nextInt(spread) - spread / 2;
+                    expected.add(values[i]);
+                }
+                SparkIntSet set = SparkIntSet.of(values);
+                assertEquals(expected.size(), set.size());
+                for (int value : values) {
+                    assertTrue(set.contains(value));
+                }
+                for (int i = 0; i < 2000; i++) {
+                    int probe = random.nextInt(4) == 0 ? random.nextInt() : random.nextInt(spread) - spread / 2;
+                    assertEquals(spread + " " + probe, expected.contains(probe), set.contains(probe));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void extremeValues() {
+
+        SparkIntSet set = SparkIntSet.of(Integer.MIN_VALUE, 0, Integer.MAX_VALUE);
+        assertTrue(set.contains(Integer.MIN_VALUE));
+        assertTrue(set.contains(0));
+        assertTrue(set.contains(Integer.MAX_VALUE));
+        assertFalse(set.contains(1));
+        assertFalse(set.contains(-1));
+        assertEquals("[-2147483648, 0, 2147483647]", set.toString());
+
+        SparkIntSet dense = SparkIntSet.of(3, 1, 2, 2);
+        assertEquals(3, dense.size());
+        assertEquals("[1, 2, 3]", dense.toString());
+        assertFalse(SparkIntSet.of().contains(0));
+    }
+
+    @Test
+    public void oneOfAndNoneOfRules() throws SparkException {
+
+        SparkIntSet ok = SparkIntSet.of(200, 201, 204);
+        SparkIntValidator status = new SparkIntSchema("Status").oneOf(ok).noneOf(SparkIntSet.of(204)).compile();
+
+        assertTrue(status.isValid(200));
+        assertEquals(Arrays.asList("oneOf"), status.check(500).errorCodes());
+        assertEquals(Arrays.asList("noneOf"), status.check(204).errorCodes());
+        assertEquals("Status is not an allowed value!", status.check(500).firstMessage());
+
+        new SparkInt("Status", 201).oneOf(ok);
+        try {
+            new SparkInt("Status", 404).oneOf(ok, "Unexpected status");
+            fail("404 was accepted");
+        } catch (SparkException e) {
+            assertEquals("Unexpected status", e.getMessage());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nullArraysAreRejected() {
+
+        SparkIntSet.of((int[]) null);
+    }
+}
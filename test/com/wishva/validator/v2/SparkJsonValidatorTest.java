@@ -0,0 +1,312 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author vishv
+ */
+public class SparkJsonValidatorTest {
+
+    private static final SparkStringValidator EMAIL = new SparkStringSchema("Email").required().email().compile();
+    private static final SparkStringValidator NAME = new SparkStringSchema("Name").required().maxLength(5).compile();
+    private static final SparkStringValidator SKU = new SparkStringSchema("Sku").required().digits().compile();
+    private static final SparkIntValidator QUANTITY = new SparkIntSchema("Quantity").min(1).compile();
+
+    private static SparkJsonValidator order() {
+
+        return new SparkJsonValidator()
+                .field("customer.email", EMAIL)
+                .field("customer.name", NAME)
+                .field("items[].sku", SKU)
+                .field("items[].quantity", QUANTITY);
+    }
+
+    /**
+     * Lists the failures of a form as {@code "Field:code"}.
+     */
+    private static List<String> codes(SparkForm form) {
+
+        List<String> codes = new ArrayList<>();
+        for (SparkResult result : form.errors()) {
+            for (String code : result.errorCodes()) {
+                codes.add(result.displayName() + ":" + code);
+            }
+        }
+        return codes;
+    }
+
+    private static List<String> codes(SparkJsonValidator validator, String json) {
+
+        return codes(validator.validate(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static void assertMalformed(SparkJsonValidator validator, String json) {
+
+        assertEquals(json, Collections.singletonList("$:json"), codes(validator, json));
+    }
+
+    @Test
+    public void validDocumentHasNoErrors() {
+
+        String json = "{\"customer\":{\"email\":\"john@example.com\",\"name\":\"John\"},"
+                + "\"items\":[{\"sku\":\"123\",\"quantity\":2},{\"quantity\":1,\"sku\":\"9\"}],"
+                + "\"note\":[1,{\"a\":null},true]}";
+
+        assertTrue(order().validate(json.getBytes(StandardCharsets.UTF_8)).isValid());
+    }
+
+    @Test
+    public void everyFailedFieldIsReported() {
+
+        assertEquals(Arrays.asList("Email:email", "Name:maxLength", "Sku:digits", "Quantity:min"),
+                codes(order(), "{\"customer\":{\"email\":\"john\",\"name\":\"Johnny\"},"
+                        + "\"items\":[{\"sku\":\"12a\",\"quantity\":0}]}"));
+    }
+
+    @Test
+    public void missingAndNullFieldsAreRequired() {
+
+        List<String> required = Arrays.asList("Email:required", "Name:required");
+
+        assertEquals(required, codes(order(), "{\"customer\":{}}"));
+        assertEquals(required, codes(order(), "{\"customer\":{\"email\":null,\"name\":null}}"));
+        assertEquals(required, codes(order(), "{\"customer\":null}"));
+        assertEquals(required, codes(order(), "{}"));
+        // A missing number is not checked.
+        assertEquals(Collections.singletonList("Sku:required"), codes(order(), "{\"customer\":{\"email\":\"a@b.co\",\"name\":\"A\"},\"items\":[{}]}"));
+    }
+
+    @Test
+    public void wrongTypedContainerChecksItsFieldsAsMissing() {
+
+        List<String> expected = Arrays.asList("customer:jsonType", "Email:required", "Name:required");
+
+        assertEquals(expected, codes(order(), "{\"customer\":\"str\"}"));
+        assertEquals(expected, codes(order(), "{\"customer\":[]}"));
+        assertEquals(expected, codes(order(), "{\"customer\":[{\"email\":\"a@b.co\"}]}"));
+        assertEquals(expected, codes(order(), "{\"customer\":12}"));
+        assertEquals(expected, codes(order(), "{\"customer\":true}"));
+        assertEquals(Collections.singletonList("items:jsonType"), codes(order(), "{\"customer\":null,\"items\":{}}")
+                .subList(2, 3));
+
+        SparkJsonValidator nested = new SparkJsonValidator().field("a.b.c", EMAIL);
+        assertEquals(Arrays.asList("a:jsonType", "Email:required"), codes(nested, "{\"a\":\"x\"}"));
+        assertEquals(Arrays.asList("a.b:jsonType", "Email:required"), codes(nested, "{\"a\":{\"b\":[1]}}"));
+    }
+
+    @Test
+    public void wrongTypedFieldsAreReported() {
+
+        assertEquals(Arrays.asList("Email:jsonType", "Name:jsonType", "Sku:jsonType", "Quantity:number"),
+                codes(order(), "{\"customer\":{\"email\":1,\"name\":{}},"
+                        + "\"items\":[{\"sku\":[],\"quantity\":\"2\"}]}"));
+        assertEquals(Collections.singletonList("Quantity:number"),
+                codes(order(), "{\"customer\":{\"email\":\"a@b.co\",\"name\":\"A\"},\"items\":[{\"sku\":\"1\",\"quantity\":1.5}]}"));
+        assertEquals(Collections.singletonList("$:jsonType"), codes(order(), "[]").subList(0, 1));
+    }
+
+    @Test
+    public void trailingCommasAreRejected() {
+
+        assertMalformed(order(), "{\"customer\":{\"email\":\"a@b.co\",\"name\":\"A\"},}");
+        assertMalformed(order(), "{\"items\":[{\"sku\":\"1\"},]}");
+        assertMalformed(order(), "{\"note\":[1,]}");
+        assertMalformed(order(), "{,}");
+        assertMalformed(new SparkJsonValidator(), "[,1]");
+    }
+
+    @Test
+    public void leadingZerosAndBadNumbersAreRejected() {
+
+        for (String number : new String[]{"01", "-01", "00", "1.", ".5", "-", "1e", "1e+", "+1", "0x10", "1.e5"}) {
+            assertMalformed(order(), "{\"note\":" + number + "}");
+        }
+        for (String number : new String[]{"0", "-0", "10", "0.5", "-1.25e-3", "1E+2"}) {
+            assertTrue(number, order().validate(("{\"customer\":{\"email\":\"a@b.co\",\"name\":\"A\"},\"note\":"
+                    + number + "}").getBytes(StandardCharsets.UTF_8)).isValid());
+        }
+    }
+
+    @Test
+    public void escapesAreDecodedBeforeChecking() {
+
+        SparkJsonValidator name = new SparkJsonValidator().field("name", NAME);
+
+        assertTrue(codes(name, "{\"name\":\"\\u0041\\t\\\"\\\\\\/\"}").isEmpty());
+        // Six escapes decode to six characters, one more than the five allowed.
+        assertEquals(Collections.singletonList("Name:maxLength"), codes(name, "{\"name\":\"\\u0041\\n\\r\\b\\f\\u00e9\"}"));
+        // Escaped keys match the configured name.
+        assertEquals(Collections.singletonList("Name:maxLength"), codes(name, "{\"n\\u0061me\":\"abcdef\"}"));
+        assertEquals(Collections.singletonList("Sku:digits"),
+                codes(new SparkJsonValidator().field("sku", SKU), "{\"sku\":\"1\\u0032x\"}"));
+    }
+
+    @Test
+    public void invalidEscapesAndControlCharactersAreRejected() {
+
+        SparkJsonValidator name = new SparkJsonValidator().field("name", NAME);
+
+        for (String value : new String[]{"\\x41", "\\u00g1", "\\u12", "\\", "\\'", "a\tb", "a\nb"}) {
+            assertMalformed(name, "{\"name\":\"" + value + "\"}");
+            // Unchecked strings are validated the same way.
+            assertMalformed(name, "{\"name\":\"A\",\"other\":\"" + value + "\"}");
+        }
+        assertMalformed(name, "{\"name\":\"abc}");
+    }
+
+    @Test
+    public void everyDuplicateKeyIsChecked() {
+
+        SparkJsonValidator name = new SparkJsonValidator().field("name", NAME);
+
+        // A valid later value does not hide an invalid earlier one, nor the reverse.
+        assertEquals(Collections.singletonList("Name:maxLength"), codes(name, "{\"name\":\"abcdef\",\"name\":\"A\"}"));
+        assertEquals(Collections.singletonList("Name:maxLength"), codes(name, "{\"name\":\"A\",\"name\":\"abcdef\"}"));
+        assertEquals(Arrays.asList("Name:maxLength", "Name:required"), codes(name, "{\"name\":\"abcdef\",\"name\":null}"));
+        assertTrue(codes(name, "{\"name\":\"A\",\"name\":\"B\"}").isEmpty());
+    }
+
+    @Test
+    public void nestingDeeperThanTheLimitIsRejected() {
+
+        SparkJsonValidator shallow = new SparkJsonValidator().field("a", NAME).maxDepth(3);
+
+        assertTrue(codes(shallow, "{\"a\":\"x\",\"b\":[[1]]}").isEmpty());
+        assertMalformed(shallow, "{\"a\":\"x\",\"b\":[[[1]]]}");
+        assertMalformed(shallow, "{\"b\":{\"c\":{\"d\":{}}},\"a\":\"x\"}");
+
+        // The default limit is 64, and the explicit stacks survive long runs of brackets.
+        StringBuilder deep = new StringBuilder();
+        for (int i = 0; i < 64; i++) {
+            deep.append('[');
+        }
+        for (int i = 0; i < 64; i++) {
+            deep.append(']');
+        }
+        assertTrue(codes(new SparkJsonValidator(), deep.toString()).isEmpty());
+        assertMalformed(new SparkJsonValidator(), "[" + deep + "]");
+
+        StringBuilder huge = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            huge.append('[');
+        }
+        assertMalformed(new SparkJsonValidator().maxDepth(200000), huge.toString());
+    }
+
+    @Test
+    public void syntaxErrorsStopTheValidation() {
+
+        assertMalformed(order(), "");
+        assertEquals(Arrays.asList("Name:required", "$:json"), codes(order(), "{\"customer\":{\"email\":\"a@b.co\"}} {}"));
+        assertMalformed(order(), "{\"customer\" {}}");
+        assertMalformed(order(), "{customer:{}}");
+        assertMalformed(order(), "{\"note\":nul}");
+        assertMalformed(order(), "{\"note\":True}");
+        assertMalformed(order(), "{\"a\":1");
+        // Failures found before the syntax error are kept.
+        assertEquals(Arrays.asList("Email:email", "$:json"), codes(order(), "{\"customer\":{\"email\":\"x\",]"));
+    }
+
+    @Test
+    public void failFastStopsAtTheFirstFailure() {
+
+        SparkJsonValidator fast = order().failFast();
+
+        assertEquals(Collections.singletonList("Email:email"),
+                codes(fast, "{\"customer\":{\"email\":\"x\",\"name\":\"Johnny\"},\"items\":[{\"sku\":\"a\"}]"));
+        assertEquals(Collections.singletonList("customer:jsonType"), codes(fast, "{\"customer\":\"str\"}"));
+    }
+
+    @Test
+    public void bufferPositionIsNotChanged() {
+
+        byte[] bytes = "xx{\"name\":\"abcdef\"}".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer heap = ByteBuffer.wrap(bytes);
+        heap.position(2);
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes).position(2);
+        SparkJsonValidator name = new SparkJsonValidator().field("name", NAME);
+
+        assertEquals(Collections.singletonList("Name:maxLength"), codes(name.validate(heap)));
+        assertEquals(Collections.singletonList("Name:maxLength"), codes(name.validate(direct)));
+        assertEquals(2, heap.position());
+        assertEquals(2, direct.position());
+    }
+
+    @Test
+    public void streamsLongerThanTheLimitAreRejected() throws IOException {
+
+        byte[] bytes = "{\"name\":\"abcdef\"}".getBytes(StandardCharsets.UTF_8);
+        SparkJsonValidator name = new SparkJsonValidator().field("name", NAME);
+
+        assertEquals(Collections.singletonList("Name:maxLength"),
+                codes(name.maxBytes(bytes.length).validate(new ByteArrayInputStream(bytes))));
+        assertEquals(Collections.singletonList("$:tooLong"),
+                codes(name.maxBytes(bytes.length - 1).validate(new ByteArrayInputStream(bytes))));
+    }
+
+    @Test
+    public void largestLimitDoesNotOverflow() throws IOException {
+
+        SparkJsonValidator name = new SparkJsonValidator().field("name", NAME).maxBytes(Integer.MAX_VALUE);
+
+        assertEquals(Collections.singletonList("Name:maxLength"),
+                codes(name.validate(new ByteArrayInputStream("{\"name\":\"abcdef\"}".getBytes(StandardCharsets.UTF_8)))));
+
+        // A document larger than the first buffer makes it grow.
+        StringBuilder big = new StringBuilder("{\"name\":\"A\",\"pad\":\"");
+        for (int i = 0; i < 100000; i++) {
+            big.append('x');
+        }
+        big.append("\"}");
+        assertTrue(name.validate(new ByteArrayInputStream(big.toString().getBytes(StandardCharsets.UTF_8))).isValid());
+        assertTrue(name.maxBytes(Integer.MAX_VALUE - 8).validate(
+                new ByteArrayInputStream(big.toString().getBytes(StandardCharsets.UTF_8))).isValid());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void pathCannotBeConfiguredTwice() {
+
+        new SparkJsonValidator().field("a.b", NAME).field("a.b", SKU);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fieldCannotHaveChildren() {
+
+        new SparkJsonValidator().field("a", NAME).field("a.b", SKU);
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+import com.wishva.validator.SparkException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author vishv
+ */
+public class SparkLengthTest {
+
+    private static final String[] PIECES = {
+        "a", "Z", "\r", "\n", "\r\n", "é", "é", "́", "😀", "👍🏽", "🇱🇰", "🇱", "👨‍👩‍👧",
+        "각", "가", "\uD83D", "\uDE00", "‍", "ß", "中", "\u0000"
+    };
+
+    @Test
+    public void countsGraphemeClusters() {
+
+        assertEquals(0L, SparkLength.GRAPHEMES.length(""));
+        assertEquals(5L, SparkLength.GRAPHEMES.length("hello"));
+        assertEquals(2L, SparkLength.GRAPHEMES.length("a\r\nb".substring(1)));
+        assertEquals(1L, SparkLength.GRAPHEMES.length("é"));
+        assertEquals(1L, SparkLength.GRAPHEMES.length("👍🏽"));
+        assertEquals(1L, SparkLength.GRAPHEMES.length("🇱🇰"));
+        assertEquals(2L, SparkLength.GRAPHEMES.length("🇱🇰🇮"));
+        assertEquals(1L, SparkLength.GRAPHEMES.length("👨‍👩‍👧"));
+        assertEquals(1L, SparkLength.GRAPHEMES.length("각"));
+        assertEquals(2L, SparkLength.GRAPHEMES.length("\uD83Da"));
+    }
+
+    @Test
+    public void countsTheOtherModes() {
+
+        String input = "a😀é\uD83D";
+        assertEquals(5L, SparkLength.UTF16.length(input));
+        assertEquals(4L, SparkLength.CODE_POINTS.length(input));
+        assertEquals(1 + 4 + 2 + 3, SparkLength.UTF8_BYTES.length(input));
+    }
+
+    @Test
+    public void modesMatchTheirReferenceOnGeneratedInputs() {
+
+        Random random = new Random(23);
+        for (int n = 0; n < 20_000; n++) {
+            String input = input(random);
+            assertEquals(input, input.length(), SparkLength.UTF16.length(input));
+            assertEquals(input, input.codePointCount(0, input.length()), SparkLength.CODE_POINTS.length(input));
+            if (wellFormed(input)) {
+                assertEquals(input, input.getBytes(StandardCharsets.UTF_8).length, SparkLength.UTF8_BYTES.length(input));
+            }
+        }
+    }
+
+    @Test
+    public void countersMatchTheWholeCountInAnyChunking() {
+
+        Random random = new Random(230);
+        for (int n = 0; n < 20_000; n++) {
+            String input = input(random);
+            char[] chars = input.toCharArray();
+            for (SparkLength mode : SparkLength.values()) {
+                long expected = mode.length(input);
+                SparkLength.Counter counter = mode.counter();
+                for (int from = 0; from < chars.length;) {
+                    int to = Math.min(chars.length, from + 1 + random.nextInt(3));
+                    counter.add(chars, from, to);
+                    assertTrue(mode + " " + input, counter.count <= expected);
+                    from = to;
+                }
+                assertEquals(mode + " " + input, expected, counter.finish());
+                // Other CharSequences take the same path as Strings.
+                assertEquals(mode + " " + input, expected, mode.length(CharBuffer.wrap(chars)));
+            }
+        }
+    }
+
+    @Test
+    public void boundsAgreeWithTheLength() {
+
+        Random random = new Random(231);
+        for (int n = 0; n < 5_000; n++) {
+            String input = input(random);
+            for (SparkLength mode : SparkLength.values()) {
+                long length = mode.length(input);
+                for (int limit = 0; limit < 12; limit++) {
+                    assertEquals(mode + " " + input, length >= limit, mode.atLeast(input, limit));
+                    assertEquals(mode + " " + input, length <= limit, mode.atMost(input, limit));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void lengthRulesUseTheMode() throws SparkException, IOException {
+
+        SparkStringValidator bio = new SparkStringSchema("Bio")
+                .minLength(2, SparkLength.GRAPHEMES, null)
+                .maxLength(3, SparkLength.GRAPHEMES, "Too long")
+                .compile();
+        assertTrue(bio.isValid("🇱🇰👍🏽"));
+        assertFalse(bio.isValid("🇱🇰"));
+        assertEquals("Too long", bio.check("abcd").firstMessage());
+
+        new SparkString("Name", "Zoë").maxLength(4, SparkLength.UTF8_BYTES, null).minLength(3, SparkLength.CODE_POINTS, null);
+        assertFalse(new SparkStringSchema("Name").maxLength(3, SparkLength.UTF8_BYTES, null).compile().isValid("Zoë"));
+
+        // Calls written before the modes existed still compile.
+        new SparkString("Name", "Zoë").minLength(3, null).maxLength(3, null);
+        assertTrue(new SparkStringSchema("Name").minLength(3, null).maxLength(3, null).compile().isValid("Zoë"));
+
+        // Grapheme lengths are counted in chunks too; a UTF-16 maxLength bounds the stream.
+        SparkStringValidator streamed = new SparkStringSchema("Bio")
+                .maxLength(5000)
+                .minLength(3, SparkLength.GRAPHEMES, null)
+                .compile();
+        StringBuilder accents = new StringBuilder();
+        for (int i = 0; i < 1023; i++) {
+            accents.append('e').append('́');
+        }
+        assertTrue(streamed.check(new StringReader(accents.toString())).isValid());
+        assertFalse(streamed.check(new StringReader("🇱🇰🇱🇰")).isValid());
+    }
+
+    private static String input(Random random) {
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = random.nextInt(6); i > 0; i--) {
+            sb.append(PIECES[random.nextInt(PIECES.length)]);
+        }
+        return sb.toString();
+    }
+
+    private static boolean wellFormed(String input) {
+
+        for (int i = 0; i < input.length(); i++) {
+            char c = input.charAt(i);
+            if (Character.isHighSurrogate(c) && i + 1 < input.length() && Character.isLowSurrogate(input.charAt(i + 1))) {
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ *
+ * @author vishv
+ */
+public class SparkMetricsTest {
+
+    @After
+    public void disable() {
+
+        SparkMetrics.setEnabled(false);
+        SparkMetrics.setSampleRate(SparkMetrics.DEFAULT_SAMPLE_RATE);
+    }
+
+    @Test
+    public void disabledMetricsCountNothing() {
+
+        SparkIntValidator quiet = new SparkIntSchema("MetricsQuiet").min(0).compile();
+        quiet.isValid(1);
+        assertNull(SparkMetrics.snapshot().fields().get("MetricsQuiet"));
+    }
+
+    @Test
+    public void countsPassesAndFailuresPerFieldAndRule() {
+
+        SparkMetrics.setEnabled(true);
+        SparkMetrics.setSampleRate(1);
+        SparkStringValidator code = new SparkStringSchema("MetricsCode")
+                .required()
+                .regex("[A-Z]{3}")
+                .compile();
+
+        code.isValid("ABC");
+        code.isValid("abc");
+        code.isValid(null);
+
+        SparkMetrics.Stats field = SparkMetrics.snapshot().fields().get("MetricsCode");
+        // null fails required; the regex runs only on the two other inputs.
+        assertEquals(3L, field.passed());
+        assertEquals(2L, field.failed());
+        assertEquals(5L, field.samples());
+
+        SparkMetrics.Stats regex = SparkMetrics.snapshot().rules().get("regex:[A-Z]{3}");
+        assertTrue(regex.passed() >= 1L && regex.failed() >= 1L);
+    }
+
+    @Test
+    public void batchesAreCountedPerRow() {
+
+        SparkMetrics.setEnabled(true);
+        SparkIntValidator age = new SparkIntSchema("MetricsAge").min(18).max(120).compile();
+
+        age.validateAll(new int[]{10, 20, 30, 200});
+
+        SparkMetrics.Stats field = SparkMetrics.snapshot().fields().get("MetricsAge");
+        assertEquals(6L, field.passed());
+        assertEquals(2L, field.failed());
+        assertEquals(2L, field.samples());
+    }
+
+    @Test
+    public void resetClearsTheCounters() {
+
+        SparkMetrics.setEnabled(true);
+        SparkDoubleValidator rate = new SparkDoubleSchema("MetricsRate").min(0.0).compile();
+        rate.isValid(-1.0);
+        SparkMetrics.reset();
+
+        SparkMetrics.Stats field = SparkMetrics.snapshot().fields().get("MetricsRate");
+        assertEquals(0L, field.passed() + field.failed() + field.samples());
+        assertEquals(0L, field.percentileNanos(99));
+    }
+
+    @Test
+    public void sampleRateIsAPowerOfTwo() {
+
+        SparkMetrics.setSampleRate(1);
+        assertEquals(1, SparkMetrics.getSampleRate());
+        SparkMetrics.setSampleRate(10);
+        assertEquals(16, SparkMetrics.getSampleRate());
+        SparkMetrics.setSampleRate(64);
+        assertEquals(64, SparkMetrics.getSampleRate());
+        try {
+            SparkMetrics.setSampleRate(0);
+            fail("A rate of 0 was accepted");
+        } catch (IllegalArgumentException e) {
+            assertEquals(64, SparkMetrics.getSampleRate());
+        }
+    }
+
+    @Test
+    public void percentilesAreBoundedByTheBucketAndTheMaximum() {
+
+        long[] buckets = new long[65];
+        buckets[0] = 1;
+        buckets[4] = 8;
+        buckets[10] = 1;
+        SparkMetrics.Stats stats = new SparkMetrics.Stats("rule", 10, 0, 1000, 600, buckets);
+
+        assertEquals(10L, stats.samples());
+        assertEquals(100.0, stats.meanNanos(), 0.0);
+        assertEquals(0L, stats.percentileNanos(10));
+        assertEquals(15L, stats.percentileNanos(50));
+        assertEquals(15L, stats.percentileNanos(90));
+        assertEquals(600L, stats.percentileNanos(100));
+        try {
+            stats.percentileNanos(101);
+            fail("A percentile above 100 was accepted");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+/**
+ *
+ * @author vishv
+ */
+public class SparkParallelTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    private static final SparkStringValidator EMAIL = new SparkStringSchema("Email").required().email().compile();
+    private static final SparkIntValidator AGE = new SparkIntSchema("Age").min(18).max(99).compile();
+    private static final SparkDoubleValidator SCORE = new SparkDoubleSchema("Score").min(0.0).compile();
+
+    @AfterClass
+    public static void shutdown() {
+
+        POOL.shutdown();
+    }
+
+    @Test
+    public void matchesSequentialValidation() {
+
+        Random random = new Random(11);
+        CharSequence[] emails = new CharSequence[10_000];
+        int[] ages = new int[10_001];
+        double[] scores = new double[9_999];
+        for (int i = 0; i < emails.length; i++) {
+            emails[i] = random.nextInt(5) == 0 ? "not an email" : "user" + i + "@example.com";
+        }
+        for (int i = 0; i < ages.length; i++) {
+            ages[i] = random.nextInt(120);
+        }
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = random.nextGaussian();
+        }
+
+        // Chunks of 100 are rounded up to 128 rows.
+        SparkParallel parallel = new SparkParallel(POOL, 100);
+        assertSameResult(EMAIL.validateAll(emails), parallel.validateAll(EMAIL, emails));
+        assertSameResult(AGE.validateAll(ages), parallel.validateAll(AGE, ages));
+        assertSameResult(SCORE.validateAll(scores), parallel.validateAll(SCORE, scores));
+    }
+
+    @Test
+    public void smallColumnsRunInOneChunk() {
+
+        SparkBatchResult result = new SparkParallel(POOL).validateAll(AGE, new int[]{1, 20, 200});
+        assertEquals(2, result.invalidCount());
+        assertEquals(0, new SparkParallel(POOL).validateAll(AGE, new int[0]).size());
+    }
+
+    @Test(timeout = 10000)
+    public void hugeChunksAreNotRoundedPastTheIntRange() {
+
+        int[] ages = {1, 20, 200, 30};
+        for (int chunkSize : new int[]{Integer.MAX_VALUE, Integer.MAX_VALUE - 10, Integer.MAX_VALUE - 63, (Integer.MAX_VALUE & ~63) + 1}) {
+            assertSameResult(AGE.validateAll(ages), new SparkParallel(POOL, chunkSize).validateAll(AGE, ages));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsEmptyChunks() {
+
+        new SparkParallel(POOL, 0);
+    }
+
+    private static void assertSameResult(SparkBatchResult expected, SparkBatchResult actual) {
+
+        assertEquals(expected.size(), actual.size());
+        assertArrayEquals(expected.invalidRows(), actual.invalidRows());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.failures(i), actual.failures(i));
+        }
+    }
+}
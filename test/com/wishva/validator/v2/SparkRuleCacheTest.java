@@ -0,0 +1,253 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+import java.nio.CharBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ *
+ * @author vishv
+ */
+public class SparkRuleCacheTest {
+
+    /**
+     * An expensive rule counting its calls: passes the inputs without an 'x'.
+     */
+    private static final class Counted extends StringRule {
+
+        final AtomicInteger calls = new AtomicInteger();
+
+        Counted() {
+
+            super("noX", "{0} cannot contain x!", null);
+        }
+
+        @Override
+        public boolean test(CharSequence input) {
+
+            this.calls.incrementAndGet();
+            for (int i = 0; input != null && i < input.length(); i++) {
+                if (input.charAt(i) == 'x') {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    @Test
+    public void repeatedInputsRunTheExpensiveRulesOnce() {
+
+        Counted rule = new Counted();
+        SparkRuleCache cache = new SparkRuleCache(100);
+        SparkStringValidator validator = new SparkStringSchema("Code")
+                .required()
+                .maxLength(8)
+                .rule(rule)
+                .cache(cache)
+                .compile();
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(validator.isValid("abc"));
+            assertEquals(0b100L, validator.failures("xyz"));
+            // Cheap rules always run.
+            assertEquals(0b010L, validator.failures("abcdefghij"));
+            assertEquals(0b001L, validator.failures(null));
+        }
+        // null is not cached, so the rule sees it every time.
+        assertEquals(3 + 10, rule.calls.get());
+        assertEquals(3, cache.size());
+        assertEquals(3L, cache.missCount());
+        assertEquals(27L, cache.hitCount());
+        assertEquals(0.9, cache.hitRate(), 1e-9);
+    }
+
+    @Test
+    public void slicesAndLongStringsAreNeverCached() {
+
+        Counted rule = new Counted();
+        SparkRuleCache cache = new SparkRuleCache(100);
+        SparkStringValidator validator = new SparkStringSchema("Password").rule(rule).cache(cache).compile();
+
+        char[] password = "secret".toCharArray();
+        StringBuilder tooLong = new StringBuilder();
+        for (int i = 0; i <= SparkRuleCache.MAX_KEY_LENGTH; i++) {
+            tooLong.append('a');
+        }
+        for (int i = 0; i < 3; i++) {
+            assertTrue(validator.isValid(CharBuffer.wrap(password)));
+            assertTrue(validator.isValid(new StringBuilder("secret")));
+            assertTrue(validator.isValid(tooLong.toString()));
+        }
+        assertEquals(9, rule.calls.get());
+        assertEquals(0, cache.size());
+        assertEquals(0L, cache.missCount() + cache.hitCount());
+
+        assertTrue(SparkRuleCache.accepts(tooLong.substring(1)));
+        assertFalse(SparkRuleCache.accepts(null));
+    }
+
+    @Test
+    public void schemasCanBeCompiledTwice() {
+
+        Counted rule = new Counted();
+        SparkRuleCache cache = new SparkRuleCache(100);
+        SparkStringSchema schema = new SparkStringSchema("Code").rule(rule).cache(cache);
+        SparkStringValidator first = schema.compile();
+        SparkStringValidator second = schema.compile();
+
+        assertFalse(first.isValid("x"));
+        assertFalse(second.isValid("x"));
+        assertEquals(1, rule.calls.get());
+
+        try {
+            new SparkStringSchema("Other").required().rule(rule).cache(cache).compile();
+            fail("A cache was shared by validators with different rules");
+        } catch (IllegalStateException e) {
+        }
+    }
+
+    @Test
+    public void lruEvictsTheLeastRecentlyUsedInput() {
+
+        SparkRuleCache cache = new SparkRuleCache(1, SparkRuleCache.Policy.LRU, 0L, TimeUnit.NANOSECONDS);
+        Counted rule = new Counted();
+        SparkStringValidator validator = new SparkStringSchema("Code").rule(rule).cache(cache).compile();
+
+        validator.isValid("a");
+        validator.isValid("b");
+        validator.isValid("a");
+        assertEquals(3, rule.calls.get());
+        assertEquals(1, cache.size());
+        assertEquals(2L, cache.evictionCount());
+        assertEquals(SparkRuleCache.Policy.LRU, cache.policy());
+    }
+
+    @Test
+    public void sizeNeverExceedsMaxSize() {
+
+        for (SparkRuleCache.Policy policy : SparkRuleCache.Policy.values()) {
+            for (int maxSize = 1; maxSize <= 300; maxSize += maxSize < 20 ? 1 : 7) {
+                SparkRuleCache cache = new SparkRuleCache(maxSize, policy, 0L, TimeUnit.NANOSECONDS);
+                SparkStringValidator validator = new SparkStringSchema("Code").rule(new Counted()).cache(cache).compile();
+                for (int i = 0; i < maxSize * 8 + 64; i++) {
+                    validator.isValid("v" + i);
+                }
+                assertEquals(maxSize, cache.maxSize());
+                assertTrue(policy + " " + maxSize + ": " + cache.size(), cache.size() <= maxSize);
+            }
+        }
+    }
+
+    @Test
+    public void tinyLfuKeepsFrequentInputs() {
+
+        SparkRuleCache cache = new SparkRuleCache(200);
+        Counted rule = new Counted();
+        SparkStringValidator validator = new SparkStringSchema("Code").rule(rule).cache(cache).compile();
+
+        Random random = new Random(18);
+        for (int i = 0; i < 20_000; i++) {
+            // Half the traffic is 50 frequent values, the rest are one-off values.
+            String input = random.nextBoolean() ? "hot" + random.nextInt(50) : "cold" + i;
+            validator.isValid(input);
+            assertTrue(cache.size() <= cache.maxSize());
+        }
+        int calls = rule.calls.get();
+        for (int i = 0; i < 50; i++) {
+            validator.isValid("hot" + i);
+        }
+        assertTrue(rule.calls.get() - calls < 5);
+    }
+
+    @Test
+    public void entriesExpire() throws InterruptedException {
+
+        SparkRuleCache cache = new SparkRuleCache(10, SparkRuleCache.Policy.TINY_LFU, 20, TimeUnit.MILLISECONDS);
+        Counted rule = new Counted();
+        SparkStringValidator validator = new SparkStringSchema("Code").rule(rule).cache(cache).compile();
+
+        validator.isValid("a");
+        validator.isValid("a");
+        assertEquals(1, rule.calls.get());
+        Thread.sleep(50);
+        validator.isValid("a");
+        assertEquals(2, rule.calls.get());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        validator.isValid("a");
+        assertEquals(3, rule.calls.get());
+    }
+
+    @Test
+    public void cachedResultsMatchUncachedOnes() {
+
+        SparkStringSchema plain = new SparkStringSchema("Email").required().maxLength(20).email();
+        SparkStringValidator uncached = plain.compile();
+        SparkStringValidator cached = new SparkStringSchema("Email").required().maxLength(20).email()
+                .cache(new SparkRuleCache(16))
+                .compile();
+
+        Random random = new Random(180);
+        String[] parts = {"a", "b@", "c.", "com", "@x", "..", ""};
+        for (int i = 0; i < 5_000; i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int j = random.nextInt(6); j > 0; j--) {
+                sb.append(parts[random.nextInt(parts.length)]);
+            }
+            String input = sb.toString();
+            assertEquals(input, uncached.failures(input), cached.failures(input));
+            assertEquals(input, uncached.isValid(input), cached.isValid(input));
+        }
+    }
+
+    @Test
+    public void constructorChecksItsArguments() {
+
+        try {
+            new SparkRuleCache(0);
+            fail("A size of 0 was accepted");
+        } catch (IllegalArgumentException e) {
+        }
+        try {
+            new SparkRuleCache(10, null, 0L, TimeUnit.SECONDS);
+            fail("A null policy was accepted");
+        } catch (IllegalArgumentException e) {
+        }
+        try {
+            new SparkRuleCache(10, SparkRuleCache.Policy.LRU, -1L, TimeUnit.SECONDS);
+            fail("A negative ttl was accepted");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+import com.wishva.validator.SparkException;
+import com.wishva.validator.SparkRuleException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ *
+ * @author vishv
+ */
+public class SparkStringInputTest {
+
+    @Test
+    public void validatesCharArraysInPlace() throws SparkException {
+
+        char[] password = "s3cret-pass".toCharArray();
+        SparkString input = new SparkString("Password", password).required().minLength(8);
+        assertEquals("s3cret-pass", input.toString());
+
+        input.wipe();
+        assertArrayEquals(new char[11], password);
+    }
+
+    @Test
+    public void validatesPartsOfArrays() throws SparkException {
+
+        char[] chars = "xxsecretxx".toCharArray();
+        new SparkString("Password", chars, 2, 6).required().maxLength(6);
+
+        byte[] bytes = "--abc--".getBytes(StandardCharsets.UTF_8);
+        SparkString ascii = new SparkString("Code", bytes, 2, 3).alphanumeric();
+        assertEquals("abc", ascii.toString());
+        ascii.wipe();
+        assertArrayEquals("--\0\0\0--".getBytes(StandardCharsets.UTF_8), bytes);
+    }
+
+    @Test
+    public void decodesUtf8Once() throws SparkException {
+
+        byte[] bytes = "pässwörd😀".getBytes(StandardCharsets.UTF_8);
+        SparkString input = new SparkString("Password", ByteBuffer.wrap(bytes)).minLength(10).maxLength(10);
+        assertEquals("pässwörd😀", input.toString());
+
+        input.wipe();
+        assertArrayEquals(new byte[bytes.length], bytes);
+        assertNull(input.toString());
+    }
+
+    @Test
+    public void longDecodedInputIsWiped() throws SparkException {
+
+        char[] text = new char[300];
+        Arrays.fill(text, 'é');
+        byte[] bytes = new String(text).getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int position = buffer.position();
+
+        SparkString input = new SparkString("Bio", buffer).maxLength(300);
+        assertEquals(position, buffer.position());
+        input.wipe();
+        assertArrayEquals(new byte[bytes.length], bytes);
+    }
+
+    @Test
+    public void acceptsAnyCharSequence() throws SparkException {
+
+        new SparkString("Name", new StringBuilder("John")).required();
+        new SparkString("Name", CharBuffer.wrap("John")).required();
+    }
+
+    @Test
+    public void nullInputsOnlyFailRequired() throws SparkException {
+
+        assertRequiredFails(new SparkString("Name", (char[]) null));
+        assertRequiredFails(new SparkString("Name", (char[]) null, 0, 0));
+        assertRequiredFails(new SparkString("Name", (byte[]) null, 0, 0));
+        assertRequiredFails(new SparkString("Name", (ByteBuffer) null));
+        assertRequiredFails(new SparkString("Name", (CharSequence) null));
+        assertRequiredFails(new SparkString("Name", (String) null));
+    }
+
+    @Test
+    public void rejectsInputsLongerThan1000Characters() {
+
+        char[] chars = new char[1001];
+        Arrays.fill(chars, 'a');
+        try {
+            new SparkString("Bio", chars);
+            fail();
+        } catch (SparkException e) {
+            assertEquals("tooLong", ((SparkRuleException) e).getRule());
+        }
+        try {
+            new SparkString("Bio", ByteBuffer.wrap(new byte[4000]));
+            fail();
+        } catch (SparkException e) {
+            assertEquals("tooLong", ((SparkRuleException) e).getRule());
+        }
+    }
+
+    private static void assertRequiredFails(SparkString input) throws SparkException {
+
+        input.maxLength(3).email().regex("x");
+        try {
+            input.required();
+            fail();
+        } catch (SparkRuleException e) {
+            assertEquals("required", e.getRule());
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+import com.wishva.validator.SparkException;
+import com.wishva.validator.SparkRuleException;
+import java.nio.CharBuffer;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ *
+ * @author vishv
+ */
+public class SparkStringSchemaTest {
+
+    private static final SparkStringValidator PASSWORD = new SparkStringSchema("Password")
+            .required()
+            .minLength(8)
+            .maxLength(16)
+            .regex("[A-Za-z0-9]+")
+            .compile();
+
+    @Test
+    public void validInputIsReturned() throws SparkException {
+
+        String input = "secret123";
+        assertSame(input, PASSWORD.validate(input));
+        assertTrue(PASSWORD.isValid(input));
+        assertEquals(0L, PASSWORD.failures(input));
+    }
+
+    @Test
+    public void validateStopsAtTheFirstFailedRule() {
+
+        assertFailsWith("required", "");
+        assertFailsWith("required", "   ");
+        assertFailsWith("required", null);
+        assertFailsWith("minLength", "short");
+        assertFailsWith("maxLength", "abcdefghijklmnopq");
+        assertFailsWith("regex", "secret-123");
+    }
+
+    @Test
+    public void failuresRecordEveryFailedRule() {
+
+        // minLength and regex fail, required and maxLength pass.
+        assertEquals(0b1010L, PASSWORD.failures("a-b"));
+        // Only required rejects null.
+        assertEquals(0b0001L, PASSWORD.failures(null));
+    }
+
+    @Test
+    public void messagesUseTheDisplayName() {
+
+        try {
+            PASSWORD.validate("short");
+            fail();
+        } catch (SparkException e) {
+            assertEquals("Password must include more than 8 characters!", e.getMessage());
+        }
+    }
+
+    @Test
+    public void customMessagesReplaceTheTemplate() {
+
+        SparkStringValidator name = new SparkStringSchema("Name").required("Tell us your name").compile();
+        try {
+            name.validate("");
+            fail();
+        } catch (SparkException e) {
+            assertEquals("Tell us your name", e.getMessage());
+        }
+    }
+
+    @Test
+    public void compiledValidatorIgnoresLaterSchemaChanges() {
+
+        SparkStringSchema schema = new SparkStringSchema("Code").maxLength(3);
+        SparkStringValidator validator = schema.compile();
+        schema.required();
+
+        assertTrue(validator.isValid(""));
+        assertFalse(schema.compile().isValid(""));
+    }
+
+    @Test
+    public void equalsAndEmailRules() {
+
+        SparkStringValidator confirm = new SparkStringSchema("Confirm")
+                .equals("secret", "Passwords do not match")
+                .compile();
+        assertTrue(confirm.isValid("secret"));
+        assertFalse(confirm.isValid("Secret"));
+
+        SparkStringValidator email = new SparkStringSchema("Email").email().compile();
+        assertTrue(email.isValid("john.doe@example.com"));
+        assertFalse(email.isValid("john.doe@example"));
+    }
+
+    @Test
+    public void acceptsAnyCharSequence() {
+
+        assertTrue(PASSWORD.isValid(new StringBuilder("secret123")));
+        assertTrue(PASSWORD.isValid(CharBuffer.wrap("secret123".toCharArray())));
+    }
+
+    @Test
+    public void stacklessValidatorsThrowSharedExceptions() {
+
+        SparkStringValidator name = new SparkStringSchema("Name").required().stackless().compile();
+        SparkException first = null;
+        try {
+            name.validate("");
+        } catch (SparkException e) {
+            first = e;
+            assertEquals(0, e.getStackTrace().length);
+        }
+        try {
+            name.validate((String) null);
+        } catch (SparkException e) {
+            assertSame(first, e);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void rejectsMoreThan64Rules() {
+
+        SparkStringSchema schema = new SparkStringSchema("Field");
+        for (int i = 0; i < 65; i++) {
+            schema.maxLength(10);
+        }
+        schema.compile();
+    }
+
+    private static void assertFailsWith(String rule, String input) {
+
+        try {
+            PASSWORD.validate(input);
+            fail("Expected " + rule + " to fail for " + input);
+        } catch (SparkException e) {
+            assertEquals(rule, ((SparkRuleException) e).getRule());
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+import com.wishva.validator.SparkException;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ *
+ * @author vishv
+ */
+public class SparkStringSetTest {
+
+    @Test
+    public void matchesAHashSet() {
+
+        Random random = new Random(200);
+        for (int size : new int[]{0, 1, 3, 100, 5000}) {
+            String[] values = new String[size];
+            Set<String> expected = new HashSet<>();
+            for (int i = 0; i < size; i++) {
+                values[i] = word(random);
+                expected.add(values[i]);
+            }
+            SparkStringSet set = SparkStringSet.of(values);
+            assertEquals(expected.size(), set.size());
+            for (int i = 0; i < 20_000; i++) {
+                String probe = word(random);
+                assertEquals(probe, expected.contains(probe), set.contains(probe));
+            }
+            for (String value : values) {
+                assertTrue(set.contains(value));
+                assertTrue(set.contains(new StringBuilder(value)));
+                assertTrue(set.contains(CharBuffer.wrap(value.toCharArray())));
+            }
+        }
+    }
+
+    @Test
+    public void lookupsCompareEveryCharacter() {
+
+        // "Aa" and "BB" have the same String.hashCode.
+        SparkStringSet set = SparkStringSet.of(Arrays.asList("Aa", "", "é"));
+        assertEquals(3, set.size());
+        assertTrue(set.contains("Aa"));
+        assertTrue(set.contains(""));
+        assertTrue(set.contains("é"));
+        assertFalse(set.contains("BB"));
+        assertFalse(set.contains("A"));
+        assertFalse(set.contains("Aaa"));
+        assertFalse(set.contains("e"));
+    }
+
+    @Test
+    public void oneOfAndNoneOfRules() throws SparkException {
+
+        SparkStringSet countries = SparkStringSet.of("LK", "IN", "US");
+        SparkStringValidator country = new SparkStringSchema("Country")
+                .oneOf(countries)
+                .noneOf(SparkStringSet.of("US"))
+                .compile();
+
+        assertTrue(country.isValid("LK"));
+        assertTrue(country.isValid(null));
+        assertEquals(Arrays.asList("oneOf"), country.check("lk").errorCodes());
+        assertEquals(Arrays.asList("noneOf"), country.check("US").errorCodes());
+        assertEquals("Country is a reserved value!", country.check("US").firstMessage());
+
+        new SparkString("Country", "IN").oneOf(countries);
+        try {
+            new SparkString("Username", "admin").noneOf(SparkStringSet.of("admin", "root"), "Reserved name");
+            fail("A reserved name was accepted");
+        } catch (SparkException e) {
+            assertEquals("Reserved name", e.getMessage());
+        }
+    }
+
+    @Test
+    public void nullValuesAreRejected() {
+
+        try {
+            SparkStringSet.of("a", null);
+            fail("A null value was accepted");
+        } catch (IllegalArgumentException e) {
+        }
+        try {
+            SparkStringSet.of((String[]) null);
+            fail("A null array was accepted");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    private static String word(Random random) {
+
+        char[] chars = new char[random.nextInt(4)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = "abcAB".charAt(random.nextInt(5));
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+import com.wishva.validator.SparkException;
+import com.wishva.validator.SparkRuleException;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ *
+ * @author vishv
+ */
+public class SparkStringStreamTest {
+
+    private static final SparkStringValidator[] VALIDATORS = {
+        new SparkStringSchema("Code").required().maxLength(3000).digits().compile(),
+        new SparkStringSchema("Slug").minLength(2).maxLength(5000).safeRegex("[a-z0-9]+(?:-[a-z0-9]+)*").compile(),
+        new SparkStringSchema("Email").required().maxLength(4000).email().compile(),
+        new SparkStringSchema("Text").maxLength(2500).ascii().regex(".*[0-9].*").compile()
+    };
+
+    /**
+     * A reader of an endless run of one character, counting what it hands
+     * out.
+     */
+    private static final class Endless extends Reader {
+
+        long read;
+        boolean closed;
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+
+            for (int i = 0; i < length; i++) {
+                buffer[offset + i] = '1';
+            }
+            this.read += length;
+            return length;
+        }
+
+        @Override
+        public void close() {
+
+            this.closed = true;
+        }
+    }
+
+    @Test
+    public void streamsAgreeWithWholeInputs() throws IOException {
+
+        Random random = new Random(21);
+        String alphabet = "0123456789abc-@.é";
+        for (int n = 0; n < 3000; n++) {
+            int length = random.nextInt(4) == 0 ? random.nextInt(6000) : random.nextInt(20);
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < length; i++) {
+                sb.append(alphabet.charAt(random.nextInt(random.nextBoolean() ? 10 : alphabet.length())));
+            }
+            String input = sb.toString();
+            for (SparkStringValidator validator : VALIDATORS) {
+                long expected = validator.failures(input);
+                long streamed = validator.check(new StringReader(input)).failures();
+                // Reading stops at the first failure, so fewer rules may be reported.
+                assertEquals(validator.displayName() + " " + input, expected == 0L, streamed == 0L);
+                assertEquals(validator.displayName() + " " + input, streamed, streamed & expected);
+            }
+        }
+    }
+
+    @Test
+    public void readingStopsAtTheFirstFailure() throws IOException {
+
+        SparkStringValidator code = new SparkStringSchema("Code").maxLength(10).compile();
+        Endless reader = new Endless();
+
+        assertEquals(1L, code.check(reader).failures());
+        assertTrue(reader.read <= 4096);
+        assertFalse(reader.closed);
+    }
+
+    @Test
+    public void validateReturnsTheText() throws SparkException, IOException {
+
+        SparkStringValidator name = new SparkStringSchema("Name").required().maxLength(20).compile();
+        assertEquals("Zoë", name.validate(new ByteArrayInputStream("Zoë".getBytes(StandardCharsets.UTF_8))));
+        assertEquals("John", name.validate(new StringReader("John")));
+        try {
+            name.validate(new StringReader(""));
+            fail("An empty input passed");
+        } catch (SparkRuleException e) {
+            assertEquals("required", e.getRule());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void streamsNeedAMaxLength() throws IOException {
+
+        new SparkStringSchema("Name").required().compile().check(new Endless());
+    }
+}
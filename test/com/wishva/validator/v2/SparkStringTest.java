@@ -0,0 +1,181 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2;
+
+import com.wishva.validator.SparkException;
+import com.wishva.validator.SparkRegex;
+import com.wishva.validator.SparkRuleException;
+import java.lang.management.ManagementFactory;
+import java.util.regex.Pattern;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author vishv
+ */
+public class SparkStringTest {
+
+    private static final SparkStringSet COLORS = SparkStringSet.of("red", "green", "blue");
+    private static final SparkDictionary BLOCKED = SparkDictionary.of("admin", "root");
+
+    /**
+     * One rule, applied by the fluent chain and declared on a schema.
+     */
+    private interface Rule {
+
+        void apply(SparkString input) throws SparkException;
+
+        void declare(SparkStringSchema schema);
+    }
+
+    private static Rule rule(final String code, final Fluent fluent, final Declared declared) {
+
+        return new Rule() {
+            @Override
+            public void apply(SparkString input) throws SparkException {
+                fluent.apply(input);
+            }
+
+            @Override
+            public void declare(SparkStringSchema schema) {
+                declared.apply(schema);
+            }
+
+            @Override
+            public String toString() {
+                return code;
+            }
+        };
+    }
+
+    private interface Fluent {
+
+        void apply(SparkString input) throws SparkException;
+    }
+
+    private interface Declared {
+
+        void apply(SparkStringSchema schema);
+    }
+
+    private static final Rule[] RULES = {
+        rule("required", s -> s.required("x"), s -> s.required("x")),
+        rule("equals", s -> s.equals("red", "x"), s -> s.equals("red", "x")),
+        rule("equalsNull", s -> s.equals(null, "x"), s -> s.equals(null, "x")),
+        rule("minLength", s -> s.minLength(3), s -> s.minLength(3)),
+        rule("maxLength", s -> s.maxLength(4, "x"), s -> s.maxLength(4, "x")),
+        rule("minCodePoints", s -> s.minLength(2, SparkLength.CODE_POINTS, "x"), s -> s.minLength(2, SparkLength.CODE_POINTS, "x")),
+        rule("maxBytes", s -> s.maxLength(4, SparkLength.UTF8_BYTES, "x"), s -> s.maxLength(4, SparkLength.UTF8_BYTES, "x")),
+        rule("maxGraphemes", s -> s.maxLength(3, SparkLength.GRAPHEMES, "x"), s -> s.maxLength(3, SparkLength.GRAPHEMES, "x")),
+        rule("ascii", s -> s.ascii(), s -> s.ascii()),
+        rule("digits", s -> s.digits("x"), s -> s.digits("x")),
+        rule("alphanumeric", s -> s.alphanumeric(), s -> s.alphanumeric()),
+        rule("noControlChars", s -> s.noControlChars(), s -> s.noControlChars()),
+        rule("oneOf", s -> s.oneOf(COLORS), s -> s.oneOf(COLORS)),
+        rule("noneOf", s -> s.noneOf(COLORS, "x"), s -> s.noneOf(COLORS, "x")),
+        rule("containsNone", s -> s.containsNone(BLOCKED), s -> s.containsNone(BLOCKED)),
+        rule("containsAny", s -> s.containsAny(BLOCKED, "x"), s -> s.containsAny(BLOCKED, "x")),
+        rule("regex", s -> s.regex("[a-z]+"), s -> s.regex("[a-z]+")),
+        rule("pattern", s -> s.regex(Pattern.compile("r.*"), "x"), s -> s.regex(Pattern.compile("r.*"), "x")),
+        rule("safeRegex", s -> s.safeRegex("[a-z0-9]+"), s -> s.safeRegex("[a-z0-9]+")),
+        rule("sparkRegex", s -> s.regex(SparkRegex.compile("b.+")), s -> s.regex(SparkRegex.compile("b.+")))
+    };
+
+    private static final String[] INPUTS = {
+        null, "", " ", "red", "green", "blue", "re", "Red", "root", "xadminx", "12345", "ab12",
+        "a\tb", "é", "ééé", "😀😀", "éé", "plain words"
+    };
+
+    @Test
+    public void fluentRulesAgreeWithCompiledSchemas() {
+
+        for (Rule rule : RULES) {
+            SparkStringSchema schema = new SparkStringSchema("Field");
+            rule.declare(schema);
+            SparkStringValidator validator = schema.compile();
+            for (String input : INPUTS) {
+                SparkResult expected = validator.check(input);
+                try {
+                    rule.apply(new SparkString("Field", input));
+                    assertTrue(rule + " passed " + input, expected.isValid());
+                } catch (SparkException e) {
+                    assertEquals(rule + " failed " + input, expected.errorCodes().get(0), ((SparkRuleException) e).getRule());
+                    assertEquals(expected.firstMessage(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void failuresUseTheRuleArguments() throws SparkException {
+
+        try {
+            new SparkString("Name", "ab").minLength(3);
+            fail("A short name passed");
+        } catch (SparkRuleException e) {
+            assertEquals("minLength", e.getRule());
+            assertEquals("Name must include more than 3 characters!", e.getMessage());
+        }
+        try {
+            new SparkString("Name", "ab").oneOf(null);
+            fail("A null set was accepted");
+        } catch (IllegalArgumentException e) {
+            assertEquals("values cannot be null", e.getMessage());
+        }
+        try {
+            new SparkString("Name", (String) null).minLength(3, null, "x");
+            fail("A null mode was accepted");
+        } catch (IllegalArgumentException e) {
+            assertEquals("mode cannot be null", e.getMessage());
+        }
+    }
+
+    @Test
+    public void passingInputsDoNotAllocate() throws SparkException {
+
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+
+        SparkString text = new SparkString("Code", "abc123");
+        SparkInt number = new SparkInt("Age", 30);
+        SparkDouble decimal = new SparkDouble("Score", 2.5);
+        long id = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(id);
+        for (int i = 0; i < 100000; i++) {
+            text.required().minLength(3).maxLength(10, "too long").alphanumeric().noneOf(COLORS).containsNone(BLOCKED);
+            number.min(18).max(120, "too old");
+            decimal.min(0.0).max(5.0);
+        }
+        long allocated = threads.getThreadAllocatedBytes(id) - before;
+
+        // One rule per call would be several megabytes.
+        assertTrue(allocated + " bytes", allocated < 100000);
+    }
+}
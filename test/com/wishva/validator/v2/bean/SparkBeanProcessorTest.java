@@ -0,0 +1,235 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2.bean;
+
+import com.wishva.validator.SparkException;
+import com.wishva.validator.v2.SparkForm;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Compiles beans with {@link SparkBeanProcessor} and runs the generated
+ * validators.
+ *
+ * @author vishv
+ */
+public class SparkBeanProcessorTest {
+
+    private static final String SIGN_UP = "package demo;\n"
+            + "import com.wishva.validator.v2.bean.*;\n"
+            + "public class SignUp {\n"
+            + "    @Required @Length(min = 3, max = 8, message = \"Bad user name\") public String user;\n"
+            + "    @Required @Email private String email;\n"
+            + "    @DisplayName(\"Age\") @Range(min = 18, max = 120) public int age;\n"
+            + "    @Range(max = 1.5) public Double score;\n"
+            + "    @Pattern(value = \"[a-z]+(?:-[a-z]+)*\", safe = true) public String slug;\n"
+            + "    public String getEmail() { return email; }\n"
+            + "    public void setEmail(String email) { this.email = email; }\n"
+            + "}\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void generatedValidatorsMatchTheReflectiveOne() throws Exception {
+
+        ClassLoader loader = compile("demo/SignUp.java", SIGN_UP);
+        Class<?> beanType = loader.loadClass("demo.SignUp");
+        Class<?> generated = loader.loadClass("demo.SignUpSparkValidator");
+
+        Object valid = bean(beanType, "john", "john@example.com", 18, null, "my-page");
+        Object invalid = bean(beanType, "jo", "not an email", 12, 2.0, "Page");
+        Object missing = bean(beanType, null, null, 30, 1.5, null);
+
+        @SuppressWarnings("unchecked")
+        SparkBeanValidator<Object> reflective = (SparkBeanValidator<Object>) SparkBeanValidator.of(beanType);
+        for (Object bean : Arrays.asList(valid, invalid, missing)) {
+            SparkForm expected = reflective.check(bean);
+            SparkForm actual = (SparkForm) call(generated, "check", beanType, bean);
+            assertEquals(expected.messages(), actual.messages());
+            assertEquals(reflective.isValid(bean), call(generated, "isValid", beanType, bean));
+        }
+
+        assertEquals(Collections.singletonList("Age must be greater than 18!"),
+                ((SparkForm) call(generated, "check", beanType, invalid)).messages().get("Age"));
+        try {
+            call(generated, "validate", beanType, invalid);
+            fail("An invalid bean passed");
+        } catch (SparkException e) {
+            assertEquals("Bad user name", e.getMessage());
+        }
+    }
+
+    @Test
+    public void nullBeansAreRejected() throws Exception {
+
+        ClassLoader loader = compile("demo/SignUp.java", SIGN_UP);
+        Class<?> beanType = loader.loadClass("demo.SignUp");
+        Class<?> generated = loader.loadClass("demo.SignUpSparkValidator");
+
+        for (String name : new String[]{"validate", "isValid", "check"}) {
+            try {
+                call(generated, name, beanType, null);
+                fail(name + " accepted a null bean");
+            } catch (IllegalArgumentException e) {
+                assertEquals("bean cannot be null", e.getMessage());
+            }
+        }
+        try {
+            generated.getMethod("check", beanType, SparkForm.class).invoke(null, null, new SparkForm());
+            fail("check accepted a null bean");
+        } catch (InvocationTargetException e) {
+            assertEquals("bean cannot be null", e.getCause().getMessage());
+        }
+    }
+
+    @Test
+    public void rulesWithoutMessagesCompile() throws Exception {
+
+        ClassLoader loader = compile("demo/Password.java", "package demo;\n"
+                + "import com.wishva.validator.v2.bean.*;\n"
+                + "public class Password {\n"
+                + "    @Required @Length(min = 8, max = 64) @Pattern(\".*[0-9].*\") public String value;\n"
+                + "    @Range(min = 1) public int version;\n"
+                + "}\n");
+        Class<?> beanType = loader.loadClass("demo.Password");
+        Class<?> generated = loader.loadClass("demo.PasswordSparkValidator");
+
+        Object bean = beanType.getConstructor().newInstance();
+        beanType.getField("value").set(bean, "short1");
+        beanType.getField("version").setInt(bean, 1);
+        assertEquals(Collections.singletonList("value must include more than 8 characters!"),
+                ((SparkForm) call(generated, "check", beanType, bean)).messages().get("value"));
+
+        beanType.getField("value").set(bean, "long enough 1");
+        assertEquals(Boolean.TRUE, call(generated, "isValid", beanType, bean));
+    }
+
+    @Test
+    public void unsupportedFieldsAreCompileErrors() throws Exception {
+
+        List<String> errors = errors("demo/Broken.java", "package demo;\n"
+                + "import com.wishva.validator.v2.bean.*;\n"
+                + "public class Broken {\n"
+                + "    @Email public int notAString;\n"
+                + "}\n");
+        assertEquals(1, errors.size());
+        assertTrue(errors.get(0), errors.get(0).startsWith("@Email is not supported on"));
+    }
+
+    @Test
+    public void invisibleFieldsAreCompileErrors() throws Exception {
+
+        List<String> errors = errors("demo/Hidden.java", "package demo;\n"
+                + "import com.wishva.validator.v2.bean.*;\n"
+                + "public class Hidden {\n"
+                + "    @Required private String secret;\n"
+                + "}\n");
+        assertEquals(1, errors.size());
+        assertTrue(errors.get(0), errors.get(0).endsWith("is not visible to HiddenSparkValidator and has no getter"));
+    }
+
+    private ClassLoader compile(String path, String source) throws IOException {
+
+        List<String> errors = errors(path, source);
+        assertTrue(errors.toString(), errors.isEmpty());
+        return new URLClassLoader(new URL[]{new File(this.folder.getRoot(), "classes").toURI().toURL()},
+                getClass().getClassLoader());
+    }
+
+    private List<String> errors(String path, String source) throws IOException {
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertNotNull("Tests must run on a JDK", compiler);
+
+        File file = new File(this.folder.getRoot(), "src/" + path);
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), source.getBytes(StandardCharsets.UTF_8));
+        File classes = new File(this.folder.getRoot(), "classes");
+        classes.mkdirs();
+
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager files = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+            List<String> options = Arrays.asList(
+                    "-classpath", System.getProperty("java.class.path"),
+                    "-processor", SparkBeanProcessor.class.getName(),
+                    "-d", classes.getPath());
+            compiler.getTask(null, files, diagnostics, options, null, files.getJavaFileObjects(file)).call();
+        }
+
+        List<String> errors = new ArrayList<>();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                errors.add(diagnostic.getMessage(Locale.ROOT));
+            }
+        }
+        return errors;
+    }
+
+    private static Object bean(Class<?> type, String user, String email, int age, Double score, String slug)
+            throws ReflectiveOperationException {
+
+        Object bean = type.getConstructor().newInstance();
+        type.getField("user").set(bean, user);
+        type.getMethod("setEmail", String.class).invoke(bean, email);
+        type.getField("age").setInt(bean, age);
+        type.getField("score").set(bean, score);
+        type.getField("slug").set(bean, slug);
+        return bean;
+    }
+
+    private static Object call(Class<?> generated, String name, Class<?> parameter, Object bean) throws Exception {
+
+        Method method = generated.getMethod(name, parameter);
+        try {
+            return method.invoke(null, bean);
+        } catch (InvocationTargetException e) {
+            throw (Exception) e.getCause();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 wishva.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wishva.validator.v2.bean;
+
+import com.wishva.validator.SparkException;
+import com.wishva.validator.SparkRuleException;
+import com.wishva.validator.v2.SparkForm;
+import java.util.Arrays;
+import java.util.Collections;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ *
+ * @author vishv
+ */
+public class SparkBeanValidatorTest {
+
+    static class Account {
+
+        @Required
+        @Length(min = 3, max = 8, message = "Bad user name")
+        String user;
+
+        @Required
+        @Email
+        private String email;
+
+        String getEmail() {
+
+            return this.email;
+        }
+    }
+
+    static class SignUp extends Account {
+
+        @DisplayName("Age")
+        @Range(min = 18, max = 120)
+        private int age;
+
+        @Range(max = 1.5)
+        Double score;
+
+        @Required
+        Integer referrals;
+
+        @Pattern(value = "[a-z]+(?:-[a-z]+)*", safe = true)
+        String slug;
+
+        SignUp(String user, String email, int age, Double score, Integer referrals, String slug) {
+
+            ((Account) this).user = user;
+            ((Account) this).email = email;
+            this.age = age;
+            this.score = score;
+            this.referrals = referrals;
+            this.slug = slug;
+        }
+
+        int getAge() {
+
+            return this.age;
+        }
+    }
+
+    private static final SparkBeanValidator<SignUp> SIGN_UP = SparkBeanValidator.of(SignUp.class);
+
+    @Test
+    public void validatorsAreCachedPerClass() {
+
+        assertSame(SIGN_UP, SparkBeanValidator.of(SignUp.class));
+        assertEquals(SignUp.class, SIGN_UP.type());
+    }
+
+    @Test
+    public void validBeansPass() throws SparkException {
+
+        SignUp bean = new SignUp("john", "john@example.com", 18, null, 0, "my-page");
+        assertTrue(SIGN_UP.isValid(bean));
+        assertSame(bean, SIGN_UP.validate(bean));
+        assertTrue(SIGN_UP.check(bean).isValid());
+    }
+
+    @Test
+    public void validateStopsAtTheFirstFieldInDeclarationOrder() {
+
+        SignUp bean = new SignUp("jo", "not an email", 12, 2.0, null, "Page");
+        try {
+            SIGN_UP.validate(bean);
+            fail("An invalid bean passed");
+        } catch (SparkException e) {
+            assertEquals("Bad user name", e.getMessage());
+            assertEquals("minLength", ((SparkRuleException) e).getRule());
+            assertEquals("user", ((SparkRuleException) e).getField());
+        }
+        assertFalse(SIGN_UP.isValid(bean));
+    }
+
+    @Test
+    public void checkReportsEveryField() {
+
+        SparkForm form = SIGN_UP.check(new SignUp("jo", "not an email", 12, 2.0, null, "Page"));
+
+        assertEquals(Arrays.asList("user", "email", "Age", "score", "referrals", "slug"),
+                Arrays.asList(form.messages().keySet().toArray()));
+        assertEquals(Collections.singletonList("Age must be greater than 18!"), form.messages().get("Age"));
+        assertEquals(Collections.singletonList("referrals cannot be empty!"), form.messages().get("referrals"));
+    }
+
+    @Test
+    public void boxedFieldsMayBeNullUnlessRequired() {
+
+        SignUp bean = new SignUp("john", "john@example.com", 30, null, 1, null);
+        assertTrue(SIGN_UP.isValid(bean));
+        bean.score = 1.5;
+        assertTrue(SIGN_UP.isValid(bean));
+        bean.score = 1.51;
+        assertFalse(SIGN_UP.isValid(bean));
+    }
+
+    @Test
+    public void unannotatedClassesHaveNoRules() {
+
+        assertTrue(SparkBeanValidator.of(Object.class).isValid(new Object()));
+        assertTrue(SparkBeanValidator.of(String.class).check("").isValid());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nullBeansAreRejected() {
+
+        SIGN_UP.isValid(null);
+    }
+}